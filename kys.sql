@@ -30,7 +30,8 @@ SET time_zone = "+00:00";
 CREATE TABLE `accounts` (
   `id` int(11) NOT NULL,
   `name` varchar(100) NOT NULL,
-  `balance` decimal(15,2) NOT NULL DEFAULT 0.00
+  `balance` decimal(15,2) NOT NULL DEFAULT 0.00,
+  `currency` char(3) NOT NULL DEFAULT 'IDR'
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
 
 --
@@ -43,6 +44,41 @@ INSERT INTO `accounts` (`id`, `name`, `balance`) VALUES
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `applied_writes`
+--
+
+CREATE TABLE `applied_writes` (
+  `idempotency_key` char(36) NOT NULL,
+  `applied_at` timestamp NOT NULL DEFAULT current_timestamp()
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `archive_state`
+--
+
+CREATE TABLE `archive_state` (
+  `id` tinyint(4) NOT NULL,
+  `archived_through` date NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `budgets`
+--
+
+CREATE TABLE `budgets` (
+  `id` int(11) NOT NULL,
+  `category_id` int(11) NOT NULL,
+  `period` enum('MONTHLY','YEARLY') NOT NULL DEFAULT 'MONTHLY',
+  `amount` decimal(15,2) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `categories`
 --
@@ -64,6 +100,72 @@ INSERT INTO `categories` (`id`, `name`, `description`, `type`) VALUES
 
 -- --------------------------------------------------------
 
+--
+-- Table structure for table `category_rules`
+--
+
+CREATE TABLE `category_rules` (
+  `id` int(11) NOT NULL,
+  `pattern` varchar(255) NOT NULL,
+  `match_type` enum('KEYWORD','REGEX') NOT NULL DEFAULT 'KEYWORD',
+  `min_amount` decimal(15,2) DEFAULT NULL,
+  `max_amount` decimal(15,2) DEFAULT NULL,
+  `category_id` int(11) NOT NULL,
+  `priority` int(11) NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `changelog`
+--
+
+CREATE TABLE `changelog` (
+  `seq` bigint(20) NOT NULL,
+  `entity` enum('TRANSACTION','ACCOUNT','CATEGORY') NOT NULL,
+  `entity_id` int(11) NOT NULL,
+  `op` enum('INSERT','UPDATE','DELETE','ARCHIVE') NOT NULL,
+  `before_data` text DEFAULT NULL,
+  `after_data` text DEFAULT NULL,
+  `reverts_seq` bigint(20) DEFAULT NULL,
+  `changed_at` timestamp NOT NULL DEFAULT current_timestamp()
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `ledger_version`
+--
+
+CREATE TABLE `ledger_version` (
+  `id` tinyint(4) NOT NULL,
+  `version` bigint(20) NOT NULL,
+  `epoch` bigint(20) NOT NULL DEFAULT 0
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci;
+
+-- --------------------------------------------------------
+
+--
+-- Table structure for table `transactions_archive`
+--
+
+CREATE TABLE `transactions_archive` (
+  `id` int(11) NOT NULL,
+  `description` varchar(255) NOT NULL,
+  `amount` decimal(15,2) NOT NULL,
+  `date` date NOT NULL,
+  `type` enum('INCOME','EXPENSE') NOT NULL,
+  `category_id` int(11) NOT NULL,
+  `account_id` int(11) NOT NULL,
+  PRIMARY KEY (`id`,`date`),
+  KEY `idx_archive_category` (`category_id`),
+  KEY `idx_archive_account` (`account_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1 COLLATE=latin1_swedish_ci
+ PARTITION BY RANGE (year(`date`))
+(PARTITION `pmax` VALUES LESS THAN MAXVALUE ENGINE = InnoDB);
+
+-- --------------------------------------------------------
+
 --
 -- Table structure for table `transactions`
 --
@@ -96,19 +198,59 @@ INSERT INTO `transactions` (`id`, `description`, `amount`, `date`, `type`, `cate
 ALTER TABLE `accounts`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `applied_writes`
+--
+ALTER TABLE `applied_writes`
+  ADD PRIMARY KEY (`idempotency_key`);
+
+--
+-- Indexes for table `archive_state`
+--
+ALTER TABLE `archive_state`
+  ADD PRIMARY KEY (`id`);
+
+--
+-- Indexes for table `budgets`
+--
+ALTER TABLE `budgets`
+  ADD PRIMARY KEY (`id`),
+  ADD UNIQUE KEY `category_period` (`category_id`,`period`);
+
 --
 -- Indexes for table `categories`
 --
 ALTER TABLE `categories`
   ADD PRIMARY KEY (`id`);
 
+--
+-- Indexes for table `category_rules`
+--
+ALTER TABLE `category_rules`
+  ADD PRIMARY KEY (`id`),
+  ADD KEY `category_id` (`category_id`);
+
+--
+-- Indexes for table `changelog`
+--
+ALTER TABLE `changelog`
+  ADD PRIMARY KEY (`seq`),
+  ADD KEY `idx_changelog_entity` (`entity`,`entity_id`);
+
+--
+-- Indexes for table `ledger_version`
+--
+ALTER TABLE `ledger_version`
+  ADD PRIMARY KEY (`id`);
+
 --
 -- Indexes for table `transactions`
 --
 ALTER TABLE `transactions`
   ADD PRIMARY KEY (`id`),
   ADD KEY `category_id` (`category_id`),
-  ADD KEY `account_id` (`account_id`);
+  ADD KEY `account_id` (`account_id`),
+  ADD KEY `idx_transactions_date` (`date`);
 
 --
 -- AUTO_INCREMENT for dumped tables
@@ -120,12 +262,30 @@ ALTER TABLE `transactions`
 ALTER TABLE `accounts`
   MODIFY `id` int(11) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=10;
 
+--
+-- AUTO_INCREMENT for table `budgets`
+--
+ALTER TABLE `budgets`
+  MODIFY `id` int(11) NOT NULL AUTO_INCREMENT;
+
+--
+-- AUTO_INCREMENT for table `category_rules`
+--
+ALTER TABLE `category_rules`
+  MODIFY `id` int(11) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `categories`
 --
 ALTER TABLE `categories`
   MODIFY `id` int(11) NOT NULL AUTO_INCREMENT, AUTO_INCREMENT=12;
 
+--
+-- AUTO_INCREMENT for table `changelog`
+--
+ALTER TABLE `changelog`
+  MODIFY `seq` bigint(20) NOT NULL AUTO_INCREMENT;
+
 --
 -- AUTO_INCREMENT for table `transactions`
 --
@@ -136,6 +296,18 @@ ALTER TABLE `transactions`
 -- Constraints for dumped tables
 --
 
+--
+-- Constraints for table `budgets`
+--
+ALTER TABLE `budgets`
+  ADD CONSTRAINT `budgets_ibfk_1` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE;
+
+--
+-- Constraints for table `category_rules`
+--
+ALTER TABLE `category_rules`
+  ADD CONSTRAINT `category_rules_ibfk_1` FOREIGN KEY (`category_id`) REFERENCES `categories` (`id`) ON DELETE CASCADE;
+
 --
 -- Constraints for table `transactions`
 --
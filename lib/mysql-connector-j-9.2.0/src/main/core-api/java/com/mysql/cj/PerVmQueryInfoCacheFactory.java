@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.conf.PropertyDefinitions;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.util.TinyLfuCache;
+
+/**
+ * {@link CacheAdapterFactory} whose caches all share one VM-wide {@link TinyLfuCache} of {@link QueryInfo}, so connections running the same SQL parse it
+ * once and hold one copy of the result.
+ *
+ * Entries are keyed by the SQL together with everything {@link QueryInfo} parsing depends on: the 'characterEncoding', 'rewriteBatchedStatements' and
+ * 'dontCheckOnDuplicateKeyUpdateInSQL' properties and whether the server session has NO_BACKSLASH_ESCAPES set. Connections that differ in any of them get
+ * separate entries. The cache holds up to 4096 entries, or as many as the 'com.mysql.cj.perVmQueryInfoCacheSize' system property says; SQL longer than
+ * 'prepStmtCacheSqlLimit' is never cached, so the memory used is bounded by both.
+ */
+public class PerVmQueryInfoCacheFactory implements CacheAdapterFactory<String, QueryInfo> {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    static final TinyLfuCache<Key, QueryInfo> queryInfoCache = new TinyLfuCache<>(
+            Math.max(0, Integer.getInteger(PropertyDefinitions.SYSP_perVmQueryInfoCacheSize, DEFAULT_MAXIMUM_SIZE)));
+
+    private static final LongAdder bytesSaved = new LongAdder();
+
+    @Override
+    public CacheAdapter<String, QueryInfo> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize) {
+        return new PerVmQueryInfoCache(maxKeySize);
+    }
+
+    /**
+     * @return lookups answered from the shared cache, each one a parse some connection did not repeat
+     */
+    public static long getHitCount() {
+        return queryInfoCache.getHitCount();
+    }
+
+    public static long getMissCount() {
+        return queryInfoCache.getMissCount();
+    }
+
+    public static double getHitRate() {
+        return queryInfoCache.getHitRate();
+    }
+
+    public static int getSize() {
+        return queryInfoCache.size();
+    }
+
+    /**
+     * @return estimated bytes of {@link QueryInfo} that hits spared connections from building and keeping in per-connection caches
+     */
+    public static long getEstimatedBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Drops every shared entry.
+     */
+    public static void clear() {
+        queryInfoCache.clear();
+    }
+
+    /**
+     * Rough retained size of a {@link QueryInfo}: the SQL it was parsed from (kept by the statements using it), its static SQL parts and per-placeholder
+     * bookkeeping.
+     */
+    static long estimateSize(String sql, QueryInfo queryInfo) {
+        long size = 128 + 2L * sql.length();
+        for (byte[] part : queryInfo.getStaticSqlParts()) {
+            size += 16 + part.length;
+        }
+        return size + 16L * queryInfo.getNumberOfPlaceholders();
+    }
+
+    /**
+     * The view of the shared cache handed to one connection. It must be bound to that connection's session before use; until then it caches nothing.
+     */
+    public static class PerVmQueryInfoCache implements CacheAdapter<String, QueryInfo> {
+
+        private final int maxKeySize;
+        private volatile Session session;
+
+        PerVmQueryInfoCache(int maxKeySize) {
+            this.maxKeySize = maxKeySize;
+        }
+
+        public void setSession(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public QueryInfo get(String sql) {
+            Key key = keyFor(sql);
+            if (key == null) {
+                return null;
+            }
+            QueryInfo queryInfo = queryInfoCache.get(key);
+            if (queryInfo != null) {
+                bytesSaved.add(estimateSize(sql, queryInfo));
+            }
+            return queryInfo;
+        }
+
+        @Override
+        public void put(String sql, QueryInfo value) {
+            Key key = keyFor(sql);
+            if (key != null) {
+                queryInfoCache.put(key, value);
+            }
+        }
+
+        /**
+         * Does nothing: entries are shared with other connections, and a {@link QueryInfo} depends only on its key, so it never goes stale.
+         */
+        @Override
+        public void invalidate(String key) {
+        }
+
+        @Override
+        public void invalidateAll(Set<String> keys) {
+        }
+
+        @Override
+        public void invalidateAll() {
+        }
+
+        private Key keyFor(String sql) {
+            Session s = this.session;
+            if (sql == null || sql.length() > this.maxKeySize || s == null || s.getServerSession() == null) {
+                return null;
+            }
+            PropertySet propertySet = s.getPropertySet();
+            int flags = (s.getServerSession().isNoBackslashEscapesSet() ? 1 : 0)
+                    | (propertySet.getBooleanProperty(PropertyKey.rewriteBatchedStatements).getValue() ? 2 : 0)
+                    | (propertySet.getBooleanProperty(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL).getValue() ? 4 : 0);
+            return new Key(sql, propertySet.getStringProperty(PropertyKey.characterEncoding).getValue(), flags);
+        }
+
+    }
+
+    static final class Key {
+
+        private final String sql;
+        private final String encoding;
+        private final int flags;
+        private final int hashCode;
+
+        Key(String sql, String encoding, int flags) {
+            this.sql = sql;
+            this.encoding = encoding;
+            this.flags = flags;
+            this.hashCode = (sql.hashCode() * 31 + Objects.hashCode(encoding)) * 31 + flags;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hashCode == other.hashCode && this.flags == other.flags && this.sql.equals(other.sql) && Objects.equals(this.encoding, other.encoding);
+        }
+
+    }
+
+}
@@ -98,6 +98,7 @@ public class QueryInfo {
         this.sql = sql;
         this.encoding = encoding;
 
+        // PerVmQueryInfoCacheFactory shares parse results between connections that agree on these settings and the encoding
         boolean noBackslashEscapes = session.getServerSession().isNoBackslashEscapesSet();
         boolean rewriteBatchedStatements = session.getPropertySet().getBooleanProperty(PropertyKey.rewriteBatchedStatements).getValue();
         boolean dontCheckOnDuplicateKeyUpdateInSQL = session.getPropertySet().getBooleanProperty(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL).getValue();
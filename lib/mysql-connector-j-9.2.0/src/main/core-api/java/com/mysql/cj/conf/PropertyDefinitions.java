@@ -48,6 +48,7 @@ public class PropertyDefinitions {
      * Operational system properties.
      */
     public static final String SYSP_disableAbandonedConnectionCleanup = "com.mysql.cj.disableAbandonedConnectionCleanup";
+    public static final String SYSP_perVmQueryInfoCacheSize = "com.mysql.cj.perVmQueryInfoCacheSize";
 
     /*
      * Testsuite system properties.
@@ -324,6 +325,15 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.useCompression, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useCompression"), "3.0.17", CATEGORY_NETWORK, Integer.MIN_VALUE),
 
+                new StringPropertyDefinition(PropertyKey.compressionAlgorithms, "zlib", RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.compressionAlgorithms"), "9.2.0", CATEGORY_NETWORK, Integer.MIN_VALUE),
+
+                new IntegerPropertyDefinition(PropertyKey.zstdCompressionLevel, 3, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.zstdCompressionLevel"), "9.2.0", CATEGORY_NETWORK, Integer.MIN_VALUE, 1, 22),
+
+                new BooleanPropertyDefinition(PropertyKey.adaptiveCompression, DEFAULT_VALUE_FALSE, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.adaptiveCompression"), "9.2.0", CATEGORY_NETWORK, Integer.MIN_VALUE),
+
                 new IntegerPropertyDefinition(PropertyKey.maxAllowedPacket, 65535, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.maxAllowedPacket"), "5.1.8", CATEGORY_NETWORK, Integer.MIN_VALUE),
 
@@ -735,6 +745,12 @@ public class PropertyDefinitions {
                 new BooleanPropertyDefinition(PropertyKey.useReadAheadInput, DEFAULT_VALUE_TRUE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.useReadAheadInput"), "3.1.5", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
+                new BooleanPropertyDefinition(PropertyKey.reuseRowPacketBuffer, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.reuseRowPacketBuffer"), "9.2.0", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
+
+                new BooleanPropertyDefinition(PropertyKey.omitResultSetMetadata, DEFAULT_VALUE_FALSE, RUNTIME_NOT_MODIFIABLE,
+                        Messages.getString("ConnectionProperties.omitResultSetMetadata"), "9.2.0", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
+
                 new BooleanPropertyDefinition(PropertyKey.dontCheckOnDuplicateKeyUpdateInSQL, DEFAULT_VALUE_FALSE, RUNTIME_MODIFIABLE,
                         Messages.getString("ConnectionProperties.dontCheckOnDuplicateKeyUpdateInSQL"), "5.1.32", CATEGORY_PERFORMANCE, Integer.MIN_VALUE),
 
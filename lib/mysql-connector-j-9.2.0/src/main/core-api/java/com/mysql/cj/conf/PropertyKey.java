@@ -52,6 +52,7 @@ public enum PropertyKey {
     /** The database value from the properties instance passed to the driver. */
     DBNAME("dbname", false), //
 
+    adaptiveCompression("adaptiveCompression", true), //
     allowLoadLocalInfile("allowLoadLocalInfile", true), //
     allowLoadLocalInfileInPath("allowLoadLocalInfileInPath", true), //
     allowMultiQueries("allowMultiQueries", true), //
@@ -86,6 +87,7 @@ public enum PropertyKey {
     clobberStreamingResults("clobberStreamingResults", true), //
     clobCharacterEncoding("clobCharacterEncoding", true), //
     compensateOnDuplicateKeyUpdateCounts("compensateOnDuplicateKeyUpdateCounts", true), //
+    compressionAlgorithms("compressionAlgorithms", true), //
     connectionAttributes("connectionAttributes", true), //
     connectionCollation("connectionCollation", true), //
     connectionLifecycleInterceptors("connectionLifecycleInterceptors", true), //
@@ -165,6 +167,7 @@ public enum PropertyKey {
     nullDatabaseMeansCurrent("nullDatabaseMeansCurrent", "nullCatalogMeansCurrent", true), //
     ociConfigFile("ociConfigFile", true), //
     ociConfigProfile("ociConfigProfile", true), //
+    omitResultSetMetadata("omitResultSetMetadata", true), //
     openTelemetry("openTelemetry", true), //
     overrideSupportsIntegrityEnhancementFacility("overrideSupportsIntegrityEnhancementFacility", true), //
     packetDebugBufferSize("packetDebugBufferSize", true), //
@@ -197,6 +200,7 @@ public enum PropertyKey {
     resourceId("resourceId", true), //
     resultSetSizeThreshold("resultSetSizeThreshold", true), //
     retriesAllDown("retriesAllDown", true), //
+    reuseRowPacketBuffer("reuseRowPacketBuffer", true), //
     rewriteBatchedStatements("rewriteBatchedStatements", true), //
     rollbackOnPooledClose("rollbackOnPooledClose", true), //
     scrollTolerantForwardOnly("scrollTolerantForwardOnly", true), //
@@ -278,7 +282,8 @@ public enum PropertyKey {
     xdevapiTlsVersions("xdevapi.tls-versions", "xdevapiTlsVersions", true), //
 
     yearIsDateType("yearIsDateType", true), //
-    zeroDateTimeBehavior("zeroDateTimeBehavior", true) //
+    zeroDateTimeBehavior("zeroDateTimeBehavior", true), //
+    zstdCompressionLevel("zstdCompressionLevel", true) //
     ;
 
     private String keyName;
@@ -69,4 +69,126 @@ public interface ValueDecoder {
 
     <T> T decodeYear(byte[] bytes, int offset, int length, ValueFactory<T> vf);
 
+    /*
+     * Primitive decoders. They return the intermediate representation of integer and floating point values directly, so that the primitive getters of result
+     * sets don't need a ValueFactory, which would box every value. Unsigned BIGINT has no primitive decoder since its values may not fit in a long.
+     */
+
+    /**
+     * Decodes a TINYINT value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeInt1(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a TINYINT UNSIGNED value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeUInt1(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a SMALLINT value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeInt2(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a SMALLINT UNSIGNED value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeUInt2(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a INT or MEDIUMINT value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeInt4(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a INT UNSIGNED value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeUInt4(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a BIGINT value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    long decodeInt8(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a FLOAT value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    double decodeFloat(byte[] bytes, int offset, int length);
+
+    /**
+     * Decodes a DOUBLE value.
+     *
+     * @param bytes
+     *            bytes array with result data
+     * @param offset
+     *            offset in array
+     * @param length
+     *            data length
+     * @return value
+     */
+    double decodeDouble(byte[] bytes, int offset, int length);
+
 }
@@ -29,6 +29,15 @@ import com.mysql.cj.protocol.ValueDecoder;
 
 public interface Row extends ProtocolEntity {
 
+    /** {@link #decodePrimitive(int)} result: the column can't be decoded to a primitive, {@link #getValue(int, ValueFactory)} must be used instead. */
+    int PRIMITIVE_NONE = 0;
+    /** {@link #decodePrimitive(int)} result: the value is SQL <code>NULL</code>. */
+    int PRIMITIVE_NULL = 1;
+    /** {@link #decodePrimitive(int)} result: the value is an integer, available from {@link #getDecodedLong()}. */
+    int PRIMITIVE_LONG = 2;
+    /** {@link #decodePrimitive(int)} result: the value is a floating point number, available from {@link #getDecodedDouble()}. */
+    int PRIMITIVE_DOUBLE = 3;
+
     /**
      * Retrieve a value for the given column. This is the main facility to access values from the Row
      * involving {@link ValueDecoder} and {@link ValueFactory} chain. Metadata <i>must</i> be set via
@@ -45,6 +54,39 @@ public interface Row extends ProtocolEntity {
      */
     <T> T getValue(int columnIndex, ValueFactory<T> vf);
 
+    /**
+     * Decode the value of an integer or floating point column without creating any object, for the primitive getters of result sets, which would otherwise
+     * box every value through a {@link ValueFactory}. Updates the 'wasNull' status like {@link #getValue(int, ValueFactory)} does.
+     *
+     * @param columnIndex
+     *            index of column to decode (0-indexed, not JDBC 1-indexed)
+     * @return {@link #PRIMITIVE_LONG} or {@link #PRIMITIVE_DOUBLE}, {@link #PRIMITIVE_NULL}, or {@link #PRIMITIVE_NONE} if the column is of another type or
+     *         the row doesn't support primitive decoding; rows that don't override this method, such as X Protocol rows, always return
+     *         {@link #PRIMITIVE_NONE}, so callers fall back to {@link #getValue(int, ValueFactory)} and {@link #getDecodedLong()} and
+     *         {@link #getDecodedDouble()} are never reached for them
+     */
+    default int decodePrimitive(int columnIndex) {
+        return PRIMITIVE_NONE;
+    }
+
+    /**
+     * Returns the integer value found by the last {@link #decodePrimitive(int)} call that returned {@link #PRIMITIVE_LONG}.
+     *
+     * @return value
+     */
+    default long getDecodedLong() {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
+    /**
+     * Returns the floating point value found by the last {@link #decodePrimitive(int)} call that returned {@link #PRIMITIVE_DOUBLE}.
+     *
+     * @return value
+     */
+    default double getDecodedDouble() {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
     /**
      * Set metadata to enable getValue functionality.
      *
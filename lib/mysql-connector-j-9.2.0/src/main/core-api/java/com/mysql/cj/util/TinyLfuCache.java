@@ -0,0 +1,521 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * A bounded, thread-safe cache with W-TinyLFU eviction.
+ *
+ * Entries live in a {@link ConcurrentHashMap}, so {@link #get(Object)} never blocks. The eviction policy, a small LRU admission window in front of a
+ * segmented LRU (probation and protected), is only touched while holding an internal lock: reads record their hit in a lossy, striped buffer that is
+ * drained by whichever thread next acquires the lock, while writes acquire it directly. An entry leaving the window is admitted to the main space only if
+ * a count-min frequency sketch estimates it to be used more often than the entry it would displace, so a burst of one-off keys cannot flush the keys used
+ * repeatedly.
+ *
+ * Like {@link LRUCache}, this is a {@link Map}; views and bulk operations are weakly consistent snapshots.
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class TinyLfuCache<K, V> extends AbstractMap<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    private static final int RETIRED = 3;
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int MAX_READ_BUFFERS = 16;
+
+    // picks each thread's read buffer; handed out in sequence so concurrent threads spread over all buffers
+    private static final AtomicInteger NEXT_PROBE = new AtomicInteger();
+    private static final ThreadLocal<Integer> PROBE = ThreadLocal.withInitial(NEXT_PROBE::getAndIncrement);
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final int maximumSize;
+    private final int windowMaximum;
+    private final int protectedMaximum;
+    private final BiConsumer<K, V> evictionListener;
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrder<K, V> window = new AccessOrder<>();
+    private final AccessOrder<K, V> probation = new AccessOrder<>();
+    private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+    private final ReadBuffer[] readBuffers;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public TinyLfuCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * @param maximumSize
+     *            the number of entries to keep; 0 disables caching
+     * @param evictionListener
+     *            called, without any lock held, for every entry evicted to respect the size bound; may be null
+     */
+    public TinyLfuCache(int maximumSize, BiConsumer<K, V> evictionListener) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = maximumSize == 0 ? 0 : Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (int) ((maximumSize - this.windowMaximum) * 0.8);
+        this.evictionListener = evictionListener;
+        this.data = new ConcurrentHashMap<>(Math.min(maximumSize, 1 << 16));
+        this.sketch = new FrequencySketch(maximumSize);
+
+        int buffers = Math.min(MAX_READ_BUFFERS, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+        this.readBuffers = new ReadBuffer[buffers];
+        for (int i = 0; i < buffers; i++) {
+            this.readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = this.data.get(key);
+        if (node == null) {
+            this.missCount.increment();
+            return null;
+        }
+        this.hitCount.increment();
+        recordRead(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return this.data.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        List<Node<K, V>> evicted;
+        V previous = null;
+        this.evictionLock.lock();
+        try {
+            drainReadBuffers();
+            Node<K, V> node = this.data.get(key);
+            if (node != null) {
+                previous = node.value;
+                node.value = value;
+                onAccess(node);
+                return previous;
+            }
+            node = new Node<>(key, value);
+            this.data.put(key, node);
+            evicted = onAdd(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+        notifyEvicted(evicted);
+        return previous;
+    }
+
+    @Override
+    public V remove(Object key) {
+        this.evictionLock.lock();
+        try {
+            Node<K, V> node = this.data.remove(key);
+            if (node == null) {
+                return null;
+            }
+            retire(node);
+            return node.value;
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        this.evictionLock.lock();
+        try {
+            drainReadBuffers();
+            for (Node<K, V> node : this.data.values()) {
+                retire(node);
+            }
+            this.data.clear();
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.data.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return Collections.unmodifiableSet(this.data.entrySet().stream().map(e -> new SimpleImmutableEntry<>(e.getKey(), e.getValue().value))
+                .collect(Collectors.toSet()));
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    public long getHitCount() {
+        return this.hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return this.missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return this.evictionCount.sum();
+    }
+
+    /**
+     * @return hits divided by lookups, or 1.0 if there were no lookups yet
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long lookups = hits + getMissCount();
+        return lookups == 0 ? 1.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "TinyLfuCache[size=" + size() + ", maximumSize=" + this.maximumSize + ", hits=" + getHitCount() + ", misses=" + getMissCount()
+                + ", evictions=" + getEvictionCount() + "]";
+    }
+
+    private void recordRead(Node<K, V> node) {
+        ReadBuffer buffer = this.readBuffers[PROBE.get() & this.readBuffers.length - 1];
+        if (buffer.offer(node) && this.evictionLock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : this.readBuffers) {
+            buffer.drainTo(this);
+        }
+    }
+
+    /**
+     * Applies a hit to the policy. Caller holds the eviction lock.
+     */
+    @SuppressWarnings("unchecked")
+    void onAccess(Node<?, ?> accessed) {
+        Node<K, V> node = (Node<K, V>) accessed;
+        if (node.segment == RETIRED) {
+            return;
+        }
+        this.sketch.increment(node.key);
+        switch (node.segment) {
+            case WINDOW:
+                this.window.moveToTail(node);
+                break;
+            case PROBATION:
+                this.probation.remove(node);
+                node.segment = PROTECTED;
+                this.protectedSegment.addToTail(node);
+                while (this.protectedSegment.size > this.protectedMaximum) {
+                    Node<K, V> demoted = this.protectedSegment.head;
+                    this.protectedSegment.remove(demoted);
+                    demoted.segment = PROBATION;
+                    this.probation.addToTail(demoted);
+                }
+                break;
+            default:
+                this.protectedSegment.moveToTail(node);
+                break;
+        }
+    }
+
+    /**
+     * Admits a new node to the window, moves window overflow to probation and evicts down to the size bound. Caller holds the eviction lock.
+     *
+     * @return the evicted nodes, to notify once the lock is released
+     */
+    private List<Node<K, V>> onAdd(Node<K, V> node) {
+        this.sketch.increment(node.key);
+        node.segment = WINDOW;
+        this.window.addToTail(node);
+        while (this.window.size > this.windowMaximum) {
+            Node<K, V> candidate = this.window.head;
+            this.window.remove(candidate);
+            candidate.segment = PROBATION;
+            this.probation.addToTail(candidate);
+        }
+
+        List<Node<K, V>> evicted = null;
+        while (this.window.size + this.probation.size + this.protectedSegment.size > this.maximumSize) {
+            Node<K, V> victim = selectVictim();
+            this.data.remove(victim.key, victim);
+            retire(victim);
+            this.evictionCount.increment();
+            if (evicted == null) {
+                evicted = new ArrayList<>(1);
+            }
+            evicted.add(victim);
+        }
+        return evicted;
+    }
+
+    /**
+     * The W-TinyLFU admission decision: the entry that most recently entered probation competes with the least recently used one, and the one seen less
+     * often is evicted, the newcomer losing ties.
+     */
+    private Node<K, V> selectVictim() {
+        Node<K, V> victim = this.probation.head;
+        Node<K, V> candidate = this.probation.tail;
+        if (victim == null) {
+            return this.protectedSegment.head != null ? this.protectedSegment.head : this.window.head;
+        }
+        if (victim == candidate) {
+            return victim;
+        }
+        return this.sketch.frequency(candidate.key) > this.sketch.frequency(victim.key) ? victim : candidate;
+    }
+
+    private void retire(Node<K, V> node) {
+        switch (node.segment) {
+            case WINDOW:
+                this.window.remove(node);
+                break;
+            case PROBATION:
+                this.probation.remove(node);
+                break;
+            case PROTECTED:
+                this.protectedSegment.remove(node);
+                break;
+            default:
+                return;
+        }
+        node.segment = RETIRED;
+    }
+
+    private void notifyEvicted(List<Node<K, V>> evicted) {
+        if (evicted == null || this.evictionListener == null) {
+            return;
+        }
+        for (Node<K, V> node : evicted) {
+            this.evictionListener.accept(node.key, node.value);
+        }
+    }
+
+    static final class Node<K, V> {
+
+        final K key;
+        volatile V value;
+        int segment;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * Doubly-linked list of nodes in access order, least recently used at the head.
+     */
+    private static final class AccessOrder<K, V> {
+
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void addToTail(Node<K, V> node) {
+            node.prev = this.tail;
+            node.next = null;
+            if (this.tail == null) {
+                this.head = node;
+            } else {
+                this.tail.next = node;
+            }
+            this.tail = node;
+            this.size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                this.head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                this.tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            this.size--;
+        }
+
+        void moveToTail(Node<K, V> node) {
+            if (node != this.tail) {
+                remove(node);
+                addToTail(node);
+            }
+        }
+
+    }
+
+    /**
+     * A small ring of recent hits written without locks. When it is full further hits are dropped: the policy only needs a sample of them.
+     */
+    private static final class ReadBuffer {
+
+        private final AtomicReferenceArray<Node<?, ?>> ring = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        private final AtomicLong writeCount = new AtomicLong();
+        private volatile long readCount;
+
+        /**
+         * @return true if the buffer is full enough that it should be drained
+         */
+        boolean offer(Node<?, ?> node) {
+            long writes = this.writeCount.get();
+            long pending = writes - this.readCount;
+            if (pending < READ_BUFFER_SIZE && this.writeCount.compareAndSet(writes, writes + 1)) {
+                this.ring.lazySet((int) writes & READ_BUFFER_MASK, node);
+                pending++;
+            }
+            return pending >= READ_BUFFER_SIZE / 2;
+        }
+
+        void drainTo(TinyLfuCache<?, ?> cache) {
+            long reads = this.readCount;
+            long writes = this.writeCount.get();
+            for (; reads < writes; reads++) {
+                int index = (int) reads & READ_BUFFER_MASK;
+                Node<?, ?> node = this.ring.get(index);
+                if (node == null) {
+                    break; // claimed but not yet published; picked up by the next drain
+                }
+                this.ring.lazySet(index, null);
+                cache.onAccess(node);
+            }
+            this.readCount = reads;
+        }
+
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four per key, halved every {@code 10 * maximumSize} increments so that old popularity fades. Guarded by the
+     * eviction lock.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int capacity = Integer.highestOneBit(Math.max(2, Math.min(maximumSize, 1 << 20)) - 1) << 1;
+            this.table = new long[capacity];
+            this.tableMask = capacity - 1;
+            this.sampleSize = Math.max(10, 10 * Math.min(maximumSize, 1 << 20));
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int count = (int) (this.table[index] >>> (start + i << 2) & 0xF);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = start + i << 2;
+                long mask = 0xFL << offset;
+                if ((this.table[index] & mask) != mask) {
+                    this.table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++this.additions == this.sampleSize) {
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < this.table.length; i++) {
+                this.table[i] = this.table[i] >>> 1 & RESET_MASK;
+            }
+            this.additions >>>= 1;
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & this.tableMask;
+        }
+
+        private static int spread(int x) {
+            x = (x >>> 16 ^ x) * 0x45d9f3b;
+            x = (x >>> 16 ^ x) * 0x45d9f3b;
+            return x >>> 16 ^ x;
+        }
+
+    }
+
+}
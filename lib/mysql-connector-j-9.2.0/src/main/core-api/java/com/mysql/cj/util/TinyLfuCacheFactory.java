@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.CacheAdapter;
+import com.mysql.cj.CacheAdapterFactory;
+
+/**
+ * {@link CacheAdapterFactory} backed by {@link TinyLfuCache}. Lookups do not take the connection lock passed in, so concurrent users of a connection do
+ * not serialize on cache hits.
+ *
+ * Setting 'queryInfoCacheFactory' to this class also makes the connection use {@link TinyLfuCache} for its other statement and metadata caches.
+ *
+ * @param <V>
+ *            value type
+ */
+public class TinyLfuCacheFactory<V> implements CacheAdapterFactory<String, V> {
+
+    @Override
+    public CacheAdapter<String, V> getInstance(Lock lock, String url, int cacheMaxSize, int maxKeySize) {
+        return new TinyLfuCacheAdapter<>(new TinyLfuCache<>(cacheMaxSize), maxKeySize);
+    }
+
+    public static class TinyLfuCacheAdapter<V> implements CacheAdapter<String, V> {
+
+        private final TinyLfuCache<String, V> cache;
+        private final int maxKeySize;
+
+        public TinyLfuCacheAdapter(TinyLfuCache<String, V> cache, int maxKeySize) {
+            this.cache = cache;
+            this.maxKeySize = maxKeySize;
+        }
+
+        /**
+         * @return the underlying cache, for its hit, miss and eviction statistics
+         */
+        public TinyLfuCache<String, V> getCache() {
+            return this.cache;
+        }
+
+        @Override
+        public V get(String key) {
+            if (key == null || key.length() > this.maxKeySize) {
+                return null;
+            }
+            return this.cache.get(key);
+        }
+
+        @Override
+        public void put(String key, V value) {
+            if (key == null || key.length() > this.maxKeySize) {
+                return;
+            }
+            this.cache.put(key, value);
+        }
+
+        @Override
+        public void invalidate(String key) {
+            this.cache.remove(key);
+        }
+
+        @Override
+        public void invalidateAll(Set<String> keys) {
+            for (String key : keys) {
+                this.cache.remove(key);
+            }
+        }
+
+        @Override
+        public void invalidateAll() {
+            this.cache.clear();
+        }
+
+    }
+
+}
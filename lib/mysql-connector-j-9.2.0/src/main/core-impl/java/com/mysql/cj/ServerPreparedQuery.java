@@ -31,6 +31,7 @@ import com.mysql.cj.conf.RuntimeProperty;
 import com.mysql.cj.exceptions.CJException;
 import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.exceptions.MysqlErrorNumbers;
+import com.mysql.cj.exceptions.ResultSetMetadataOmittedException;
 import com.mysql.cj.exceptions.WrongArgumentException;
 import com.mysql.cj.log.ProfilerEvent;
 import com.mysql.cj.protocol.ColumnDefinition;
@@ -39,6 +40,7 @@ import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.Resultset;
 import com.mysql.cj.protocol.Resultset.Type;
 import com.mysql.cj.protocol.a.ColumnDefinitionFactory;
+import com.mysql.cj.protocol.a.NativeConstants;
 import com.mysql.cj.protocol.a.NativeConstants.IntegerDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
@@ -68,6 +70,9 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
     /** Field-level metadata for result sets. From statement prepare. */
     private ColumnDefinition resultFields;
 
+    /** Field-level metadata received with the last execution, used while the server omits it. See the "omitResultSetMetadata" connection property. */
+    private ColumnDefinition executeResultFields;
+
     /** The "profileSQL" connection property value */
     protected boolean profileSQL = false;
 
@@ -119,6 +124,7 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
         this.session.getSessionLock().lock();
         try {
             long begin = this.profileSQL ? System.currentTimeMillis() : 0;
+            this.executeResultFields = null;
 
             NativePacketPayload prepareResultPacket = this.session.getProtocol()
                     .sendCommand(this.commandBuilder.buildComStmtPrepare(this.session.getSharedSendPacket(), sql,
@@ -131,6 +137,13 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
             int fieldCount = (int) prepareResultPacket.readInteger(IntegerDataType.INT2);
             setParameterCount((int) prepareResultPacket.readInteger(IntegerDataType.INT2));
 
+            // The protocol asks for full metadata when preparing, but the session may have been switched to resultset_metadata=NONE by other means.
+            boolean metadataFollows = true;
+            if (this.session.getProtocol().getServerSession().isResultSetMetadataOptional() && prepareResultPacket.getPayloadLength() > 12) {
+                prepareResultPacket.setPosition(prepareResultPacket.getPosition() + 3); // skip filler and warning count
+                metadataFollows = prepareResultPacket.readInteger(IntegerDataType.INT1) != NativeConstants.RESULTSET_METADATA_NONE;
+            }
+
             this.queryBindings = new NativeQueryBindings(this.parameterCount, this.session, NativeQueryBindValue::new);
 
             if (this.gatherPerfMetrics) {
@@ -144,7 +157,7 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
 
             boolean checkEOF = !this.session.getServerSession().isEOFDeprecated();
 
-            if (this.parameterCount > 0) {
+            if (this.parameterCount > 0 && metadataFollows) {
                 this.parameterFields = this.session.getProtocol().read(ColumnDefinition.class, new ColumnDefinitionFactory(this.parameterCount, null))
                         .getFields();
                 if (checkEOF && this.session.getProtocol().probeMessage(null).isEOFPacket()) { // Skip the following EOF packet.
@@ -153,7 +166,7 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
             }
 
             // Read in the result set column information
-            if (fieldCount > 0) {
+            if (fieldCount > 0 && metadataFollows) {
                 this.resultFields = this.session.getProtocol().read(ColumnDefinition.class, new ColumnDefinitionFactory(fieldCount, null));
                 if (checkEOF && this.session.getProtocol().probeMessage(null).isEOFPacket()) { // Skip the following EOF packet.
                     this.session.getProtocol().skipPacket();
@@ -193,8 +206,53 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
             }
         }
         String queryAsString = this.profileSQL || this.logSlowQueries || this.gatherPerfMetrics ? asSql() : "";
-        return readExecuteResult(sendExecutePacket(prepareExecutePacket(), queryAsString), maxRowsToRetrieve, createStreamingResultSet, metadata,
-                resultSetFactory, queryAsString);
+        NativePacketPayload packet = prepareExecutePacket();
+
+        // Rows can be read with the cached field metadata as long as the parameter types, and so the result types, are the ones it was received with.
+        // Streaming and cursor-backed results are left out so that a stale cache is never discovered after the application has seen rows.
+        boolean omitMetadata = this.executeResultFields != null && !this.queryBindings.getSendTypesToServer().get() && !createStreamingResultSet
+                && !opensCursor();
+        this.session.getProtocol().setOmitResultSetMetadataForNextExecute(omitMetadata);
+
+        T rs;
+        try {
+            rs = readExecuteResult(sendExecutePacket(packet, queryAsString), maxRowsToRetrieve, createStreamingResultSet,
+                    omitMetadata ? this.executeResultFields : metadata, resultSetFactory, queryAsString);
+        } catch (ResultSetMetadataOmittedException e) {
+            // The result set no longer has the cached number of columns, its rows were discarded. Execute again with full metadata.
+            this.executeResultFields = null;
+            return serverExecute(maxRowsToRetrieve, createStreamingResultSet, metadata, resultSetFactory);
+        }
+
+        if (this.session.getProtocol().getServerSession().isResultSetMetadataOptional()) {
+            if (omitMetadata) {
+                if (this.session.getProtocol().getServerSession().isMetadataChanged()) {
+                    // The rows were decoded with cached definitions the server says no longer apply, e.g. a column changed type but not the column count.
+                    // Drop them and execute again with full metadata.
+                    this.executeResultFields = null;
+                    if (rs.getRows() != null) {
+                        rs.getRows().close();
+                    }
+                    return serverExecute(maxRowsToRetrieve, createStreamingResultSet, metadata, resultSetFactory);
+                }
+            } else if (rs.hasRows() && rs.getNextResultset() == null && !createStreamingResultSet && !opensCursor() && !this.session.shouldIntercept()) {
+                this.executeResultFields = rs.getColumnDefinition();
+            }
+        }
+        return rs;
+    }
+
+    /**
+     * @return true if the execution will ask the server to open a cursor for the result set
+     */
+    private boolean opensCursor() {
+        // we only create cursor-backed result sets if
+        // a) The query is a SELECT
+        // b) The server supports it
+        // c) We know it is forward-only (note this doesn't preclude updatable result sets)
+        // d) The user has set a fetch size
+        return this.resultFields != null && this.resultFields.getFields() != null && this.useCursorFetch && this.resultSetType == Type.FORWARD_ONLY
+                && this.fetchSize > 0;
     }
 
     public NativePacketPayload prepareExecutePacket() {
@@ -244,13 +302,7 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
         }
 
         byte flags = 0;
-        if (this.resultFields != null && this.resultFields.getFields() != null && this.useCursorFetch && this.resultSetType == Type.FORWARD_ONLY
-                && this.fetchSize > 0) {
-            // we only create cursor-backed result sets if
-            // a) The query is a SELECT
-            // b) The server supports it
-            // c) We know it is forward-only (note this doesn't preclude updatable result sets)
-            // d) The user has set a fetch size
+        if (opensCursor()) {
             flags |= OPEN_CURSOR_FLAG;
         }
         if (sendQueryAttributes) {
@@ -447,6 +499,7 @@ public class ServerPreparedQuery extends ClientPreparedQuery {
         this.queryBindings = null;
         this.parameterFields = null;
         this.resultFields = null;
+        this.executeResultFields = null;
         super.closeQuery();
     }
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Input stream of a {@link SocketChannelSocket}. It keeps a direct read-ahead buffer, and when that is empty it reads with a scattering read that fills the
+ * caller's array first and the read-ahead buffer with whatever else has arrived, so it needs no further buffering on top of it.
+ */
+public class SocketChannelInputStream extends InputStream {
+
+    private static final int READ_AHEAD_SIZE = 16384;
+
+    /** Largest slice of a caller's array handed to the channel at once, which bounds the temporary direct buffer the JDK uses to read into heap arrays */
+    private static final int MAX_HEAP_TRANSFER = 128 * 1024;
+
+    private final SocketChannelSocket socket;
+    private final SocketChannel channel;
+    private final ByteBuffer readAhead;
+    private final ByteBuffer[] scatter = new ByteBuffer[2];
+
+    SocketChannelInputStream(SocketChannelSocket socket) {
+        this.socket = socket;
+        this.channel = socket.getChannel();
+        this.readAhead = ByteBuffer.allocateDirect(READ_AHEAD_SIZE);
+        this.readAhead.flip(); // kept ready for reading, and empty to start with
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!this.readAhead.hasRemaining()) {
+            this.readAhead.clear();
+            long n;
+            try {
+                n = readSome(this.readAhead);
+            } finally {
+                this.readAhead.flip();
+            }
+            if (n < 0) {
+                return -1;
+            }
+        }
+        return this.readAhead.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int buffered = this.readAhead.remaining();
+        if (buffered > 0) {
+            int n = Math.min(buffered, len);
+            this.readAhead.get(b, off, n);
+            return n;
+        }
+
+        ByteBuffer dst = ByteBuffer.wrap(b, off, Math.min(len, MAX_HEAP_TRANSFER));
+        this.readAhead.clear();
+        this.scatter[0] = dst;
+        this.scatter[1] = this.readAhead;
+        long n;
+        try {
+            n = readSome(this.scatter);
+        } finally {
+            this.scatter[0] = null;
+            this.readAhead.flip();
+        }
+        return n < 0 ? -1 : dst.position() - off;
+    }
+
+    private long readSome(ByteBuffer... dsts) throws IOException {
+        long n;
+        while ((n = this.channel.read(dsts)) == 0) {
+            this.socket.awaitReady(this.socket.getReadSelector(), this.socket.getSoTimeout());
+        }
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return this.readAhead.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.socket.close();
+    }
+
+}
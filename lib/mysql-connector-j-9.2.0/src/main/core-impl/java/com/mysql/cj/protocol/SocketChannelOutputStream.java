@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Output stream of a {@link SocketChannelSocket}. Small writes collect in a direct buffer until {@link #flush()}; a write that does not fit is sent together
+ * with what is already buffered in one gathering write, so a packet header written ahead of a large payload costs no extra system call.
+ */
+public class SocketChannelOutputStream extends OutputStream {
+
+    private static final int BUFFER_SIZE = 16384;
+
+    /** Largest slice of a caller's array handed to the channel at once, which bounds the temporary direct buffer the JDK uses to write from heap arrays */
+    private static final int MAX_HEAP_TRANSFER = 128 * 1024;
+
+    private final SocketChannelSocket socket;
+    private final SocketChannel channel;
+    private final ByteBuffer pending;
+    private final ByteBuffer[] gather = new ByteBuffer[2];
+
+    SocketChannelOutputStream(SocketChannelSocket socket) {
+        this.socket = socket;
+        this.channel = socket.getChannel();
+        this.pending = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!this.pending.hasRemaining()) {
+            flush();
+        }
+        this.pending.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len <= this.pending.remaining()) {
+            this.pending.put(b, off, len);
+            return;
+        }
+
+        this.pending.flip();
+        this.gather[0] = this.pending;
+        try {
+            while (len > 0) {
+                int chunk = Math.min(len, MAX_HEAP_TRANSFER);
+                this.gather[1] = ByteBuffer.wrap(b, off, chunk);
+                writeFully(this.gather);
+                off += chunk;
+                len -= chunk;
+            }
+        } finally {
+            this.gather[1] = null;
+            this.pending.clear();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.pending.position() == 0) {
+            return;
+        }
+        this.pending.flip();
+        try {
+            writeFully(this.pending);
+        } finally {
+            this.pending.clear();
+        }
+    }
+
+    private void writeFully(ByteBuffer... srcs) throws IOException {
+        ByteBuffer last = srcs[srcs.length - 1];
+        while (last.hasRemaining()) {
+            if (this.channel.write(srcs) == 0) {
+                this.socket.awaitReady(this.socket.getWriteSelector(), 0);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.socket.close();
+        }
+    }
+
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link Socket} over a connected {@link SocketChannel} in non-blocking mode, as created by {@link SocketChannelSocketFactory}. Its streams are a
+ * {@link SocketChannelInputStream} and a {@link SocketChannelOutputStream}, which wait for the channel with selectors, so that reads honour the socket timeout.
+ * Addresses and socket options are those of the channel's own socket.
+ */
+public class SocketChannelSocket extends Socket {
+
+    private final SocketChannel channel;
+    private final Socket adaptor;
+    private final Selector readSelector;
+    private final Selector writeSelector;
+    private volatile int soTimeout;
+
+    private SocketChannelInputStream inputStream = null;
+    private SocketChannelOutputStream outputStream = null;
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Constructor.
+     *
+     * @param channel
+     *            connected channel; it is switched to non-blocking mode
+     * @throws IOException
+     *             if the channel cannot be registered for selection
+     */
+    public SocketChannelSocket(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        this.adaptor = channel.socket();
+        this.soTimeout = this.adaptor.getSoTimeout();
+
+        Selector rs = null;
+        Selector ws = null;
+        try {
+            rs = Selector.open();
+            ws = Selector.open();
+            channel.configureBlocking(false);
+            channel.register(rs, SelectionKey.OP_READ);
+            channel.register(ws, SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            if (rs != null) {
+                rs.close();
+            }
+            if (ws != null) {
+                ws.close();
+            }
+            channel.close();
+            throw e;
+        }
+        this.readSelector = rs;
+        this.writeSelector = ws;
+    }
+
+    /**
+     * Waits until the channel is ready for the operation the given selector is registered for.
+     *
+     * @param selector
+     *            this socket's read or write selector
+     * @param timeoutMillis
+     *            timeout in milliseconds, 0 to wait indefinitely
+     * @throws IOException
+     *             if the timeout expires, the socket is closed or the waiting thread is interrupted
+     */
+    void awaitReady(Selector selector, int timeoutMillis) throws IOException {
+        long deadline = timeoutMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+        try {
+            for (;;) {
+                if (!this.channel.isOpen()) {
+                    throw new SocketException("Socket is closed");
+                }
+
+                long wait = 0;
+                if (timeoutMillis > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SocketTimeoutException("Read timed out");
+                    }
+                    wait = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+                }
+
+                int ready = selector.select(wait);
+                selector.selectedKeys().clear();
+                if (ready > 0) {
+                    return;
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    // select() returns straight away for an interrupted thread; do what a blocking channel operation would do rather than spin
+                    close();
+                    throw new ClosedByInterruptException();
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            throw new SocketException("Socket is closed");
+        }
+    }
+
+    Selector getReadSelector() {
+        return this.readSelector;
+    }
+
+    Selector getWriteSelector() {
+        return this.writeSelector;
+    }
+
+    @Override
+    public SocketChannel getChannel() {
+        return this.channel;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        this.lock.lock();
+        try {
+            if (isClosed()) {
+                throw new SocketException("Socket is closed");
+            }
+            if (this.inputStream == null) {
+                this.inputStream = new SocketChannelInputStream(this);
+            }
+            return this.inputStream;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        this.lock.lock();
+        try {
+            if (isClosed()) {
+                throw new SocketException("Socket is closed");
+            }
+            if (this.outputStream == null) {
+                this.outputStream = new SocketChannelOutputStream(this);
+            }
+            return this.outputStream;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public void setSoTimeout(int timeout) throws SocketException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout can't be negative");
+        }
+        this.soTimeout = timeout;
+    }
+
+    @Override
+    public int getSoTimeout() throws SocketException {
+        return this.soTimeout;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            this.channel.close();
+        } finally {
+            // closing the selectors also wakes up any thread waiting in awaitReady()
+            try {
+                this.readSelector.close();
+            } finally {
+                this.writeSelector.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return !this.channel.isOpen();
+    }
+
+    @Override
+    public boolean isConnected() {
+        return this.adaptor.isConnected();
+    }
+
+    @Override
+    public boolean isBound() {
+        return this.adaptor.isBound();
+    }
+
+    @Override
+    public void shutdownInput() throws IOException {
+        this.channel.shutdownInput();
+    }
+
+    @Override
+    public void shutdownOutput() throws IOException {
+        this.channel.shutdownOutput();
+    }
+
+    @Override
+    public boolean isInputShutdown() {
+        return this.adaptor.isInputShutdown();
+    }
+
+    @Override
+    public boolean isOutputShutdown() {
+        return this.adaptor.isOutputShutdown();
+    }
+
+    @Override
+    public InetAddress getInetAddress() {
+        return this.adaptor.getInetAddress();
+    }
+
+    @Override
+    public InetAddress getLocalAddress() {
+        return this.adaptor.getLocalAddress();
+    }
+
+    @Override
+    public int getPort() {
+        return this.adaptor.getPort();
+    }
+
+    @Override
+    public int getLocalPort() {
+        return this.adaptor.getLocalPort();
+    }
+
+    @Override
+    public SocketAddress getRemoteSocketAddress() {
+        return this.adaptor.getRemoteSocketAddress();
+    }
+
+    @Override
+    public SocketAddress getLocalSocketAddress() {
+        return this.adaptor.getLocalSocketAddress();
+    }
+
+    @Override
+    public void setTcpNoDelay(boolean on) throws SocketException {
+        this.adaptor.setTcpNoDelay(on);
+    }
+
+    @Override
+    public boolean getTcpNoDelay() throws SocketException {
+        return this.adaptor.getTcpNoDelay();
+    }
+
+    @Override
+    public void setKeepAlive(boolean on) throws SocketException {
+        this.adaptor.setKeepAlive(on);
+    }
+
+    @Override
+    public boolean getKeepAlive() throws SocketException {
+        return this.adaptor.getKeepAlive();
+    }
+
+    @Override
+    public void setSoLinger(boolean on, int linger) throws SocketException {
+        this.adaptor.setSoLinger(on, linger);
+    }
+
+    @Override
+    public int getSoLinger() throws SocketException {
+        return this.adaptor.getSoLinger();
+    }
+
+    @Override
+    public void setReceiveBufferSize(int size) throws SocketException {
+        this.adaptor.setReceiveBufferSize(size);
+    }
+
+    @Override
+    public int getReceiveBufferSize() throws SocketException {
+        return this.adaptor.getReceiveBufferSize();
+    }
+
+    @Override
+    public void setSendBufferSize(int size) throws SocketException {
+        this.adaptor.setSendBufferSize(size);
+    }
+
+    @Override
+    public int getSendBufferSize() throws SocketException {
+        return this.adaptor.getSendBufferSize();
+    }
+
+    @Override
+    public void setTrafficClass(int tc) throws SocketException {
+        this.adaptor.setTrafficClass(tc);
+    }
+
+    @Override
+    public int getTrafficClass() throws SocketException {
+        return this.adaptor.getTrafficClass();
+    }
+
+    @Override
+    public String toString() {
+        return this.adaptor.toString();
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+
+import com.mysql.cj.conf.PropertySet;
+
+/**
+ * Socket factory for TCP/IP connections over a non-blocking {@link SocketChannel}. Select it with
+ * <code>socketFactory=com.mysql.cj.protocol.SocketChannelSocketFactory</code>.
+ *
+ * Connecting, socket options and TLS work as with {@link StandardSocketFactory}; only the data path differs. The returned {@link SocketChannelSocket} reads
+ * and writes through direct buffers: a packet header is sent together with its payload in one gathering write, and reads scatter into the caller's packet
+ * buffer first and into a read-ahead buffer after it, so that a packet and the header of the next one usually arrive with a single system call.
+ *
+ * As with any NIO channel, interrupting a thread that is waiting on the connection closes the connection.
+ */
+public class SocketChannelSocketFactory extends StandardSocketFactory {
+
+    @Override
+    protected Socket createSocket(PropertySet props) {
+        try {
+            return SocketChannel.open().socket();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Closeable> T connect(String hostname, int portNumber, PropertySet pset, int loginTimeout) throws IOException {
+        Socket adaptor;
+        try {
+            adaptor = super.connect(hostname, portNumber, pset, loginTimeout);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        // the channel is connected in blocking mode through its socket adaptor, which honours connectTimeout; from here on it is used non-blocking
+        this.rawSocket = new SocketChannelSocket(adaptor.getChannel());
+        this.sslSocket = this.rawSocket;
+        return (T) this.rawSocket;
+    }
+
+}
@@ -49,6 +49,10 @@ public abstract class AbstractResultsetRow implements ResultsetRow {
     /** Did the previous value retrieval find a NULL? */
     protected boolean wasNull;
 
+    /** Values found by the last {@link #decodePrimitive(int)} call */
+    protected long decodedLong;
+    protected double decodedDouble;
+
     /**
      * Decode the wire-level result bytes and call the value factory.
      *
@@ -237,6 +241,73 @@ public abstract class AbstractResultsetRow implements ResultsetRow {
         return retVal;
     }
 
+    /**
+     * Decode a value from a byte array to a primitive, if the column is of an integer or floating point type. See {@link #decodePrimitive(int)}.
+     *
+     * @param columnIndex
+     *            The (internal) index of the column
+     * @param bytes
+     *            byte array
+     * @param offset
+     *            offset into byte array
+     * @param length
+     *            length of value in byte array
+     * @return one of the Row.PRIMITIVE_* constants
+     */
+    protected int decodePrimitiveFromBytes(int columnIndex, byte[] bytes, int offset, int length) {
+        if (getNull(columnIndex)) {
+            return PRIMITIVE_NULL;
+        }
+
+        // only protocol types are handled here, see decodeAndCreateReturnValue()
+        Field f = this.metadata.getFields()[columnIndex];
+        switch (f.getMysqlTypeId()) {
+            case MysqlType.FIELD_TYPE_TINY:
+                this.decodedLong = f.isUnsigned() ? this.valueDecoder.decodeUInt1(bytes, offset, length) : this.valueDecoder.decodeInt1(bytes, offset, length);
+                return PRIMITIVE_LONG;
+
+            case MysqlType.FIELD_TYPE_SHORT:
+                this.decodedLong = f.isUnsigned() ? this.valueDecoder.decodeUInt2(bytes, offset, length) : this.valueDecoder.decodeInt2(bytes, offset, length);
+                return PRIMITIVE_LONG;
+
+            case MysqlType.FIELD_TYPE_LONG:
+                this.decodedLong = f.isUnsigned() ? this.valueDecoder.decodeUInt4(bytes, offset, length) : this.valueDecoder.decodeInt4(bytes, offset, length);
+                return PRIMITIVE_LONG;
+
+            case MysqlType.FIELD_TYPE_INT24:
+                this.decodedLong = this.valueDecoder.decodeInt4(bytes, offset, length);
+                return PRIMITIVE_LONG;
+
+            case MysqlType.FIELD_TYPE_LONGLONG:
+                if (f.isUnsigned()) {
+                    // may not fit in a long
+                    return PRIMITIVE_NONE;
+                }
+                this.decodedLong = this.valueDecoder.decodeInt8(bytes, offset, length);
+                return PRIMITIVE_LONG;
+
+            case MysqlType.FIELD_TYPE_FLOAT:
+                this.decodedDouble = this.valueDecoder.decodeFloat(bytes, offset, length);
+                return PRIMITIVE_DOUBLE;
+
+            case MysqlType.FIELD_TYPE_DOUBLE:
+                this.decodedDouble = this.valueDecoder.decodeDouble(bytes, offset, length);
+                return PRIMITIVE_DOUBLE;
+        }
+
+        return PRIMITIVE_NONE;
+    }
+
+    @Override
+    public long getDecodedLong() {
+        return this.decodedLong;
+    }
+
+    @Override
+    public double getDecodedDouble() {
+        return this.decodedDouble;
+    }
+
     @Override
     public Row setMetadata(ColumnDefinition f) {
         this.metadata = f;
@@ -43,6 +43,17 @@ public class BooleanValueFactory extends DefaultValueFactory<Boolean> {
 
     @Override
     public Boolean createFromLong(long l) {
+        return createBooleanFromLong(l);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromLong(long)}.
+     *
+     * @param l
+     *            value
+     * @return boolean value
+     */
+    public boolean createBooleanFromLong(long l) {
         // Goes back to ODBC driver compatibility, and VB/Automation Languages/COM, where in Windows "-1" can mean true as well.
         return l == -1 || l > 0;
     }
@@ -53,8 +64,19 @@ public class BooleanValueFactory extends DefaultValueFactory<Boolean> {
     }
 
     @Override
-    // getBoolean() from DOUBLE, DECIMAL are required by JDBC spec....
     public Boolean createFromDouble(double d) {
+        return createBooleanFromDouble(d);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromDouble(double)}.
+     *
+     * @param d
+     *            value
+     * @return boolean value
+     */
+    public boolean createBooleanFromDouble(double d) {
+        // getBoolean() from DOUBLE, DECIMAL are required by JDBC spec....
         // this means that 0.1 or -1 will be TRUE
         return d > 0 || d == -1.0d;
     }
@@ -49,6 +49,17 @@ public class DoubleValueFactory extends AbstractNumericValueFactory<Double> {
 
     @Override
     public Double createFromLong(long l) {
+        return createDoubleFromLong(l);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromLong(long)}.
+     *
+     * @param l
+     *            value
+     * @return double value
+     */
+    public double createDoubleFromLong(long l) {
         if (this.jdbcCompliantTruncationForReads && (l < -Double.MAX_VALUE || l > Double.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { l, getTargetTypeName() }));
         }
@@ -66,6 +77,17 @@ public class DoubleValueFactory extends AbstractNumericValueFactory<Double> {
 
     @Override
     public Double createFromDouble(double d) {
+        return createDoubleFromDouble(d);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromDouble(double)}.
+     *
+     * @param d
+     *            value
+     * @return double value
+     */
+    public double createDoubleFromDouble(double d) {
         if (this.jdbcCompliantTruncationForReads && (d < -Double.MAX_VALUE || d > Double.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { d, getTargetTypeName() }));
         }
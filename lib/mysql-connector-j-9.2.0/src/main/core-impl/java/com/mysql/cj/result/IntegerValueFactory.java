@@ -49,6 +49,17 @@ public class IntegerValueFactory extends AbstractNumericValueFactory<Integer> {
 
     @Override
     public Integer createFromLong(long l) {
+        return createIntFromLong(l);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromLong(long)}.
+     *
+     * @param l
+     *            value
+     * @return int value
+     */
+    public int createIntFromLong(long l) {
         if (this.jdbcCompliantTruncationForReads && (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { Long.valueOf(l).toString(), getTargetTypeName() }));
         }
@@ -66,6 +77,17 @@ public class IntegerValueFactory extends AbstractNumericValueFactory<Integer> {
 
     @Override
     public Integer createFromDouble(double d) {
+        return createIntFromDouble(d);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromDouble(double)}.
+     *
+     * @param d
+     *            value
+     * @return int value
+     */
+    public int createIntFromDouble(double d) {
         if (this.jdbcCompliantTruncationForReads && (d < Integer.MIN_VALUE || d > Integer.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { d, getTargetTypeName() }));
         }
@@ -49,6 +49,17 @@ public class LongValueFactory extends AbstractNumericValueFactory<Long> {
 
     @Override
     public Long createFromLong(long l) {
+        return createLongFromLong(l);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromLong(long)}.
+     *
+     * @param l
+     *            value
+     * @return long value
+     */
+    public long createLongFromLong(long l) {
         if (this.jdbcCompliantTruncationForReads && (l < Long.MIN_VALUE || l > Long.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { Long.valueOf(l).toString(), getTargetTypeName() }));
         }
@@ -66,6 +77,17 @@ public class LongValueFactory extends AbstractNumericValueFactory<Long> {
 
     @Override
     public Long createFromDouble(double d) {
+        return createLongFromDouble(d);
+    }
+
+    /**
+     * Primitive counterpart of {@link #createFromDouble(double)}.
+     *
+     * @param d
+     *            value
+     * @return long value
+     */
+    public long createLongFromDouble(double d) {
         if (this.jdbcCompliantTruncationForReads && (d < Long.MIN_VALUE || d > Long.MAX_VALUE)) {
             throw new NumberOutOfRange(Messages.getString("ResultSet.NumberOutOfRange", new Object[] { d, getTargetTypeName() }));
         }
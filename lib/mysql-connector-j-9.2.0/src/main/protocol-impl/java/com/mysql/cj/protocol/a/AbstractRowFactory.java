@@ -41,4 +41,21 @@ public abstract class AbstractRowFactory implements ProtocolEntityFactory<Result
         return this.canReuseRowPacketForBufferRow;
     }
 
+    /**
+     * Tells whether a row read from a packet of the given length will have its values copied out of the packet, so that the packet is no longer referenced
+     * once <code>createFromMessage()</code> returns.
+     *
+     * Buffer rows, which read values straight from the packet, are used for reusable packets (streaming results), blobs and long strings, or if the row is
+     * over the large row size threshold; updatable result sets always copy.
+     *
+     * @param packetLength
+     *            row packet payload length
+     * @return true if the row packet is copied
+     */
+    public boolean copiesRowPacket(int packetLength) {
+        boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
+                || packetLength >= this.useBufferRowSizeThreshold.getValue();
+        return this.resultSetConcurrency == Resultset.Concurrency.UPDATABLE || !useBufferRow;
+    }
+
 }
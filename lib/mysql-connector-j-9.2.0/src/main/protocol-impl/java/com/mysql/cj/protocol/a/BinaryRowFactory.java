@@ -27,7 +27,6 @@ import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.Resultset;
-import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.a.NativeConstants.StringLengthDataType;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
@@ -53,15 +52,12 @@ public class BinaryRowFactory extends AbstractRowFactory implements ProtocolEnti
 
     @Override
     public ResultsetRow createFromMessage(NativePacketPayload rowPacket) {
-        // use a buffer row for reusable packets (streaming results), blobs and long strings
-        // or if we're over the threshold
-        boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
-                || rowPacket.getPayloadLength() >= this.useBufferRowSizeThreshold.getValue();
+        boolean copyRow = copiesRowPacket(rowPacket.getPayloadLength());
 
         // bump past ProtocolBinary::ResultsetRow packet header
         rowPacket.setPosition(rowPacket.getPosition() + 1);
 
-        if (this.resultSetConcurrency == Concurrency.UPDATABLE || !useBufferRow) {
+        if (copyRow) {
             return unpackBinaryResultSetRow(this.columnDefinition.getFields(), rowPacket);
         }
 
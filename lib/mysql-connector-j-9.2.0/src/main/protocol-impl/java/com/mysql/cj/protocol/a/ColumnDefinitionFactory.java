@@ -29,12 +29,26 @@ public class ColumnDefinitionFactory implements ProtocolEntityFactory<ColumnDefi
 
     protected long columnCount;
     protected ColumnDefinition columnDefinitionFromCache;
+    protected boolean metadataOmitted = false;
 
     public ColumnDefinitionFactory(long columnCount, ColumnDefinition columnDefinitionFromCache) {
         this.columnCount = columnCount;
         this.columnDefinitionFromCache = columnDefinitionFromCache;
     }
 
+    /**
+     * @param columnCount
+     *            number of columns in the result set
+     * @param columnDefinitionFromCache
+     *            cached column definitions, may be null
+     * @param metadataOmitted
+     *            true if the server sent no column definitions for this result set, which must then be described by columnDefinitionFromCache
+     */
+    public ColumnDefinitionFactory(long columnCount, ColumnDefinition columnDefinitionFromCache, boolean metadataOmitted) {
+        this(columnCount, columnDefinitionFromCache);
+        this.metadataOmitted = metadataOmitted;
+    }
+
     public long getColumnCount() {
         return this.columnCount;
     }
@@ -43,6 +57,10 @@ public class ColumnDefinitionFactory implements ProtocolEntityFactory<ColumnDefi
         return this.columnDefinitionFromCache;
     }
 
+    public boolean isMetadataOmitted() {
+        return this.metadataOmitted;
+    }
+
     @Override
     public ColumnDefinition createFromMessage(NativePacketPayload packetPayload) {
         // TODO Auto-generated method stub
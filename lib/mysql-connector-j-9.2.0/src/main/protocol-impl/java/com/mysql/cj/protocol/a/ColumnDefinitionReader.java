@@ -20,7 +20,10 @@
 
 package com.mysql.cj.protocol.a;
 
+import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlType;
+import com.mysql.cj.exceptions.ExceptionFactory;
+import com.mysql.cj.exceptions.ResultSetMetadataOmittedException;
 import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.ProtocolEntityReader;
@@ -43,6 +46,17 @@ public class ColumnDefinitionReader implements ProtocolEntityReader<ColumnDefini
         long columnCount = cdf.getColumnCount();
         ColumnDefinition cdef = cdf.getColumnDefinitionFromCache();
 
+        if (cdf.isMetadataOmitted()) {
+            // Nothing to read, the cached definitions describe this result set; they were merged already when they were cached.
+            if (cdef == null || cdef.getFields() == null || cdef.getFields().length != columnCount) {
+                // Without matching definitions the rows can't be decoded. Drop them so that the connection stays in sync.
+                this.protocol.skipResultSetRows();
+                throw ExceptionFactory.createException(ResultSetMetadataOmittedException.class,
+                        Messages.getString("MysqlIO.114", new Object[] { columnCount }), this.protocol.getExceptionInterceptor());
+            }
+            return cdef;
+        }
+
         if (cdef != null && !cdf.mergeColumnDefinitions()) {
             for (int i = 0; i < columnCount; i++) {
                 this.protocol.skipPacket();
@@ -23,8 +23,7 @@ package com.mysql.cj.protocol.a;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.DataFormatException;
-import java.util.zip.Inflater;
+import java.util.Arrays;
 
 import com.mysql.cj.conf.RuntimeProperty;
 import com.mysql.cj.log.Log;
@@ -32,17 +31,30 @@ import com.mysql.cj.util.StringUtils;
 
 /**
  * Used to de-compress packets from the MySQL server when protocol-level compression is turned on.
+ *
+ * Un-compressed data is kept in a single reusable buffer, with the unread part between <code>pos</code> and <code>limit</code>; data left over from one
+ * packet is moved to the front of the buffer before the next packet is appended, instead of both being copied into a new array. When the buffer is empty
+ * and the caller asks for at least a whole packet, the packet is un-compressed straight into the caller's array. Buffers only grow when a packet doesn't fit
+ * and are released once drained if they have grown beyond {@value #MAX_RETAINED_BUFFER_SIZE} bytes.
  */
 public class CompressedInputStream extends InputStream {
 
+    /** Initial size of the un-compressed data buffer, enough for the packets of a server with the default net_buffer_length */
+    static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+    /** Largest buffers kept between packets */
+    static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+
     /** The packet data after it has been un-compressed */
     private byte[] buffer;
 
+    /** The compressed packet data */
+    private byte[] compressedBuffer;
+
     /** The stream we are reading from the server */
     private InputStream in;
 
-    /** The ZIP inflater used to un-compress packets */
-    private Inflater inflater;
+    /** The compression algorithm used to un-compress packets */
+    private PacketCompressor compressor;
 
     /** Connection property reference */
     private RuntimeProperty<Boolean> traceProtocol;
@@ -58,6 +70,15 @@ public class CompressedInputStream extends InputStream {
     /** The position we are reading from */
     private int pos = 0;
 
+    /** The end of the un-compressed data in the buffer */
+    private int limit = 0;
+
+    /** Length of the payload of the packet whose header was read last */
+    private int compressedPacketLength;
+
+    /** Un-compressed length of the packet whose header was read last, 0 if it isn't compressed */
+    private int uncompressedLength;
+
     /**
      * Creates a new CompressedInputStream that reads the given stream from the
      * server.
@@ -70,75 +91,102 @@ public class CompressedInputStream extends InputStream {
      *            logger
      */
     public CompressedInputStream(InputStream streamFromServer, RuntimeProperty<Boolean> traceProtocol, Log log) {
+        this(streamFromServer, traceProtocol, log, new ZlibPacketCompressor());
+    }
+
+    /**
+     * Creates a new CompressedInputStream that reads the given stream from the
+     * server, un-compressing packets with the given algorithm.
+     *
+     * @param streamFromServer
+     *            original server InputStream
+     * @param traceProtocol
+     *            "traceProtocol" property
+     * @param log
+     *            logger
+     * @param compressor
+     *            the negotiated compression algorithm
+     */
+    public CompressedInputStream(InputStream streamFromServer, RuntimeProperty<Boolean> traceProtocol, Log log, PacketCompressor compressor) {
         this.traceProtocol = traceProtocol;
         this.log = log;
         this.in = streamFromServer;
-        this.inflater = new Inflater();
+        this.compressor = compressor;
     }
 
     @Override
     public int available() throws IOException {
-        if (this.buffer == null) {
-            return this.in.available();
-        }
-
-        return this.buffer.length - this.pos + this.in.available();
+        return this.limit - this.pos + this.in.available();
     }
 
     @Override
     public void close() throws IOException {
         this.in.close();
         this.buffer = null;
-        this.inflater.end();
-        this.inflater = null;
+        this.compressedBuffer = null;
+        this.pos = 0;
+        this.limit = 0;
+        this.compressor.end();
+        this.compressor = null;
         this.traceProtocol = null;
         this.log = null;
     }
 
     /**
-     * Retrieves and un-compressed (if necessary) the next packet from the
-     * server.
+     * Reads the header of the next packet from the server.
      *
+     * @return the number of bytes the packet un-compresses to
      * @throws IOException
      *             if an I/O error occurs
      */
-    private void getNextPacketFromServer() throws IOException {
-        byte[] uncompressedData = null;
-
+    private int readPacketHeader() throws IOException {
         int lengthRead = readFully(this.packetHeaderBuffer, 0, 7);
 
         if (lengthRead < 7) {
             throw new IOException("Unexpected end of input stream");
         }
 
-        int compressedPacketLength = (this.packetHeaderBuffer[0] & 0xff) + ((this.packetHeaderBuffer[1] & 0xff) << 8)
+        this.compressedPacketLength = (this.packetHeaderBuffer[0] & 0xff) + ((this.packetHeaderBuffer[1] & 0xff) << 8)
                 + ((this.packetHeaderBuffer[2] & 0xff) << 16);
 
-        int uncompressedLength = (this.packetHeaderBuffer[4] & 0xff) + ((this.packetHeaderBuffer[5] & 0xff) << 8) + ((this.packetHeaderBuffer[6] & 0xff) << 16);
+        this.uncompressedLength = (this.packetHeaderBuffer[4] & 0xff) + ((this.packetHeaderBuffer[5] & 0xff) << 8)
+                + ((this.packetHeaderBuffer[6] & 0xff) << 16);
 
-        boolean doTrace = this.traceProtocol.getValue();
-
-        if (doTrace) {
-            this.log.logTrace("Reading compressed packet of length " + compressedPacketLength + " uncompressed to " + uncompressedLength);
+        if (this.traceProtocol.getValue()) {
+            this.log.logTrace("Reading compressed packet of length " + this.compressedPacketLength + " uncompressed to " + this.uncompressedLength);
         }
 
-        if (uncompressedLength > 0) {
-            uncompressedData = new byte[uncompressedLength];
+        return this.uncompressedLength > 0 ? this.uncompressedLength : this.compressedPacketLength;
+    }
 
-            byte[] compressedBuffer = new byte[compressedPacketLength];
+    /**
+     * Reads the payload of the packet whose header was read last and un-compresses it (if necessary) into the given array, which must have room for it.
+     *
+     * @param dst
+     *            array to un-compress into
+     * @param dstOffset
+     *            offset in the array
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private void readPacketPayload(byte[] dst, int dstOffset) throws IOException {
+        boolean doTrace = this.traceProtocol.getValue();
+        int length;
+
+        if (this.uncompressedLength > 0) {
+            length = this.uncompressedLength;
 
-            readFully(compressedBuffer, 0, compressedPacketLength);
+            if (this.compressedBuffer == null || this.compressedBuffer.length < this.compressedPacketLength) {
+                this.compressedBuffer = new byte[Math.max(this.compressedPacketLength, INITIAL_BUFFER_SIZE)];
+            }
 
-            this.inflater.reset();
+            readFully(this.compressedBuffer, 0, this.compressedPacketLength);
 
-            this.inflater.setInput(compressedBuffer);
+            this.compressor.decompress(this.compressedBuffer, 0, this.compressedPacketLength, dst, dstOffset, length);
 
-            try {
-                this.inflater.inflate(uncompressedData);
-            } catch (DataFormatException dfe) {
-                throw new IOException("Error while uncompressing packet from server.");
+            if (this.compressedBuffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                this.compressedBuffer = null;
             }
-
         } else {
             if (doTrace) {
                 this.log.logTrace("Packet didn't meet compression threshold, not uncompressing...");
@@ -147,68 +195,89 @@ public class CompressedInputStream extends InputStream {
             //
             // Read data, note this this code is reached when using compressed packets that have not been compressed, as well
             //
-            uncompressedLength = compressedPacketLength;
-            uncompressedData = new byte[uncompressedLength];
-            readFully(uncompressedData, 0, uncompressedLength);
+            length = this.compressedPacketLength;
+            readFully(dst, dstOffset, length);
         }
 
         if (doTrace) {
-            if (uncompressedLength > 1024) {
-                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(uncompressedData, 256));
-                byte[] tempData = new byte[256];
-                System.arraycopy(uncompressedData, uncompressedLength - 256, tempData, 0, 256);
-                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(tempData, 256));
+            if (length > 1024) {
+                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(Arrays.copyOfRange(dst, dstOffset, dstOffset + 256), 256));
+                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(Arrays.copyOfRange(dst, dstOffset + length - 256, dstOffset + length), 256));
                 this.log.logTrace("Large packet dump truncated. Showing first and last 256 bytes.");
             } else {
-                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(uncompressedData, uncompressedLength));
+                this.log.logTrace("Uncompressed packet: \n" + StringUtils.dumpAsHex(Arrays.copyOfRange(dst, dstOffset, dstOffset + length), length));
             }
         }
+    }
 
-        if (this.buffer != null && this.pos < this.buffer.length) {
-            if (doTrace) {
-                this.log.logTrace("Combining remaining packet with new: ");
-            }
+    /**
+     * Retrieves and un-compresses (if necessary) the next packet from the server, appending it to the unread data in the buffer.
+     *
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private void getNextPacketFromServer() throws IOException {
+        appendPacket(readPacketHeader());
+    }
 
-            int remaining = this.buffer.length - this.pos;
-            byte[] newBuffer = new byte[remaining + uncompressedData.length];
+    /**
+     * Appends the packet whose header was read last to the unread data in the buffer.
+     *
+     * @param packetLength
+     *            the number of bytes the packet un-compresses to
+     * @throws IOException
+     *             if an I/O error occurs
+     */
+    private void appendPacket(int packetLength) throws IOException {
+        int remaining = this.limit - this.pos;
 
-            System.arraycopy(this.buffer, this.pos, newBuffer, 0, remaining);
-            System.arraycopy(uncompressedData, 0, newBuffer, remaining, uncompressedData.length);
+        if (remaining > 0 && this.traceProtocol.getValue()) {
+            this.log.logTrace("Combining remaining packet with new: ");
+        }
 
-            uncompressedData = newBuffer;
+        if (this.buffer == null || this.buffer.length < remaining + packetLength) {
+            byte[] newBuffer = new byte[Math.max(remaining + packetLength, this.buffer == null ? INITIAL_BUFFER_SIZE : this.buffer.length * 2)];
+            if (remaining > 0) {
+                System.arraycopy(this.buffer, this.pos, newBuffer, 0, remaining);
+            }
+            this.buffer = newBuffer;
+        } else if (remaining > 0 && this.pos > 0) {
+            System.arraycopy(this.buffer, this.pos, this.buffer, 0, remaining);
         }
 
         this.pos = 0;
-        this.buffer = uncompressedData;
+        this.limit = remaining;
 
-        return;
+        readPacketPayload(this.buffer, remaining);
+        this.limit += packetLength;
     }
 
     /**
-     * Determines if another packet needs to be read from the server to be able
-     * to read numBytes from the stream.
-     *
-     * @param numBytes
-     *            the number of bytes to be read
-     *
-     * @throws IOException
-     *             if an I/O error occors.
+     * Marks the buffer as empty once all of its data has been read, and releases it if it has grown too large to be kept.
      */
-    private void getNextPacketIfRequired(int numBytes) throws IOException {
-        if (this.buffer == null || this.pos + numBytes > this.buffer.length) {
-            getNextPacketFromServer();
+    private void releaseDrainedBuffer() {
+        if (this.pos == this.limit) {
+            this.pos = 0;
+            this.limit = 0;
+            if (this.buffer != null && this.buffer.length > MAX_RETAINED_BUFFER_SIZE) {
+                this.buffer = null;
+            }
         }
     }
 
     @Override
     public int read() throws IOException {
         try {
-            getNextPacketIfRequired(1);
+            while (this.pos == this.limit) {
+                getNextPacketFromServer();
+            }
         } catch (IOException ioEx) {
             return -1;
         }
 
-        return this.buffer[this.pos++] & 0xff;
+        int b = this.buffer[this.pos++] & 0xff;
+        releaseDrainedBuffer();
+        return b;
     }
 
     @Override
@@ -229,16 +298,27 @@ public class CompressedInputStream extends InputStream {
         }
 
         try {
-            getNextPacketIfRequired(len);
+            while (this.pos == this.limit) {
+                int packetLength = readPacketHeader();
+                if (packetLength <= len) {
+                    // the whole packet fits in the caller's array: un-compress it right there
+                    readPacketPayload(b, off);
+                    if (packetLength > 0) {
+                        return packetLength;
+                    }
+                } else {
+                    appendPacket(packetLength);
+                }
+            }
         } catch (IOException ioEx) {
             return -1;
         }
 
-        int remainingBufferLength = this.buffer.length - this.pos;
-        int consummedBytesLength = Math.min(remainingBufferLength, len);
+        int consummedBytesLength = Math.min(this.limit - this.pos, len);
 
         System.arraycopy(this.buffer, this.pos, b, off, consummedBytesLength);
         this.pos += consummedBytesLength;
+        releaseDrainedBuffer();
 
         return consummedBytesLength;
     }
@@ -267,14 +347,19 @@ public class CompressedInputStream extends InputStream {
     public long skip(long n) throws IOException {
         long count = 0;
 
-        for (long i = 0; i < n; i++) {
-            int bytesRead = read();
-
-            if (bytesRead == -1) {
-                break;
+        while (count < n) {
+            if (this.pos == this.limit) {
+                try {
+                    getNextPacketFromServer();
+                } catch (IOException ioEx) {
+                    break;
+                }
             }
 
-            count++;
+            int skipped = (int) Math.min(this.limit - this.pos, n - count);
+            this.pos += skipped;
+            count += skipped;
+            releaseDrainedBuffer();
         }
 
         return count;
@@ -22,86 +22,69 @@ package com.mysql.cj.protocol.a;
 
 import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.util.zip.Deflater;
 
 import com.mysql.cj.protocol.MessageSender;
 
 /**
  * A {@link MessageSender} for the compressed protocol.
  *
- * TODO: add support for pre-allocated buffer for large packets (if there's a demonstrable perf improvement)
+ * The buffers used to compress packets are kept from one packet to the next, unless they have grown beyond {@value #MAX_RETAINED_BUFFER_SIZE} bytes. A packet
+ * that isn't split is compressed or written straight from the caller's array when the compressor can take its header separately.
  */
 public class CompressedPacketSender implements MessageSender<NativePacketPayload> {
 
     private BufferedOutputStream outputStream;
-    private Deflater deflater = new Deflater();
-    /** Buffer to compress data to. Used only across one send() invocation. */
+    private PacketCompressor compressor;
+    /** Compress only large packets, and back off from payloads that don't compress well */
+    private boolean adaptive;
+    /** Buffer to compress data to */
     private byte compressedPacket[];
+    /** Buffer to lay out the pieces of a split packet for compression */
+    private byte uncompressedPacket[];
+    /** Header of a packet that isn't split, sent ahead of the caller's array */
+    private final byte packetHeader[] = new byte[NativeConstants.HEADER_LENGTH];
     /** Sequence id of compressed packet. Used only across one send() invocation. */
     private byte compressedSequenceId = 0;
-    /** Length of current compressed packet. */
-    private int compressedPayloadLen = 0;
+    /** Number of payloads still to be sent without trying to compress them (adaptive mode). */
+    private int payloadsToSkip = 0;
+    /** Number of payloads skipped after the last poorly compressing one; doubles while payloads keep compressing poorly (adaptive mode). */
+    private int skipRunLength = 0;
 
     public static final int COMP_HEADER_LENGTH = 7;
     public static final int MIN_COMPRESS_LEN = 50;
+    /** Smallest packet compressed in adaptive mode. */
+    public static final int ADAPTIVE_MIN_COMPRESS_LEN = 1024;
+    /** Largest number of payloads sent in a row without trying to compress them in adaptive mode. */
+    public static final int ADAPTIVE_MAX_SKIP = 64;
+    /** Largest buffers kept between packets */
+    static final int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
 
     public CompressedPacketSender(BufferedOutputStream outputStream) {
-        this.outputStream = outputStream;
-    }
-
-    /**
-     * Shut down this packet sender and deallocate any resources.
-     */
-    public void stop() {
-        this.deflater.end();
-        this.deflater = null;
-    }
-
-    private void resetPacket() {
-        this.compressedPayloadLen = 0;
-        this.deflater.reset();
+        this(outputStream, new ZlibPacketCompressor(), false);
     }
 
     /**
-     * Add and compress the header for the raw packet into the compressed packet.
+     * Constructor.
      *
-     * @param packetSequence
-     *            sequence id
-     * @param uncompressedPacketLen
-     *            uncompressed packet length
+     * @param outputStream
+     *            stream to the server
+     * @param compressor
+     *            the negotiated compression algorithm
+     * @param adaptive
+     *            "adaptiveCompression" property value
      */
-    private void addUncompressedHeader(byte packetSequence, int uncompressedPacketLen) {
-        byte uncompressedHeader[] = new byte[NativeConstants.HEADER_LENGTH];
-        NativeUtils.encodeMysqlThreeByteInteger(uncompressedPacketLen, uncompressedHeader, 0);
-        uncompressedHeader[3] = packetSequence;
-        this.deflater.setInput(uncompressedHeader);
-        this.compressedPayloadLen += this.deflater.deflate(this.compressedPacket, this.compressedPayloadLen,
-                this.compressedPacket.length - this.compressedPayloadLen);
-    }
-
-    /**
-     * Add and compress the payload into the compressed packet.
-     *
-     * @param payload
-     *            payload bytes
-     * @param payloadOffset
-     *            offset
-     * @param payloadLen
-     *            length
-     */
-    private void addPayload(byte[] payload, int payloadOffset, int payloadLen) {
-        this.deflater.setInput(payload, payloadOffset, payloadLen);
-        this.compressedPayloadLen += this.deflater.deflate(this.compressedPacket, this.compressedPayloadLen,
-                this.compressedPacket.length - this.compressedPayloadLen);
+    public CompressedPacketSender(BufferedOutputStream outputStream, PacketCompressor compressor, boolean adaptive) {
+        this.outputStream = outputStream;
+        this.compressor = compressor;
+        this.adaptive = adaptive;
     }
 
     /**
-     * Complete compression of the current payload contents to the compressed packet.
+     * Shut down this packet sender and deallocate any resources.
      */
-    private void completeCompression() {
-        this.deflater.finish();
-        this.compressedPayloadLen += this.deflater.deflate(this.compressedPacket, this.compressedPayloadLen,
-                this.compressedPacket.length - this.compressedPayloadLen);
+    public void stop() {
+        this.compressor.end();
+        this.compressor = null;
     }
 
     /**
@@ -138,18 +121,53 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
     }
 
     /**
-     * Send a compressed packet.
+     * Send a compressed packet, with the given data compressed if it makes it smaller.
      *
-     * @param uncompressedPayloadLen
-     *            uncompressed data length
+     * @param prefix
+     *            data to send ahead of the data bytes, or null
+     * @param data
+     *            data bytes
+     * @param offset
+     *            offset of the data
+     * @param len
+     *            data length
      * @throws IOException
      *             if write exception occurs
      */
-    private void sendCompressedPacket(int uncompressedPayloadLen) throws IOException {
-        writeCompressedHeader(this.compressedPayloadLen, this.compressedSequenceId++, uncompressedPayloadLen);
+    private void sendCompressedPacket(byte[] prefix, byte[] data, int offset, int len) throws IOException {
+        int totalLen = prefix == null ? len : prefix.length + len;
+        int compressedLen = -1;
+        if (this.payloadsToSkip > 0) {
+            this.payloadsToSkip--;
+        } else {
+            if (this.compressedPacket == null || this.compressedPacket.length < totalLen) {
+                this.compressedPacket = new byte[totalLen];
+            }
+            // don't send payloads with incompressible data
+            compressedLen = prefix == null ? this.compressor.compress(data, offset, len, this.compressedPacket, 0, totalLen - 1)
+                    : this.compressor.compress(prefix, data, offset, len, this.compressedPacket, 0, totalLen - 1);
 
-        // compressed payload
-        this.outputStream.write(this.compressedPacket, 0, this.compressedPayloadLen);
+            if (this.adaptive) {
+                if (compressedLen < 0 || compressedLen > totalLen - totalLen / 8) {
+                    // saved less than 1/8: skip the next payloads, twice as many as last time if it happened again
+                    this.skipRunLength = Math.min(Math.max(1, this.skipRunLength * 2), ADAPTIVE_MAX_SKIP);
+                    this.payloadsToSkip = this.skipRunLength;
+                } else {
+                    this.skipRunLength = 0;
+                }
+            }
+        }
+
+        if (compressedLen < 0) {
+            writeCompressedHeader(totalLen, this.compressedSequenceId++, 0);
+            if (prefix != null) {
+                this.outputStream.write(prefix);
+            }
+            this.outputStream.write(data, offset, len);
+        } else {
+            writeCompressedHeader(compressedLen, this.compressedSequenceId++, totalLen);
+            this.outputStream.write(this.compressedPacket, 0, compressedLen);
+        }
     }
 
     /**
@@ -160,6 +178,9 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
      * previous packet) - 4 (for the new header) can be sent. This means the payload will be limited by 8 bytes and this will continue to increase by 4 at every
      * iteration.
      *
+     * In adaptive mode, packets shorter than ADAPTIVE_MIN_COMPRESS_LEN are never compressed, and a payload that compresses poorly makes the following payloads
+     * go uncompressed without trying, for up to ADAPTIVE_MAX_SKIP payloads.
+     *
      * @param packet
      *            data bytes
      * @param packetLen
@@ -174,7 +195,7 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
         this.compressedSequenceId = packetSequence;
 
         // short-circuit send small packets without compression and return
-        if (packetLen < MIN_COMPRESS_LEN) {
+        if (packetLen < (this.adaptive ? ADAPTIVE_MIN_COMPRESS_LEN : MIN_COMPRESS_LEN)) {
             writeCompressedHeader(packetLen + NativeConstants.HEADER_LENGTH, this.compressedSequenceId, 0);
             writeUncompressedHeader(packetLen, packetSequence);
             this.outputStream.write(packet, 0, packetLen);
@@ -182,10 +203,14 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
             return;
         }
 
-        if (packetLen + NativeConstants.HEADER_LENGTH > NativeConstants.MAX_PACKET_SIZE) {
-            this.compressedPacket = new byte[NativeConstants.MAX_PACKET_SIZE];
-        } else {
-            this.compressedPacket = new byte[NativeConstants.HEADER_LENGTH + packetLen];
+        if (packetLen <= NativeConstants.MAX_PACKET_SIZE - NativeConstants.HEADER_LENGTH && this.compressor.canCompressInPieces()) {
+            // not split: no need to copy the payload behind its header
+            NativeUtils.encodeMysqlThreeByteInteger(packetLen, this.packetHeader, 0);
+            this.packetHeader[3] = packetSequence;
+            sendCompressedPacket(this.packetHeader, packet, 0, packetLen);
+            this.outputStream.flush();
+            releaseLargeBuffers();
+            return;
         }
 
         PacketSplitter packetSplitter = new PacketSplitter(packetLen);
@@ -194,50 +219,31 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
         int unsentOffset = 0;
         // loop over constructing and sending compressed packets
         while (true) {
-            this.compressedPayloadLen = 0;
-
             if (packetSplitter.nextPacket()) {
-                // rest of previous packet
-                if (unsentPayloadLen > 0) {
-                    addPayload(packet, unsentOffset, unsentPayloadLen);
-                }
-
                 // current packet
                 int remaining = NativeConstants.MAX_PACKET_SIZE - unsentPayloadLen;
                 // if remaining is 0 then we are sending a very huge packet such that are 4-byte header-size carryover from last packet accumulated to the size
                 // of a whole packet itself. We don't handle this. Would require 4 million packet segments (64 gigs in one logical packet)
                 int len = Math.min(remaining, NativeConstants.HEADER_LENGTH + packetSplitter.getPacketLen());
                 int lenNoHdr = len - NativeConstants.HEADER_LENGTH;
-                addUncompressedHeader(packetSequence, packetSplitter.getPacketLen());
-                addPayload(packet, packetSplitter.getOffset(), lenNoHdr);
 
-                completeCompression();
-                // don't send payloads with incompressible data
-                if (this.compressedPayloadLen >= len) {
-                    // combine the unsent and current packet in an uncompressed packet
-                    writeCompressedHeader(unsentPayloadLen + len, this.compressedSequenceId++, 0);
-                    this.outputStream.write(packet, unsentOffset, unsentPayloadLen);
-                    writeUncompressedHeader(lenNoHdr, packetSequence);
-                    this.outputStream.write(packet, packetSplitter.getOffset(), lenNoHdr);
-                } else {
-                    sendCompressedPacket(len + unsentPayloadLen);
+                // rest of previous packet, then header and payload of the current one
+                int chunkLen = unsentPayloadLen + len;
+                if (this.uncompressedPacket == null || this.uncompressedPacket.length < chunkLen) {
+                    this.uncompressedPacket = new byte[chunkLen];
                 }
+                System.arraycopy(packet, unsentOffset, this.uncompressedPacket, 0, unsentPayloadLen);
+                NativeUtils.encodeMysqlThreeByteInteger(packetSplitter.getPacketLen(), this.uncompressedPacket, unsentPayloadLen);
+                this.uncompressedPacket[unsentPayloadLen + 3] = packetSequence;
+                System.arraycopy(packet, packetSplitter.getOffset(), this.uncompressedPacket, unsentPayloadLen + NativeConstants.HEADER_LENGTH, lenNoHdr);
+                sendCompressedPacket(null, this.uncompressedPacket, 0, chunkLen);
 
                 packetSequence++;
                 unsentPayloadLen = packetSplitter.getPacketLen() - lenNoHdr;
                 unsentOffset = packetSplitter.getOffset() + lenNoHdr;
-                resetPacket();
             } else if (unsentPayloadLen > 0) {
                 // no more packets, send remaining unsent data
-                addPayload(packet, unsentOffset, unsentPayloadLen);
-                completeCompression();
-                if (this.compressedPayloadLen >= unsentPayloadLen) {
-                    writeCompressedHeader(unsentPayloadLen, this.compressedSequenceId, 0);
-                    this.outputStream.write(packet, unsentOffset, unsentPayloadLen);
-                } else {
-                    sendCompressedPacket(unsentPayloadLen);
-                }
-                resetPacket();
+                sendCompressedPacket(null, packet, unsentOffset, unsentPayloadLen);
                 break;
             } else {
                 // nothing left to send (only happens on boundaries)
@@ -246,9 +252,20 @@ public class CompressedPacketSender implements MessageSender<NativePacketPayload
         }
 
         this.outputStream.flush();
+        releaseLargeBuffers();
+    }
 
-        // release reference to (possibly large) compressed packet buffer
-        this.compressedPacket = null;
+    /**
+     * Drops the buffers that have grown beyond {@value #MAX_RETAINED_BUFFER_SIZE} bytes, so that one large packet doesn't pin memory for the lifetime of the
+     * connection.
+     */
+    private void releaseLargeBuffers() {
+        if (this.compressedPacket != null && this.compressedPacket.length > MAX_RETAINED_BUFFER_SIZE) {
+            this.compressedPacket = null;
+        }
+        if (this.uncompressedPacket != null && this.uncompressedPacket.length > MAX_RETAINED_BUFFER_SIZE) {
+            this.uncompressedPacket = null;
+        }
     }
 
     @Override
@@ -162,65 +162,100 @@ public class MysqlBinaryValueDecoder implements ValueDecoder {
 
     @Override
     public <T> T decodeUInt1(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeUInt1(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt1(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT1) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "BYTE" }));
         }
-        return vf.createFromLong(bytes[offset] & 0xff);
+        return bytes[offset] & 0xff;
     }
 
     @Override
     public <T> T decodeInt1(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeInt1(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt1(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT1) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "BYTE" }));
         }
-        return vf.createFromLong(bytes[offset]);
+        return bytes[offset];
     }
 
     @Override
     public <T> T decodeUInt2(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeUInt2(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt2(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT2) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "SHORT" }));
         }
         int asInt = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8;
-        return vf.createFromLong(asInt);
+        return asInt;
     }
 
     @Override
     public <T> T decodeInt2(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeInt2(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt2(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT2) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "SHORT" }));
         }
         short asShort = (short) (bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8);
-        return vf.createFromLong(asShort);
+        return asShort;
     }
 
     @Override
     public <T> T decodeUInt4(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeUInt4(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt4(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT4) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "INT" }));
         }
         long asLong = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (long) (bytes[offset + 3] & 0xff) << 24;
-        return vf.createFromLong(asLong);
+        return asLong;
     }
 
     @Override
     public <T> T decodeInt4(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeInt4(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt4(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT4) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "SHORT" }));
         }
         int asInt = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
-        return vf.createFromLong(asInt);
+        return asInt;
     }
 
     @Override
     public <T> T decodeInt8(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromLong(decodeInt8(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt8(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_INT8) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "LONG" }));
         }
         long asLong = bytes[offset] & 0xff | (long) (bytes[offset + 1] & 0xff) << 8 | (long) (bytes[offset + 2] & 0xff) << 16
                 | (long) (bytes[offset + 3] & 0xff) << 24 | (long) (bytes[offset + 4] & 0xff) << 32 | (long) (bytes[offset + 5] & 0xff) << 40
                 | (long) (bytes[offset + 6] & 0xff) << 48 | (long) (bytes[offset + 7] & 0xff) << 56;
-        return vf.createFromLong(asLong);
+        return asLong;
     }
 
     @Override
@@ -243,22 +278,32 @@ public class MysqlBinaryValueDecoder implements ValueDecoder {
 
     @Override
     public <T> T decodeFloat(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromDouble(decodeFloat(bytes, offset, length));
+    }
+
+    @Override
+    public double decodeFloat(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_FLOAT) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "FLOAT" }));
         }
         int asInt = bytes[offset] & 0xff | (bytes[offset + 1] & 0xff) << 8 | (bytes[offset + 2] & 0xff) << 16 | (bytes[offset + 3] & 0xff) << 24;
-        return vf.createFromDouble(Float.intBitsToFloat(asInt));
+        return Float.intBitsToFloat(asInt);
     }
 
     @Override
     public <T> T decodeDouble(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
+        return vf.createFromDouble(decodeDouble(bytes, offset, length));
+    }
+
+    @Override
+    public double decodeDouble(byte[] bytes, int offset, int length) {
         if (length != NativeConstants.BIN_LEN_DOUBLE) {
             throw new DataReadException(Messages.getString("ResultSet.InvalidLengthForType", new Object[] { length, "DOUBLE" }));
         }
         long valueAsLong = bytes[offset + 0] & 0xff | (long) (bytes[offset + 1] & 0xff) << 8 | (long) (bytes[offset + 2] & 0xff) << 16
                 | (long) (bytes[offset + 3] & 0xff) << 24 | (long) (bytes[offset + 4] & 0xff) << 32 | (long) (bytes[offset + 5] & 0xff) << 40
                 | (long) (bytes[offset + 6] & 0xff) << 48 | (long) (bytes[offset + 7] & 0xff) << 56;
-        return vf.createFromDouble(Double.longBitsToDouble(valueAsLong));
+        return Double.longBitsToDouble(valueAsLong);
     }
 
     @Override
@@ -88,32 +88,62 @@ public class MysqlTextValueDecoder implements ValueDecoder {
 
     @Override
     public <T> T decodeUInt1(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getInt(bytes, offset, offset + length));
+        return vf.createFromLong(decodeUInt1(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt1(byte[] bytes, int offset, int length) {
+        return getInt(bytes, offset, offset + length);
     }
 
     @Override
     public <T> T decodeInt1(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getInt(bytes, offset, offset + length));
+        return vf.createFromLong(decodeInt1(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt1(byte[] bytes, int offset, int length) {
+        return getInt(bytes, offset, offset + length);
     }
 
     @Override
     public <T> T decodeUInt2(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getInt(bytes, offset, offset + length));
+        return vf.createFromLong(decodeUInt2(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt2(byte[] bytes, int offset, int length) {
+        return getInt(bytes, offset, offset + length);
     }
 
     @Override
     public <T> T decodeInt2(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getInt(bytes, offset, offset + length));
+        return vf.createFromLong(decodeInt2(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt2(byte[] bytes, int offset, int length) {
+        return getInt(bytes, offset, offset + length);
     }
 
     @Override
     public <T> T decodeUInt4(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getLong(bytes, offset, offset + length));
+        return vf.createFromLong(decodeUInt4(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeUInt4(byte[] bytes, int offset, int length) {
+        return getLong(bytes, offset, offset + length);
     }
 
     @Override
     public <T> T decodeInt4(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getInt(bytes, offset, offset + length));
+        return vf.createFromLong(decodeInt4(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt4(byte[] bytes, int offset, int length) {
+        return getInt(bytes, offset, offset + length);
     }
 
     @Override
@@ -127,7 +157,12 @@ public class MysqlTextValueDecoder implements ValueDecoder {
 
     @Override
     public <T> T decodeInt8(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromLong(getLong(bytes, offset, offset + length));
+        return vf.createFromLong(decodeInt8(bytes, offset, length));
+    }
+
+    @Override
+    public long decodeInt8(byte[] bytes, int offset, int length) {
+        return getLong(bytes, offset, offset + length);
     }
 
     @Override
@@ -135,9 +170,20 @@ public class MysqlTextValueDecoder implements ValueDecoder {
         return decodeDouble(bytes, offset, length, vf);
     }
 
+    @Override
+    public double decodeFloat(byte[] bytes, int offset, int length) {
+        return decodeDouble(bytes, offset, length);
+    }
+
     @Override
     public <T> T decodeDouble(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
-        return vf.createFromDouble(getDouble(bytes, offset, length));
+        return vf.createFromDouble(decodeDouble(bytes, offset, length));
+    }
+
+    @Override
+    public double decodeDouble(byte[] bytes, int offset, int length) {
+        // parsing needs a String, but at least the result isn't boxed as in getDouble()
+        return Double.parseDouble(StringUtils.toAsciiString(bytes, offset, length));
     }
 
     @Override
@@ -25,6 +25,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import com.mysql.cj.Constants;
@@ -164,8 +165,7 @@ public class NativeAuthenticationProvider implements AuthenticationProvider<Nati
                         0 : capabilityFlags & NativeServerSession.CLIENT_FOUND_ROWS) //
                 | capabilityFlags & NativeServerSession.CLIENT_LONG_FLAG //
                 | (this.useConnectWithDb ? capabilityFlags & NativeServerSession.CLIENT_CONNECT_WITH_DB : 0) //
-                | (this.propertySet.getBooleanProperty(PropertyKey.useCompression).getValue() ? //
-                        capabilityFlags & NativeServerSession.CLIENT_COMPRESS : 0) //
+                | negotiateCompression(capabilityFlags) //
                 | (this.propertySet.getBooleanProperty(PropertyKey.allowLoadLocalInfile).getValue()
                         || this.propertySet.getStringProperty(PropertyKey.allowLoadLocalInfileInPath).isExplicitlySet() ? //
                                 capabilityFlags & NativeServerSession.CLIENT_LOCAL_FILES : 0) //
@@ -189,6 +189,8 @@ public class NativeAuthenticationProvider implements AuthenticationProvider<Nati
                 | (this.propertySet.getBooleanProperty(PropertyKey.trackSessionState).getValue() ? //
                         capabilityFlags & NativeServerSession.CLIENT_SESSION_TRACK : 0) //
                 | capabilityFlags & NativeServerSession.CLIENT_DEPRECATE_EOF //
+                | (this.propertySet.getBooleanProperty(PropertyKey.omitResultSetMetadata).getValue() ? //
+                        capabilityFlags & NativeServerSession.CLIENT_OPTIONAL_RESULTSET_METADATA : 0) //
                 | capabilityFlags & NativeServerSession.CLIENT_QUERY_ATTRIBUTES //
                 | capabilityFlags & NativeServerSession.CLIENT_MULTI_FACTOR_AUTHENTICATION;
 
@@ -643,9 +645,46 @@ public class NativeAuthenticationProvider implements AuthenticationProvider<Nati
         if ((clientParam & NativeServerSession.CLIENT_CONNECT_ATTRS) != 0) {
             appendConnectionAttributes(last_sent, this.propertySet.getStringProperty(PropertyKey.connectionAttributes).getValue(), enc);
         }
+
+        if ((clientParam & NativeServerSession.CLIENT_ZSTD_COMPRESSION_ALGORITHM) != 0) {
+            last_sent.writeInteger(IntegerDataType.INT1, this.propertySet.getIntegerProperty(PropertyKey.zstdCompressionLevel).getValue());
+        }
         return last_sent;
     }
 
+    /**
+     * Picks the protocol compression algorithm: the first one in "compressionAlgorithms" that both the server and the client support.
+     *
+     * @param capabilityFlags
+     *            server capabilities
+     * @return the capability flag of the chosen algorithm, or 0 if compression isn't used
+     */
+    private long negotiateCompression(long capabilityFlags) {
+        if (!this.propertySet.getBooleanProperty(PropertyKey.useCompression).getValue()) {
+            return 0;
+        }
+        for (String algorithm : StringUtils.split(this.propertySet.getStringProperty(PropertyKey.compressionAlgorithms).getValue(), ",", true)) {
+            switch (algorithm.toLowerCase(Locale.ROOT)) {
+                case "zlib":
+                    if ((capabilityFlags & NativeServerSession.CLIENT_COMPRESS) != 0) {
+                        return NativeServerSession.CLIENT_COMPRESS;
+                    }
+                    break;
+                case "zstd":
+                    if ((capabilityFlags & NativeServerSession.CLIENT_ZSTD_COMPRESSION_ALGORITHM) != 0 && ZstdPacketCompressor.isAvailable()) {
+                        return NativeServerSession.CLIENT_ZSTD_COMPRESSION_ALGORITHM;
+                    }
+                    break;
+                case "":
+                    break;
+                default:
+                    throw ExceptionFactory.createException(WrongArgumentException.class, Messages.getString("MysqlIO.115", new Object[] { algorithm }),
+                            getExceptionInterceptor());
+            }
+        }
+        return 0;
+    }
+
     private NativePacketPayload createChangeUserPacket(ServerSession serverSession, String pluginName, NativePacketPayload authData) {
         // write Auth Response Packet
         long clientParam = serverSession.getClientParam();
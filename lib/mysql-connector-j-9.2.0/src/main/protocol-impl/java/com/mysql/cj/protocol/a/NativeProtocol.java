@@ -167,6 +167,11 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
     /** Use this when reading in rows to avoid thousands of new() calls, because the byte arrays just get copied out of the packet anyway */
     protected NativePacketPayload reusablePacket = null;
 
+    /** Row packets that are copied out as soon as they are read go here; created on first use if 'reuseRowPacketBuffer' is enabled */
+    private NativePacketPayload copiedRowPacket = null;
+
+    private RuntimeProperty<Boolean> reuseRowPacketBuffer;
+
     /**
      * Packet used for 'LOAD DATA LOCAL INFILE'
      * We use a SoftReference, so that we don't penalize intermittent use of this feature
@@ -190,6 +195,18 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
     private int commandCount = 0;
 
+    /** Commands sent with sendPipelinedCommand() whose responses have not been read yet */
+    private int pipelinedCommandCount = 0;
+
+    /** Whether this protocol has set resultset_metadata=NONE in the server session */
+    private boolean resultSetMetadataOmitted = false;
+
+    /** Whether the next COM_STMT_EXECUTE should be answered without result set metadata */
+    private boolean omitResultSetMetadataForNextExecute = false;
+
+    /** Whether a command switching resultset_metadata has been sent and its response is still to be read */
+    private boolean resultSetMetadataSwitchPending = false;
+
     protected boolean hadWarnings = false;
     private int warningCount = 0;
 
@@ -266,6 +283,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         this.useServerPrepStmts = this.propertySet.getBooleanProperty(PropertyKey.useServerPrepStmts);
 
         this.reusablePacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+        this.reuseRowPacketBuffer = this.propertySet.getBooleanProperty(PropertyKey.reuseRowPacketBuffer);
 
         try {
             this.packetSender = new SimplePacketSender(this.socketConnection.getMysqlOutput());
@@ -419,13 +437,14 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
             //
             // Can't enable compression until after handshake
             //
-            if ((this.serverSession.getCapabilities().getCapabilityFlags() & NativeServerSession.CLIENT_COMPRESS) != 0
-                    && this.propertySet.getBooleanProperty(PropertyKey.useCompression).getValue()
-                    && !(this.socketConnection.getMysqlInput().getUnderlyingStream() instanceof CompressedInputStream)) {
+            long compressionFlag = this.serverSession.getClientParam()
+                    & (NativeServerSession.CLIENT_COMPRESS | NativeServerSession.CLIENT_ZSTD_COMPRESSION_ALGORITHM);
+            if (compressionFlag != 0 && !(this.socketConnection.getMysqlInput().getUnderlyingStream() instanceof CompressedInputStream)) {
                 this.useCompression = true;
                 this.socketConnection.setMysqlInput(new FullReadInputStream(new CompressedInputStream(this.socketConnection.getMysqlInput(),
-                        this.propertySet.getBooleanProperty(PropertyKey.traceProtocol), this.log)));
-                this.compressedPacketSender = new CompressedPacketSender(this.socketConnection.getMysqlOutput());
+                        this.propertySet.getBooleanProperty(PropertyKey.traceProtocol), this.log, createPacketCompressor(compressionFlag))));
+                this.compressedPacketSender = new CompressedPacketSender(this.socketConnection.getMysqlOutput(), createPacketCompressor(compressionFlag),
+                        this.propertySet.getBooleanProperty(PropertyKey.adaptiveCompression).getValue());
                 this.packetSender = this.compressedPacketSender;
             }
 
@@ -449,6 +468,20 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         this.propertySet.getBooleanProperty(PropertyKey.enablePacketDebug).addListener(this);
     }
 
+    /**
+     * Creates the {@link PacketCompressor} for the compression algorithm negotiated in the handshake.
+     *
+     * @param compressionFlag
+     *            CLIENT_COMPRESS or CLIENT_ZSTD_COMPRESSION_ALGORITHM
+     * @return {@link PacketCompressor}
+     */
+    private PacketCompressor createPacketCompressor(long compressionFlag) {
+        if (compressionFlag == NativeServerSession.CLIENT_ZSTD_COMPRESSION_ALGORITHM) {
+            return new ZstdPacketCompressor(this.propertySet.getIntegerProperty(PropertyKey.zstdCompressionLevel).getValue());
+        }
+        return new ZlibPacketCompressor();
+    }
+
     @Override
     public void handlePropertyChange(RuntimeProperty<?> prop) {
         switch (prop.getPropertyDefinition().getPropertyKey()) {
@@ -644,6 +677,13 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         int command = queryPacket.getByteBuffer()[0];
         this.commandCount++;
 
+        // taken before query interceptors get a chance to send commands of their own
+        boolean omitResultSetMetadata = this.omitResultSetMetadataForNextExecute && command == NativeConstants.COM_STMT_EXECUTE;
+        this.omitResultSetMetadataForNextExecute = false;
+        if (command == NativeConstants.COM_RESET_CONNECTION) {
+            this.resultSetMetadataOmitted = false;
+        }
+
         if (this.queryInterceptors != null) {
             NativePacketPayload interceptedPacketPayload = (NativePacketPayload) invokeQueryInterceptorsPre(queryPacket, false);
 
@@ -687,6 +727,11 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
 
             try {
                 clearInputStream();
+                if (!skipCheck && omitResultSetMetadata != this.resultSetMetadataOmitted && this.serverSession.isResultSetMetadataOptional()
+                        && (command == NativeConstants.COM_QUERY || command == NativeConstants.COM_STMT_PREPARE
+                                || command == NativeConstants.COM_STMT_EXECUTE)) {
+                    sendResultSetMetadataSwitch(omitResultSetMetadata);
+                }
                 this.packetSequence = -1;
                 send(queryPacket, queryPacket.getPosition());
 
@@ -701,6 +746,9 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
             NativePacketPayload returnPacket = null;
 
             if (!skipCheck) {
+                if (this.resultSetMetadataSwitchPending) {
+                    readResultSetMetadataSwitchResponse();
+                }
                 if (command == NativeConstants.COM_STMT_EXECUTE || command == NativeConstants.COM_STMT_RESET) {
                     this.packetReader.resetMessageSequence();
                 }
@@ -733,6 +781,143 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         }
     }
 
+    /**
+     * Writes a command to the server without waiting for its response, so that several commands can be in flight at once. Each command sent this way must be
+     * matched, in the same order, by a call to {@link #readPipelinedResponse(int)}, and nothing else may be sent on this connection until all responses have
+     * been read. Query interceptors and timeouts do not apply to pipelined commands.
+     *
+     * @param queryPacket
+     *            {@link NativePacketPayload} containing the command, with its position at the end of the payload
+     */
+    public void sendPipelinedCommand(NativePacketPayload queryPacket) {
+        try {
+            if (this.pipelinedCommandCount == 0) {
+                checkForOutstandingStreamingData();
+                this.serverSession.setStatusFlags(0, true);
+                this.hadWarnings = false;
+                setWarningCount(0);
+                if (this.useCompression) {
+                    int bytesLeft = this.socketConnection.getMysqlInput().available();
+                    if (bytesLeft > 0) {
+                        this.socketConnection.getMysqlInput().skip(bytesLeft);
+                    }
+                }
+                clearInputStream();
+                if (this.resultSetMetadataOmitted) {
+                    sendResultSetMetadataSwitch(false);
+                }
+            }
+
+            this.commandCount++;
+            this.packetSequence = -1;
+            send(queryPacket, queryPacket.getPosition());
+            this.pipelinedCommandCount++;
+        } catch (CJException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw ExceptionFactory.createCommunicationsException(this.propertySet, this.serverSession, getPacketSentTimeHolder(), getPacketReceivedTimeHolder(),
+                    ex, getExceptionInterceptor());
+        }
+    }
+
+    /**
+     * Returns the number of commands sent with {@link #sendPipelinedCommand(NativePacketPayload)} whose responses have not been read yet.
+     *
+     * @return count
+     */
+    public int getPipelinedCommandCount() {
+        return this.pipelinedCommandCount;
+    }
+
+    /**
+     * Forgets the commands sent with {@link #sendPipelinedCommand(NativePacketPayload)} whose responses have not been read. Their responses are still on the
+     * way, so the connection must not be used for anything else afterwards.
+     */
+    public void abandonPipelinedCommands() {
+        this.pipelinedCommandCount = 0;
+    }
+
+    /**
+     * Reads the first packet of the response to the oldest command sent with {@link #sendPipelinedCommand(NativePacketPayload)} whose response has not been
+     * read yet. The rest of the response, if any, is read with {@link #readAllResults(int, boolean, NativePacketPayload, boolean, ColumnDefinition,
+     * ProtocolEntityFactory)} as usual.
+     *
+     * @param command
+     *            the command byte of that command
+     * @return NativePacketPayload
+     * @throws CJException
+     *             if the server answered the command with an error; the responses to later commands can still be read
+     */
+    public NativePacketPayload readPipelinedResponse(int command) {
+        if (this.resultSetMetadataSwitchPending) {
+            readResultSetMetadataSwitchResponse();
+        }
+        this.pipelinedCommandCount--;
+        this.packetReader.resetMessageSequence();
+        try {
+            return checkErrorMessage(command);
+        } catch (CJException e) {
+            this.serverSession.preserveOldTransactionState();
+            throw e;
+        }
+    }
+
+    /**
+     * Sets whether the response to the next command sent with {@link #sendCommand(Message, boolean, int)}, if that command is a COM_STMT_EXECUTE, comes
+     * without result set metadata, which the caller must then have cached. Any other command that may return result set metadata gets it in full. Has no
+     * effect unless CLIENT_OPTIONAL_RESULTSET_METADATA was negotiated.
+     *
+     * @param omit
+     *            true to have the server omit result set metadata
+     */
+    public void setOmitResultSetMetadataForNextExecute(boolean omit) {
+        this.omitResultSetMetadataForNextExecute = omit;
+    }
+
+    /**
+     * Writes a SET resultset_metadata statement ahead of the command about to be sent, so that switching costs no round trip. Its response is read by
+     * {@link #readResultSetMetadataSwitchResponse()} before the command's one.
+     *
+     * @param omit
+     *            true for NONE, false for FULL
+     */
+    private void sendResultSetMetadataSwitch(boolean omit) {
+        NativePacketPayload packet = getNativeMessageBuilder().buildComQuery(null, this.session,
+                omit ? "SET resultset_metadata = NONE" : "SET resultset_metadata = FULL");
+        this.commandCount++;
+        this.packetSequence = -1;
+        send(packet, packet.getPosition());
+        this.resultSetMetadataOmitted = omit;
+        this.resultSetMetadataSwitchPending = true;
+    }
+
+    private void readResultSetMetadataSwitchResponse() {
+        this.resultSetMetadataSwitchPending = false;
+        this.packetReader.resetMessageSequence();
+        try {
+            checkErrorMessage(readMessage(this.reusablePacket));
+        } catch (CJCommunicationsException e) {
+            throw e;
+        } catch (CJException e) {
+            // The session kept its previous setting. Result set headers tell whether metadata follows, so the response to the command can still be read.
+            this.resultSetMetadataOmitted = !this.resultSetMetadataOmitted;
+        }
+        this.packetReader.resetMessageSequence();
+    }
+
+    /**
+     * Reads and discards the rows of the result set being read, up to and including the packet that ends it, whose server status is kept.
+     */
+    public void skipResultSetRows() {
+        NativePacketPayload packet;
+        do {
+            packet = readMessage(this.reusablePacket);
+            checkErrorMessage(packet);
+            packet.setPosition(packet.getPosition() - 1);
+        } while (this.serverSession.isEOFDeprecated() ? !packet.isResultSetOKPacket() : !packet.isEOFPacket());
+        readServerStatusForResultSets(packet, true);
+    }
+
     public void checkTransactionState() {
         int transState = this.serverSession.getTransactionState();
         if (transState == ServerSession.TRANSACTION_COMPLETED) {
@@ -885,6 +1070,9 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         if (this.reusablePacket != null && this.reusablePacket.getCapacity() > 1048576) {
             this.reusablePacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
         }
+        if (this.copiedRowPacket != null && this.copiedRowPacket.getCapacity() > 1048576) {
+            this.copiedRowPacket = null;
+        }
     }
 
     /**
@@ -1280,6 +1468,7 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
      */
     @Override
     public void changeUser(String user, String password, String database) {
+        this.resultSetMetadataOmitted = false;
         this.packetSequence = -1;
         this.packetSender = this.packetSender.undecorateAll();
         this.packetReader = this.packetReader.undecorateAll();
@@ -1346,6 +1535,29 @@ public class NativeProtocol extends AbstractProtocol<NativePacketPayload> implem
         return this.reusablePacket;
     }
 
+    /**
+     * Returns the payload to read a row packet into whose values are copied out before the next row is read, or null if 'reuseRowPacketBuffer' is disabled.
+     * Rows are read one at a time, so this one payload serves every such row of the connection.
+     *
+     * @return {@link NativePacketPayload}
+     */
+    public NativePacketPayload getCopiedRowPacket() {
+        if (!this.reuseRowPacketBuffer.getValue()) {
+            return null;
+        }
+        if (this.copiedRowPacket == null) {
+            this.copiedRowPacket = new NativePacketPayload(INITIAL_PACKET_SIZE);
+        }
+        return this.copiedRowPacket;
+    }
+
+    /**
+     * Hands the payload returned by {@link #getCopiedRowPacket()} over to a row that keeps it; the next row gets a new one.
+     */
+    public void detachCopiedRowPacket() {
+        this.copiedRowPacket = null;
+    }
+
     public int getWarningCount() {
         return this.warningCount;
     }
@@ -37,6 +37,7 @@ import com.mysql.cj.protocol.FullReadInputStream;
 import com.mysql.cj.protocol.PacketSentTimeHolder;
 import com.mysql.cj.protocol.ReadAheadInputStream;
 import com.mysql.cj.protocol.ServerSession;
+import com.mysql.cj.protocol.SocketChannelSocket;
 import com.mysql.cj.protocol.SocketConnection;
 
 public class NativeSocketConnection extends AbstractSocketConnection implements SocketConnection {
@@ -64,7 +65,10 @@ public class NativeSocketConnection extends AbstractSocketConnection implements
             this.socketFactory.beforeHandshake();
 
             InputStream rawInputStream;
-            if (propSet.getBooleanProperty(PropertyKey.useReadAheadInput).getValue()) {
+            if (this.mysqlSocket instanceof SocketChannelSocket) {
+                // reads ahead into its own direct buffer already
+                rawInputStream = this.mysqlSocket.getInputStream();
+            } else if (propSet.getBooleanProperty(PropertyKey.useReadAheadInput).getValue()) {
                 rawInputStream = new ReadAheadInputStream(this.mysqlSocket.getInputStream(), 16384,
                         propSet.getBooleanProperty(PropertyKey.traceProtocol).getValue(), log);
             } else if (propSet.getBooleanProperty(PropertyKey.useUnbufferedInput).getValue()) {
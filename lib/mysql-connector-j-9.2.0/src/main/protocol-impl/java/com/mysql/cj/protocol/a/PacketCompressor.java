@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import java.io.IOException;
+
+import com.mysql.cj.Messages;
+import com.mysql.cj.exceptions.CJOperationNotSupportedException;
+import com.mysql.cj.exceptions.ExceptionFactory;
+
+/**
+ * A compression algorithm of the compressed protocol. Every compressed packet is a self-contained unit, so implementations keep no state from one packet to
+ * the next, other than reusable compression contexts.
+ */
+public interface PacketCompressor {
+
+    /**
+     * Compresses a packet payload.
+     *
+     * @param src
+     *            data to compress
+     * @param srcOffset
+     *            offset of the data
+     * @param srcLength
+     *            length of the data
+     * @param dst
+     *            buffer to compress into
+     * @param dstOffset
+     *            offset in the buffer
+     * @param dstLength
+     *            room available in the buffer
+     * @return the length of the compressed data, or -1 if it doesn't fit in dstLength bytes
+     */
+    int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength);
+
+    /**
+     * Can {@link #compress(byte[], byte[], int, int, byte[], int, int)} be used, i.e., can this compressor take its input in two pieces?
+     *
+     * @return false unless overridden
+     */
+    default boolean canCompressInPieces() {
+        return false;
+    }
+
+    /**
+     * Compresses a prefix, such as a packet header, followed by a payload held in another array, as if they were one piece of data. Must only be called if
+     * {@link #canCompressInPieces()}.
+     *
+     * @param prefix
+     *            data to compress first, all of it
+     * @param src
+     *            data to compress after the prefix
+     * @param srcOffset
+     *            offset of the data
+     * @param srcLength
+     *            length of the data
+     * @param dst
+     *            buffer to compress into
+     * @param dstOffset
+     *            offset in the buffer
+     * @param dstLength
+     *            room available in the buffer
+     * @return the length of the compressed data, or -1 if it doesn't fit in dstLength bytes
+     */
+    default int compress(byte[] prefix, byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
+    /**
+     * Decompresses a packet payload.
+     *
+     * @param src
+     *            compressed data
+     * @param srcOffset
+     *            offset of the compressed data
+     * @param srcLength
+     *            length of the compressed data
+     * @param dst
+     *            buffer to decompress into
+     * @param dstOffset
+     *            offset in the buffer
+     * @param dstLength
+     *            uncompressed length, as announced in the compressed packet header
+     * @throws IOException
+     *             if the data can't be decompressed
+     */
+    void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) throws IOException;
+
+    /**
+     * Releases any resources held by this compressor.
+     */
+    void end();
+
+}
@@ -61,9 +61,18 @@ public class ResultsetRowReader implements ProtocolEntityReader<ResultsetRow, Na
         NativePacketPayload rowPacket = null;
         NativePacketHeader hdr = this.protocol.getPacketReader().readHeader();
 
+        // rows that are copied out of their packet can all be read into the same payload, as the next row is only read after the row is built
+        Optional<NativePacketPayload> reuse;
+        if (rf.canReuseRowPacketForBufferRow()) {
+            reuse = Optional.ofNullable(this.protocol.getReusablePacket());
+        } else if (rf.copiesRowPacket(hdr.getMessageSize())) {
+            reuse = Optional.ofNullable(this.protocol.getCopiedRowPacket());
+        } else {
+            reuse = Optional.empty();
+        }
+
         // read the entire packet(s)
-        rowPacket = this.protocol.getPacketReader()
-                .readMessage(rf.canReuseRowPacketForBufferRow() ? Optional.ofNullable(this.protocol.getReusablePacket()) : Optional.empty(), hdr);
+        rowPacket = this.protocol.getPacketReader().readMessage(reuse, hdr);
         this.protocol.checkErrorMessage(rowPacket);
         // Didn't read an error, so re-position to beginning of packet in order to read result set data
         rowPacket.setPosition(rowPacket.getPosition() - 1);
@@ -75,6 +84,11 @@ public class ResultsetRowReader implements ProtocolEntityReader<ResultsetRow, Na
             return null;
         }
 
+        if (!rf.canReuseRowPacketForBufferRow() && reuse.isPresent() && !rf.copiesRowPacket(rowPacket.getPayloadLength())) {
+            // a multi-packet row grew past the threshold and will be kept as a buffer row, which then owns the payload
+            this.protocol.detachCopiedRowPacket();
+        }
+
         return sf.createFromMessage(rowPacket);
     }
 
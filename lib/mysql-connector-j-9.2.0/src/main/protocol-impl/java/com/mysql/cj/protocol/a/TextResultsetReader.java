@@ -53,12 +53,14 @@ public class TextResultsetReader implements ProtocolEntityReader<Resultset, Nati
 
         if (columnCount > 0) {
             // Build a result set with rows.
+            boolean metadataOmitted = this.protocol.getServerSession().isResultSetMetadataOptional()
+                    && resultPacket.readInteger(IntegerDataType.INT1) == NativeConstants.RESULTSET_METADATA_NONE;
 
             // Read in the column information
-            ColumnDefinition cdef = this.protocol.read(ColumnDefinition.class, new ColumnDefinitionFactory(columnCount, metadata));
+            ColumnDefinition cdef = this.protocol.read(ColumnDefinition.class, new ColumnDefinitionFactory(columnCount, metadata, metadataOmitted));
 
-            // There is no EOF packet after fields when CLIENT_DEPRECATE_EOF is set
-            if (!this.protocol.getServerSession().isEOFDeprecated()) {
+            // There is no EOF packet after fields when CLIENT_DEPRECATE_EOF is set, nor when there are no fields
+            if (!this.protocol.getServerSession().isEOFDeprecated() && !metadataOmitted) {
                 this.protocol.skipPacket();
                 //this.protocol.readServerStatusForResultSets(this.protocol.readPacket(this.protocol.getReusablePacket()), true);
             }
@@ -24,7 +24,6 @@ import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.protocol.ColumnDefinition;
 import com.mysql.cj.protocol.ProtocolEntityFactory;
 import com.mysql.cj.protocol.Resultset;
-import com.mysql.cj.protocol.Resultset.Concurrency;
 import com.mysql.cj.protocol.ResultsetRow;
 import com.mysql.cj.protocol.a.NativeConstants.StringSelfDataType;
 import com.mysql.cj.protocol.a.result.ByteArrayRow;
@@ -44,12 +43,7 @@ public class TextRowFactory extends AbstractRowFactory implements ProtocolEntity
 
     @Override
     public ResultsetRow createFromMessage(NativePacketPayload rowPacket) {
-        // use a buffer row for reusable packets (streaming results), blobs and long strings
-        // or if we're over the threshold
-        boolean useBufferRow = this.canReuseRowPacketForBufferRow || this.columnDefinition.hasLargeFields()
-                || rowPacket.getPayloadLength() >= this.useBufferRowSizeThreshold.getValue();
-
-        if (this.resultSetConcurrency == Concurrency.UPDATABLE || !useBufferRow) {
+        if (copiesRowPacket(rowPacket.getPayloadLength())) {
             byte[][] rowBytes = new byte[this.columnDefinition.getFields().length][];
 
             for (int i = 0; i < this.columnDefinition.getFields().length; i++) {
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * {@link PacketCompressor} for the zstd compression algorithm, negotiated with CLIENT_ZSTD_COMPRESSION_ALGORITHM.
+ *
+ * The driver doesn't bundle a zstd implementation. This one binds to the zstd-jni library (com.github.luben:zstd-jni) when it is available in the class
+ * path; see {@link #isAvailable()}.
+ */
+public class ZstdPacketCompressor implements PacketCompressor {
+
+    private static final String ZSTD_CLASS_NAME = "com.github.luben.zstd.Zstd";
+
+    private static final MethodHandle COMPRESS;
+    private static final MethodHandle DECOMPRESS;
+    private static final MethodHandle IS_ERROR;
+
+    static {
+        MethodHandle compress = null;
+        MethodHandle decompress = null;
+        MethodHandle isError = null;
+        try {
+            Class<?> zstd = Class.forName(ZSTD_CLASS_NAME);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            // long compressByteArray(byte[] dst, int dstOffset, int dstSize, byte[] src, int srcOffset, int srcSize, int level)
+            compress = lookup.findStatic(zstd, "compressByteArray",
+                    MethodType.methodType(long.class, byte[].class, int.class, int.class, byte[].class, int.class, int.class, int.class));
+            // long decompressByteArray(byte[] dst, int dstOffset, int dstSize, byte[] src, int srcOffset, int srcSize)
+            decompress = lookup.findStatic(zstd, "decompressByteArray",
+                    MethodType.methodType(long.class, byte[].class, int.class, int.class, byte[].class, int.class, int.class));
+            isError = lookup.findStatic(zstd, "isError", MethodType.methodType(boolean.class, long.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // zstd-jni is not in the class path, or its native library can't be loaded
+            compress = null;
+            decompress = null;
+            isError = null;
+        }
+        COMPRESS = compress;
+        DECOMPRESS = decompress;
+        IS_ERROR = isError;
+    }
+
+    private int level;
+
+    /**
+     * Is a zstd implementation available?
+     *
+     * @return true if zstd-jni was found in the class path
+     */
+    public static boolean isAvailable() {
+        return COMPRESS != null;
+    }
+
+    /**
+     * Constructor. Must only be called if {@link #isAvailable()}.
+     *
+     * @param level
+     *            compression level, as sent to the server in the handshake response
+     */
+    public ZstdPacketCompressor(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) {
+        long result;
+        try {
+            result = (long) COMPRESS.invokeExact(dst, dstOffset, dstLength, src, srcOffset, srcLength, this.level);
+        } catch (Throwable t) {
+            return -1;
+        }
+        // the only error expected here is a too small destination buffer, i.e., incompressible data
+        return isError(result) ? -1 : (int) result;
+    }
+
+    @Override
+    public void decompress(byte[] src, int srcOffset, int srcLength, byte[] dst, int dstOffset, int dstLength) throws IOException {
+        long result;
+        try {
+            result = (long) DECOMPRESS.invokeExact(dst, dstOffset, dstLength, src, srcOffset, srcLength);
+        } catch (Throwable t) {
+            throw new IOException("Error while uncompressing packet from server.", t);
+        }
+        if (isError(result) || result != dstLength) {
+            throw new IOException("Error while uncompressing packet from server.");
+        }
+    }
+
+    private static boolean isError(long result) {
+        try {
+            return (boolean) IS_ERROR.invokeExact(result);
+        } catch (Throwable t) {
+            return true;
+        }
+    }
+
+    @Override
+    public void end() {
+        // zstd-jni array methods don't hold native contexts
+    }
+
+}
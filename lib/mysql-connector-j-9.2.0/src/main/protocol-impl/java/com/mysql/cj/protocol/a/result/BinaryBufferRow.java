@@ -219,6 +219,24 @@ public class BinaryBufferRow extends AbstractBufferRow {
      */
     @Override
     public <T> T getValue(int columnIndex, ValueFactory<T> vf) {
+        int length = seekToValue(columnIndex);
+        return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+    }
+
+    @Override
+    public int decodePrimitive(int columnIndex) {
+        int length = seekToValue(columnIndex);
+        return decodePrimitiveFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length);
+    }
+
+    /**
+     * Positions the buffer at the value of the given column.
+     *
+     * @param columnIndex
+     *            column index
+     * @return the length of the value
+     */
+    private int seekToValue(int columnIndex) {
         findAndSeekToOffset(columnIndex);
 
         // field length is type-specific in binary-encoded results
@@ -232,7 +250,7 @@ public class BinaryBufferRow extends AbstractBufferRow {
                         Messages.getString("MysqlIO.97", new Object[] { type, columnIndex + 1, this.metadata.getFields().length }), this.exceptionInterceptor);
             }
         }
-        return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
+        return length;
     }
 
     @Override
@@ -82,4 +82,11 @@ public class ByteArrayRow extends AbstractResultsetRow {
         return getValueFromBytes(columnIndex, columnData, 0, length, vf);
     }
 
+    @Override
+    public int decodePrimitive(int columnIndex) {
+        byte[] columnData = this.internalRowData[columnIndex];
+        int length = columnData == null ? 0 : columnData.length;
+        return decodePrimitiveFromBytes(columnIndex, columnData, 0, length);
+    }
+
 }
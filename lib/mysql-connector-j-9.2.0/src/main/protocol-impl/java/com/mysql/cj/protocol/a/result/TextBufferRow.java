@@ -122,4 +122,11 @@ public class TextBufferRow extends AbstractBufferRow {
         return getValueFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length, vf);
     }
 
+    @Override
+    public int decodePrimitive(int columnIndex) {
+        findAndSeekToOffset(columnIndex);
+        int length = (int) this.rowFromServer.readInteger(IntegerDataType.INT_LENENC);
+        return decodePrimitiveFromBytes(columnIndex, this.rowFromServer.getByteBuffer(), this.rowFromServer.getPosition(), length);
+    }
+
 }
@@ -225,6 +225,91 @@ public class XProtocolDecoder implements ValueDecoder {
         }
     }
 
+    /*
+     * Primitive decoders. X Protocol sends every signed integer as a zigzag-encoded varint and every unsigned one as a plain varint, whatever its width.
+     */
+
+    @Override
+    public long decodeInt1(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readSInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeUInt1(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readUInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeInt2(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readSInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeUInt2(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readUInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeInt4(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readSInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeUInt4(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readUInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public long decodeInt8(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readSInt64();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public double decodeFloat(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readFloat();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
+    @Override
+    public double decodeDouble(byte[] bytes, int offset, int length) {
+        try {
+            return CodedInputStream.newInstance(bytes, offset, length).readDouble();
+        } catch (IOException e) {
+            throw new DataReadException(e);
+        }
+    }
+
     @Override
     public <T> T decodeDecimal(byte[] bytes, int offset, int length, ValueFactory<T> vf) {
         try {
@@ -20,13 +20,22 @@
 
 package com.mysql.cj.jdbc;
 
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 
+import com.mysql.cj.Messages;
 import com.mysql.cj.MysqlConnection;
 import com.mysql.cj.ServerVersion;
 import com.mysql.cj.TransactionEventHandler;
+import com.mysql.cj.exceptions.CJOperationNotSupportedException;
+import com.mysql.cj.exceptions.ExceptionFactory;
 import com.mysql.cj.interceptors.QueryInterceptor;
 import com.mysql.cj.jdbc.result.CachedResultSetMetaData;
 import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
@@ -536,4 +545,84 @@ public interface JdbcConnection extends java.sql.Connection, MysqlConnection, Tr
      */
     String getDatabase();
 
+    /**
+     * Runs a task against this connection asynchronously. Tasks submitted to the same connection run one at a time, in submission order, on the executor
+     * set with {@link #setAsyncExecutor(Executor)}. The task itself uses the connection in the usual, blocking way, so it holds an executor thread while it
+     * waits on the server.
+     *
+     * The default implementation is for connections that do not support this; its future always completes with a {@link SQLFeatureNotSupportedException}.
+     *
+     * @param task
+     *            the task
+     * @param <T>
+     *            result type
+     * @return a future completed with the task's result, or exceptionally with the {@link SQLException} or other exception it threw
+     */
+    default <T> CompletableFuture<T> executeAsync(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(new SQLFeatureNotSupportedException(Messages.getString("OperationNotSupportedException.0")));
+        return result;
+    }
+
+    /**
+     * Executes a query asynchronously, see {@link #executeAsync(Callable)}. The statement used to run it is closed when the result set is closed.
+     *
+     * @param sql
+     *            SQL query
+     * @return a future completed with the {@link ResultSet}
+     */
+    default CompletableFuture<ResultSet> executeQueryAsync(String sql) {
+        return executeAsync(() -> {
+            Statement stmt = createStatement();
+            try {
+                ResultSet rs = stmt.executeQuery(sql);
+                stmt.closeOnCompletion();
+                return rs;
+            } catch (SQLException | RuntimeException ex) {
+                stmt.close();
+                throw ex;
+            }
+        });
+    }
+
+    /**
+     * Executes an update asynchronously, see {@link #executeAsync(Callable)}.
+     *
+     * @param sql
+     *            SQL INSERT, UPDATE, DELETE or DDL statement
+     * @return a future completed with the update count
+     */
+    default CompletableFuture<Long> executeLargeUpdateAsync(String sql) {
+        return executeAsync(() -> {
+            try (Statement stmt = createStatement()) {
+                return stmt.executeLargeUpdate(sql);
+            }
+        });
+    }
+
+    /**
+     * Creates a {@link Pipeline} for sending several independent statements on this connection in one network round trip.
+     *
+     * The default implementation is for connections that do not support pipelining and always throws.
+     *
+     * @return a new, empty pipeline
+     * @throws SQLException
+     *             if the connection is closed
+     * @throws SQLFeatureNotSupportedException
+     *             if this connection does not support pipelining
+     */
+    default Pipeline createPipeline() throws SQLException {
+        throw new SQLFeatureNotSupportedException(Messages.getString("OperationNotSupportedException.0"));
+    }
+
+    /**
+     * Sets the executor that runs this connection's asynchronous operations.
+     *
+     * @param executor
+     *            the executor, or null for the shared default: virtual threads on Java 21 and later, otherwise a pool of daemon threads
+     */
+    default void setAsyncExecutor(Executor executor) {
+        throw ExceptionFactory.createException(CJOperationNotSupportedException.class, Messages.getString("OperationNotSupportedException.0"));
+    }
+
 }
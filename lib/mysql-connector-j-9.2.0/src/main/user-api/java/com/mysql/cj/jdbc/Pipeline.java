@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A sequence of independent statements sent to the server back to back on one connection, whose responses are then read in order, so that the whole sequence
+ * costs one network round trip instead of one per statement.
+ *
+ * Statements are captured when they are added: an SQL string is sent as COM_QUERY, a client-side prepared statement as COM_QUERY with its current parameter
+ * values and a server-side prepared statement as COM_STMT_EXECUTE with its current parameter values. The server runs them one after another exactly as if
+ * they had been executed separately, and a failing statement does not stop the ones after it, so statements whose outcome depends on an earlier one failing
+ * should not be pipelined. Query timeouts and query interceptors do not apply to pipelined statements. Only a limited number of statements is sent ahead of the
+ * response being read, so that statements with large results cannot stall the connection by filling the network buffers in both directions.
+ */
+public interface Pipeline {
+
+    /**
+     * The outcome of one pipelined statement.
+     */
+    interface Result {
+
+        /**
+         * Returns the result set produced by the statement.
+         *
+         * @return the result set, or null if the statement failed or did not produce one
+         */
+        ResultSet getResultSet();
+
+        /**
+         * Returns the number of rows affected by the statement.
+         *
+         * @return the update count, or -1 if the statement failed or produced a result set
+         */
+        long getUpdateCount();
+
+        /**
+         * Returns the error the server answered the statement with.
+         *
+         * @return the error, or null if the statement succeeded
+         */
+        SQLException getException();
+
+    }
+
+    /**
+     * Adds an SQL statement.
+     *
+     * @param sql
+     *            SQL statement
+     * @return this pipeline
+     * @throws SQLException
+     *             if the connection is closed
+     */
+    Pipeline add(String sql) throws SQLException;
+
+    /**
+     * Adds an execution of a prepared statement of this connection with its current parameter values. The statement may be added several times with different
+     * values. Stream parameters are not supported.
+     *
+     * @param pstmt
+     *            prepared statement
+     * @return this pipeline
+     * @throws SQLException
+     *             if the statement belongs to another connection, is closed, has unset or stream parameters
+     */
+    Pipeline add(PreparedStatement pstmt) throws SQLException;
+
+    /**
+     * Returns the number of statements added since the pipeline was created or last executed.
+     *
+     * @return count
+     */
+    int size();
+
+    /**
+     * Sends all statements added so far and reads their responses. Afterwards the pipeline is empty and can be reused.
+     *
+     * @return one {@link Result} per statement, in the order they were added
+     * @throws SQLException
+     *             if the connection fails, in which case it is closed, or a statement cannot be sent, such as one larger than max_allowed_packet, in which case
+     *             the statements sent before it have run; errors returned by the server for individual statements are reported in their {@link Result}
+     *             instead
+     */
+    List<Result> execute() throws SQLException;
+
+}
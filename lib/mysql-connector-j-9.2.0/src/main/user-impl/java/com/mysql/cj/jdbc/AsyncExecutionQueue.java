@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Runs the asynchronous operations of one connection on an {@link Executor}, one at a time and in the order they were submitted, since a classic protocol
+ * connection can only process one command at a time.
+ *
+ * An operation only occupies an executor thread while it runs; operations queued behind it hold none. A running operation still blocks that thread while it
+ * waits on the server. Unless another executor is set, operations run on virtual threads on Java 21 and later, so a handful of carrier threads drive any number
+ * of waiting connections; on older runtimes they run on a shared pool of daemon threads that grows with the number of connections with an operation running.
+ */
+public class AsyncExecutionQueue {
+
+    private static class DefaultExecutorHolder {
+
+        private static final AtomicInteger threadCount = new AtomicInteger();
+
+        static final ExecutorService INSTANCE = createDefaultExecutor();
+
+        private static ExecutorService createDefaultExecutor() {
+            try {
+                // Java 21+: Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(...).factory()), looked up reflectively to keep building for Java 8
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "MySQL async execution ", 1L);
+                ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+                return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            } catch (ReflectiveOperationException e) {
+                return Executors.newCachedThreadPool(r -> {
+                    Thread t = new Thread(r, "MySQL async execution " + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+        }
+
+    }
+
+    private volatile Executor executor = null;
+    private CompletableFuture<?> tail = CompletableFuture.completedFuture(null);
+    private final Lock lock = new ReentrantLock();
+
+    /**
+     * Runs the given task after all previously submitted tasks have completed, successfully or not.
+     *
+     * @param task
+     *            the task
+     * @param <T>
+     *            result type
+     * @return a future completed with the task's result, or exceptionally with whatever the task threw
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        this.lock.lock();
+        try {
+            this.tail = this.tail.handleAsync((r, t) -> {
+                if (!result.isDone()) { // cancelled while queued
+                    try {
+                        result.complete(task.call());
+                    } catch (Throwable ex) {
+                        result.completeExceptionally(ex);
+                    }
+                }
+                return null;
+            }, getExecutor());
+        } finally {
+            this.lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Sets the executor that runs the tasks submitted from now on.
+     *
+     * @param executor
+     *            the executor, or null for the shared default executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor tasks run on.
+     *
+     * @return the executor set with {@link #setExecutor(Executor)}, or the shared default executor
+     */
+    public Executor getExecutor() {
+        Executor e = this.executor;
+        return e != null ? e : DefaultExecutorHolder.INSTANCE;
+    }
+
+}
@@ -42,6 +42,7 @@ import java.sql.Wrapper;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.locks.Lock;
 
 import com.mysql.cj.BindValue;
@@ -1450,6 +1451,30 @@ public class ClientPreparedStatement extends com.mysql.cj.jdbc.StatementImpl imp
         return executeUpdateInternal(true, false);
     }
 
+    /**
+     * Executes this statement's query asynchronously, see {@link JdbcConnection#executeAsync(java.util.concurrent.Callable)}. The parameters must not be
+     * changed, nor the statement executed again, until the returned future has completed.
+     *
+     * @return a future completed with the {@link java.sql.ResultSet}
+     * @throws SQLException
+     *             if the statement is closed
+     */
+    public CompletableFuture<java.sql.ResultSet> executeQueryAsync() throws SQLException {
+        return checkClosed().executeAsync(this::executeQuery);
+    }
+
+    /**
+     * Executes this statement's update asynchronously, see {@link JdbcConnection#executeAsync(java.util.concurrent.Callable)}. The parameters must not be
+     * changed, nor the statement executed again, until the returned future has completed.
+     *
+     * @return a future completed with the update count
+     * @throws SQLException
+     *             if the statement is closed
+     */
+    public CompletableFuture<Long> executeLargeUpdateAsync() throws SQLException {
+        return checkClosed().executeAsync(this::executeLargeUpdate);
+    }
+
     @Override
     public ParameterBindings getParameterBindings() throws SQLException {
         Lock connectionLock = checkClosed().getConnectionLock();
@@ -44,6 +44,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Stack;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
@@ -56,6 +58,7 @@ import com.mysql.cj.LicenseConfiguration;
 import com.mysql.cj.Messages;
 import com.mysql.cj.NativeSession;
 import com.mysql.cj.NoSubInterceptorWrapper;
+import com.mysql.cj.PerVmQueryInfoCacheFactory.PerVmQueryInfoCache;
 import com.mysql.cj.PreparedQuery;
 import com.mysql.cj.QueryInfo;
 import com.mysql.cj.ServerVersion;
@@ -93,6 +96,8 @@ import com.mysql.cj.telemetry.TelemetrySpan;
 import com.mysql.cj.telemetry.TelemetrySpanName;
 import com.mysql.cj.util.LRUCache;
 import com.mysql.cj.util.StringUtils;
+import com.mysql.cj.util.TinyLfuCache;
+import com.mysql.cj.util.TinyLfuCacheFactory;
 import com.mysql.cj.util.Util;
 
 /**
@@ -261,7 +266,11 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
      */
     private final CopyOnWriteArrayList<JdbcStatement> openStatements = new CopyOnWriteArrayList<>();
 
-    private LRUCache<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
+    /** Runs the operations submitted with executeAsync() and friends in order; created on first use, most connections never need one */
+    private transient volatile AsyncExecutionQueue asyncQueue;
+    private final transient Lock asyncQueueLock = new ReentrantLock();
+
+    private transient Map<CompoundCacheKey, CallableStatement.CallableStatementParamInfo> parsedCallableStatementCache;
     private final Lock parsedCallableStatementCacheLock = new ReentrantLock();
 
     /** The password we used */
@@ -274,7 +283,7 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     private boolean readOnly = false;
 
     /** Cache of ResultSet metadata */
-    protected LRUCache<String, CachedResultSetMetaData> resultSetMetadataCache;
+    protected transient Map<String, CachedResultSetMetaData> resultSetMetadataCache;
     protected final Lock resultSetMetadataCacheLock = new ReentrantLock();
 
     /**
@@ -286,9 +295,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
     /** The user we're connected as */
     private String user = null;
 
-    private LRUCache<String, Boolean> serverSideStatementCheckCache;
+    private transient Map<String, Boolean> serverSideStatementCheckCache;
     private final Lock serverSideStatementCheckCacheLock = new ReentrantLock();
-    private LRUCache<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
+    private transient Map<CompoundCacheKey, ServerPreparedStatement> serverSideStatementCache;
 
     private HostInfo origHostInfo;
 
@@ -398,13 +407,13 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     createPreparedStatementCaches();
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.cacheCallableStmts).getValue()) {
-                    this.parsedCallableStatementCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue());
+                    this.parsedCallableStatementCache = createCache(this.propertySet.getIntegerProperty(PropertyKey.callableStmtCacheSize).getValue());
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.allowMultiQueries).getValue()) {
                     this.propertySet.getProperty(PropertyKey.cacheResultSetMetadata).setValue(false); // we don't handle this yet
                 }
                 if (this.propertySet.getBooleanProperty(PropertyKey.cacheResultSetMetadata).getValue()) {
-                    this.resultSetMetadataCache = new LRUCache<>(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue());
+                    this.resultSetMetadataCache = createCache(this.propertySet.getIntegerProperty(PropertyKey.metadataCacheSize).getValue());
                 }
                 if (this.propertySet.getStringProperty(PropertyKey.socksProxyHost).getStringValue() != null) {
                     this.propertySet.getProperty(PropertyKey.socketFactory).setValue(SocksProxySocketFactory.class.getName());
@@ -1042,8 +1051,22 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
                     getExceptionInterceptor());
             this.queryInfoCache = cacheFactory.getInstance(connectionLock, this.origHostInfo.getDatabaseUrl(), cacheSize,
                     this.prepStmtCacheSqlLimit.getValue());
+            if (this.queryInfoCache instanceof PerVmQueryInfoCache) {
+                ((PerVmQueryInfoCache) this.queryInfoCache).setSession(this.session);
+            }
 
-            if (this.useServerPrepStmts.getValue()) {
+            if (this.useServerPrepStmts.getValue() && useTinyLfuCaches() && cacheSize > 1) {
+                this.serverSideStatementCheckCache = new TinyLfuCache<>(cacheSize);
+                this.serverSideStatementCache = new TinyLfuCache<>(cacheSize, (key, ps) -> {
+                    ps.isCached = false;
+                    ps.setClosed(false);
+                    try {
+                        ps.doClose(CloseOption.PROPAGATE, CloseOption.NO_CACHE);
+                    } catch (SQLException sqlEx) {
+                        // punt
+                    }
+                });
+            } else if (this.useServerPrepStmts.getValue()) {
                 this.serverSideStatementCheckCache = new LRUCache<>(cacheSize);
                 this.serverSideStatementCache = new LRUCache<CompoundCacheKey, ServerPreparedStatement>(cacheSize) {
 
@@ -1075,6 +1098,17 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         }
     }
 
+    /**
+     * Whether 'queryInfoCacheFactory' selects {@link TinyLfuCacheFactory}, in which case every cache of this connection is a {@link TinyLfuCache}.
+     */
+    private boolean useTinyLfuCaches() {
+        return TinyLfuCacheFactory.class.getName().equals(this.propertySet.getStringProperty(PropertyKey.queryInfoCacheFactory).getValue());
+    }
+
+    private <K, V> Map<K, V> createCache(int maxSize) {
+        return useTinyLfuCaches() ? new TinyLfuCache<>(maxSize) : new LRUCache<>(maxSize);
+    }
+
     @Override
     public java.sql.Statement createStatement() throws SQLException {
         return createStatement(DEFAULT_RESULT_SET_TYPE, DEFAULT_RESULT_SET_CONCURRENCY);
@@ -1106,6 +1140,43 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
         return this.openStatements.size();
     }
 
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Callable<T> task) {
+        return getAsyncQueue().submit(task);
+    }
+
+    @Override
+    public Pipeline createPipeline() throws SQLException {
+        try {
+            checkClosed();
+            return new PipelineImpl(this);
+        } catch (CJException e) {
+            throw SQLExceptionsMapping.translateException(e, getExceptionInterceptor());
+        }
+    }
+
+    @Override
+    public void setAsyncExecutor(Executor executor) {
+        getAsyncQueue().setExecutor(executor);
+    }
+
+    private AsyncExecutionQueue getAsyncQueue() {
+        AsyncExecutionQueue queue = this.asyncQueue;
+        if (queue == null) {
+            this.asyncQueueLock.lock();
+            try {
+                queue = this.asyncQueue;
+                if (queue == null) {
+                    queue = new AsyncExecutionQueue();
+                    this.asyncQueue = queue;
+                }
+            } finally {
+                this.asyncQueueLock.unlock();
+            }
+        }
+        return queue;
+    }
+
     @Override
     public boolean getAutoCommit() throws SQLException {
         Lock connectionLock = getConnectionLock();
@@ -2564,6 +2635,9 @@ public class ConnectionImpl implements JdbcConnection, SessionEventListener, Ser
 
     @Override
     public CachedResultSetMetaData getCachedMetaData(String sql) {
+        if (this.resultSetMetadataCache instanceof TinyLfuCache) {
+            return this.resultSetMetadataCache.get(sql);
+        }
         if (this.resultSetMetadataCache != null) {
             this.resultSetMetadataCacheLock.lock();
             try {
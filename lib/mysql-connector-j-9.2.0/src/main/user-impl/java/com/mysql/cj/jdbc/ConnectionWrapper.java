@@ -35,6 +35,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -686,6 +688,22 @@ public class ConnectionWrapper extends WrapperBase implements JdbcConnection {
         return this.mc.getActiveStatementCount();
     }
 
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Callable<T> task) {
+        return this.mc.executeAsync(task);
+    }
+
+    @Override
+    public Pipeline createPipeline() throws SQLException {
+        checkClosed();
+        return this.mc.createPipeline();
+    }
+
+    @Override
+    public void setAsyncExecutor(Executor executor) {
+        this.mc.setAsyncExecutor(executor);
+    }
+
     @Override
     public String getStatementComment() {
         return this.mc.getStatementComment();
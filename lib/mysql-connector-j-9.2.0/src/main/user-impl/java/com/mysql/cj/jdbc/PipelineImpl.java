@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import com.mysql.cj.BindValue;
+import com.mysql.cj.Messages;
+import com.mysql.cj.NativeSession;
+import com.mysql.cj.PreparedQuery;
+import com.mysql.cj.ServerPreparedQuery;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.exceptions.CJCommunicationsException;
+import com.mysql.cj.exceptions.CJException;
+import com.mysql.cj.exceptions.ExceptionFactory;
+import com.mysql.cj.exceptions.MysqlErrorNumbers;
+import com.mysql.cj.jdbc.exceptions.SQLError;
+import com.mysql.cj.jdbc.exceptions.SQLExceptionsMapping;
+import com.mysql.cj.jdbc.result.ResultSetFactory;
+import com.mysql.cj.jdbc.result.ResultSetImpl;
+import com.mysql.cj.protocol.ColumnDefinition;
+import com.mysql.cj.protocol.a.NativeConstants;
+import com.mysql.cj.protocol.a.NativeMessageBuilder;
+import com.mysql.cj.protocol.a.NativePacketPayload;
+import com.mysql.cj.protocol.a.NativeProtocol;
+
+/**
+ * {@link Pipeline} implementation on top of {@link NativeProtocol#sendPipelinedCommand(NativePacketPayload)} and
+ * {@link NativeProtocol#readPipelinedResponse(int)}.
+ */
+public class PipelineImpl implements Pipeline {
+
+    private static class Entry {
+
+        final NativePacketPayload packet;
+        final ResultSetFactory resultSetFactory;
+        final ServerPreparedQuery serverPreparedQuery;
+
+        Entry(NativePacketPayload packet, ResultSetFactory resultSetFactory, ServerPreparedQuery serverPreparedQuery) {
+            this.packet = packet;
+            this.resultSetFactory = resultSetFactory;
+            this.serverPreparedQuery = serverPreparedQuery;
+        }
+
+    }
+
+    private static class ResultImpl implements Result {
+
+        private final ResultSet resultSet;
+        private final long updateCount;
+        private final SQLException exception;
+
+        ResultImpl(ResultSet resultSet, long updateCount, SQLException exception) {
+            this.resultSet = resultSet;
+            this.updateCount = updateCount;
+            this.exception = exception;
+        }
+
+        @Override
+        public ResultSet getResultSet() {
+            return this.resultSet;
+        }
+
+        @Override
+        public long getUpdateCount() {
+            return this.updateCount;
+        }
+
+        @Override
+        public SQLException getException() {
+            return this.exception;
+        }
+
+    }
+
+    /** Limits on the commands sent ahead of the response being read, see {@link #executeEntries(NativeProtocol)} */
+    static final int MAX_COMMANDS_IN_FLIGHT = 64;
+    static final int MAX_BYTES_IN_FLIGHT = 16 * 1024;
+
+    private final ConnectionImpl connection;
+    private final NativeSession session;
+    private final NativeMessageBuilder commandBuilder;
+    private final List<Entry> entries = new ArrayList<>();
+
+    /** Owns the result sets of statements added as SQL strings */
+    private StatementImpl statement = null;
+
+    public PipelineImpl(ConnectionImpl connection) {
+        this.connection = connection;
+        this.session = connection.getSession();
+        this.commandBuilder = new NativeMessageBuilder(this.session.getServerSession().supportsQueryAttributes());
+    }
+
+    @Override
+    public Pipeline add(String sql) throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            this.connection.checkClosed();
+            if (this.statement == null || this.statement.isClosed()) {
+                this.statement = (StatementImpl) this.connection.createStatement();
+            }
+            NativePacketPayload packet = this.commandBuilder.buildComQuery(null, this.session, sql, null,
+                    this.session.getPropertySet().getStringProperty(PropertyKey.characterEncoding).getValue());
+            this.entries.add(new Entry(packet, this.statement.resultSetFactory, null));
+            return this;
+        } catch (CJException e) {
+            throw SQLExceptionsMapping.translateException(e, this.session.getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public Pipeline add(PreparedStatement pstmt) throws SQLException {
+        ClientPreparedStatement stmt = pstmt.unwrap(ClientPreparedStatement.class);
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            this.connection.checkClosed();
+            stmt.checkClosed();
+            if (stmt.session != this.session) {
+                throw SQLError.createSQLException(Messages.getString("Pipeline.0"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                        this.session.getExceptionInterceptor());
+            }
+
+            PreparedQuery query = (PreparedQuery) stmt.query;
+            for (BindValue bv : query.getQueryBindings().getBindValues()) {
+                if (bv.isStream()) {
+                    throw SQLError.createSQLException(Messages.getString("Pipeline.1"), MysqlErrorNumbers.SQLSTATE_CONNJ_ILLEGAL_ARGUMENT,
+                            this.session.getExceptionInterceptor());
+                }
+            }
+
+            // both builders write into the session's shared send packet, so take a copy
+            NativePacketPayload shared;
+            ServerPreparedQuery serverPreparedQuery = null;
+            if (query instanceof ServerPreparedQuery) {
+                serverPreparedQuery = (ServerPreparedQuery) query;
+                shared = serverPreparedQuery.prepareExecutePacket();
+            } else {
+                query.getQueryBindings().checkAllParametersSet();
+                shared = query.fillSendPacket(query.getQueryBindings());
+            }
+            NativePacketPayload packet = new NativePacketPayload(Arrays.copyOf(shared.getByteBuffer(), shared.getPosition()));
+            packet.setPosition(packet.getPayloadLength());
+
+            this.entries.add(new Entry(packet, stmt.resultSetFactory, serverPreparedQuery));
+            return this;
+        } catch (CJException e) {
+            throw SQLExceptionsMapping.translateException(e, this.session.getExceptionInterceptor());
+        } finally {
+            connectionLock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public List<Result> execute() throws SQLException {
+        Lock connectionLock = this.connection.getConnectionLock();
+        connectionLock.lock();
+        try {
+            this.connection.checkClosed();
+            return executeEntries(this.session.getProtocol());
+        } catch (IOException ex) {
+            throw SQLExceptionsMapping.translateException(
+                    ExceptionFactory.createCommunicationsException(this.session.getPropertySet(), this.session.getServerSession(),
+                            this.session.getProtocol().getPacketSentTimeHolder(), this.session.getProtocol().getPacketReceivedTimeHolder(), ex,
+                            this.session.getExceptionInterceptor()),
+                    this.session.getExceptionInterceptor());
+        } catch (CJException ex) {
+            throw SQLExceptionsMapping.translateException(ex, this.session.getExceptionInterceptor());
+        } finally {
+            this.entries.clear();
+            connectionLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the entries and reads their responses. While the server writes a response it does not read further commands, so the commands sent ahead of the
+     * response being read are kept within {@value #MAX_COMMANDS_IN_FLIGHT} commands and {@value #MAX_BYTES_IN_FLIGHT} bytes, which the socket buffers can
+     * hold; otherwise a large result could leave both sides blocked on writing.
+     *
+     * If a command cannot be sent, the responses to the commands sent before it are read and discarded. If the connection fails or a response cannot be read
+     * completely, the connection is closed, since its input can no longer be trusted.
+     *
+     * @param protocol
+     *            protocol
+     * @return one result per entry
+     * @throws IOException
+     *             if reading a response fails
+     */
+    private List<Result> executeEntries(NativeProtocol protocol) throws IOException {
+        List<Result> results = new ArrayList<>(this.entries.size());
+        int sent = 0;
+        long bytesInFlight = 0;
+        boolean readingResponse = false;
+        try {
+            for (Entry e : this.entries) {
+                while (sent < this.entries.size() && (sent == results.size() || sent - results.size() < MAX_COMMANDS_IN_FLIGHT
+                        && bytesInFlight + this.entries.get(sent).packet.getPosition() <= MAX_BYTES_IN_FLIGHT)) {
+                    NativePacketPayload packet = this.entries.get(sent).packet;
+                    protocol.sendPipelinedCommand(packet);
+                    bytesInFlight += packet.getPosition();
+                    sent++;
+                }
+                readingResponse = true;
+                results.add(readResult(protocol, e));
+                readingResponse = false;
+                bytesInFlight -= e.packet.getPosition();
+            }
+            return results;
+        } catch (IOException | RuntimeException ex) {
+            if (readingResponse || ex instanceof CJCommunicationsException) {
+                invalidate(protocol, ex);
+            } else {
+                drainResponses(protocol, results.size());
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Reads the response to one entry.
+     *
+     * @param protocol
+     *            protocol
+     * @param e
+     *            the entry whose command is the oldest one with a response still owed
+     * @return the result, holding the error if the server answered the command with one
+     * @throws IOException
+     *             if reading the response fails
+     */
+    private Result readResult(NativeProtocol protocol, Entry e) throws IOException {
+        int command = e.packet.getByteBuffer()[0];
+        try {
+            NativePacketPayload resultPacket = protocol.readPipelinedResponse(command);
+            ColumnDefinition metadata = e.serverPreparedQuery != null ? e.serverPreparedQuery.getResultFields() : null;
+            ResultSetImpl rs = protocol.readAllResults(-1, false, resultPacket, command == NativeConstants.COM_STMT_EXECUTE, metadata, e.resultSetFactory);
+            if (e.serverPreparedQuery != null) {
+                e.serverPreparedQuery.getQueryBindings().getSendTypesToServer().set(false);
+            }
+            return rs.hasRows() ? new ResultImpl(rs, -1, null) : new ResultImpl(null, rs.getUpdateCount(), null);
+        } catch (CJCommunicationsException ex) {
+            throw ex;
+        } catch (CJException ex) {
+            // the server has answered this command with an error and goes on with the next one
+            return new ResultImpl(null, -1, SQLExceptionsMapping.translateException(ex, this.session.getExceptionInterceptor()));
+        }
+    }
+
+    /**
+     * Reads and discards the responses still owed after sending a command failed, so that the connection can be used again.
+     *
+     * @param protocol
+     *            protocol
+     * @param first
+     *            index of the entry whose response is the oldest one owed
+     */
+    private void drainResponses(NativeProtocol protocol, int first) {
+        try {
+            for (int i = first; protocol.getPipelinedCommandCount() > 0; i++) {
+                Result r = readResult(protocol, this.entries.get(i));
+                if (r.getResultSet() != null) {
+                    r.getResultSet().close();
+                }
+            }
+        } catch (IOException | SQLException | RuntimeException ex) {
+            invalidate(protocol, ex);
+        }
+    }
+
+    /**
+     * Closes the connection after its input has been left in an unknown state.
+     *
+     * @param protocol
+     *            protocol
+     * @param cause
+     *            why
+     */
+    private void invalidate(NativeProtocol protocol, Throwable cause) {
+        protocol.abandonPipelinedCommands();
+        this.connection.cleanup(cause);
+    }
+
+}
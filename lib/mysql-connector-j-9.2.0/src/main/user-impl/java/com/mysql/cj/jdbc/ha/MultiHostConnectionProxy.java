@@ -71,6 +71,9 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
 
     JdbcConnection currentConnection = null;
 
+    // Executor for asynchronous operations, set on every underlying connection so it survives connection switches.
+    Executor asyncExecutor = null;
+
     boolean isClosed = false;
     boolean closedExplicitly = false;
     String closedReason = null;
@@ -366,6 +369,7 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
                 conn.setProxy(this.thisAsConnection); // First call sets this connection as underlying connection parent proxy (its creator).
             }
             conn.setProxy(topmostProxy); // Set the topmost proxy in the underlying connection.
+            conn.setAsyncExecutor(this.asyncExecutor);
             return conn;
         } finally {
             this.lock.unlock();
@@ -411,6 +415,7 @@ public abstract class MultiHostConnectionProxy implements InvocationHandler {
     void syncSessionState(JdbcConnection source, JdbcConnection target, boolean readOnly) throws SQLException {
         if (target != null) {
             target.setReadOnly(readOnly);
+            target.setAsyncExecutor(this.asyncExecutor);
         }
 
         if (source == null || target == null) {
@@ -36,6 +36,8 @@ import java.sql.Struct;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -51,6 +53,7 @@ import com.mysql.cj.jdbc.CloseOption;
 import com.mysql.cj.jdbc.JdbcConnection;
 import com.mysql.cj.jdbc.JdbcPreparedStatement;
 import com.mysql.cj.jdbc.JdbcPropertySet;
+import com.mysql.cj.jdbc.Pipeline;
 import com.mysql.cj.jdbc.exceptions.SQLError;
 import com.mysql.cj.jdbc.result.CachedResultSetMetaData;
 import com.mysql.cj.jdbc.result.ResultSetInternalMethods;
@@ -187,6 +190,27 @@ public class MultiHostMySQLConnection implements JdbcConnection {
         return getActiveMySQLConnection().getActiveStatementCount();
     }
 
+    @Override
+    public <T> CompletableFuture<T> executeAsync(Callable<T> task) {
+        return getActiveMySQLConnection().executeAsync(task);
+    }
+
+    @Override
+    public Pipeline createPipeline() throws SQLException {
+        return getActiveMySQLConnection().createPipeline();
+    }
+
+    @Override
+    public void setAsyncExecutor(Executor executor) {
+        this.thisAsProxy.getLock().lock();
+        try {
+            this.thisAsProxy.asyncExecutor = executor;
+            getActiveMySQLConnection().setAsyncExecutor(executor);
+        } finally {
+            this.thisAsProxy.getLock().unlock();
+        }
+    }
+
     @Override
     public boolean getAutoCommit() throws SQLException {
         return getActiveMySQLConnection().getAutoCommit();
@@ -100,6 +100,7 @@ import com.mysql.cj.result.LocalTimeValueFactory;
 import com.mysql.cj.result.LongValueFactory;
 import com.mysql.cj.result.OffsetDateTimeValueFactory;
 import com.mysql.cj.result.OffsetTimeValueFactory;
+import com.mysql.cj.result.Row;
 import com.mysql.cj.result.ShortValueFactory;
 import com.mysql.cj.result.SqlDateValueFactory;
 import com.mysql.cj.result.SqlTimeValueFactory;
@@ -183,13 +184,13 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     private ExceptionInterceptor exceptionInterceptor;
 
-    private ValueFactory<Boolean> booleanValueFactory;
+    private BooleanValueFactory booleanValueFactory;
     private ValueFactory<Byte> byteValueFactory;
     private ValueFactory<Short> shortValueFactory;
-    private ValueFactory<Integer> integerValueFactory;
-    private ValueFactory<Long> longValueFactory;
+    private IntegerValueFactory integerValueFactory;
+    private LongValueFactory longValueFactory;
     private ValueFactory<Float> floatValueFactory;
-    private ValueFactory<Double> doubleValueFactory;
+    private DoubleValueFactory doubleValueFactory;
     private ValueFactory<BigDecimal> bigDecimalValueFactory;
     private ValueFactory<InputStream> binaryStreamValueFactory;
     private ValueFactory<Time> defaultTimeValueFactory;
@@ -726,8 +727,25 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public boolean getBoolean(int columnIndex) throws SQLException {
-        Boolean res = getObject(columnIndex, Boolean.TYPE);
-        return res == null ? false : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            switch (this.thisRow.decodePrimitive(columnIndex - 1)) {
+                case Row.PRIMITIVE_NULL:
+                    return false;
+                case Row.PRIMITIVE_LONG:
+                    return this.booleanValueFactory.createBooleanFromLong(this.thisRow.getDecodedLong());
+                case Row.PRIMITIVE_DOUBLE:
+                    return this.booleanValueFactory.createBooleanFromDouble(this.thisRow.getDecodedDouble());
+                default:
+                    Boolean res = this.thisRow.getValue(columnIndex - 1, this.booleanValueFactory);
+                    return res == null ? false : res;
+            }
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
@@ -827,8 +845,25 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        Double res = getObject(columnIndex, Double.TYPE);
-        return res == null ? (double) 0 : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            switch (this.thisRow.decodePrimitive(columnIndex - 1)) {
+                case Row.PRIMITIVE_NULL:
+                    return 0;
+                case Row.PRIMITIVE_LONG:
+                    return this.doubleValueFactory.createDoubleFromLong(this.thisRow.getDecodedLong());
+                case Row.PRIMITIVE_DOUBLE:
+                    return this.doubleValueFactory.createDoubleFromDouble(this.thisRow.getDecodedDouble());
+                default:
+                    Double res = this.thisRow.getValue(columnIndex - 1, this.doubleValueFactory);
+                    return res == null ? (double) 0 : res;
+            }
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
@@ -849,8 +884,25 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        Integer res = getObject(columnIndex, Integer.TYPE);
-        return res == null ? 0 : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            switch (this.thisRow.decodePrimitive(columnIndex - 1)) {
+                case Row.PRIMITIVE_NULL:
+                    return 0;
+                case Row.PRIMITIVE_LONG:
+                    return this.integerValueFactory.createIntFromLong(this.thisRow.getDecodedLong());
+                case Row.PRIMITIVE_DOUBLE:
+                    return this.integerValueFactory.createIntFromDouble(this.thisRow.getDecodedDouble());
+                default:
+                    Integer res = this.thisRow.getValue(columnIndex - 1, this.integerValueFactory);
+                    return res == null ? 0 : res;
+            }
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
@@ -875,8 +927,25 @@ public class ResultSetImpl extends NativeResultset implements ResultSetInternalM
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        Long res = getObject(columnIndex, Long.TYPE);
-        return res == null ? 0L : res;
+        Lock connectionLock = checkClosed().getConnectionLock();
+        connectionLock.lock();
+        try {
+            checkRowPos();
+            checkColumnBounds(columnIndex);
+            switch (this.thisRow.decodePrimitive(columnIndex - 1)) {
+                case Row.PRIMITIVE_NULL:
+                    return 0L;
+                case Row.PRIMITIVE_LONG:
+                    return this.longValueFactory.createLongFromLong(this.thisRow.getDecodedLong());
+                case Row.PRIMITIVE_DOUBLE:
+                    return this.longValueFactory.createLongFromDouble(this.thisRow.getDecodedDouble());
+                default:
+                    Long res = this.thisRow.getValue(columnIndex - 1, this.longValueFactory);
+                    return res == null ? 0L : res;
+            }
+        } finally {
+            connectionLock.unlock();
+        }
     }
 
     @Override
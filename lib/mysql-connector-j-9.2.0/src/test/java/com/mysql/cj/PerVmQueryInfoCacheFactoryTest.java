@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.PerVmQueryInfoCacheFactory.PerVmQueryInfoCache;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcPropertySetImpl;
+import com.mysql.cj.protocol.ServerSession;
+import com.mysql.cj.protocol.a.NativeServerSession;
+
+/**
+ * Tests for {@link PerVmQueryInfoCacheFactory}.
+ */
+public class PerVmQueryInfoCacheFactoryTest {
+
+    private static final String SQL = "INSERT INTO t (a, b) VALUES (?, ?)";
+
+    @BeforeEach
+    public void clearSharedCache() {
+        PerVmQueryInfoCacheFactory.clear();
+    }
+
+    /**
+     * A session that is not connected but can parse queries.
+     */
+    private static Session newSession(boolean rewriteBatchedStatements, String characterEncoding) {
+        JdbcPropertySetImpl propertySet = new JdbcPropertySetImpl();
+        propertySet.getProperty(PropertyKey.rewriteBatchedStatements).setValue(rewriteBatchedStatements);
+        propertySet.getProperty(PropertyKey.characterEncoding).setValue(characterEncoding);
+        NativeServerSession serverSession = new NativeServerSession(propertySet);
+        return new NativeSession(null, propertySet) {
+
+            @Override
+            public ServerSession getServerSession() {
+                return serverSession;
+            }
+
+        };
+    }
+
+    private static PerVmQueryInfoCache newCache(Session session) {
+        PerVmQueryInfoCache cache = (PerVmQueryInfoCache) new PerVmQueryInfoCacheFactory().getInstance(null, "jdbc:mysql://localhost/", 25, 2048);
+        cache.setSession(session);
+        return cache;
+    }
+
+    private static QueryInfo getOrParse(PerVmQueryInfoCache cache, Session session, String sql) {
+        QueryInfo queryInfo = cache.get(sql);
+        if (queryInfo == null) {
+            queryInfo = new QueryInfo(sql, session, session.getPropertySet().getStringProperty(PropertyKey.characterEncoding).getValue());
+            cache.put(sql, queryInfo);
+        }
+        return queryInfo;
+    }
+
+    @Test
+    public void testSharedAcrossConnections() {
+        Session session1 = newSession(false, "UTF-8");
+        Session session2 = newSession(false, "UTF-8");
+        PerVmQueryInfoCache cache1 = newCache(session1);
+        PerVmQueryInfoCache cache2 = newCache(session2);
+        long hits = PerVmQueryInfoCacheFactory.getHitCount();
+        long misses = PerVmQueryInfoCacheFactory.getMissCount();
+        long bytesSaved = PerVmQueryInfoCacheFactory.getEstimatedBytesSaved();
+
+        QueryInfo parsed = getOrParse(cache1, session1, SQL);
+        assertSame(parsed, getOrParse(cache2, session2, SQL));
+        assertEquals(1, PerVmQueryInfoCacheFactory.getSize());
+        assertEquals(hits + 1, PerVmQueryInfoCacheFactory.getHitCount());
+        assertEquals(misses + 1, PerVmQueryInfoCacheFactory.getMissCount());
+        assertEquals(bytesSaved + PerVmQueryInfoCacheFactory.estimateSize(SQL, parsed), PerVmQueryInfoCacheFactory.getEstimatedBytesSaved());
+
+        // invalidation through one connection must not take entries away from the others
+        cache1.invalidateAll();
+        assertSame(parsed, cache2.get(SQL));
+    }
+
+    @Test
+    public void testKeyedByParseSettings() {
+        Session plain = newSession(false, "UTF-8");
+        Session rewriting = newSession(true, "UTF-8");
+        Session latin1 = newSession(false, "Cp1252");
+
+        QueryInfo q1 = getOrParse(newCache(plain), plain, SQL);
+        QueryInfo q2 = getOrParse(newCache(rewriting), rewriting, SQL);
+        QueryInfo q3 = getOrParse(newCache(latin1), latin1, SQL);
+        assertNotSame(q1, q2);
+        assertNotSame(q1, q3);
+        assertNotSame(q2, q3);
+        assertTrue(q2.isRewritableWithMultiValuesClause());
+        assertEquals(3, PerVmQueryInfoCacheFactory.getSize());
+    }
+
+    @Test
+    public void testUnboundAndOversizedKeysNotCached() {
+        PerVmQueryInfoCache unbound = (PerVmQueryInfoCache) new PerVmQueryInfoCacheFactory().getInstance(null, "jdbc:mysql://localhost/", 25, 2048);
+        Session session = newSession(false, "UTF-8");
+        unbound.put(SQL, new QueryInfo(SQL, session, "UTF-8"));
+        assertNull(unbound.get(SQL));
+
+        PerVmQueryInfoCache limited = (PerVmQueryInfoCache) new PerVmQueryInfoCacheFactory().getInstance(null, "jdbc:mysql://localhost/", 25, 10);
+        limited.setSession(session);
+        limited.put(SQL, new QueryInfo(SQL, session, "UTF-8"));
+        assertNull(limited.get(SQL));
+        assertEquals(0, PerVmQueryInfoCacheFactory.getSize());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        Session session = newSession(false, "UTF-8");
+        List<String> statements = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            statements.add("SELECT c" + i + " FROM t WHERE id = ?");
+        }
+        long hits = PerVmQueryInfoCacheFactory.getHitCount();
+        long misses = PerVmQueryInfoCacheFactory.getMissCount();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            PerVmQueryInfoCache cache = newCache(session);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int round = 0; round < 200; round++) {
+                        for (String sql : statements) {
+                            if (getOrParse(cache, session, sql).getNumberOfPlaceholders() != 1) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.incrementAndGet();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertEquals(0, failures.get());
+        assertEquals(statements.size(), PerVmQueryInfoCacheFactory.getSize());
+        long lookups = PerVmQueryInfoCacheFactory.getHitCount() - hits + PerVmQueryInfoCacheFactory.getMissCount() - misses;
+        assertEquals(threads * 200 * statements.size(), lookups);
+        assertTrue(PerVmQueryInfoCacheFactory.getMissCount() - misses <= threads * statements.size());
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link AsyncExecutionQueue}.
+ */
+public class AsyncExecutionQueueTest {
+
+    @Test
+    public void testTasksRunOneAtATimeInOrder() throws Exception {
+        AsyncExecutionQueue queue = new AsyncExecutionQueue();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        queue.setExecutor(pool);
+        try {
+            List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+            AtomicInteger running = new AtomicInteger();
+            AtomicBoolean overlapped = new AtomicBoolean();
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                futures.add(queue.submit(() -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    order.add(n);
+                    running.decrementAndGet();
+                    return n;
+                }));
+            }
+            for (int i = 0; i < 50; i++) {
+                assertEquals(Integer.valueOf(i), futures.get(i).get(10, TimeUnit.SECONDS));
+                assertEquals(Integer.valueOf(i), order.get(i));
+            }
+            assertFalse(overlapped.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailureDoesNotStopTheQueue() throws Exception {
+        AsyncExecutionQueue queue = new AsyncExecutionQueue();
+        SQLException failure = new SQLException("boom");
+        CompletableFuture<Object> failed = queue.submit(() -> {
+            throw failure;
+        });
+        CompletableFuture<String> next = queue.submit(() -> "ok");
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> failed.get(10, TimeUnit.SECONDS));
+        assertSame(failure, ex.getCause());
+        assertEquals("ok", next.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelledTaskIsSkipped() throws Exception {
+        AsyncExecutionQueue queue = new AsyncExecutionQueue();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> first = queue.submit(() -> release.await(10, TimeUnit.SECONDS));
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Object> second = queue.submit(() -> {
+            ran.set(true);
+            return null;
+        });
+        CompletableFuture<String> third = queue.submit(() -> "third");
+
+        assertTrue(second.cancel(false));
+        release.countDown();
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertEquals("third", third.get(10, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+    }
+
+    @Test
+    public void testDefaultExecutorUsesDaemonThreads() throws Exception {
+        AsyncExecutionQueue queue = new AsyncExecutionQueue();
+        Thread t = queue.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        assertTrue(t.isDaemon());
+        assertTrue(t.getName().startsWith("MySQL async execution"));
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.DefaultPropertySet;
+
+/**
+ * Tests for {@link SocketChannelSocketFactory} and its {@link SocketChannelSocket}.
+ */
+public class SocketChannelSocketFactoryTest {
+
+    private ServerSocket server;
+    private Socket client;
+    private Socket peer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        this.server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        CompletableFuture<Socket> accepted = CompletableFuture.supplyAsync(() -> {
+            try {
+                return this.server.accept();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        this.client = new SocketChannelSocketFactory().connect(InetAddress.getLoopbackAddress().getHostAddress(), this.server.getLocalPort(),
+                new DefaultPropertySet(), 0);
+        this.peer = accepted.get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        this.client.close();
+        this.peer.close();
+        this.server.close();
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        assertTrue(this.client instanceof SocketChannelSocket);
+        assertTrue(this.client.isConnected());
+        assertEquals(this.server.getLocalPort(), this.client.getPort());
+
+        byte[] payload = new byte[300 * 1024 + 7];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i * 31);
+        }
+
+        CompletableFuture<Void> echo = CompletableFuture.runAsync(() -> {
+            try {
+                byte[] received = new byte[4 + payload.length];
+                new FullReadInputStream(this.peer.getInputStream()).readFully(received);
+                this.peer.getOutputStream().write(received);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        OutputStream out = this.client.getOutputStream();
+        out.write(new byte[] { 1, 2, 3, 4 }); // stays buffered, then goes out with the payload in one gathering write
+        out.write(payload, 0, payload.length);
+        out.flush();
+        echo.get(10, TimeUnit.SECONDS);
+
+        FullReadInputStream in = new FullReadInputStream(this.client.getInputStream());
+        assertEquals(1, in.read());
+        byte[] header = new byte[3];
+        in.readFully(header);
+        assertArrayEquals(new byte[] { 2, 3, 4 }, header);
+        byte[] received = new byte[payload.length];
+        in.readFully(received);
+        assertArrayEquals(payload, received);
+    }
+
+    @Test
+    public void testScatterReadFillsReadAhead() throws Exception {
+        this.peer.getOutputStream().write(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+
+        InputStream in = this.client.getInputStream();
+        byte[] b = new byte[4];
+        assertEquals(4, in.read(b, 0, 4));
+        assertArrayEquals(new byte[] { 0, 1, 2, 3 }, b);
+        assertEquals(6, in.available());
+        assertEquals(4, in.read());
+    }
+
+    @Test
+    public void testReadTimeout() throws Exception {
+        this.client.setSoTimeout(200);
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, () -> this.client.getInputStream().read(new byte[4], 0, 4));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 150);
+        assertFalse(this.client.isClosed());
+
+        // the connection stays usable after a timeout
+        this.peer.getOutputStream().write(42);
+        assertEquals(42, this.client.getInputStream().read());
+    }
+
+    @Test
+    public void testCloseWakesUpReader() throws Exception {
+        InputStream in = this.client.getInputStream();
+        CompletableFuture<Void> reader = CompletableFuture.runAsync(() -> {
+            try {
+                in.read(new byte[4], 0, 4);
+            } catch (IOException e) {
+                return;
+            }
+            throw new IllegalStateException("read should have failed");
+        });
+        Thread.sleep(100);
+        this.client.close();
+        reader.get(10, TimeUnit.SECONDS);
+        assertTrue(this.client.isClosed());
+        assertThrows(IOException.class, () -> this.client.getInputStream());
+    }
+
+    @Test
+    public void testEndOfStream() throws Exception {
+        this.peer.close();
+        assertEquals(-1, this.client.getInputStream().read(new byte[4], 0, 4));
+    }
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.protocol.FullReadInputStream;
+
+/**
+ * Tests for {@link CompressedInputStream}.
+ */
+public class CompressedInputStreamTest {
+
+    /** Size of the chunks the simulated server compresses, like its net buffer */
+    private static final int NET_BUFFER_LENGTH = 16 * 1024;
+
+    private static final int MB = 1024 * 1024;
+
+    /**
+     * Lays out MySQL packets with the given payloads, like the server does before compressing them.
+     *
+     * @param payloads
+     *            packet payloads, all shorter than MAX_PACKET_SIZE
+     * @return packets, with their headers
+     */
+    private static byte[] packets(byte[]... payloads) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte sequence = 0;
+        for (byte[] payload : payloads) {
+            out.write(NativeUtils.encodeMysqlThreeByteInteger(payload.length), 0, 3);
+            out.write(sequence++);
+            out.write(payload, 0, payload.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Splits packet data in compressed packets of up to NET_BUFFER_LENGTH un-compressed bytes, regardless of packet boundaries, like the server does.
+     *
+     * @param data
+     *            packet data
+     * @return compressed packets
+     */
+    private static byte[] compressAsServer(byte[] data) {
+        PacketCompressor compressor = new ZlibPacketCompressor();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] compressed = new byte[NET_BUFFER_LENGTH];
+        byte sequence = 0;
+        for (int offset = 0; offset < data.length; offset += NET_BUFFER_LENGTH) {
+            int length = Math.min(NET_BUFFER_LENGTH, data.length - offset);
+            int compressedLength = compressor.compress(data, offset, length, compressed, 0, length - 1);
+            out.write(NativeUtils.encodeMysqlThreeByteInteger(compressedLength < 0 ? length : compressedLength), 0, 3);
+            out.write(sequence++);
+            out.write(NativeUtils.encodeMysqlThreeByteInteger(compressedLength < 0 ? 0 : length), 0, 3);
+            if (compressedLength < 0) {
+                out.write(data, offset, length);
+            } else {
+                out.write(compressed, 0, compressedLength);
+            }
+        }
+        compressor.end();
+        return out.toByteArray();
+    }
+
+    private static byte[] row(int i) {
+        return ("row " + i + ": the quick brown fox jumps over the lazy dog " + (i * 7919) % 1000).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[][] rows(int count) {
+        byte[][] rows = new byte[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = row(i);
+        }
+        return rows;
+    }
+
+    private static byte[] largePayload(int length) {
+        byte[] payload = new byte[length];
+        for (int i = 0; i < length; i++) {
+            payload[i] = (byte) (i % 251 < 128 ? i % 7 : i % 251);
+        }
+        return payload;
+    }
+
+    private static CompressedInputStream newStream(InputStream in) {
+        return new CompressedInputStream(in, new DefaultPropertySet().getBooleanProperty(PropertyKey.traceProtocol), null, new ZlibPacketCompressor());
+    }
+
+    /**
+     * Reads one packet the way {@link SimplePacketReader} does: the header first, then the payload.
+     *
+     * @param in
+     *            stream to read from
+     * @param header
+     *            array for the header
+     * @param payload
+     *            array for the payload, large enough for it
+     * @return payload length
+     * @throws IOException
+     */
+    private static int readPacket(FullReadInputStream in, byte[] header, byte[] payload) throws IOException {
+        in.readFully(header, 0, NativeConstants.HEADER_LENGTH);
+        int length = NativeUtils.decodeMysqlThreeByteInteger(header);
+        in.readFully(payload, 0, length);
+        return length;
+    }
+
+    @Test
+    public void testPacketsSpanningCompressedPackets() throws IOException {
+        byte[][] rows = rows(2000);
+        FullReadInputStream in = new FullReadInputStream(newStream(new ByteArrayInputStream(compressAsServer(packets(rows)))));
+        byte[] header = new byte[NativeConstants.HEADER_LENGTH];
+        byte[] payload = new byte[256];
+        for (byte[] row : rows) {
+            int length = readPacket(in, header, payload);
+            assertEquals(row.length, length);
+            for (int i = 0; i < length; i++) {
+                assertEquals(row[i], payload[i]);
+            }
+        }
+        assertEquals(-1, in.read());
+        in.close();
+    }
+
+    @Test
+    public void testSmallReads() throws IOException {
+        byte[] data = packets(rows(500));
+        CompressedInputStream in = newStream(new ByteArrayInputStream(compressAsServer(data)));
+        byte[] read = new byte[data.length];
+        int n = 0;
+        while (n < read.length) {
+            int count = in.read(read, n, Math.min(3, read.length - n));
+            assertTrue(count > 0);
+            n += count;
+        }
+        assertArrayEquals(data, read);
+
+        in = newStream(new ByteArrayInputStream(compressAsServer(data)));
+        assertEquals(100, in.skip(100));
+        for (int i = 100; i < 200; i++) {
+            assertEquals(data[i] & 0xff, in.read());
+        }
+        assertEquals(data.length - 200, in.skip(data.length));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void testLargePacket() throws IOException {
+        byte[] large = largePayload(NET_BUFFER_LENGTH * 20 + 123);
+        FullReadInputStream in = new FullReadInputStream(newStream(new ByteArrayInputStream(compressAsServer(packets(row(1), large, row(2))))));
+        byte[] header = new byte[NativeConstants.HEADER_LENGTH];
+        byte[] payload = new byte[large.length];
+        assertEquals(row(1).length, readPacket(in, header, payload));
+        assertEquals(large.length, readPacket(in, header, payload));
+        assertArrayEquals(large, payload);
+        assertEquals(row(2).length, readPacket(in, header, payload));
+        in.close();
+    }
+
+    /**
+     * Tests that reading packet data through {@link CompressedInputStream} allocates next to nothing per MB once it has warmed up, for a stream of small
+     * rows and for a stream of 256 KiB packets.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testAllocationsPerMegabyte() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Thread allocation counters are not available.");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled(),
+                "Thread allocation counters are not available.");
+
+        byte[][] rows = rows(16 * 1024);
+        byte[][] largePackets = new byte[4][];
+        for (int i = 0; i < largePackets.length; i++) {
+            largePackets[i] = largePayload(256 * 1024);
+        }
+
+        long rowsBytesPerMb = allocatedBytesPerMegabyte(threadBean, packets(rows), 256);
+        long largeBytesPerMb = allocatedBytesPerMegabyte(threadBean, packets(largePackets), 256 * 1024);
+        // only the reused buffers are allocated, during warm-up
+        assertTrue(rowsBytesPerMb < 4 * 1024, "Rows: " + rowsBytesPerMb + " bytes allocated per MB");
+        assertTrue(largeBytesPerMb < 4 * 1024, "Large packets: " + largeBytesPerMb + " bytes allocated per MB");
+    }
+
+    private long allocatedBytesPerMegabyte(com.sun.management.ThreadMXBean threadBean, byte[] data, int maxPayloadLength) throws IOException {
+        final int warmUpRounds = 2;
+        final int rounds = 32;
+        byte[] compressed = compressAsServer(data);
+        RepeatingInputStream source = new RepeatingInputStream(compressed);
+        FullReadInputStream in = new FullReadInputStream(newStream(source));
+        byte[] header = new byte[NativeConstants.HEADER_LENGTH];
+        byte[] payload = new byte[maxPayloadLength];
+
+        long read = 0;
+        long allocatedBefore = 0;
+        for (int round = 0; round < warmUpRounds + rounds; round++) {
+            if (round == warmUpRounds) {
+                read = 0;
+                allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            int roundRead = 0;
+            while (roundRead < data.length) {
+                roundRead += NativeConstants.HEADER_LENGTH + readPacket(in, header, payload);
+            }
+            read += roundRead;
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+        in.close();
+        return allocated * MB / read;
+    }
+
+    /**
+     * Serves the same data over and over, without allocating.
+     */
+    private static class RepeatingInputStream extends InputStream {
+
+        private final byte[] data;
+        private int pos = 0;
+
+        RepeatingInputStream(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            int b = this.data[this.pos++] & 0xff;
+            if (this.pos == this.data.length) {
+                this.pos = 0;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int count = Math.min(len, this.data.length - this.pos);
+            System.arraycopy(this.data, this.pos, b, off, count);
+            this.pos += count;
+            if (this.pos == this.data.length) {
+                this.pos = 0;
+            }
+            return count;
+        }
+
+    }
+
+}
@@ -20,18 +20,24 @@
 
 package com.mysql.cj.protocol.a;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Random;
 import java.util.zip.InflaterOutputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertyKey;
 import com.mysql.cj.protocol.MessageSender;
 
 public class CompressedPacketSenderTest extends PacketSenderTestBase {
@@ -288,4 +294,105 @@ public class CompressedPacketSenderTest extends PacketSenderTestBase {
         checkSequentiallyFilledPacket(sentPacket, CompressedPacketSender.COMP_HEADER_LENGTH + NativeConstants.HEADER_LENGTH, packetLen);
     }
 
+    @Test
+    public void adaptiveModeSkipsSmallPackets() throws IOException {
+        MessageSender<NativePacketPayload> adaptiveSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream), new ZlibPacketCompressor(),
+                true);
+        final int packetLen = CompressedPacketSender.ADAPTIVE_MIN_COMPRESS_LEN - 1;
+
+        byte[] packet = new byte[packetLen]; // all zeros, very compressible
+        adaptiveSender.send(packet, packetLen, (byte) 0);
+
+        CompressedPackets packets = new CompressedPackets(this.outputStream.toByteArray());
+        assertTrue(packets.nextPayload());
+        assertEquals(0, packets.uncompressedPayloadLen);
+        assertEquals(packetLen + NativeConstants.HEADER_LENGTH, packets.compressedPayloadLen);
+        assertFalse(packets.nextPayload());
+    }
+
+    @Test
+    public void adaptiveModeBacksOffFromIncompressiblePayloads() throws IOException {
+        MessageSender<NativePacketPayload> adaptiveSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream), new ZlibPacketCompressor(),
+                true);
+        final int packetLen = 4000;
+        byte[] randomPacket = new byte[packetLen];
+        new Random(1).nextBytes(randomPacket);
+        byte[] zeroPacket = new byte[packetLen];
+
+        // incompressible payload makes the next one go uncompressed, even if it compresses well
+        adaptiveSender.send(randomPacket, packetLen, (byte) 0);
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+        // then compression is tried again
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+        // two incompressible payloads in a row make the next two go uncompressed
+        adaptiveSender.send(randomPacket, packetLen, (byte) 0);
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+        adaptiveSender.send(randomPacket, packetLen, (byte) 0);
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+        adaptiveSender.send(zeroPacket, packetLen, (byte) 0);
+
+        boolean[] expectCompressed = new boolean[] { false, false, true, false, false, false, false, false, true };
+        CompressedPackets packets = new CompressedPackets(this.outputStream.toByteArray());
+        for (boolean compressed : expectCompressed) {
+            assertTrue(packets.nextPayload());
+            assertEquals(compressed, packets.uncompressedPayloadLen != 0);
+            assertEquals(packetLen + NativeConstants.HEADER_LENGTH, packets.payload.length);
+        }
+        assertFalse(packets.nextPayload());
+    }
+
+    @Test
+    public void zlibRoundTrip() throws IOException {
+        checkRoundTrip(new ZlibPacketCompressor(), new ZlibPacketCompressor());
+    }
+
+    @Test
+    public void zstdRoundTrip() throws IOException {
+        assumeTrue(ZstdPacketCompressor.isAvailable(), "zstd-jni is not available");
+        checkRoundTrip(new ZstdPacketCompressor(3), new ZstdPacketCompressor(3));
+    }
+
+    /**
+     * Sends a compressible, an incompressible and a split packet with the given compressor, and reads them back with {@link CompressedInputStream}.
+     *
+     * @param sendCompressor
+     *            compressor for the sender
+     * @param readCompressor
+     *            compressor for the input stream
+     * @throws IOException
+     */
+    private void checkRoundTrip(PacketCompressor sendCompressor, PacketCompressor readCompressor) throws IOException {
+        MessageSender<NativePacketPayload> roundTripSender = new CompressedPacketSender(new BufferedOutputStream(this.outputStream), sendCompressor, false);
+        byte[] compressible = new byte[3000];
+        fillPacketSequentially(compressible);
+        byte[] incompressible = new byte[3000];
+        new Random(2).nextBytes(incompressible);
+        byte[] split = new byte[NativeConstants.MAX_PACKET_SIZE + 20000];
+        split[NativeConstants.MAX_PACKET_SIZE] = 43;
+        split[split.length - 1] = 44;
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        byte sequence = 0;
+        for (byte[] packet : new byte[][] { compressible, incompressible, split }) {
+            roundTripSender.send(packet, packet.length, sequence);
+            PacketSplitter packetSplitter = new PacketSplitter(packet.length);
+            while (packetSplitter.nextPacket()) {
+                expected.write(NativeUtils.encodeMysqlThreeByteInteger(packetSplitter.getPacketLen()));
+                expected.write(sequence++);
+                expected.write(packet, packetSplitter.getOffset(), packetSplitter.getPacketLen());
+            }
+        }
+
+        CompressedInputStream in = new CompressedInputStream(new ByteArrayInputStream(this.outputStream.toByteArray()),
+                new DefaultPropertySet().getBooleanProperty(PropertyKey.traceProtocol), null, readCompressor);
+        byte[] actual = new byte[expected.size()];
+        int read = 0;
+        while (read < actual.length) {
+            read += in.read(actual, read, actual.length - read);
+        }
+        assertArrayEquals(expected.toByteArray(), actual);
+        in.close();
+    }
+
 }
@@ -23,11 +23,13 @@ package com.mysql.cj.protocol.a;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -212,6 +214,48 @@ public class SimplePacketReaderTest {
         }
     }
 
+    // rows that are copied out of their packet, as with 'reuseRowPacketBuffer', can all be read into one payload without allocating per row
+    @Test
+    public void reusedPayloadAllocations() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Thread allocation counters are not available.");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled(),
+                "Thread allocation counters are not available.");
+
+        int rowLength = 200;
+        byte[] rows = new byte[4096 * rowLength];
+        new Random(42).nextBytes(rows);
+
+        double freshBytesPerRow = allocatedBytesPerRow(threadBean, rows, rowLength, Optional.empty());
+        double reusedBytesPerRow = allocatedBytesPerRow(threadBean, rows, rowLength, Optional.of(new NativePacketPayload(rowLength)));
+        assertTrue(freshBytesPerRow >= rowLength, "New payloads: " + freshBytesPerRow + " bytes allocated per row");
+        assertTrue(reusedBytesPerRow * 10 < freshBytesPerRow, "Reused payload: " + reusedBytesPerRow + " bytes allocated per row");
+    }
+
+    private double allocatedBytesPerRow(com.sun.management.ThreadMXBean threadBean, byte[] rows, int rowLength, Optional<NativePacketPayload> reuse)
+            throws IOException {
+        final int warmUpRounds = 2;
+        final int rounds = 20;
+        RuntimeProperty<Integer> maxAllowedPacket = new JdbcPropertySetImpl().getProperty(PropertyKey.maxAllowedPacket);
+        NativePacketHeader hdr = new NativePacketHeader(new byte[] { (byte) rowLength, (byte) (rowLength >>> 8), (byte) (rowLength >>> 16), 0 });
+        int rowCount = rows.length / rowLength;
+        // keeps what was read, so the JIT cannot drop the allocations being measured
+        NativePacketPayload[] read = new NativePacketPayload[rowCount];
+
+        long allocatedBefore = 0;
+        for (int round = 0; round < warmUpRounds + rounds; round++) {
+            if (round == warmUpRounds) {
+                allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            SimplePacketReader reader = new SimplePacketReader(new FixedBufferSocketConnection(rows), maxAllowedPacket);
+            for (int i = 0; i < rowCount; i++) {
+                read[i] = reader.readMessage(reuse, hdr);
+            }
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+        return (double) allocated / (rounds * rowCount);
+    }
+
     // TODO any boundary conditions or large packet issues?
 
     public static class FixedBufferSocketConnection extends MockSocketConnection {
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.protocol.a.result;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.MysqlType;
+import com.mysql.cj.conf.DefaultPropertySet;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.protocol.a.MysqlBinaryValueDecoder;
+import com.mysql.cj.result.DefaultColumnDefinition;
+import com.mysql.cj.result.DoubleValueFactory;
+import com.mysql.cj.result.Field;
+import com.mysql.cj.result.IntegerValueFactory;
+import com.mysql.cj.result.LongValueFactory;
+import com.mysql.cj.result.Row;
+import com.mysql.cj.util.LazyString;
+
+/**
+ * Tests for {@link ByteArrayRow}.
+ */
+public class ByteArrayRowTest {
+
+    private static final int INT_COLUMN = 0;
+    private static final int BIGINT_COLUMN = 1;
+    private static final int DOUBLE_COLUMN = 2;
+    private static final int VARCHAR_COLUMN = 3;
+    private static final int BIGINT_UNSIGNED_COLUMN = 4;
+
+    private PropertySet pset = new DefaultPropertySet();
+    private IntegerValueFactory intVf = new IntegerValueFactory(this.pset);
+    private LongValueFactory longVf = new LongValueFactory(this.pset);
+    private DoubleValueFactory doubleVf = new DoubleValueFactory(this.pset);
+
+    private static Field field(String name, int mysqlTypeId, MysqlType mysqlType) {
+        return new Field(new LazyString("test"), new LazyString("test"), new LazyString("test"), new LazyString(name), new LazyString(name), 20, mysqlTypeId,
+                (short) 0, 0, 63, "US-ASCII", mysqlType);
+    }
+
+    private static DefaultColumnDefinition columns() {
+        return new DefaultColumnDefinition(new Field[] { field("i", MysqlType.FIELD_TYPE_LONG, MysqlType.INT),
+                field("b", MysqlType.FIELD_TYPE_LONGLONG, MysqlType.BIGINT), field("d", MysqlType.FIELD_TYPE_DOUBLE, MysqlType.DOUBLE),
+                field("s", MysqlType.FIELD_TYPE_VAR_STRING, MysqlType.VARCHAR), field("u", MysqlType.FIELD_TYPE_LONGLONG, MysqlType.BIGINT_UNSIGNED) });
+    }
+
+    private static byte[] text(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static Row textRow(int i, long b, double d) {
+        return new ByteArrayRow(new byte[][] { text(String.valueOf(i)), text(String.valueOf(b)), text(String.valueOf(d)), text("42"), text("-1") }, null)
+                .setMetadata(columns());
+    }
+
+    private static Row binaryRow(int i, long b, double d) {
+        ByteBuffer buf = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN).putInt(i).putLong(b).putDouble(d);
+        byte[][] data = new byte[][] { new byte[4], new byte[8], new byte[8], text("42"), new byte[8] };
+        buf.flip();
+        buf.get(data[0]).get(data[1]).get(data[2]);
+        Arrays.fill(data[4], (byte) 0xff);
+        return new ByteArrayRow(data, null, new MysqlBinaryValueDecoder()).setMetadata(columns());
+    }
+
+    private void assertPrimitivesMatchBoxed(Row row) {
+        assertEquals(Row.PRIMITIVE_LONG, row.decodePrimitive(INT_COLUMN));
+        assertFalse(row.wasNull());
+        assertEquals(row.getValue(INT_COLUMN, this.intVf).intValue(), this.intVf.createIntFromLong(row.getDecodedLong()));
+
+        assertEquals(Row.PRIMITIVE_LONG, row.decodePrimitive(BIGINT_COLUMN));
+        assertEquals(row.getValue(BIGINT_COLUMN, this.longVf).longValue(), this.longVf.createLongFromLong(row.getDecodedLong()));
+
+        assertEquals(Row.PRIMITIVE_DOUBLE, row.decodePrimitive(DOUBLE_COLUMN));
+        assertEquals(row.getValue(DOUBLE_COLUMN, this.doubleVf).doubleValue(), this.doubleVf.createDoubleFromDouble(row.getDecodedDouble()));
+
+        // strings and unsigned BIGINT are left to the value factories
+        assertEquals(Row.PRIMITIVE_NONE, row.decodePrimitive(VARCHAR_COLUMN));
+        assertEquals(Row.PRIMITIVE_NONE, row.decodePrimitive(BIGINT_UNSIGNED_COLUMN));
+    }
+
+    @Test
+    public void testDecodePrimitiveText() {
+        assertPrimitivesMatchBoxed(textRow(-123456, Long.MIN_VALUE, -1.5e300));
+        assertPrimitivesMatchBoxed(textRow(0, 9007199254740993L, 0.1));
+    }
+
+    @Test
+    public void testDecodePrimitiveBinary() {
+        assertPrimitivesMatchBoxed(binaryRow(-123456, Long.MIN_VALUE, -1.5e300));
+        assertPrimitivesMatchBoxed(binaryRow(0, 9007199254740993L, 0.1));
+    }
+
+    @Test
+    public void testDecodePrimitiveConversions() {
+        for (Row row : new Row[] { textRow(100, 7, 2.75), binaryRow(100, 7, 2.75) }) {
+            row.decodePrimitive(DOUBLE_COLUMN);
+            assertEquals(row.getValue(DOUBLE_COLUMN, this.longVf).longValue(), this.longVf.createLongFromDouble(row.getDecodedDouble()));
+            assertEquals(row.getValue(DOUBLE_COLUMN, this.intVf).intValue(), this.intVf.createIntFromDouble(row.getDecodedDouble()));
+            row.decodePrimitive(INT_COLUMN);
+            assertEquals(row.getValue(INT_COLUMN, this.doubleVf).doubleValue(), this.doubleVf.createDoubleFromLong(row.getDecodedLong()));
+        }
+    }
+
+    @Test
+    public void testDecodePrimitiveNull() {
+        Row row = new ByteArrayRow(new byte[5][], null).setMetadata(columns());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Row.PRIMITIVE_NULL, row.decodePrimitive(i));
+            assertTrue(row.wasNull());
+        }
+        row = textRow(1, 2, 3);
+        row.decodePrimitive(INT_COLUMN);
+        assertFalse(row.wasNull());
+    }
+
+    /**
+     * Tests that reading INT, BIGINT and DOUBLE columns through {@link Row#decodePrimitive(int)} allocates nothing per value, except for text DOUBLE values.
+     */
+    @Test
+    public void testPrimitiveDecodeAllocations() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Thread allocation counters are not available.");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled(),
+                "Thread allocation counters are not available.");
+
+        Row[] textRows = new Row[256];
+        Row[] binaryRows = new Row[256];
+        for (int i = 0; i < textRows.length; i++) {
+            // outside of the Integer and Long caches
+            textRows[i] = textRow(100000 + i, 10000000000L + i, i + 0.25);
+            binaryRows[i] = binaryRow(100000 + i, 10000000000L + i, i + 0.25);
+        }
+
+        for (Row[] rows : new Row[][] { textRows, binaryRows }) {
+            String kind = rows == textRows ? "text" : "binary";
+            for (int[] columns : new int[][] { { INT_COLUMN, BIGINT_COLUMN }, { DOUBLE_COLUMN } }) {
+                // Double.parseDouble() needs a String, the rest must not allocate
+                if (rows == binaryRows || columns.length == 2) {
+                    double allocated = allocatedBytesPerValue(threadBean, rows, columns);
+                    assertTrue(allocated < 1, kind + " " + (columns.length == 2 ? "INT/BIGINT" : "DOUBLE") + ": " + allocated + " bytes allocated per value");
+                }
+            }
+        }
+    }
+
+    private long sink;
+
+    private double allocatedBytesPerValue(com.sun.management.ThreadMXBean threadBean, Row[] rows, int[] columns) {
+        final int warmUpRounds = 2;
+        final int rounds = 20;
+        long allocatedBefore = 0;
+        long sum = 0;
+        for (int round = 0; round < warmUpRounds + rounds; round++) {
+            if (round == warmUpRounds) {
+                allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            for (Row row : rows) {
+                for (int column : columns) {
+                    sum += row.decodePrimitive(column) + (column == DOUBLE_COLUMN ? (long) this.doubleVf.createDoubleFromDouble(row.getDecodedDouble())
+                            : this.longVf.createLongFromLong(row.getDecodedLong()));
+                }
+            }
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore;
+        this.sink += sum;
+        return (double) allocated / ((double) columns.length * rounds * rows.length);
+    }
+
+}
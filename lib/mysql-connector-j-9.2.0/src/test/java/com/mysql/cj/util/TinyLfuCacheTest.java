@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2025, Oracle and/or its affiliates.
+ *
+ * This program is free software; you can redistribute it and/or modify it under the terms of the GNU General Public License, version 2.0, as published by
+ * the Free Software Foundation.
+ *
+ * This program is designed to work with certain software that is licensed under separate terms, as designated in a particular file or component or in
+ * included license documentation. The authors of MySQL hereby grant you an additional permission to link the program and your derivative works with the
+ * separately licensed software that they have either included with the program or referenced in the documentation.
+ *
+ * Without limiting anything contained in the foregoing, this file, which is part of MySQL Connector/J, is also subject to the Universal FOSS Exception,
+ * version 1.0, a copy of which can be found at http://oss.oracle.com/licenses/universal-foss-exception.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU General Public License, version 2.0, for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+
+package com.mysql.cj.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.mysql.cj.CacheAdapter;
+
+/**
+ * Tests for {@link TinyLfuCache} and {@link TinyLfuCacheFactory}.
+ */
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testGetPutRemove() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+        assertNull(cache.get("a"));
+        assertNull(cache.put("a", 1));
+        assertEquals(Integer.valueOf(1), cache.put("a", 2));
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+        assertEquals(1, cache.size());
+        assertEquals(Integer.valueOf(2), cache.remove("a"));
+        assertNull(cache.remove("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+
+        cache.put("b", 1);
+        cache.put("c", 2);
+        cache.clear();
+        assertEquals(0, cache.size());
+        cache.put("b", 3);
+        assertEquals(Integer.valueOf(3), cache.get("b"));
+    }
+
+    @Test
+    public void testSizeBoundAndEvictionListener() {
+        Map<String, Integer> evicted = new HashMap<>();
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(50, evicted::put);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("key" + i, i);
+            assertTrue(cache.size() <= 50);
+        }
+        assertEquals(50, cache.size());
+        assertEquals(950, cache.getEvictionCount());
+        assertEquals(950, evicted.size());
+        for (Map.Entry<String, Integer> e : evicted.entrySet()) {
+            assertNull(cache.get(e.getKey()));
+            assertEquals(e.getKey(), "key" + e.getValue());
+        }
+    }
+
+    @Test
+    public void testZeroSizeCachesNothing() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(0);
+        cache.put("a", 1);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * A scan of keys seen once must not push out keys that are used repeatedly, which is what an LRU cache would do.
+     */
+    @Test
+    public void testFrequentKeysSurviveScan() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(100);
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get("hot" + i) == null) {
+                    cache.put("hot" + i, i);
+                }
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            cache.put("scan" + i, i);
+        }
+        int hotRetained = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.containsKey("hot" + i)) {
+                hotRetained++;
+            }
+        }
+        assertTrue(hotRetained >= 45, "only " + hotRetained + " of 50 frequently used keys survived");
+
+        LRUCache<String, Integer> lru = new LRUCache<>(100);
+        for (int i = 0; i < 50; i++) {
+            lru.put("hot" + i, i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            lru.put("scan" + i, i);
+        }
+        assertNull(lru.get("hot0"));
+    }
+
+    @Test
+    public void testStatistics() {
+        TinyLfuCache<String, Integer> cache = new TinyLfuCache<>(10);
+        assertEquals(1.0, cache.getHitRate());
+        cache.put("a", 1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertEquals(3, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.75, cache.getHitRate());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        int maximumSize = 200;
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(maximumSize);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 50000; i++) {
+                        // skewed keys: most lookups go to a small hot set
+                        int key = random.nextInt(10) < 8 ? random.nextInt(100) : random.nextInt(5000);
+                        Integer value = cache.get(key);
+                        if (value == null) {
+                            cache.put(key, key * 2);
+                        } else {
+                            assertEquals(key * 2, value.intValue());
+                        }
+                        if (i % 1000 == 0) {
+                            cache.remove(random.nextInt(5000));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertTrue(cache.size() <= maximumSize);
+        assertEquals(8 * 50000, cache.getHitCount() + cache.getMissCount());
+        assertTrue(cache.getHitRate() > 0.5, "hit rate " + cache.getHitRate());
+    }
+
+    @Test
+    public void testFactoryAdapter() {
+        CacheAdapter<String, Integer> adapter = new TinyLfuCacheFactory<Integer>().getInstance(null, "jdbc:mysql://localhost/test", 10, 5);
+        adapter.put("short", 1);
+        adapter.put("much too long", 2);
+        assertEquals(Integer.valueOf(1), adapter.get("short"));
+        assertNull(adapter.get("much too long"));
+        adapter.invalidate("short");
+        assertNull(adapter.get("short"));
+
+        TinyLfuCache<String, Integer> cache = ((TinyLfuCacheFactory.TinyLfuCacheAdapter<Integer>) adapter).getCache();
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+}
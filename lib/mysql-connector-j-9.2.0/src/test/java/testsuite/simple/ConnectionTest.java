@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.junit.jupiter.api.Assumptions.assumeFalse;
@@ -62,6 +63,7 @@ import java.sql.Types;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Properties;
@@ -87,6 +89,7 @@ import com.mysql.cj.jdbc.ClientPreparedStatement;
 import com.mysql.cj.jdbc.JdbcConnection;
 import com.mysql.cj.jdbc.MysqlConnectionPoolDataSource;
 import com.mysql.cj.jdbc.NonRegisteringDriver;
+import com.mysql.cj.jdbc.Pipeline;
 import com.mysql.cj.jdbc.exceptions.CommunicationsException;
 import com.mysql.cj.protocol.MessageReader;
 import com.mysql.cj.protocol.MessageSender;
@@ -2394,4 +2397,99 @@ public class ConnectionTest extends BaseTestCase {
         con.close();
     }
 
+    /**
+     * Tests that a {@link Pipeline} returns one result per statement, in order, and keeps going after a failed statement.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPipeline() throws Exception {
+        createTable("testPipeline", "(id INT PRIMARY KEY, val VARCHAR(10))");
+
+        for (boolean useSPS : new boolean[] { false, true }) {
+            Properties props = new Properties();
+            props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), Boolean.toString(useSPS));
+            Connection testConn = getConnectionWithProps(props);
+            testConn.createStatement().execute("TRUNCATE TABLE testPipeline");
+
+            PreparedStatement insert = testConn.prepareStatement("INSERT INTO testPipeline VALUES (?, ?)");
+            Pipeline pipeline = testConn.unwrap(JdbcConnection.class).createPipeline();
+            for (int i = 1; i <= 3; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "v" + i);
+                pipeline.add(insert);
+            }
+            pipeline.add("INSERT INTO testPipeline VALUES (1, 'dup')");
+            pipeline.add("SELECT val FROM testPipeline ORDER BY id");
+            assertEquals(5, pipeline.size());
+
+            List<Pipeline.Result> results = pipeline.execute();
+            assertEquals(5, results.size());
+            assertEquals(0, pipeline.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(1, results.get(i).getUpdateCount());
+                assertNull(results.get(i).getResultSet());
+                assertNull(results.get(i).getException());
+            }
+            assertEquals(MysqlErrorNumbers.ER_DUP_ENTRY, results.get(3).getException().getErrorCode());
+            ResultSet rs = results.get(4).getResultSet();
+            for (int i = 1; i <= 3; i++) {
+                assertTrue(rs.next());
+                assertEquals("v" + i, rs.getString(1));
+            }
+            assertFalse(rs.next());
+
+            // the connection is usable as usual afterwards
+            this.rs = testConn.createStatement().executeQuery("SELECT COUNT(*) FROM testPipeline");
+            assertTrue(this.rs.next());
+            assertEquals(3, this.rs.getInt(1));
+            testConn.close();
+        }
+    }
+
+    /**
+     * Tests that a {@link Pipeline} of large statements with large results does not stall, and that a statement that cannot be sent leaves the connection
+     * usable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testPipelineLimits() throws Exception {
+        char[] filler = new char[20000];
+        Arrays.fill(filler, 'x');
+        String literal = new String(filler);
+
+        // 4 MB of statements and 20 MB of results, far more than the socket buffers hold
+        Pipeline pipeline = this.conn.unwrap(JdbcConnection.class).createPipeline();
+        for (int i = 0; i < 200; i++) {
+            pipeline.add("SELECT REPEAT('a', 100000), '" + literal + "'");
+        }
+        List<Pipeline.Result> results = pipeline.execute();
+        assertEquals(200, results.size());
+        for (Pipeline.Result r : results) {
+            assertNull(r.getException());
+            assertTrue(r.getResultSet().next());
+            assertEquals(100000, r.getResultSet().getString(1).length());
+        }
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.maxAllowedPacket.getKeyName(), "1024");
+        Connection testConn = getConnectionWithProps(props);
+        Pipeline tooBig = testConn.unwrap(JdbcConnection.class).createPipeline();
+        tooBig.add("SELECT 1");
+        tooBig.add("SELECT 2");
+        tooBig.add("SELECT '" + literal.substring(0, 2000) + "'"); // sent while the first two responses are still owed
+        assertThrows(SQLException.class, () -> {
+            tooBig.execute();
+            return null;
+        });
+        assertEquals(0, tooBig.size());
+
+        // the responses to the statements sent before the failing one were consumed
+        this.rs = testConn.createStatement().executeQuery("SELECT 3");
+        assertTrue(this.rs.next());
+        assertEquals(3, this.rs.getInt(1));
+        testConn.close();
+    }
+
 }
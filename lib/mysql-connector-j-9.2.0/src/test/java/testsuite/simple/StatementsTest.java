@@ -5489,6 +5489,100 @@ public class StatementsTest extends BaseTestCase {
         } while ((useSPS = !useSPS) || (rwBS = !rwBS));
     }
 
+    /**
+     * Tests that server-side prepared statements executed with the connection property "omitResultSetMetadata" return the same results as with full
+     * metadata, also when the shape of the result set changes between executions.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOmitResultSetMetadata() throws Exception {
+        assumeTrue(versionMeetsMinimum(8, 0, 3), "MySQL 8.0.3+ is required to run this test.");
+
+        createTable("testOmitResultSetMetadata", "(id INT PRIMARY KEY, name VARCHAR(10))");
+        this.stmt.executeUpdate("INSERT INTO testOmitResultSetMetadata VALUES (1, 'a'), (2, 'b')");
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), "true");
+        props.setProperty(PropertyKey.omitResultSetMetadata.getKeyName(), "true");
+        Connection testConn = getConnectionWithProps(props);
+        PreparedStatement testPstmt = testConn.prepareStatement("SELECT * FROM testOmitResultSetMetadata WHERE id = ?");
+
+        for (int i = 0; i < 4; i++) {
+            testPstmt.setInt(1, i % 2 + 1);
+            this.rs = testPstmt.executeQuery();
+            assertEquals(2, this.rs.getMetaData().getColumnCount());
+            assertEquals("name", this.rs.getMetaData().getColumnName(2));
+            assertTrue(this.rs.next());
+            assertEquals(i % 2 + 1, this.rs.getInt("id"));
+            assertEquals(i % 2 == 0 ? "a" : "b", this.rs.getString("name"));
+            assertFalse(this.rs.next());
+
+            // text queries in between get full metadata
+            this.rs = testConn.createStatement().executeQuery("SELECT COUNT(*) AS cnt FROM testOmitResultSetMetadata");
+            assertTrue(this.rs.next());
+            assertEquals(2, this.rs.getInt("cnt"));
+        }
+
+        this.stmt.executeUpdate("ALTER TABLE testOmitResultSetMetadata ADD COLUMN extra INT DEFAULT 7");
+        for (int i = 0; i < 2; i++) {
+            testPstmt.setInt(1, 1);
+            this.rs = testPstmt.executeQuery();
+            assertEquals(3, this.rs.getMetaData().getColumnCount());
+            assertTrue(this.rs.next());
+            assertEquals("a", this.rs.getString("name"));
+            assertEquals(7, this.rs.getInt("extra"));
+            assertFalse(this.rs.next());
+        }
+
+        testConn.close();
+    }
+
+    /**
+     * Tests that a server-side prepared statement executed with the connection property "omitResultSetMetadata" does not decode rows with cached column
+     * definitions after a column changed type but the number of columns stayed the same.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testOmitResultSetMetadataColumnTypeChange() throws Exception {
+        assumeTrue(versionMeetsMinimum(8, 0, 3), "MySQL 8.0.3+ is required to run this test.");
+
+        createTable("testOmitResultSetMetadataTypeChange", "(id INT PRIMARY KEY, val INT)");
+        this.stmt.executeUpdate("INSERT INTO testOmitResultSetMetadataTypeChange VALUES (1, 42)");
+
+        Properties props = new Properties();
+        props.setProperty(PropertyKey.useServerPrepStmts.getKeyName(), "true");
+        props.setProperty(PropertyKey.omitResultSetMetadata.getKeyName(), "true");
+        Connection testConn = getConnectionWithProps(props);
+        PreparedStatement testPstmt = testConn.prepareStatement("SELECT id, val FROM testOmitResultSetMetadataTypeChange WHERE id = ?");
+
+        // the second execution is the first one without metadata
+        for (int i = 0; i < 2; i++) {
+            testPstmt.setInt(1, 1);
+            this.rs = testPstmt.executeQuery();
+            assertEquals(Types.INTEGER, this.rs.getMetaData().getColumnType(2));
+            assertTrue(this.rs.next());
+            assertEquals(42, this.rs.getInt("val"));
+            assertFalse(this.rs.next());
+        }
+
+        this.stmt.executeUpdate("ALTER TABLE testOmitResultSetMetadataTypeChange MODIFY val VARCHAR(20)");
+        this.stmt.executeUpdate("UPDATE testOmitResultSetMetadataTypeChange SET val = 'forty-two'");
+        for (int i = 0; i < 2; i++) {
+            testPstmt.setInt(1, 1);
+            this.rs = testPstmt.executeQuery();
+            assertEquals(2, this.rs.getMetaData().getColumnCount());
+            assertEquals(Types.VARCHAR, this.rs.getMetaData().getColumnType(2));
+            assertTrue(this.rs.next());
+            assertEquals(1, this.rs.getInt("id"));
+            assertEquals("forty-two", this.rs.getString("val"));
+            assertFalse(this.rs.next());
+        }
+
+        testConn.close();
+    }
+
     public static class QueryInfoQueryInterceptor extends BaseQueryInterceptor {
 
         private static boolean enabled = false;
@@ -0,0 +1,495 @@
+package src;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.controller.AccountController;
+import src.controller.BackupController;
+import src.controller.CategoryRuleController;
+import src.controller.TransactionController;
+import src.dedupe.DuplicateFilter;
+import src.fx.FxRates;
+import src.model.Account;
+import src.model.BackupInfo;
+import src.model.CategorySummary;
+import src.model.DuplicateGroup;
+import src.model.Transaction;
+
+/**
+ * Command-line entry point for scripts and cron jobs. It talks to the controllers directly and
+ * never loads AWT, Swing or FlatLaf, so it starts as fast as a plain JVM.
+ *
+ * Usage: java src.Cli &lt;command&gt; [options]; run without arguments for the command list.
+ */
+public class Cli {
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    private static final String CSV_HEADER = "id,date,description,amount,type,category_id,category,account_id,account";
+
+    private final TransactionController transactionController;
+    private final AccountController accountController;
+    private final CategoryRuleController categoryRuleController;
+    private final PrintWriter out;
+
+    private Cli(PrintWriter out) {
+        // no offline journal: a script must see a failed write as a failure
+        this.transactionController = new TransactionController(null);
+        this.accountController = new AccountController();
+        this.categoryRuleController = new CategoryRuleController();
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024));
+        int status;
+        try {
+            status = new Cli(out).run(args);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = 2;
+        } catch (SQLException e) {
+            System.err.println("Database error: " + e.getMessage());
+            status = 1;
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("I/O error: " + e.getMessage());
+            status = 1;
+        } finally {
+            out.flush();
+        }
+        System.exit(status);
+    }
+
+    private int run(String[] args) throws SQLException, IOException {
+        if (args.length == 0) {
+            usage();
+            return 2;
+        }
+        Options options = Options.parse(args);
+        switch (args[0]) {
+            case "summary":
+                summary(options);
+                return 0;
+            case "query":
+                query(options);
+                return 0;
+            case "export":
+                export(options);
+                return 0;
+            case "import":
+                importCsv(options);
+                return 0;
+            case "reconcile":
+                return reconcile(options);
+            case "dedupe":
+                dedupe(options);
+                return 0;
+            case "backup":
+                backup(options);
+                return 0;
+            case "restore":
+                restore(options);
+                return 0;
+            case "help":
+            case "--help":
+                usage();
+                return 0;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + args[0] + " (run without arguments for help)");
+        }
+    }
+
+    private void usage() {
+        System.err.println("Usage: java src.Cli <command> [options]");
+        System.err.println();
+        System.err.println("Commands:");
+        System.err.println("  summary   [--from DATE] [--to DATE]                   account balances and income/expense per category");
+        System.err.println("  query     [--from DATE] [--to DATE] [--account ID] [--category ID]");
+        System.err.println("                                                        stream matching transactions as tab-separated rows");
+        System.err.println("  export    [--from DATE] [--to DATE] [--account ID] [--category ID] [--out FILE]");
+        System.err.println("                                                        stream matching transactions as CSV (stdout by default)");
+        System.err.println("  import    --in FILE [--dry-run] [--allow-duplicates]  add transactions from CSV (date,description,amount,type,category_id,account_id)");
+        System.err.println("                                                        an empty category_id is filled in by the categorization rules;");
+        System.err.println("                                                        rows already in the ledger are skipped unless --allow-duplicates");
+        System.err.println("  reconcile --account ID --balance AMOUNT [--as-of DATE]");
+        System.err.println("                                                        compare the ledger balance with a statement balance; exit 3 on mismatch");
+        System.err.println("  dedupe    [--from DATE] [--to DATE] [--threads N] [--delete]");
+        System.err.println("                                                        list transactions sharing account, date, amount and description;");
+        System.err.println("                                                        --delete keeps the oldest of each group and deletes the rest");
+        System.err.println("  backup    --out FILE                                  write a consistent, compressed snapshot of the ledger");
+        System.err.println("  restore   --in FILE [--until-seq N | --until TIME] --yes");
+        System.err.println("                                                        replace the ledger with a backup, then replay the changelog");
+        System.err.println("                                                        up to seq N or TIME (YYYY-MM-DDTHH:MM:SS) if given");
+        System.err.println();
+        System.err.println("Dates are YYYY-MM-DD. Exit codes: 0 ok, 1 error, 2 bad usage, 3 reconcile mismatch.");
+    }
+
+    private void summary(Options options) throws SQLException {
+        LocalDate from = options.date("--from", MIN_DATE);
+        LocalDate to = options.date("--to", MAX_DATE);
+
+        FxRates rates = FxRates.getDefault();
+        out.println("Accounts");
+        BigDecimal totalBalance = BigDecimal.ZERO;
+        for (Account a : accountController.getAccounts()) {
+            out.printf("  %-30s %3s %18s%n", a.getName(), a.getCurrency(), a.getBalance().toPlainString());
+            totalBalance = totalBalance.add(rates.toBase(a.getBalance(), a.getCurrency(), LocalDate.now()));
+        }
+        out.printf("  %-30s %3s %18s%n", "TOTAL", rates.getBaseCurrency(), totalBalance.toPlainString());
+        out.println();
+
+        out.println("Categories (" + (from.equals(MIN_DATE) ? "all time" : from) + " .. " + (to.equals(MAX_DATE) ? "today" : to)
+                + ", " + rates.getBaseCurrency() + ")");
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expenses = BigDecimal.ZERO;
+        for (CategorySummary s : transactionController.getCategorySummary(from, to)) {
+            out.printf("  %-8s %-30s %18s %8d%n", s.getType(), s.getCategoryName() != null ? s.getCategoryName() : "N/A",
+                    s.getTotal().toPlainString(), s.getCount());
+            if ("INCOME".equalsIgnoreCase(s.getType())) {
+                income = income.add(s.getTotal());
+            } else {
+                expenses = expenses.add(s.getTotal());
+            }
+        }
+        out.printf("  %-39s %18s%n", "Total income", income.toPlainString());
+        out.printf("  %-39s %18s%n", "Total expenses", expenses.toPlainString());
+        out.printf("  %-39s %18s%n", "Net", income.subtract(expenses).toPlainString());
+    }
+
+    private void query(Options options) throws SQLException {
+        out.println("id\tdate\tdescription\tamount\ttype\tcategory\taccount");
+        transactionController.forEachTransaction(options.date("--from", MIN_DATE), options.date("--to", MAX_DATE),
+                options.integer("--account"), options.integer("--category"), t -> {
+                    out.print(t.getId());
+                    out.print('\t');
+                    out.print(t.getDate());
+                    out.print('\t');
+                    out.print(t.getDescription().replace('\t', ' '));
+                    out.print('\t');
+                    out.print(t.getAmount().toPlainString());
+                    out.print('\t');
+                    out.print(t.getType());
+                    out.print('\t');
+                    out.print(t.getCategoryName() != null ? t.getCategoryName() : "N/A");
+                    out.print('\t');
+                    out.println(t.getAccountName() != null ? t.getAccountName() : "N/A");
+                });
+    }
+
+    private void export(Options options) throws SQLException, IOException {
+        String file = options.get("--out");
+        PrintWriter writer = file == null ? out
+                : new PrintWriter(Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8));
+        try {
+            writer.println(CSV_HEADER);
+            long rows = transactionController.forEachTransaction(options.date("--from", MIN_DATE), options.date("--to", MAX_DATE),
+                    options.integer("--account"), options.integer("--category"), t -> {
+                        writer.print(t.getId());
+                        writer.print(',');
+                        writer.print(t.getDate());
+                        writer.print(',');
+                        writer.print(csv(t.getDescription()));
+                        writer.print(',');
+                        writer.print(t.getAmount().toPlainString());
+                        writer.print(',');
+                        writer.print(t.getType());
+                        writer.print(',');
+                        writer.print(t.getCategoryId());
+                        writer.print(',');
+                        writer.print(csv(t.getCategoryName()));
+                        writer.print(',');
+                        writer.print(t.getAccountId());
+                        writer.print(',');
+                        writer.println(csv(t.getAccountName()));
+                    });
+            if (file != null) {
+                System.err.println("Exported " + rows + " transaction(s) to " + file);
+            }
+        } finally {
+            if (file != null) {
+                writer.close();
+            }
+        }
+        if (writer.checkError()) {
+            throw new IOException("Failed writing export output");
+        }
+    }
+
+    /**
+     * Reads the file in chunks of {@value #IMPORT_CHUNK_SIZE} rows; each chunk is one batched
+     * database transaction. A header row is detected and skipped. Columns are matched by name
+     * when a header is present, so files produced by {@code export} can be imported directly.
+     * Rows with an empty or missing category_id get the category picked by the categorization
+     * rules; the rules are loaded and compiled once for the whole file.
+     * Rows matching a transaction already in the ledger are skipped and reported, so importing an
+     * overlapping statement twice is harmless; the check costs one query per month in the file.
+     * Each chunk of {@link #IMPORT_CHUNK_SIZE} rows is committed on its own, so an error on a later
+     * line leaves the earlier chunks imported; the message says through which line.
+     */
+    private void importCsv(Options options) throws SQLException, IOException {
+        String file = options.require("--in");
+        boolean dryRun = options.flag("--dry-run");
+        DuplicateFilter duplicates = options.flag("--allow-duplicates") ? null : transactionController.newImportDuplicateFilter();
+        int imported = 0;
+        int skipped = 0;
+        int lineNumber = 0;
+        // last line of the last committed chunk; everything up to it stays imported if a later line fails
+        int committedThrough = 0;
+        Map<String, Integer> columns = null;
+        List<Transaction> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        try (BufferedReader reader = file.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                if (lineNumber == 1 && fields.contains("date")) {
+                    columns = new HashMap<>();
+                    for (int i = 0; i < fields.size(); i++) {
+                        columns.put(fields.get(i).trim(), i);
+                    }
+                    continue;
+                }
+                Transaction t = toTransaction(fields, columns, lineNumber);
+                if (duplicates != null && duplicates.isDuplicate(t)) {
+                    System.err.println("Line " + lineNumber + ": skipping duplicate of an existing transaction: " + line);
+                    skipped++;
+                    continue;
+                }
+                chunk.add(t);
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    imported += dryRun ? chunk.size() : transactionController.importTransactions(chunk);
+                    committedThrough = lineNumber;
+                    chunk.clear();
+                }
+            }
+            imported += dryRun ? chunk.size() : transactionController.importTransactions(chunk);
+        } catch (SQLException | IOException | RuntimeException e) {
+            if (!dryRun && imported > 0) {
+                System.err.println("Import stopped at line " + lineNumber + ". The " + imported
+                        + " transaction(s) through line " + committedThrough + " were already imported and stay in the ledger."
+                        + (duplicates != null ? " Fix the file and import it again; those rows are then skipped as duplicates." : ""));
+            }
+            throw e;
+        }
+        System.err.println((dryRun ? "Validated " : "Imported ") + imported + " transaction(s) from " + file
+                + (skipped > 0 ? ", skipped " + skipped + " duplicate(s)" : ""));
+    }
+
+    private int reconcile(Options options) throws SQLException {
+        int accountId = options.integer("--account") != null ? options.integer("--account") : -1;
+        if (accountId < 0) {
+            throw new IllegalArgumentException("--account is required");
+        }
+        BigDecimal statementBalance = new BigDecimal(options.require("--balance"));
+        LocalDate asOf = options.date("--as-of", LocalDate.now());
+
+        BigDecimal ledgerBalance = transactionController.getBalanceAsOf(accountId, asOf);
+        BigDecimal difference = statementBalance.subtract(ledgerBalance);
+        out.printf("Account %d as of %s%n", accountId, asOf);
+        out.printf("  Ledger balance:    %18s%n", ledgerBalance.toPlainString());
+        out.printf("  Statement balance: %18s%n", statementBalance.toPlainString());
+        out.printf("  Difference:        %18s%n", difference.toPlainString());
+        boolean matches = difference.signum() == 0;
+        out.println(matches ? "Reconciled." : "MISMATCH");
+        return matches ? 0 : 3;
+    }
+
+    /**
+     * Scans month by month on {@code --threads} worker threads (default: one per core) and prints
+     * each group of look-alike transactions. With {@code --delete}, rows that are exact copies of a
+     * lower id in their group (type and category included) are deleted; rows in archived years are
+     * listed but never deleted.
+     */
+    private void dedupe(Options options) throws SQLException {
+        Integer threads = options.integer("--threads");
+        List<DuplicateGroup> groups = transactionController.findDuplicates(options.date("--from", null),
+                options.date("--to", null), threads != null ? threads : Runtime.getRuntime().availableProcessors());
+        boolean delete = options.flag("--delete");
+        LocalDate archivedThrough = transactionController.getArchivedThrough();
+        int deleted = 0;
+        for (DuplicateGroup g : groups) {
+            out.printf("%s\taccount %d\t%s\t%s\tids %s%n", g.getDate(), g.getAccountId(),
+                    g.getAmount().toPlainString(), g.getDescription(), g.getTransactionIds());
+            if (delete && (archivedThrough == null || g.getDate().isAfter(archivedThrough))) {
+                deleted += transactionController.deleteDuplicates(g);
+            }
+        }
+        System.err.println(groups.size() + " duplicate group(s)" + (delete ? ", deleted " + deleted + " transaction(s)" : ""));
+    }
+
+    private void backup(Options options) throws SQLException, IOException {
+        BackupInfo info = new BackupController(transactionController).backup(Path.of(options.require("--out")));
+        System.err.println("Backed up " + info.getRows() + " row(s) through changelog seq " + info.getChangelogSeq());
+    }
+
+    private void restore(Options options) throws SQLException, IOException {
+        Path file = Path.of(options.require("--in"));
+        if (!options.flag("--yes")) {
+            throw new IllegalArgumentException("restore replaces every account, category and transaction; pass --yes to confirm");
+        }
+        BackupController backupController = new BackupController(transactionController);
+        Long untilSeq = null;
+        if (options.get("--until-seq") != null) {
+            if (options.get("--until") != null) {
+                throw new IllegalArgumentException("give --until-seq or --until, not both");
+            }
+            untilSeq = Long.valueOf(options.get("--until-seq"));
+        } else if (options.get("--until") != null) {
+            untilSeq = backupController.getSeqAt(LocalDateTime.parse(options.get("--until")));
+        }
+        BackupInfo info = backupController.restore(file, untilSeq);
+        System.err.println("Restored " + info.getRows() + " row(s) from a backup through changelog seq " + info.getChangelogSeq()
+                + (untilSeq != null ? ", replayed " + info.getChangesReplayed() + " change(s) through seq " + untilSeq : ""));
+    }
+
+    private Transaction toTransaction(List<String> fields, Map<String, Integer> columns, int lineNumber) {
+        try {
+            LocalDate date = LocalDate.parse(field(fields, columns, "date", 0));
+            String description = field(fields, columns, "description", 1);
+            BigDecimal amount = new BigDecimal(field(fields, columns, "amount", 2));
+            String type = field(fields, columns, "type", 3).toUpperCase();
+            int accountId = Integer.parseInt(field(fields, columns, "account_id", 5));
+            if (!type.equals("INCOME") && !type.equals("EXPENSE")) {
+                throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+            }
+            String categoryText = optionalField(fields, columns, "category_id", 4);
+            int categoryId;
+            if (categoryText.isEmpty()) {
+                Integer suggested = categoryRuleController.suggestCategory(description, amount, type);
+                if (suggested == null) {
+                    throw new IllegalArgumentException("no category_id and no categorization rule matches '" + description + "'");
+                }
+                categoryId = suggested;
+            } else {
+                categoryId = Integer.parseInt(categoryText);
+            }
+            if (amount.signum() < 0) {
+                throw new IllegalArgumentException("amount must be non-negative");
+            }
+            return new Transaction(description, amount, date, type, categoryId, accountId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name, int defaultIndex) {
+        int index = columns != null ? columns.getOrDefault(name, -1) : defaultIndex;
+        if (index < 0 || index >= fields.size()) {
+            throw new IllegalArgumentException("missing column '" + name + "'");
+        }
+        return fields.get(index).trim();
+    }
+
+    private static String optionalField(List<String> fields, Map<String, Integer> columns, String name, int defaultIndex) {
+        int index = columns != null ? columns.getOrDefault(name, -1) : defaultIndex;
+        return index < 0 || index >= fields.size() ? "" : fields.get(index).trim();
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + '"';
+    }
+
+    private static final class Options {
+        private final Map<String, String> values = new HashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    options.values.put(arg, args[++i]);
+                } else {
+                    options.values.put(arg, "");
+                }
+            }
+            return options;
+        }
+
+        String get(String name) {
+            String value = values.get(name);
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        String require(String name) {
+            String value = get(name);
+            if (value == null) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            return value;
+        }
+
+        boolean flag(String name) {
+            return values.containsKey(name);
+        }
+
+        LocalDate date(String name, LocalDate defaultValue) {
+            String value = get(name);
+            return value == null ? defaultValue : LocalDate.parse(value);
+        }
+
+        Integer integer(String name) {
+            String value = get(name);
+            return value == null ? null : Integer.valueOf(value);
+        }
+    }
+}
@@ -6,10 +6,14 @@ import javax.swing.UnsupportedLookAndFeelException;
 
 import com.formdev.flatlaf.FlatLightLaf; 
 
+import src.metrics.Metrics;
 import src.view.MainFrame;
 
 public class Main {
     public static void main(String[] args) {
+        Metrics.registerMBean();
+        Metrics.startPeriodicDumpFromSystemProperties();
+
         try {
             UIManager.setLookAndFeel(new FlatLightLaf());
             // UIManager.setLookAndFeel(new FlatDarkLaf());
@@ -0,0 +1,799 @@
+package src.api;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import src.controller.AccountController;
+import src.controller.CategoryController;
+import src.controller.ChangelogController;
+import src.controller.TransactionController;
+import src.dao.DBConnection;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.fx.FxRates;
+import src.model.Account;
+import src.model.Category;
+import src.model.CategorySummary;
+import src.model.ChangeEntry;
+import src.model.Transaction;
+
+/**
+ * Optional HTTP/JSON API over the same controllers the desktop app uses.
+ *
+ * Every request runs on its own virtual thread and database connections come from a bounded
+ * pool, so thousands of concurrent clients cost little more than the queries they run. GET
+ * responses carry the ledger version as their ETag; a client that sends it back in
+ * If-None-Match gets 304 Not Modified after a single primary-key lookup. Transaction pages are
+ * streamed from the database straight into the response, so memory use does not grow with the
+ * page size.
+ *
+ * <pre>
+ * GET    /api/version
+ * GET    /api/accounts                 GET /api/accounts/{id}
+ * GET    /api/categories
+ * GET    /api/transactions?from=&amp;to=&amp;account=&amp;category=&amp;limit=&amp;before=
+ * GET    /api/transactions/{id}
+ * POST   /api/transactions             PUT /api/transactions/{id}    DELETE /api/transactions/{id}
+ * GET    /api/summary?from=&amp;to=
+ * GET    /api/changes?since=&amp;limit=
+ * </pre>
+ */
+public class ApiServer {
+    private static final OperationStats GET_VERSION = Metrics.operation("ApiServer.GET /api/version");
+    private static final OperationStats GET_ACCOUNTS = Metrics.operation("ApiServer.GET /api/accounts");
+    private static final OperationStats GET_CATEGORIES = Metrics.operation("ApiServer.GET /api/categories");
+    private static final OperationStats GET_TRANSACTIONS = Metrics.operation("ApiServer.GET /api/transactions");
+    private static final OperationStats GET_TRANSACTION = Metrics.operation("ApiServer.GET /api/transactions/{id}");
+    private static final OperationStats POST_TRANSACTION = Metrics.operation("ApiServer.POST /api/transactions");
+    private static final OperationStats PUT_TRANSACTION = Metrics.operation("ApiServer.PUT /api/transactions/{id}");
+    private static final OperationStats DELETE_TRANSACTION = Metrics.operation("ApiServer.DELETE /api/transactions/{id}");
+    private static final OperationStats GET_SUMMARY = Metrics.operation("ApiServer.GET /api/summary");
+    private static final OperationStats GET_CHANGES = Metrics.operation("ApiServer.GET /api/changes");
+    private static final OperationStats NOT_MODIFIED = Metrics.operation("ApiServer.304 Not Modified");
+
+    private static final LocalDate MIN_DATE = LocalDate.of(1000, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final byte[] token;
+    private final TransactionController transactionController;
+    private final AccountController accountController;
+    private final CategoryController categoryController;
+    private final ChangelogController changelogController;
+    private final AtomicLong lastSeenVersion = new AtomicLong(-1);
+
+    /** @param token bearer token clients must send, or null to accept every request */
+    public ApiServer(InetSocketAddress address, String token) throws IOException {
+        this.server = HttpServer.create(address, 1024);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.token = token == null ? null : token.getBytes(StandardCharsets.UTF_8);
+        // no offline journal: an API client must see a failed write as a failure
+        this.transactionController = new TransactionController(null);
+        this.accountController = new AccountController();
+        this.categoryController = new CategoryController();
+        this.changelogController = new ChangelogController(transactionController);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Usage: java src.api.ApiServer [--port 8080] [--bind 127.0.0.1] [--pool 20] [--token SECRET]
+     */
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = 8080;
+        String bind = "127.0.0.1";
+        int poolSize = 20;
+        String token = System.getenv("KYS_API_TOKEN");
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(value); i++; break;
+                case "--bind": bind = value; i++; break;
+                case "--pool": poolSize = Integer.parseInt(value); i++; break;
+                case "--token": token = value; i++; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: java src.api.ApiServer [--port 8080] [--bind 127.0.0.1] [--pool 20] [--token SECRET]");
+                    System.exit(2);
+            }
+        }
+
+        Metrics.registerMBean();
+        Metrics.startPeriodicDumpFromSystemProperties();
+        DBConnection.enablePooling(poolSize, 5_000);
+
+        ApiServer apiServer = new ApiServer(new InetSocketAddress(bind, port), token);
+        apiServer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop(1);
+            DBConnection.disablePooling();
+        }, "api-shutdown"));
+        System.out.println("KYS API listening on http://" + bind + ":" + apiServer.getAddress().getPort() + "/api/"
+                + (token == null ? " (no token required)" : ""));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!authorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                sendError(exchange, 401, "Missing or invalid bearer token");
+                return;
+            }
+            route(exchange);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendErrorIfPossible(exchange, 400, e.getMessage());
+        } catch (SQLException e) {
+            sendErrorIfPossible(exchange, statusFor(e), e.getMessage());
+        } catch (IOException e) {
+            // client went away mid-response; nothing left to tell it
+        } catch (RuntimeException e) {
+            System.err.println("API request " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+            sendErrorIfPossible(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+        String resource = path[0];
+        Integer id = null;
+        if (path.length > 2) {
+            sendError(exchange, 404, "Not found");
+            return;
+        }
+        if (path.length == 2) {
+            try {
+                id = Integer.valueOf(path[1]);
+            } catch (NumberFormatException e) {
+                sendError(exchange, 404, "Not found");
+                return;
+            }
+        }
+
+        switch (resource + (id == null ? "" : "/{id}")) {
+            case "version":
+                if (requireMethod(exchange, method, "GET")) {
+                    getVersion(exchange);
+                }
+                break;
+            case "accounts":
+            case "accounts/{id}":
+                if (requireMethod(exchange, method, "GET")) {
+                    getAccounts(exchange, id);
+                }
+                break;
+            case "categories":
+                if (requireMethod(exchange, method, "GET")) {
+                    getCategories(exchange);
+                }
+                break;
+            case "transactions":
+                if (method.equals("POST")) {
+                    postTransaction(exchange);
+                } else if (requireMethod(exchange, method, "GET", "POST")) {
+                    getTransactions(exchange);
+                }
+                break;
+            case "transactions/{id}":
+                if (method.equals("PUT")) {
+                    putTransaction(exchange, id);
+                } else if (method.equals("DELETE")) {
+                    deleteTransaction(exchange, id);
+                } else if (requireMethod(exchange, method, "GET", "PUT", "DELETE")) {
+                    getTransaction(exchange, id);
+                }
+                break;
+            case "summary":
+                if (requireMethod(exchange, method, "GET")) {
+                    getSummary(exchange);
+                }
+                break;
+            case "changes":
+                if (requireMethod(exchange, method, "GET")) {
+                    getChanges(exchange);
+                }
+                break;
+            default:
+                sendError(exchange, 404, "Not found");
+        }
+    }
+
+    private void getVersion(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        try {
+            long version = currentVersion();
+            JsonWriter json = beginResponse(exchange, 200, null);
+            json.beginObject().name("version").value(version).endObject();
+            json.flush();
+        } finally {
+            GET_VERSION.record(start, 1);
+        }
+    }
+
+    private void getAccounts(HttpExchange exchange, Integer id) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            if (id != null) {
+                Account account = accountController.getAccountById(id);
+                if (account == null) {
+                    sendError(exchange, 404, "Account " + id + " not found");
+                    return;
+                }
+                JsonWriter json = beginResponse(exchange, 200, etag);
+                writeAccount(json, account);
+                json.flush();
+                rows = 1;
+                return;
+            }
+            List<Account> accounts = accountController.getAccounts();
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            json.beginArray();
+            for (Account account : accounts) {
+                writeAccount(json, account);
+            }
+            json.endArray().flush();
+            rows = accounts.size();
+        } finally {
+            GET_ACCOUNTS.record(start, rows);
+        }
+    }
+
+    private void getCategories(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            List<Category> categories = categoryController.getCategories();
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            json.beginArray();
+            for (Category c : categories) {
+                json.beginObject()
+                        .name("id").value(c.getId())
+                        .name("name").value(c.getName())
+                        .name("description").value(c.getDescription())
+                        .name("type").value(c.getType())
+                        .endObject();
+            }
+            json.endArray().flush();
+            rows = categories.size();
+        } finally {
+            GET_CATEGORIES.record(start, rows);
+        }
+    }
+
+    /**
+     * Newest first. {@code before} is the {@code next} cursor from the previous page
+     * ("date:id"); the response's {@code next} is null on the last page.
+     */
+    private void getTransactions(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long[] rows = new long[1];
+        try {
+            Map<String, String> query = queryParameters(exchange);
+            LocalDate from = dateParam(query, "from", MIN_DATE);
+            LocalDate to = dateParam(query, "to", MAX_DATE);
+            Integer accountId = intParam(query, "account");
+            Integer categoryId = intParam(query, "category");
+            Integer requestedLimit = intParam(query, "limit");
+            int limit = requestedLimit == null ? DEFAULT_PAGE_SIZE : requestedLimit;
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            LocalDate beforeDate = null;
+            int beforeId = 0;
+            String before = query.get("before");
+            if (before != null) {
+                int colon = before.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("before must be a cursor of the form date:id");
+                }
+                beforeDate = LocalDate.parse(before.substring(0, colon));
+                beforeId = Integer.parseInt(before.substring(colon + 1));
+            }
+
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            Transaction[] last = new Transaction[1];
+            json.beginObject().name("items").beginArray();
+            try {
+                rows[0] = transactionController.forEachTransactionPage(from, to, accountId, categoryId, beforeDate, beforeId, limit, t -> {
+                    try {
+                        writeTransaction(json, t);
+                    } catch (IOException e) {
+                        throw new ClientGoneException(e);
+                    }
+                    last[0] = t;
+                });
+            } catch (ClientGoneException e) {
+                throw e.getCause();
+            }
+            json.endArray().name("next");
+            if (rows[0] == limit) {
+                json.value(last[0].getDate() + ":" + last[0].getId());
+            } else {
+                json.nullValue();
+            }
+            json.endObject().flush();
+        } finally {
+            GET_TRANSACTIONS.record(start, rows[0]);
+        }
+    }
+
+    private void getTransaction(HttpExchange exchange, int id) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            Transaction t = transactionController.getTransaction(id);
+            if (t == null) {
+                sendError(exchange, 404, "Transaction " + id + " not found");
+                return;
+            }
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            writeTransaction(json, t);
+            json.flush();
+            rows = 1;
+        } finally {
+            GET_TRANSACTION.record(start, rows);
+        }
+    }
+
+    private void postTransaction(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            Transaction t = readTransaction(exchange, 0);
+            transactionController.addTransaction(t);
+            rows = 1;
+            Transaction saved = transactionController.getTransaction(t.getId());
+            exchange.getResponseHeaders().set("Location", "/api/transactions/" + t.getId());
+            JsonWriter json = beginResponse(exchange, 201, null);
+            writeTransaction(json, saved != null ? saved : t);
+            json.flush();
+        } finally {
+            POST_TRANSACTION.record(start, rows);
+        }
+    }
+
+    private void putTransaction(HttpExchange exchange, int id) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            Transaction t = readTransaction(exchange, id);
+            if (transactionController.getTransaction(id) == null) {
+                sendError(exchange, 404, "Transaction " + id + " not found");
+                return;
+            }
+            transactionController.updateTransaction(t);
+            rows = 1;
+            Transaction saved = transactionController.getTransaction(id);
+            JsonWriter json = beginResponse(exchange, 200, null);
+            writeTransaction(json, saved != null ? saved : t);
+            json.flush();
+        } finally {
+            PUT_TRANSACTION.record(start, rows);
+        }
+    }
+
+    private void deleteTransaction(HttpExchange exchange, int id) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            if (transactionController.getTransaction(id) == null) {
+                sendError(exchange, 404, "Transaction " + id + " not found");
+                return;
+            }
+            transactionController.deleteTransaction(id);
+            rows = 1;
+            exchange.sendResponseHeaders(204, -1);
+        } finally {
+            DELETE_TRANSACTION.record(start, rows);
+        }
+    }
+
+    /**
+     * Changelog rows after {@code since} (default 0), oldest first. {@code next} is the seq to
+     * pass as {@code since} on the following call; it equals {@code since} when nothing is new.
+     * Each response carries the history {@code epoch}; a client that sends back an older one gets
+     * 410 Gone, since a restore has discarded changes it may have applied, and must reload.
+     */
+    private void getChanges(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            Map<String, String> query = queryParameters(exchange);
+            long since;
+            try {
+                since = query.containsKey("since") ? Long.parseLong(query.get("since")) : 0;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("since must be an integer");
+            }
+            Integer requestedLimit = intParam(query, "limit");
+            int limit = requestedLimit == null ? DEFAULT_PAGE_SIZE : requestedLimit;
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            Long clientEpoch;
+            try {
+                clientEpoch = query.containsKey("epoch") ? Long.parseLong(query.get("epoch")) : null;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("epoch must be an integer");
+            }
+            long epoch = changelogController.getEpoch();
+            if (clientEpoch != null && clientEpoch != epoch) {
+                // read before the client reloads, so nothing written meanwhile is skipped
+                long next = changelogController.getLastSeq();
+                JsonWriter json = beginResponse(exchange, 410, null);
+                json.beginObject()
+                        .name("error").value("History was rewritten by a restore; reload everything")
+                        .name("epoch").value(epoch)
+                        .name("next").value(next)
+                        .endObject().flush();
+                return;
+            }
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            List<ChangeEntry> changes = changelogController.getChangesSince(since, limit);
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            json.beginObject().name("changes").beginArray();
+            for (ChangeEntry c : changes) {
+                json.beginObject()
+                        .name("seq").value(c.getSeq())
+                        .name("entity").value(c.getEntity().name())
+                        .name("entityId").value(c.getEntityId())
+                        .name("op").value(c.getOp().name())
+                        .name("before").rawValue(c.getBefore())
+                        .name("after").rawValue(c.getAfter())
+                        .name("revertsSeq");
+                if (c.getRevertsSeq() == null) {
+                    json.nullValue();
+                } else {
+                    json.value(c.getRevertsSeq());
+                }
+                json.name("changedAt").value(c.getChangedAt() == null ? null : c.getChangedAt().toString())
+                        .endObject();
+            }
+            json.endArray().name("next").value(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq())
+                    .name("epoch").value(epoch);
+            json.endObject().flush();
+            rows = changes.size();
+        } finally {
+            GET_CHANGES.record(start, rows);
+        }
+    }
+
+    private void getSummary(HttpExchange exchange) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            Map<String, String> query = queryParameters(exchange);
+            LocalDate from = dateParam(query, "from", MIN_DATE);
+            LocalDate to = dateParam(query, "to", MAX_DATE);
+            String etag = etagOrNotModified(exchange);
+            if (etag == null) {
+                return;
+            }
+            List<Account> accounts = accountController.getAccounts();
+            List<CategorySummary> categories = transactionController.getCategorySummary(from, to);
+
+            JsonWriter json = beginResponse(exchange, 200, etag);
+            json.beginObject().name("accounts").beginArray();
+            BigDecimal totalBalance = BigDecimal.ZERO;
+            for (Account account : accounts) {
+                writeAccount(json, account);
+                totalBalance = totalBalance.add(FxRates.getDefault().toBase(account.getBalance(), account.getCurrency(), LocalDate.now()));
+            }
+            // totals are in the base currency, converted at today's rate for balances and each day's rate for categories
+            json.endArray().name("baseCurrency").value(FxRates.getDefault().getBaseCurrency())
+                    .name("totalBalance").value(totalBalance);
+
+            BigDecimal income = BigDecimal.ZERO;
+            BigDecimal expenses = BigDecimal.ZERO;
+            json.name("categories").beginArray();
+            for (CategorySummary s : categories) {
+                json.beginObject()
+                        .name("categoryId").value(s.getCategoryId())
+                        .name("categoryName").value(s.getCategoryName())
+                        .name("type").value(s.getType())
+                        .name("total").value(s.getTotal())
+                        .name("count").value(s.getCount())
+                        .endObject();
+                if ("INCOME".equalsIgnoreCase(s.getType())) {
+                    income = income.add(s.getTotal());
+                } else {
+                    expenses = expenses.add(s.getTotal());
+                }
+            }
+            json.endArray()
+                    .name("income").value(income)
+                    .name("expenses").value(expenses)
+                    .name("net").value(income.subtract(expenses))
+                    .endObject().flush();
+            rows = accounts.size() + categories.size();
+        } finally {
+            GET_SUMMARY.record(start, rows);
+        }
+    }
+
+    /**
+     * Reads the ledger version and answers 304 if the client already has it.
+     *
+     * The version is read before the data, so a write landing in between can only make the
+     * body newer than its ETag; the client then revalidates and fetches again, never the
+     * reverse.
+     *
+     * @return the ETag to send with the body, or null if a 304 was sent
+     */
+    private String etagOrNotModified(HttpExchange exchange) throws IOException, SQLException {
+        String etag = "\"" + currentVersion() + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag))) {
+            long start = System.nanoTime();
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(304, -1);
+            NOT_MODIFIED.record(start, 0);
+            return null;
+        }
+        return etag;
+    }
+
+    private long currentVersion() throws SQLException {
+        long version = transactionController.getLedgerVersion();
+        if (lastSeenVersion.getAndSet(version) != version) {
+            // another client may have archived a year; re-read what the controller caches
+            transactionController.invalidateCaches();
+        }
+        return version;
+    }
+
+    private JsonWriter beginResponse(HttpExchange exchange, int status, String etag) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (etag != null) {
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        }
+        // length 0 means chunked: the body is streamed as it is produced
+        exchange.sendResponseHeaders(status, 0);
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024));
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        JsonWriter json = beginResponse(exchange, status, null);
+        json.beginObject().name("error").value(message).endObject().flush();
+    }
+
+    private void sendErrorIfPossible(HttpExchange exchange, int status, String message) {
+        if (exchange.getResponseCode() != -1) {
+            // headers are already out (the failure happened mid-stream); closing the exchange
+            // ends the chunked body early, which the client sees as a truncated response
+            return;
+        }
+        try {
+            sendError(exchange, status, message);
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private static int statusFor(SQLException e) {
+        String state = e.getSQLState();
+        if (e instanceof SQLTransientConnectionException || (state != null && state.startsWith("08"))) {
+            return 503;
+        }
+        if (state != null && state.startsWith("23")) {
+            return 409;
+        }
+        return 500;
+    }
+
+    private boolean requireMethod(HttpExchange exchange, String method, String... allowed) throws IOException {
+        if (method.equals(allowed[0])) {
+            return true;
+        }
+        exchange.getResponseHeaders().set("Allow", String.join(", ", allowed));
+        sendError(exchange, 405, "Method " + method + " not allowed");
+        return false;
+    }
+
+    private boolean authorized(HttpExchange exchange) {
+        if (token == null) {
+            return true;
+        }
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(token, header.substring("Bearer ".length()).trim().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeAccount(JsonWriter json, Account a) throws IOException {
+        json.beginObject()
+                .name("id").value(a.getId())
+                .name("name").value(a.getName())
+                .name("balance").value(a.getBalance())
+                .name("currency").value(a.getCurrency())
+                .endObject();
+    }
+
+    private static void writeTransaction(JsonWriter json, Transaction t) throws IOException {
+        json.beginObject()
+                .name("id").value(t.getId())
+                .name("date").value(t.getDate().toString())
+                .name("description").value(t.getDescription())
+                .name("amount").value(t.getAmount())
+                .name("type").value(t.getType())
+                .name("categoryId").value(t.getCategoryId())
+                .name("categoryName").value(t.getCategoryName())
+                .name("accountId").value(t.getAccountId())
+                .name("accountName").value(t.getAccountName())
+                .endObject();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Transaction readTransaction(HttpExchange exchange, int id) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Request body too large");
+        }
+        Object parsed = JsonParser.parse(new String(body, StandardCharsets.UTF_8));
+        if (!(parsed instanceof Map)) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        Map<String, Object> fields = (Map<String, Object>) parsed;
+        String description = stringField(fields, "description");
+        BigDecimal amount = numberField(fields, "amount");
+        LocalDate date = LocalDate.parse(stringField(fields, "date"));
+        String type = stringField(fields, "type").toUpperCase();
+        int categoryId = intField(fields, "categoryId");
+        int accountId = intField(fields, "accountId");
+        if (description.isBlank()) {
+            throw new IllegalArgumentException("description must not be empty");
+        }
+        if (!type.equals("INCOME") && !type.equals("EXPENSE")) {
+            throw new IllegalArgumentException("type must be INCOME or EXPENSE");
+        }
+        if (amount.signum() < 0) {
+            throw new IllegalArgumentException("amount must be non-negative");
+        }
+        return new Transaction(id, description, amount, date, type, categoryId, accountId);
+    }
+
+    private static String stringField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("'" + name + "' must be a string");
+        }
+        return (String) value;
+    }
+
+    private static BigDecimal numberField(Map<String, Object> fields, String name) {
+        Object value = fields.get(name);
+        if (value instanceof String) {
+            try {
+                return new BigDecimal((String) value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("'" + name + "' must be a number");
+            }
+        }
+        if (!(value instanceof BigDecimal)) {
+            throw new IllegalArgumentException("'" + name + "' must be a number");
+        }
+        return (BigDecimal) value;
+    }
+
+    private static int intField(Map<String, Object> fields, String name) {
+        try {
+            return numberField(fields, name).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("'" + name + "' must be a whole number");
+        }
+    }
+
+    private static Map<String, String> queryParameters(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8), value);
+            }
+        }
+        return params;
+    }
+
+    private static LocalDate dateParam(Map<String, String> query, String name, LocalDate defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : LocalDate.parse(value);
+    }
+
+    private static Integer intParam(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+    }
+
+    /** Carries an IOException out of the row consumer, which cannot throw checked exceptions. */
+    private static final class ClientGoneException extends RuntimeException {
+        ClientGoneException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+}
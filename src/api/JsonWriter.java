@@ -0,0 +1,151 @@
+package src.api;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * Minimal streaming JSON writer: values go straight to the underlying writer, so a response of
+ * any size is written without building it in memory first. Commas are inserted automatically;
+ * the caller is responsible for balancing begin/end calls.
+ */
+public class JsonWriter {
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // per nesting level: has a value already been written at this level?
+    private final boolean[] hasValue = new boolean[MAX_DEPTH];
+    private int depth;
+    private boolean afterName;
+
+    public JsonWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        separator();
+        string(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(String value) throws IOException {
+        separator();
+        if (value == null) {
+            out.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(long value) throws IOException {
+        separator();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(boolean value) throws IOException {
+        separator();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    /** Written as a JSON number with its exact scale, e.g. 25000.00. */
+    public JsonWriter value(BigDecimal value) throws IOException {
+        separator();
+        out.write(value == null ? "null" : value.toPlainString());
+        return this;
+    }
+
+    /** Writes {@code json}, which must already be a well-formed JSON value, as is; null writes null. */
+    public JsonWriter rawValue(String json) throws IOException {
+        separator();
+        out.write(json == null ? "null" : json);
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        separator();
+        out.write("null");
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private JsonWriter open(char c) throws IOException {
+        separator();
+        if (depth + 1 >= MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested too deeply");
+        }
+        out.write(c);
+        hasValue[++depth] = false;
+        return this;
+    }
+
+    private JsonWriter close(char c) throws IOException {
+        out.write(c);
+        depth--;
+        return this;
+    }
+
+    private void separator() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (hasValue[depth]) {
+            out.write(',');
+        }
+        hasValue[depth] = true;
+    }
+
+    private void string(String s) throws IOException {
+        out.write('"');
+        int runStart = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String escape;
+            if (c == '"') {
+                escape = "\\\"";
+            } else if (c == '\\') {
+                escape = "\\\\";
+            } else if (c == '\n') {
+                escape = "\\n";
+            } else if (c == '\r') {
+                escape = "\\r";
+            } else if (c == '\t') {
+                escape = "\\t";
+            } else if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                escape = String.format("\\u%04x", (int) c);
+            } else {
+                continue;
+            }
+            // copy the unescaped run in one call instead of char by char
+            out.write(s, runStart, i - runStart);
+            out.write(escape);
+            runStart = i + 1;
+        }
+        out.write(s, runStart, s.length() - runStart);
+        out.write('"');
+    }
+}
@@ -0,0 +1,81 @@
+package src.backup;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+/** Reads what {@link BackupOutput} wrote, from a private buffer refilled in large blocks. */
+public class BackupInput implements AutoCloseable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // longest string the format can hold: a VARCHAR(255) of 4-byte characters, with room to spare
+    private static final int MAX_STRING_BYTES = 1 << 20;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    public BackupInput(InputStream source) throws IOException {
+        this.in = new GZIPInputStream(source, BUFFER_SIZE);
+    }
+
+    public int readByte() throws IOException {
+        if (position == limit && !fill()) {
+            throw new EOFException("Backup file is truncated");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public long readLong() throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IOException("Malformed number in backup file");
+    }
+
+    public String readString() throws IOException {
+        long length = readLong();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("Malformed string in backup file");
+        }
+        int n = (int) length;
+        if (n <= limit - position) {
+            String s = new String(buffer, position, n, StandardCharsets.UTF_8);
+            position += n;
+            return s;
+        }
+        byte[] bytes = new byte[n];
+        for (int i = 0; i < n; i++) {
+            bytes[i] = (byte) readByte();
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public BigDecimal readDecimal() throws IOException {
+        int scale = (byte) readByte();
+        return BigDecimal.valueOf(readLong(), scale);
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, BUFFER_SIZE);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
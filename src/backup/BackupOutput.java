@@ -0,0 +1,116 @@
+package src.backup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the backup format: a gzip stream of variable-length integers and length-prefixed
+ * UTF-8 strings. Values are encoded into a private buffer, so each one costs a few array
+ * stores and never a call into the compressor.
+ *
+ * <pre>
+ * file   = MAGIC version:byte changelogSeq:long createdAt:long table* 0:byte
+ * table  = 1:byte name:string columnCount:int (name:string kind:byte nullable:byte)* row* 0:byte
+ * row    = 1:byte value*            -- nullable values are preceded by 0 (null) or 1
+ * </pre>
+ *
+ * Integers are zigzag varints. A decimal is its scale as a byte and its unscaled value as a
+ * long; a date is its epoch day; a timestamp is epoch milliseconds.
+ */
+public class BackupOutput implements AutoCloseable {
+    public static final byte[] MAGIC = { 'K', 'Y', 'S', 'B' };
+    public static final int VERSION = 1;
+
+    public static final byte KIND_LONG = 'L';
+    public static final byte KIND_DECIMAL = 'D';
+    public static final byte KIND_STRING = 'S';
+    public static final byte KIND_DATE = 'T';
+    public static final byte KIND_TIMESTAMP = 'Z';
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private long bytesWritten;
+
+    public BackupOutput(OutputStream target) throws IOException {
+        // fastest deflate level: backups should be limited by the disk, not by compression
+        this.out = new GZIPOutputStream(target, BUFFER_SIZE) {
+            {
+                def.setLevel(Deflater.BEST_SPEED);
+            }
+        };
+    }
+
+    public void writeByte(int value) throws IOException {
+        if (position == BUFFER_SIZE) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > BUFFER_SIZE - position) {
+            flushBuffer();
+            if (bytes.length > BUFFER_SIZE) {
+                out.write(bytes);
+                bytesWritten += bytes.length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    public void writeLong(long value) throws IOException {
+        if (BUFFER_SIZE - position < 10) {
+            flushBuffer();
+        }
+        long v = (value << 1) ^ (value >> 63);
+        while ((v & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buffer[position++] = (byte) v;
+    }
+
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLong(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /** @throws IOException if the unscaled value does not fit in a long, which DECIMAL(15,2) always does */
+    public void writeDecimal(BigDecimal value) throws IOException {
+        if (value.unscaledValue().bitLength() > 63) {
+            throw new IOException("Decimal " + value + " is too large for the backup format");
+        }
+        writeByte(value.scale());
+        writeLong(value.unscaledValue().longValue());
+    }
+
+    /** @return uncompressed bytes written so far */
+    public long getBytesWritten() {
+        return bytesWritten + position;
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        bytesWritten += position;
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+}
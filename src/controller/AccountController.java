@@ -4,6 +4,8 @@ import java.sql.SQLException;
 import java.util.List;
 
 import src.dao.AccountDAO;
+import src.dao.ChangelogDAO;
+import src.fx.FxRates;
 import src.model.Account;
 
 public class AccountController {
@@ -13,8 +15,20 @@ public class AccountController {
         dao = new AccountDAO();
     }
 
+    /** @throws IllegalArgumentException if the account's currency has no exchange rates */
     public void addAccount(Account a) throws SQLException {
-        dao.insert(a);
+        if (a.getCurrency() != null && !FxRates.getDefault().supports(a.getCurrency())) {
+            throw new IllegalArgumentException("No exchange rates for " + a.getCurrency() + ". Add them to "
+                    + FxRates.defaultFile() + " first.");
+        }
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.insert(a);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Add account '" + a.getName() + "'", seqs);
     }
 
     public List<Account> getAccounts() throws SQLException {
@@ -22,11 +36,25 @@ public class AccountController {
     }
 
     public void updateAccount(Account a) throws SQLException {
-        dao.update(a);
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.update(a);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Edit account '" + a.getName() + "'", seqs);
     }
 
     public void deleteAccount(int id) throws SQLException {
-        dao.delete(id);
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.delete(id);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Delete account", seqs);
     }
 
     public Account getAccountById(int id) throws SQLException {
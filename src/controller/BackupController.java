@@ -0,0 +1,56 @@
+package src.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+import src.dao.BackupDAO;
+import src.model.BackupInfo;
+
+public class BackupController {
+    private final BackupDAO backupDAO = new BackupDAO();
+    private final TransactionController transactionController;
+
+    public BackupController(TransactionController transactionController) {
+        this.transactionController = transactionController;
+    }
+
+    /** Writes a backup to a temporary file next to {@code file} and moves it into place once complete. */
+    public BackupInfo backup(Path file) throws SQLException, IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path partial = Files.createTempFile(dir, file.getFileName().toString(), ".partial");
+        try {
+            BackupInfo info;
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                info = backupDAO.backup(out);
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return info;
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * Replaces the ledger with the backup in {@code file}, rolled forward to {@code untilSeq} if
+     * given. Undo history refers to changelog rows the restore may have discarded, so it is cleared.
+     */
+    public BackupInfo restore(Path file, Long untilSeq) throws SQLException, IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return backupDAO.restore(in, untilSeq);
+        } finally {
+            UndoHistory.getDefault().clear();
+            transactionController.invalidateCaches();
+        }
+    }
+
+    /** @return the changelog seq a restore must replay to, to show the ledger as it was at {@code time} */
+    public long getSeqAt(LocalDateTime time) throws SQLException {
+        return backupDAO.getSeqAt(time);
+    }
+}
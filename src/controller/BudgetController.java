@@ -0,0 +1,165 @@
+package src.controller;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import src.dao.BudgetDAO;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Budget;
+import src.model.BudgetStatus;
+import src.model.CategorySummary;
+import src.model.Transaction;
+
+/**
+ * Budgets and how much of each has been spent in the current period.
+ *
+ * Spending per category is kept as in-memory running totals, one set per period (a month or a
+ * year). A period is seeded once with a single aggregate query the first time it is asked for;
+ * after that every add, edit and delete made through the {@link TransactionController} adjusts
+ * the totals directly, so no change ever causes the period to be summed again. Totals are
+ * re-seeded after {@value #SEED_MAX_AGE_MINUTES} minutes to pick up other clients' changes.
+ */
+public class BudgetController implements TransactionChangeListener {
+    private static final OperationStats SEED = Metrics.operation("BudgetController.seedPeriod");
+    private static final long SEED_MAX_AGE_MINUTES = 5;
+
+    private final BudgetDAO dao;
+    private final TransactionController transactionController;
+    // keyed by period start and end; both a month and the year containing it can be tracked at once
+    private final Map<List<LocalDate>, PeriodTotals> periods = new HashMap<>();
+
+    private static final class PeriodTotals {
+        final LocalDate start;
+        final LocalDate end;
+        final Map<Integer, BigDecimal> byCategory = new HashMap<>();
+        final long seededAt = System.nanoTime();
+
+        PeriodTotals(LocalDate start, LocalDate end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean contains(LocalDate date) {
+            return date != null && !date.isBefore(start) && !date.isAfter(end);
+        }
+    }
+
+    public BudgetController(TransactionController transactionController) {
+        this.dao = new BudgetDAO();
+        this.transactionController = transactionController;
+        transactionController.addChangeListener(this);
+    }
+
+    public List<Budget> getBudgets() throws SQLException {
+        return dao.getAll();
+    }
+
+    /** @throws IllegalArgumentException if the amount is not positive */
+    public void addBudget(Budget budget) throws SQLException {
+        validate(budget);
+        dao.insert(budget);
+    }
+
+    /** @throws IllegalArgumentException if the amount is not positive */
+    public void updateBudget(Budget budget) throws SQLException {
+        validate(budget);
+        dao.update(budget);
+    }
+
+    public void deleteBudget(int id) throws SQLException {
+        dao.delete(id);
+    }
+
+    /** Every budget with what has been spent in its period containing {@code date}. */
+    public List<BudgetStatus> getBudgetStatus(LocalDate date) throws SQLException {
+        List<BudgetStatus> statuses = new ArrayList<>();
+        for (Budget budget : dao.getAll()) {
+            LocalDate start = budget.periodStart(date);
+            LocalDate end = budget.periodEnd(date);
+            statuses.add(new BudgetStatus(budget, start, end, spent(budget.getCategoryId(), start, end)));
+        }
+        return statuses;
+    }
+
+    private BigDecimal spent(int categoryId, LocalDate start, LocalDate end) throws SQLException {
+        List<LocalDate> key = List.of(start, end);
+        synchronized (this) {
+            PeriodTotals totals = periods.get(key);
+            if (totals != null && System.nanoTime() - totals.seededAt < TimeUnit.MINUTES.toNanos(SEED_MAX_AGE_MINUTES)) {
+                return totals.byCategory.getOrDefault(categoryId, BigDecimal.ZERO);
+            }
+        }
+        // outside this object's lock: a write committing right now holds the commit lock and waits for ours
+        PeriodTotals seeded = transactionController.withWritesPaused(() -> {
+            long startNanos = System.nanoTime();
+            PeriodTotals totals = new PeriodTotals(start, end);
+            List<CategorySummary> sums = transactionController.getCategorySummary(start, end);
+            for (CategorySummary sum : sums) {
+                totals.byCategory.merge(sum.getCategoryId(), sum.getTotal(), BigDecimal::add);
+            }
+            synchronized (this) {
+                periods.put(key, totals);
+                dropEndedPeriods(start);
+            }
+            SEED.record(startNanos, sums.size());
+            return totals;
+        });
+        synchronized (this) {
+            return seeded.byCategory.getOrDefault(categoryId, BigDecimal.ZERO);
+        }
+    }
+
+    // totals for periods that ended before the one just seeded are no longer shown anywhere
+    private void dropEndedPeriods(LocalDate before) {
+        periods.values().removeIf(p -> p.end.isBefore(before));
+    }
+
+    @Override
+    public void transactionAdded(Transaction t) {
+        apply(t, false);
+    }
+
+    @Override
+    public void transactionRemoved(Transaction t) {
+        apply(t, true);
+    }
+
+    private void apply(Transaction t, boolean removed) {
+        BigDecimal amount;
+        try {
+            // budgets are in the base currency, like the seeded totals
+            amount = transactionController.toBaseCurrency(t);
+        } catch (SQLException | IllegalArgumentException e) {
+            transactionsReset();
+            return;
+        }
+        synchronized (this) {
+            for (PeriodTotals totals : periods.values()) {
+                if (totals.contains(t.getDate())) {
+                    totals.byCategory.merge(t.getCategoryId(), removed ? amount.negate() : amount, BigDecimal::add);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void transactionsReset() {
+        periods.clear();
+    }
+
+    private static void validate(Budget budget) {
+        if (budget.getAmount() == null || budget.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Budget amount must be greater than zero.");
+        }
+        if (!Budget.MONTHLY.equals(budget.getPeriod()) && !Budget.YEARLY.equals(budget.getPeriod())) {
+            throw new IllegalArgumentException("Budget period must be MONTHLY or YEARLY.");
+        }
+    }
+}
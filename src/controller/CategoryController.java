@@ -3,6 +3,7 @@ package src.controller;
 import java.sql.SQLException;
 import java.util.List;
 import src.dao.CategoryDAO;
+import src.dao.ChangelogDAO;
 import src.model.Category;
 
 public class CategoryController {
@@ -13,7 +14,14 @@ public class CategoryController {
     }
 
     public void addCategory(Category c) throws SQLException {
-        dao.insert(c);
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.insert(c);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Add category '" + c.getName() + "'", seqs);
     }
 
     public List<Category> getCategories() throws SQLException {
@@ -21,10 +29,24 @@ public class CategoryController {
     }
 
     public void updateCategory(Category c) throws SQLException {
-        dao.update(c);
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.update(c);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Edit category '" + c.getName() + "'", seqs);
     }
 
     public void deleteCategory(int id) throws SQLException {
-        dao.delete(id);
+        List<Long> seqs;
+        ChangelogDAO.beginGroup();
+        try {
+            dao.delete(id);
+        } finally {
+            seqs = ChangelogDAO.endGroup();
+        }
+        UndoHistory.getDefault().record("Delete category", seqs);
     }
 }
\ No newline at end of file
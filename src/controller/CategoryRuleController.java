@@ -0,0 +1,94 @@
+package src.controller;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import src.dao.CategoryRuleDAO;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.CategoryRule;
+import src.rules.RuleMatcher;
+
+/**
+ * Categorization rules and the compiled matcher built from them. The matcher is rebuilt after
+ * every change made through this controller and on {@link #reload()}; classification itself
+ * never touches the database.
+ */
+public class CategoryRuleController {
+    private static final OperationStats CLASSIFY = Metrics.operation("CategoryRuleController.classify");
+    private static final OperationStats COMPILE = Metrics.operation("CategoryRuleController.compile");
+    private static final long RETRY_AFTER_FAILURE_NANOS = 30_000_000_000L;
+
+    private CategoryRuleDAO dao;
+    private volatile RuleMatcher matcher;
+    private volatile long failedAt;
+
+    public CategoryRuleController() {
+        dao = new CategoryRuleDAO();
+    }
+
+    public List<CategoryRule> getRules() throws SQLException {
+        return dao.getAll();
+    }
+
+    /** @throws IllegalArgumentException if a regex rule does not compile or the amount range is empty */
+    public void addRule(CategoryRule rule) throws SQLException {
+        if (CategoryRule.REGEX.equals(rule.getMatchType())) {
+            Pattern.compile(rule.getPattern());
+        }
+        if (rule.getMinAmount() != null && rule.getMaxAmount() != null && rule.getMinAmount().compareTo(rule.getMaxAmount()) > 0) {
+            throw new IllegalArgumentException("Minimum amount is greater than maximum amount.");
+        }
+        dao.insert(rule);
+        reload();
+    }
+
+    public void deleteRule(int id) throws SQLException {
+        dao.delete(id);
+        reload();
+    }
+
+    /** Re-reads the rules, e.g. after another client may have changed them. */
+    public void reload() throws SQLException {
+        long start = System.nanoTime();
+        List<CategoryRule> rules = dao.getAll();
+        try {
+            matcher = RuleMatcher.compile(rules);
+        } finally {
+            COMPILE.record(start, rules.size());
+        }
+    }
+
+    /**
+     * @return the category id chosen by the rules, or null if no rule matches. If the rules
+     *         cannot be loaded this returns null rather than failing the caller's save.
+     */
+    public Integer suggestCategory(String description, BigDecimal amount, String transactionType) {
+        RuleMatcher m = getMatcher();
+        long start = System.nanoTime();
+        CategoryRule rule = m.classify(description, amount, transactionType);
+        CLASSIFY.record(start, rule != null ? 1 : 0);
+        return rule != null ? rule.getCategoryId() : null;
+    }
+
+    public RuleMatcher getMatcher() {
+        RuleMatcher m = matcher;
+        if (m != null) {
+            return m;
+        }
+        // don't hit an unreachable database on every keystroke
+        if (failedAt != 0 && System.nanoTime() - failedAt < RETRY_AFTER_FAILURE_NANOS) {
+            return RuleMatcher.empty();
+        }
+        try {
+            reload();
+            return matcher;
+        } catch (SQLException e) {
+            failedAt = System.nanoTime();
+            System.err.println("Failed to load categorization rules: " + e.getMessage());
+            return RuleMatcher.empty();
+        }
+    }
+}
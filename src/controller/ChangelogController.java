@@ -0,0 +1,284 @@
+package src.controller;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import src.dao.AccountDAO;
+import src.dao.CategoryDAO;
+import src.dao.ChangelogDAO;
+import src.dao.DBConnection;
+import src.dao.LedgerVersionDAO;
+import src.dao.TransactionDAO;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Account;
+import src.model.Category;
+import src.model.ChangeEntry;
+import src.model.Transaction;
+
+/**
+ * Reads the changelog for incremental sync, and undoes or redoes changes by applying their
+ * inverse operations: an insert is undone by a delete, a delete by re-inserting the row under
+ * its old id, an update by writing the old values back. The inverse operations go through the
+ * same DAO paths as any other change, so they are logged too and other clients see them.
+ *
+ * A change is only reverted while the row still looks the way the change left it. If someone
+ * edited a transaction after the change being undone, the undo fails instead of silently
+ * overwriting that edit.
+ */
+public class ChangelogController {
+    private static final OperationStats REVERT = Metrics.operation("ChangelogController.revert");
+
+    private final TransactionController transactionController;
+    private final UndoHistory history;
+    private final ChangelogDAO changelogDAO = new ChangelogDAO();
+    private final TransactionDAO transactionDAO = new TransactionDAO();
+    private final AccountDAO accountDAO = new AccountDAO();
+    private final CategoryDAO categoryDAO = new CategoryDAO();
+    private final LedgerVersionDAO ledgerVersionDAO = new LedgerVersionDAO();
+
+    public ChangelogController(TransactionController transactionController) {
+        this(transactionController, UndoHistory.getDefault());
+    }
+
+    public ChangelogController(TransactionController transactionController, UndoHistory history) {
+        this.transactionController = transactionController;
+        this.history = history;
+    }
+
+    /**
+     * @return up to {@code limit} changes with a seq greater than {@code afterSeq}, oldest first.
+     *         Pass the last seq seen to get the next batch; an empty list means up to date.
+     */
+    public List<ChangeEntry> getChangesSince(long afterSeq, int limit) throws SQLException {
+        return changelogDAO.getSince(afterSeq, limit);
+    }
+
+    /** @return the newest changelog seq, where a client that just reloaded everything can start following */
+    public long getLastSeq() throws SQLException {
+        return changelogDAO.getLastSeq();
+    }
+
+    /** @return the history epoch; when it changes, a restore has discarded changes a client may have applied */
+    public long getEpoch() throws SQLException {
+        return ledgerVersionDAO.getEpoch();
+    }
+
+    /** @return a label for the action undo would take back, or null if there is none */
+    public String getUndoLabel() {
+        UndoHistory.Step step = history.peekUndo();
+        return step == null ? null : step.getLabel();
+    }
+
+    /** @return a label for the action redo would reapply, or null if there is none */
+    public String getRedoLabel() {
+        UndoHistory.Step step = history.peekRedo();
+        return step == null ? null : step.getLabel();
+    }
+
+    /**
+     * Reverts the most recent action recorded in this process.
+     *
+     * @return false if there was nothing to undo
+     * @throws SQLException if the action can no longer be undone; it is then dropped from the history
+     */
+    public synchronized boolean undo() throws SQLException {
+        UndoHistory.Step step = history.peekUndo();
+        if (step == null) {
+            return false;
+        }
+        history.undone(step, revertOrDiscard(step));
+        return true;
+    }
+
+    /**
+     * Reapplies the most recently undone action.
+     *
+     * @return false if there was nothing to redo
+     * @throws SQLException if the action can no longer be redone; it is then dropped from the history
+     */
+    public synchronized boolean redo() throws SQLException {
+        UndoHistory.Step step = history.peekRedo();
+        if (step == null) {
+            return false;
+        }
+        history.redone(step, revertOrDiscard(step));
+        return true;
+    }
+
+    private List<Long> revertOrDiscard(UndoHistory.Step step) throws SQLException {
+        try {
+            return revert(step.getSeqs());
+        } catch (SQLException e) {
+            if (!TransactionController.isConnectionFailure(e)) {
+                history.discard(step);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reverts the given changelog rows, newest first, in one database transaction: either all of
+     * them are reverted or none is.
+     *
+     * @return the seqs of the changelog rows the inverse operations wrote, oldest first
+     */
+    public List<Long> revert(List<Long> seqs) throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+            ChangelogDAO.beginGroup();
+
+            List<ChangeEntry> entries = changelogDAO.getBySeqs(seqs, conn);
+            if (entries.size() != seqs.size()) {
+                throw new SQLException((seqs.size() - entries.size()) + " of these changes are no longer in the changelog.");
+            }
+            List<Long> reverted = new ArrayList<>(entries.size());
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                revertEntry(entries.get(i), conn);
+                reverted.add(entries.get(i).getSeq());
+            }
+            List<Long> inverse = ChangelogDAO.currentGroup();
+            changelogDAO.markReverts(inverse, reverted, conn);
+            ledgerVersionDAO.bump(conn);
+
+            conn.commit();
+            transactionController.invalidateCaches();
+            return inverse;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            ChangelogDAO.endGroup();
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            REVERT.record(start, seqs.size());
+        }
+    }
+
+    // each case writes exactly one changelog row, so inverse and reverted seqs pair up by position
+    private void revertEntry(ChangeEntry entry, Connection conn) throws SQLException {
+        int id = entry.getEntityId();
+        switch (entry.getEntity()) {
+            case TRANSACTION:
+                revertTransaction(entry, id, conn);
+                break;
+            case ACCOUNT:
+                revertAccount(entry, id, conn);
+                break;
+            case CATEGORY:
+                revertCategory(entry, id, conn);
+                break;
+        }
+    }
+
+    private void revertTransaction(ChangeEntry entry, int id, Connection conn) throws SQLException {
+        switch (entry.getOp()) {
+            case INSERT: {
+                requireUnchanged(transactionDAO.getById(id, conn), ChangelogDAO.transactionFromJson(entry.getAfter()));
+                transactionDAO.deleteTransactionAndUpdateAccount(id, accountDAO, conn);
+                break;
+            }
+            case DELETE: {
+                Transaction before = ChangelogDAO.transactionFromJson(entry.getBefore());
+                transactionController.checkNotArchived(before.getDate(), conn);
+                transactionDAO.restoreTransactionAndUpdateAccount(before, accountDAO, conn);
+                break;
+            }
+            case UPDATE: {
+                Transaction current = transactionDAO.getById(id, conn);
+                requireUnchanged(current, ChangelogDAO.transactionFromJson(entry.getAfter()));
+                Transaction before = ChangelogDAO.transactionFromJson(entry.getBefore());
+                transactionController.checkNotArchived(before.getDate(), conn);
+                transactionDAO.updateTransactionAndUpdateAccounts(current, before, accountDAO, conn);
+                break;
+            }
+            case ARCHIVE:
+                throw new SQLException("Transaction " + id + " was moved to the archive; archiving cannot be undone.");
+        }
+    }
+
+    private void revertAccount(ChangeEntry entry, int id, Connection conn) throws SQLException {
+        switch (entry.getOp()) {
+            case INSERT: {
+                if (transactionController.hasTransactionsForAccount(id, conn)) {
+                    throw new SQLException("Account " + id + " has transactions now, so adding it cannot be undone.");
+                }
+                if (accountDAO.delete(id, conn) == null) {
+                    throw new SQLException("Account " + id + " no longer exists.");
+                }
+                break;
+            }
+            case DELETE:
+                accountDAO.restore(ChangelogDAO.accountFromJson(entry.getBefore()), conn);
+                break;
+            case UPDATE: {
+                Account current = accountDAO.getById(id, conn);
+                if (current == null) {
+                    throw new SQLException("Account " + id + " no longer exists.");
+                }
+                Account before = ChangelogDAO.accountFromJson(entry.getBefore());
+                Account after = ChangelogDAO.accountFromJson(entry.getAfter());
+                // transactions may have moved the balance since; take back only what the edit changed
+                BigDecimal balance = current.getBalance().add(before.getBalance().subtract(after.getBalance()));
+                accountDAO.update(new Account(id, before.getName(), balance, current.getCurrency()), conn);
+                break;
+            }
+        }
+    }
+
+    private void revertCategory(ChangeEntry entry, int id, Connection conn) throws SQLException {
+        switch (entry.getOp()) {
+            case INSERT: {
+                if (transactionController.hasTransactionsForCategory(id, conn)) {
+                    throw new SQLException("Category " + id + " has transactions now, so adding it cannot be undone.");
+                }
+                if (categoryDAO.delete(id, conn) == null) {
+                    throw new SQLException("Category " + id + " no longer exists.");
+                }
+                break;
+            }
+            case DELETE:
+                categoryDAO.restore(ChangelogDAO.categoryFromJson(entry.getBefore()),
+                        ChangelogDAO.budgetsFromJson(entry.getBefore()), ChangelogDAO.rulesFromJson(entry.getBefore()), conn);
+                break;
+            case UPDATE:
+                if (!categoryDAO.update(ChangelogDAO.categoryFromJson(entry.getBefore()), conn)) {
+                    throw new SQLException("Category " + id + " no longer exists.");
+                }
+                break;
+        }
+    }
+
+    private static void requireUnchanged(Transaction current, Transaction expected) throws SQLException {
+        if (current == null) {
+            throw new SQLException("Transaction " + expected.getId() + " no longer exists.");
+        }
+        boolean same = current.getDescription().equals(expected.getDescription())
+                && current.getAmount().compareTo(expected.getAmount()) == 0
+                && current.getDate().equals(expected.getDate())
+                && current.getType().equalsIgnoreCase(expected.getType())
+                && current.getCategoryId() == expected.getCategoryId()
+                && current.getAccountId() == expected.getAccountId();
+        if (!same) {
+            throw new SQLException("Transaction " + expected.getId() + " has been changed since, so this cannot be undone.");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package src.controller;
+
+import src.model.Transaction;
+
+/**
+ * Told about every committed change made through a {@link TransactionController}, right after the
+ * commit. An edit arrives as the old row removed and the new row added. Called on the thread that
+ * made the change, so implementations must be quick and thread-safe.
+ */
+public interface TransactionChangeListener {
+    void transactionAdded(Transaction t);
+
+    void transactionRemoved(Transaction t);
+
+    /** Changes happened that were not reported one by one; anything derived from transactions must be reloaded. */
+    void transactionsReset();
+}
@@ -1,37 +1,272 @@
 package src.controller;
 
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 import src.dao.AccountDAO; 
+import src.dao.AppliedWriteDAO;
+import src.dao.ArchiveDAO;
+import src.dao.ChangelogDAO;
 import src.dao.DBConnection;
+import src.dao.LedgerVersionDAO;
 import src.dao.TransactionDAO;
+import src.dedupe.DuplicateFilter;
+import src.dedupe.DuplicateIndex;
+import src.dedupe.FingerprintCounts;
+import src.fx.FxRates;
+import src.dedupe.Fingerprints;
+import src.journal.JournalEntry;
+import src.journal.WriteJournal;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Account;
+import src.model.CategorySummary;
+import src.model.DuplicateGroup;
 import src.model.Transaction;
 
 public class TransactionController {
+    private static final OperationStats GET_TRANSACTIONS = Metrics.operation("TransactionController.getTransactions");
+    private static final OperationStats ADD_TRANSACTION = Metrics.operation("TransactionController.addTransaction");
+    private static final OperationStats UPDATE_TRANSACTION = Metrics.operation("TransactionController.updateTransaction");
+    private static final OperationStats DELETE_TRANSACTION = Metrics.operation("TransactionController.deleteTransaction");
+    private static final OperationStats REPLAY_JOURNAL = Metrics.operation("TransactionController.replayJournal");
+    private static final OperationStats ARCHIVE_CLOSED_YEARS = Metrics.operation("TransactionController.archiveClosedYears");
+    private static final OperationStats IMPORT_TRANSACTIONS = Metrics.operation("TransactionController.importTransactions");
+    private static final OperationStats DELETE_TRANSACTIONS = Metrics.operation("TransactionController.deleteTransactions");
+    private static final OperationStats UPDATE_TRANSACTIONS = Metrics.operation("TransactionController.updateTransactions");
+    private static final OperationStats FIND_DUPLICATES = Metrics.operation("TransactionController.findDuplicates");
+    private static final OperationStats DELETE_DUPLICATES = Metrics.operation("TransactionController.deleteDuplicates");
+    private static final int REPLAY_BATCH_SIZE = 100;
+    // months, counting the current one, that the duplicate check for new transactions keeps in memory
+    private static final int RECENT_DUPLICATE_MONTHS = 3;
+    // other clients may have written meanwhile; past this age the recent index is reloaded
+    private static final long DUPLICATE_INDEX_MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
     private TransactionDAO transactionDAO;
     private AccountDAO accountDAO;
+    private AppliedWriteDAO appliedWriteDAO;
+    private ArchiveDAO archiveDAO;
+    private LedgerVersionDAO ledgerVersionDAO;
+    private WriteJournal journal;
+    private LocalDate archivedThrough;
+    private boolean archivedThroughLoaded;
+    private DuplicateIndex recentDuplicates;
+    private long recentDuplicatesLoadedAt;
+    // account currencies never change, so this only grows; a miss means an account created since the last load
+    private final Map<Integer, String> accountCurrencies = new HashMap<>();
+    private final List<TransactionChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // commit + notify run under the read lock (concurrently); readers seeding state from the database take the write lock
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+
+    /** A database read that must not interleave with commits, see {@link #withWritesPaused}. */
+    @FunctionalInterface
+    public interface LedgerRead<T> {
+        T read() throws SQLException;
+    }
 
     public TransactionController() {
+        this(WriteJournal.getDefault());
+    }
+
+    /** @param journal where mutations go while the database is unreachable; null to fail them instead */
+    public TransactionController(WriteJournal journal) {
         this.transactionDAO = new TransactionDAO();
         this.accountDAO = new AccountDAO(); 
+        this.appliedWriteDAO = new AppliedWriteDAO();
+        this.archiveDAO = new ArchiveDAO();
+        this.ledgerVersionDAO = new LedgerVersionDAO();
+        this.journal = journal;
     }
 
     public List<Transaction> getTransactions() throws SQLException {
-        return transactionDAO.getAll(); 
+        long start = System.nanoTime();
+        List<Transaction> transactions = null;
+        try {
+            transactions = transactionDAO.getAll();
+            return transactions;
+        } finally {
+            GET_TRANSACTIONS.record(start, transactions != null ? transactions.size() : 0);
+        }
+    }
+
+    /** Transactions dated within [from, to], read from the archive as well when the range reaches into closed years. */
+    public List<Transaction> getTransactions(LocalDate from, LocalDate to) throws SQLException {
+        return transactionDAO.getByDateRange(from, to, getArchivedThrough());
+    }
+
+    /** Streams matching transactions to {@code consumer} without holding them all in memory. */
+    public long forEachTransaction(LocalDate from, LocalDate to, Integer accountId, Integer categoryId,
+                                   Consumer<Transaction> consumer) throws SQLException {
+        return transactionDAO.forEachInRange(from, to, getArchivedThrough(), accountId, categoryId, consumer);
+    }
+
+    /**
+     * Streams one newest-first page of at most {@code limit} transactions that sort after
+     * ({@code beforeDate}, {@code beforeId}); pass a null {@code beforeDate} for the first page.
+     */
+    public long forEachTransactionPage(LocalDate from, LocalDate to, Integer accountId, Integer categoryId,
+                                       LocalDate beforeDate, int beforeId, int limit,
+                                       Consumer<Transaction> consumer) throws SQLException {
+        return transactionDAO.forEachInRange(from, to, getArchivedThrough(), accountId, categoryId,
+                beforeDate, beforeId, limit, consumer);
+    }
+
+    /** @return the transaction, or null if there is none with that id in the live table */
+    public Transaction getTransaction(int id) throws SQLException {
+        return transactionDAO.getById(id);
+    }
+
+    /** A number that changes whenever accounts, categories or transactions change, from any client. */
+    public long getLedgerVersion() throws SQLException {
+        return ledgerVersionDAO.getVersion();
+    }
+
+    /** Totals per category for the period, converted to the base currency. */
+    public List<CategorySummary> getCategorySummary(LocalDate from, LocalDate to) throws SQLException {
+        return transactionDAO.sumByCategory(from, to, getArchivedThrough());
+    }
+
+    /**
+     * The transaction's amount in the base currency, at the exchange rate of its date.
+     *
+     * @throws IllegalArgumentException if its account's currency has no exchange rates
+     */
+    public BigDecimal toBaseCurrency(Transaction t) throws SQLException {
+        return FxRates.getDefault().toBase(t.getAmount(), getAccountCurrency(t.getAccountId()), t.getDate());
+    }
+
+    /** @return the account's currency, or null if there is no such account */
+    public String getAccountCurrency(int accountId) throws SQLException {
+        synchronized (accountCurrencies) {
+            String currency = accountCurrencies.get(accountId);
+            if (currency == null) {
+                for (Account a : accountDAO.getAll()) {
+                    accountCurrencies.put(a.getId(), a.getCurrency());
+                }
+                currency = accountCurrencies.get(accountId);
+            }
+            return currency;
+        }
+    }
+
+    /** The account balance at the end of {@code date}: today's balance minus everything booked after that day. */
+    public BigDecimal getBalanceAsOf(int accountId, LocalDate date) throws SQLException {
+        Account account = accountDAO.getById(accountId);
+        if (account == null) {
+            throw new SQLException("Account not found with ID: " + accountId);
+        }
+        return account.getBalance().subtract(transactionDAO.netChangeAfter(accountId, date));
+    }
+
+    /**
+     * Adds all transactions in one database transaction using a batched insert and a single
+     * balance adjustment per account. Either every row is saved or none is.
+     *
+     * @return number of transactions imported
+     */
+    public int importTransactions(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+        for (Transaction t : transactions) {
+            checkNotArchived(t.getDate());
+        }
+        long start = System.nanoTime();
+        int rows = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            LocalDate closedThrough = lockArchivedThrough(conn);
+            for (Transaction t : transactions) {
+                checkNotArchived(t.getDate(), closedThrough);
+            }
+            ChangelogDAO.beginGroup();
+            transactionDAO.insertBatchAndUpdateAccounts(transactions, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
+
+            commitAndNotify(conn, "Import " + transactions.size() + " transactions", () -> {
+                for (Transaction t : transactions) {
+                    noteAdded(t);
+                    fireAdded(t);
+                }
+            });
+            rows = transactions.size();
+            return rows;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            ChangelogDAO.endGroup(); // already ended after a commit; drops the group after a failure
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            IMPORT_TRANSACTIONS.record(start, rows);
+        }
     }
 
-    public void addTransaction(Transaction t) throws SQLException {
+    /**
+     * @return true if the transaction was saved to the database, false if the database was
+     *         unreachable and it was queued in the offline journal instead
+     */
+    public boolean addTransaction(Transaction t) throws SQLException {
+        checkNotArchived(t.getDate());
+        long start = System.nanoTime();
+        int rows = 0;
         Connection conn = null;
         try {
             conn = DBConnection.getConnection();
             conn.setAutoCommit(false); 
 
+            checkNotArchived(t.getDate(), conn);
+            ChangelogDAO.beginGroup();
             transactionDAO.insertTransactionAndUpdateAccount(t, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
 
-            conn.commit();
+            commitAndNotify(conn, "Add transaction '" + t.getDescription() + "'", () -> {
+                noteAdded(t);
+                fireAdded(t);
+            });
+            rows = 1;
+            return true;
         } catch (SQLException e) {
+            if (conn == null && queueOffline(JournalEntry.Op.ADD, t, e)) {
+                return false;
+            }
             if (conn != null) {
                 try {
                     conn.rollback();
@@ -41,6 +276,7 @@ public class TransactionController {
             }
             throw e; 
         } finally {
+            ChangelogDAO.endGroup();
             if (conn != null) {
                 try {
                     conn.setAutoCommit(true); 
@@ -49,10 +285,15 @@ public class TransactionController {
                     System.err.println("Failed to close connection: " + ex.getMessage());
                 }
             }
+            ADD_TRANSACTION.record(start, rows);
         }
     }
 
-    public void updateTransaction(Transaction updatedTransaction) throws SQLException {
+    /** @return false if the database was unreachable and the change was queued offline */
+    public boolean updateTransaction(Transaction updatedTransaction) throws SQLException {
+        checkNotArchived(updatedTransaction.getDate());
+        long start = System.nanoTime();
+        int rows = 0;
         Connection conn = null;
         try {
             conn = DBConnection.getConnection();
@@ -63,10 +304,22 @@ public class TransactionController {
                 throw new SQLException("Original transaction not found for update. ID: " + updatedTransaction.getId());
             }
 
+            checkNotArchived(updatedTransaction.getDate(), conn);
+            ChangelogDAO.beginGroup();
             transactionDAO.updateTransactionAndUpdateAccounts(oldTransaction, updatedTransaction, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
 
-            conn.commit(); 
+            commitAndNotify(conn, "Edit transaction '" + updatedTransaction.getDescription() + "'", () -> {
+                forgetDuplicateIndex();
+                fireRemoved(oldTransaction);
+                fireAdded(updatedTransaction);
+            });
+            rows = 1;
+            return true;
         } catch (SQLException e) {
+            if (conn == null && queueOffline(JournalEntry.Op.UPDATE, updatedTransaction, e)) {
+                return false;
+            }
             if (conn != null) {
                 try {
                     conn.rollback();
@@ -76,6 +329,7 @@ public class TransactionController {
             }
             throw e;
         } finally {
+            ChangelogDAO.endGroup();
             if (conn != null) {
                 try {
                     conn.setAutoCommit(true);
@@ -84,18 +338,146 @@ public class TransactionController {
                     System.err.println("Failed to close connection: " + ex.getMessage());
                 }
             }
+            UPDATE_TRANSACTION.record(start, rows);
         }
     }
 
-    public void deleteTransaction(int transactionId) throws SQLException {
+    /** @return false if the database was unreachable and the deletion was queued offline */
+    public boolean deleteTransaction(int transactionId) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
         Connection conn = null;
         try {
             conn = DBConnection.getConnection();
             conn.setAutoCommit(false); 
 
-            transactionDAO.deleteTransactionAndUpdateAccount(transactionId, this.accountDAO, conn);
+            ChangelogDAO.beginGroup();
+            Transaction deleted = transactionDAO.deleteTransactionAndUpdateAccount(transactionId, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
+
+            commitAndNotify(conn, "Delete transaction '" + deleted.getDescription() + "'", () -> {
+                forgetDuplicateIndex();
+                fireRemoved(deleted);
+            });
+            rows = 1;
+            return true;
+        } catch (SQLException e) {
+            if (conn == null && queueOffline(JournalEntry.Op.DELETE, deletedPlaceholder(transactionId), e)) {
+                return false;
+            }
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            ChangelogDAO.endGroup();
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            DELETE_TRANSACTION.record(start, rows);
+        }
+    }
+
+    /**
+     * Deletes all given transactions in one database transaction: batched deletes and a single
+     * balance adjustment per affected account. Either all are deleted or none is. Unlike
+     * {@link #deleteTransaction}, bulk changes are not queued offline.
+     *
+     * @return number of transactions deleted
+     */
+    public int deleteTransactions(List<Integer> transactionIds) throws SQLException {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(transactionIds));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int rows = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            ChangelogDAO.beginGroup();
+            List<Transaction> deleted = transactionDAO.deleteBatchAndUpdateAccounts(ids, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
+
+            commitAndNotify(conn, "Delete " + ids.size() + " transactions", () -> {
+                forgetDuplicateIndex();
+                for (Transaction t : deleted) {
+                    fireRemoved(t);
+                }
+            });
+            rows = deleted.size();
+            return rows;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            ChangelogDAO.endGroup();
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            DELETE_TRANSACTIONS.record(start, rows);
+        }
+    }
+
+    /**
+     * Recategorizes, moves and/or redates all given transactions in one database transaction;
+     * null arguments leave that field unchanged. Moving to another account adjusts each affected
+     * balance once. Not queued offline.
+     *
+     * @return number of transactions changed
+     */
+    public int updateTransactions(List<Integer> transactionIds, Integer categoryId, Integer accountId, LocalDate date) throws SQLException {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(transactionIds));
+        if (ids.isEmpty() || (categoryId == null && accountId == null && date == null)) {
+            return 0;
+        }
+        checkNotArchived(date);
+        long start = System.nanoTime();
+        int rows = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            checkNotArchived(date, conn);
+            ChangelogDAO.beginGroup();
+            List<Transaction> before = transactionDAO.updateBatchAndUpdateAccounts(ids, categoryId, accountId, date, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
 
-            conn.commit(); 
+            commitAndNotify(conn, "Edit " + ids.size() + " transactions", () -> {
+                forgetDuplicateIndex();
+                for (Transaction old : before) {
+                    fireRemoved(old);
+                    fireAdded(new Transaction(old.getId(), old.getDescription(), old.getAmount(),
+                            date != null ? date : old.getDate(), old.getType(),
+                            categoryId != null ? categoryId : old.getCategoryId(),
+                            accountId != null ? accountId : old.getAccountId()));
+                }
+            });
+            rows = before.size();
+            return rows;
         } catch (SQLException e) {
             if (conn != null) {
                 try {
@@ -106,6 +488,7 @@ public class TransactionController {
             }
             throw e;
         } finally {
+            ChangelogDAO.endGroup();
             if (conn != null) {
                 try {
                     conn.setAutoCommit(true);
@@ -114,9 +497,511 @@ public class TransactionController {
                     System.err.println("Failed to close connection: " + ex.getMessage());
                 }
             }
+            UPDATE_TRANSACTIONS.record(start, rows);
         }
     }
 
+    /**
+     * Applies queued offline mutations in order, {@value #REPLAY_BATCH_SIZE} per database transaction.
+     * Entries whose idempotency key is already in applied_writes are skipped, so replaying after a
+     * crash between commit and checkpoint is safe. An entry that fails for a reason other than
+     * connectivity (for example its account was deleted meanwhile) is dropped and logged so it
+     * cannot block the rest of the journal.
+     *
+     * @return number of entries applied
+     */
+    public int replayJournal() throws SQLException, IOException {
+        if (journal == null || !journal.hasPending()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        List<JournalEntry> pending = journal.readPending();
+        int applied = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+            for (int from = 0; from < pending.size(); from += REPLAY_BATCH_SIZE) {
+                List<JournalEntry> batch = pending.subList(from, Math.min(from + REPLAY_BATCH_SIZE, pending.size()));
+                List<String> keys = new ArrayList<>();
+                for (JournalEntry entry : batch) {
+                    keys.add(entry.getIdempotencyKey());
+                }
+                Set<String> alreadyApplied = appliedWriteDAO.findApplied(keys, conn);
+                List<String> newlyApplied = new ArrayList<>();
+                for (JournalEntry entry : batch) {
+                    if (alreadyApplied.contains(entry.getIdempotencyKey())) {
+                        continue;
+                    }
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        applyJournalEntry(entry, conn);
+                        applied++;
+                    } catch (SQLException ex) {
+                        if (isConnectionFailure(ex)) {
+                            throw ex;
+                        }
+                        conn.rollback(savepoint);
+                        System.err.println("Dropping offline " + entry.getOp() + " of transaction "
+                                + entry.getTransaction().getId() + ": " + ex.getMessage());
+                    }
+                    newlyApplied.add(entry.getIdempotencyKey());
+                }
+                appliedWriteDAO.insertAll(newlyApplied, conn);
+                ledgerVersionDAO.bump(conn);
+                conn.commit();
+                journal.markApplied(batch.get(batch.size() - 1).getSequence());
+            }
+            forgetDuplicateIndex();
+            if (applied > 0) {
+                fireReset();
+            }
+            return applied;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            REPLAY_JOURNAL.record(start, applied);
+        }
+    }
+
+    /**
+     * Moves every transaction dated in {@code throughYear} or earlier into transactions_archive,
+     * one year per database transaction, and marks those years closed. Closed years are
+     * read-only afterwards. Account balances are unaffected.
+     *
+     * @return number of transactions archived
+     */
+    public int archiveClosedYears(int throughYear) throws SQLException {
+        if (throughYear >= LocalDate.now().getYear()) {
+            throw new IllegalArgumentException("Only years that have ended can be archived.");
+        }
+        long start = System.nanoTime();
+        int moved = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            int oldestYear = archiveDAO.getOldestYear(conn);
+            int firstYear = oldestYear < 0 ? throughYear : Math.min(oldestYear, throughYear);
+            for (int year = firstYear; year <= throughYear; year++) {
+                archiveDAO.ensureYearPartition(year, conn);
+                conn.setAutoCommit(false);
+                moved += archiveDAO.moveYear(year, conn);
+                ledgerVersionDAO.bump(conn);
+                conn.commit();
+                conn.setAutoCommit(true);
+            }
+            return moved;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            synchronized (this) {
+                archivedThroughLoaded = false;
+            }
+            ARCHIVE_CLOSED_YEARS.record(start, moved);
+        }
+    }
+
+    /** @return the last date of the newest archived year, or null if nothing is archived */
+    public synchronized LocalDate getArchivedThrough() throws SQLException {
+        if (!archivedThroughLoaded) {
+            archivedThrough = archiveDAO.getArchivedThrough();
+            archivedThroughLoaded = true;
+        }
+        return archivedThrough;
+    }
+
+    /** Forgets cached state read from the database, for callers that learn another client changed it. */
+    public void invalidateCaches() {
+        synchronized (this) {
+            archivedThroughLoaded = false;
+            recentDuplicates = null;
+        }
+        fireReset();
+    }
+
+    public void addChangeListener(TransactionChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(TransactionChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Runs {@code read} while no write through this controller is between its commit and its
+     * listener notifications, so state seeded from the result can then be kept current by the
+     * notifications without counting any change twice or missing one.
+     */
+    public <T> T withWritesPaused(LedgerRead<T> read) throws SQLException {
+        commitLock.writeLock().lock();
+        try {
+            return read.read();
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    /** Commits, records the changelog rows written since {@link ChangelogDAO#beginGroup} as one undo step, then notifies. */
+    private void commitAndNotify(Connection conn, String undoLabel, Runnable notify) throws SQLException {
+        commitLock.readLock().lock();
+        try {
+            conn.commit();
+            UndoHistory.getDefault().record(undoLabel, ChangelogDAO.endGroup());
+            try {
+                notify.run();
+            } catch (RuntimeException e) {
+                // the change is committed; a failing listener must not make it look failed
+                System.err.println("Transaction change listener failed: " + e);
+            }
+        } finally {
+            commitLock.readLock().unlock();
+        }
+    }
+
+    private void fireAdded(Transaction t) {
+        for (TransactionChangeListener listener : listeners) {
+            listener.transactionAdded(t);
+        }
+    }
+
+    private void fireRemoved(Transaction t) {
+        for (TransactionChangeListener listener : listeners) {
+            listener.transactionRemoved(t);
+        }
+    }
+
+    private void fireReset() {
+        for (TransactionChangeListener listener : listeners) {
+            listener.transactionsReset();
+        }
+    }
+
+    /**
+     * Whether the ledger already holds a transaction with the same account, date, amount and
+     * description as {@code t}. Dates in the last few months are answered from an in-memory
+     * index; older dates cost one query over that month.
+     */
+    public boolean isPossibleDuplicate(Transaction t) throws SQLException {
+        DuplicateIndex index = recentDuplicateIndex();
+        if (!index.covers(t.getDate())) {
+            index = newDuplicateIndex(null);
+        }
+        return index.ledgerCount(t) > 0;
+    }
+
+    /** A filter for one import that flags rows already in the ledger, querying each month the import touches once. */
+    public DuplicateFilter newImportDuplicateFilter() {
+        return new DuplicateFilter(newDuplicateIndex(null));
+    }
+
+    /**
+     * Scans the ledger, archive included, for groups of transactions that share account, date,
+     * amount and description. Each calendar month is streamed and counted on its own, {@code threads}
+     * months at a time, so memory stays bounded by the largest month rather than the whole ledger.
+     * Null bounds mean the oldest or newest transaction.
+     *
+     * @return groups of two or more, oldest first
+     */
+    public List<DuplicateGroup> findDuplicates(LocalDate from, LocalDate to, int threads) throws SQLException {
+        if (from == null || to == null) {
+            LocalDate[] span = transactionDAO.getDateSpan();
+            if (span == null) {
+                return new ArrayList<>();
+            }
+            from = from != null ? from : span[0];
+            to = to != null ? to : span[1];
+        }
+        LocalDate archived = getArchivedThrough();
+        long start = System.nanoTime();
+        List<DuplicateGroup> groups = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<List<DuplicateGroup>>> months = new ArrayList<>();
+            for (YearMonth m = YearMonth.from(from); !m.isAfter(YearMonth.from(to)); m = m.plusMonths(1)) {
+                LocalDate monthFrom = m.atDay(1).isBefore(from) ? from : m.atDay(1);
+                LocalDate monthTo = m.atEndOfMonth().isAfter(to) ? to : m.atEndOfMonth();
+                months.add(pool.submit(() -> findDuplicatesIn(monthFrom, monthTo, archived)));
+            }
+            for (Future<List<DuplicateGroup>> month : months) {
+                groups.addAll(month.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException("Duplicate scan failed: " + e.getCause(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Duplicate scan interrupted", e);
+        } finally {
+            pool.shutdownNow();
+            FIND_DUPLICATES.record(start, groups.size());
+        }
+        groups.sort(Comparator.comparing(DuplicateGroup::getDate)
+                .thenComparingInt(DuplicateGroup::getAccountId)
+                .thenComparingInt(g -> g.getTransactionIds().get(0)));
+        return groups;
+    }
+
+    private List<DuplicateGroup> findDuplicatesIn(LocalDate from, LocalDate to, LocalDate archived) throws SQLException {
+        // first count fingerprints, then keep only rows whose fingerprint occurs more than once
+        List<Transaction> rows = new ArrayList<>();
+        FingerprintCounts counts = new FingerprintCounts(1024);
+        transactionDAO.forEachDedupeKey(from, to, archived, t -> {
+            rows.add(t);
+            counts.increment(Fingerprints.of(t));
+        });
+        Map<Long, List<Transaction>> byFingerprint = new HashMap<>();
+        for (Transaction t : rows) {
+            long fingerprint = Fingerprints.of(t);
+            if (counts.get(fingerprint) > 1) {
+                byFingerprint.computeIfAbsent(fingerprint, k -> new ArrayList<>()).add(t);
+            }
+        }
+        List<DuplicateGroup> groups = new ArrayList<>();
+        for (List<Transaction> members : byFingerprint.values()) {
+            members.sort(Comparator.comparingInt(Transaction::getId));
+            List<Integer> ids = new ArrayList<>();
+            for (Transaction t : members) {
+                ids.add(t.getId());
+            }
+            Transaction first = members.get(0);
+            groups.add(new DuplicateGroup(first.getAccountId(), first.getDate(), first.getAmount(), first.getDescription(), ids));
+        }
+        return groups;
+    }
+
+    /**
+     * Deletes the members of {@code group} that are exact copies of a lower id in the group, in one
+     * database transaction. A group only shares a fingerprint, which leaves out type and category
+     * and can collide, so the rows are re-read under lock and compared field by field; a row that
+     * differs from every lower id, such as a refund matching an expense, is kept.
+     *
+     * @return number of transactions deleted
+     */
+    public int deleteDuplicates(DuplicateGroup group) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            List<Transaction> members = transactionDAO.lockByIds(group.getTransactionIds(), conn);
+            members.sort(Comparator.comparingInt(Transaction::getId));
+            List<Transaction> kept = new ArrayList<>();
+            List<Integer> copies = new ArrayList<>();
+            for (Transaction t : members) {
+                if (kept.stream().anyMatch(k -> isExactCopy(t, k))) {
+                    copies.add(t.getId());
+                } else {
+                    kept.add(t);
+                }
+            }
+            if (copies.isEmpty()) {
+                conn.rollback();
+                return 0;
+            }
+
+            ChangelogDAO.beginGroup();
+            List<Transaction> deleted = transactionDAO.deleteBatchAndUpdateAccounts(copies, this.accountDAO, conn);
+            ledgerVersionDAO.bump(conn);
+
+            commitAndNotify(conn, "Delete " + deleted.size() + " duplicate transactions", () -> {
+                forgetDuplicateIndex();
+                for (Transaction t : deleted) {
+                    fireRemoved(t);
+                }
+            });
+            rows = deleted.size();
+            return rows;
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    System.err.println("Transaction rollback failed: " + ex.getMessage());
+                }
+            }
+            throw e;
+        } finally {
+            ChangelogDAO.endGroup();
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ex) {
+                    System.err.println("Failed to close connection: " + ex.getMessage());
+                }
+            }
+            DELETE_DUPLICATES.record(start, rows);
+        }
+    }
+
+    // every stored field but the id, unlike the fingerprint's normalized subset
+    private static boolean isExactCopy(Transaction a, Transaction b) {
+        return a.getAccountId() == b.getAccountId()
+                && a.getDate().equals(b.getDate())
+                && a.getAmount().compareTo(b.getAmount()) == 0
+                && a.getType().equals(b.getType())
+                && a.getCategoryId() == b.getCategoryId()
+                && a.getDescription().equals(b.getDescription());
+    }
+
+    private synchronized DuplicateIndex recentDuplicateIndex() {
+        if (recentDuplicates == null || System.nanoTime() - recentDuplicatesLoadedAt > DUPLICATE_INDEX_MAX_AGE_NANOS) {
+            recentDuplicates = newDuplicateIndex(YearMonth.now().minusMonths(RECENT_DUPLICATE_MONTHS - 1));
+            recentDuplicatesLoadedAt = System.nanoTime();
+        }
+        return recentDuplicates;
+    }
+
+    private DuplicateIndex newDuplicateIndex(YearMonth oldestMonth) {
+        return new DuplicateIndex((month, sink) -> transactionDAO.forEachDedupeKey(month.atDay(1), month.atEndOfMonth(),
+                getArchivedThrough(), t -> sink.accept(Fingerprints.of(t))), oldestMonth);
+    }
+
+    private void noteAdded(Transaction t) {
+        DuplicateIndex index;
+        synchronized (this) {
+            index = recentDuplicates;
+        }
+        // outside the controller lock: a loading index calls back into getArchivedThrough()
+        if (index != null) {
+            index.added(t);
+        }
+    }
+
+    // edits and deletions can remove fingerprints, which the index cannot take back reliably
+    private synchronized void forgetDuplicateIndex() {
+        recentDuplicates = null;
+    }
+
+    // fails fast on the cached watermark, before a connection is taken or the write is journaled
+    private void checkNotArchived(LocalDate date) throws SQLException {
+        LocalDate closedThrough;
+        try {
+            closedThrough = getArchivedThrough();
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                return; // offline: the write gets journaled and is checked again on replay
+            }
+            throw e;
+        }
+        checkNotArchived(date, closedThrough);
+    }
+
+    /**
+     * Checks {@code date} against the watermark as it is now, not as this instance cached it: another
+     * client may have archived a year since. The shared lock keeps the year from being archived
+     * until the caller's transaction ends, so call this on the transaction that writes the row.
+     */
+    public void checkNotArchived(LocalDate date, Connection conn) throws SQLException {
+        checkNotArchived(date, lockArchivedThrough(conn));
+    }
+
+    private LocalDate lockArchivedThrough(Connection conn) throws SQLException {
+        LocalDate closedThrough = archiveDAO.lockArchivedThrough(conn);
+        synchronized (this) {
+            archivedThrough = closedThrough;
+            archivedThroughLoaded = true;
+        }
+        return closedThrough;
+    }
+
+    private static void checkNotArchived(LocalDate date, LocalDate closedThrough) throws SQLException {
+        if (date != null && closedThrough != null && !date.isAfter(closedThrough)) {
+            throw new SQLException("Transactions dated on or before " + closedThrough + " belong to an archived year and cannot be changed.");
+        }
+    }
+
+    public boolean hasPendingOfflineChanges() {
+        return journal != null && journal.hasPending();
+    }
+
+    private void applyJournalEntry(JournalEntry entry, Connection conn) throws SQLException {
+        Transaction t = entry.getTransaction();
+        if (entry.getOp() != JournalEntry.Op.DELETE) {
+            checkNotArchived(t.getDate(), conn);
+        }
+        switch (entry.getOp()) {
+            case ADD:
+                transactionDAO.insertTransactionAndUpdateAccount(t, this.accountDAO, conn);
+                break;
+            case UPDATE: {
+                Transaction oldTransaction = transactionDAO.getById(t.getId(), conn);
+                if (oldTransaction == null) {
+                    throw new SQLException("Original transaction not found for update. ID: " + t.getId());
+                }
+                transactionDAO.updateTransactionAndUpdateAccounts(oldTransaction, t, this.accountDAO, conn);
+                break;
+            }
+            case DELETE:
+                transactionDAO.deleteTransactionAndUpdateAccount(t.getId(), this.accountDAO, conn);
+                break;
+        }
+    }
+
+    private boolean queueOffline(JournalEntry.Op op, Transaction t, SQLException cause) {
+        if (journal == null || !isConnectionFailure(cause)) {
+            return false;
+        }
+        try {
+            journal.append(op, t);
+            return true;
+        } catch (IOException ex) {
+            cause.addSuppressed(ex);
+            return false;
+        }
+    }
+
+    private static Transaction deletedPlaceholder(int transactionId) {
+        return new Transaction(transactionId, "", BigDecimal.ZERO, null, "", 0, 0);
+    }
+
+    static boolean isConnectionFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (t instanceof SQLException && ((SQLException) t).getSQLState() != null
+                    && ((SQLException) t).getSQLState().startsWith("08")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public boolean hasTransactionsForAccount(int accountId) throws SQLException {
         return transactionDAO.countByAccountId(accountId) > 0;
     }
@@ -124,4 +1009,14 @@ public class TransactionController {
     public boolean hasTransactionsForCategory(int categoryId) throws SQLException {
         return transactionDAO.countByCategoryId(categoryId) > 0;
     }
+
+    /** Like {@link #hasTransactionsForAccount(int)}, on the caller's transaction; the answer holds until it ends. */
+    public boolean hasTransactionsForAccount(int accountId, Connection conn) throws SQLException {
+        return transactionDAO.countByAccountId(accountId, conn) > 0;
+    }
+
+    /** Like {@link #hasTransactionsForCategory(int)}, on the caller's transaction; the answer holds until it ends. */
+    public boolean hasTransactionsForCategory(int categoryId, Connection conn) throws SQLException {
+        return transactionDAO.countByCategoryId(categoryId, conn) > 0;
+    }
 }
\ No newline at end of file
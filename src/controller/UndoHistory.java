@@ -0,0 +1,85 @@
+package src.controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * The undo and redo stacks of this process. Each step is the group of changelog seqs one user
+ * action wrote, so undoing it reverts exactly those rows. Shared by all controllers, since an
+ * undo should take back the last change whichever screen made it.
+ */
+public final class UndoHistory {
+    private static final int MAX_STEPS = 100;
+    private static final UndoHistory DEFAULT = new UndoHistory();
+
+    /** One undoable action: a label for menus and the changelog rows it wrote, oldest first. */
+    public static final class Step {
+        private final String label;
+        private final List<Long> seqs;
+
+        Step(String label, List<Long> seqs) {
+            this.label = label;
+            this.seqs = List.copyOf(seqs);
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public List<Long> getSeqs() {
+            return seqs;
+        }
+    }
+
+    private final Deque<Step> undo = new ArrayDeque<>();
+    private final Deque<Step> redo = new ArrayDeque<>();
+
+    public static UndoHistory getDefault() {
+        return DEFAULT;
+    }
+
+    /** Records a new action. Anything that could be redone is forgotten, as in any editor. */
+    public synchronized void record(String label, List<Long> seqs) {
+        if (seqs.isEmpty()) {
+            return;
+        }
+        undo.push(new Step(label, seqs));
+        if (undo.size() > MAX_STEPS) {
+            undo.removeLast();
+        }
+        redo.clear();
+    }
+
+    /** Forgets every step, for when the ledger was replaced underneath them. */
+    public synchronized void clear() {
+        undo.clear();
+        redo.clear();
+    }
+
+    public synchronized Step peekUndo() {
+        return undo.peek();
+    }
+
+    public synchronized Step peekRedo() {
+        return redo.peek();
+    }
+
+    /** Moves {@code step} from the undo stack to the redo stack as the group that reverted it. */
+    synchronized void undone(Step step, List<Long> inverseSeqs) {
+        undo.remove(step);
+        redo.push(new Step(step.getLabel(), inverseSeqs));
+    }
+
+    /** Moves {@code step} from the redo stack back to the undo stack as the group that reapplied it. */
+    synchronized void redone(Step step, List<Long> inverseSeqs) {
+        redo.remove(step);
+        undo.push(new Step(step.getLabel(), inverseSeqs));
+    }
+
+    /** Drops a step that can no longer be reverted, for example because its rows changed since. */
+    synchronized void discard(Step step) {
+        undo.remove(step);
+        redo.remove(step);
+    }
+}
@@ -9,103 +9,238 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 
+import src.fx.FxRates;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
 import src.model.Account;
+import src.model.ChangeEntry;
 
 public class AccountDAO {
+    private static final OperationStats INSERT = Metrics.operation("AccountDAO.insert");
+    private static final OperationStats GET_ALL = Metrics.operation("AccountDAO.getAll");
+    private static final OperationStats DELETE = Metrics.operation("AccountDAO.delete");
+    private static final OperationStats UPDATE = Metrics.operation("AccountDAO.update");
+    private static final OperationStats ADJUST_BALANCE = Metrics.operation("AccountDAO.adjustBalance");
+    private static final OperationStats GET_BY_ID = Metrics.operation("AccountDAO.getById");
+
+    private final LedgerVersionDAO ledgerVersionDAO = new LedgerVersionDAO();
+    private final ChangelogDAO changelogDAO = new ChangelogDAO();
+
     public void insert(Account a) throws SQLException {
-        String sql = "INSERT INTO accounts (name, balance) VALUES (?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insert(a, conn);
+                ledgerVersionDAO.bump(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Inserts on the caller's transaction and sets the generated id on {@code a}. */
+    public void insert(Account a, Connection conn) throws SQLException {
+        String sql = "INSERT INTO accounts (name, balance, currency) VALUES (?, ?, ?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            String currency = a.getCurrency() != null ? a.getCurrency() : FxRates.getDefault().getBaseCurrency();
             stmt.setString(1, a.getName());
             stmt.setBigDecimal(2, a.getBalance());
-            stmt.executeUpdate();
+            stmt.setString(3, currency);
+            rows = stmt.executeUpdate();
 
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     a.setId(generatedKeys.getInt(1));
                 }
             }
+            Account after = new Account(a.getId(), a.getName(), a.getBalance(), currency);
+            changelogDAO.append(ChangeEntry.Entity.ACCOUNT, a.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(after), conn);
+        } finally {
+            INSERT.record(start, rows);
+        }
+    }
+
+    /**
+     * Re-inserts a previously deleted account under its original id, on the caller's
+     * transaction. Used to undo a deletion.
+     */
+    public void restore(Account a, Connection conn) throws SQLException {
+        String sql = "INSERT INTO accounts (id, name, balance, currency) VALUES (?, ?, ?, ?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, a.getId());
+            stmt.setString(2, a.getName());
+            stmt.setBigDecimal(3, a.getBalance());
+            stmt.setString(4, a.getCurrency());
+            rows = stmt.executeUpdate();
+            changelogDAO.append(ChangeEntry.Entity.ACCOUNT, a.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(a), conn);
+        } finally {
+            INSERT.record(start, rows);
         }
     }
 
     public List<Account> getAll() throws SQLException {
         List<Account> list = new ArrayList<>();
         String sql = "SELECT * FROM accounts ORDER BY id ASC";
-        try (Connection conn = DBConnection.getConnection();
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 Account a = new Account(
                         rs.getInt("id"),
                         rs.getString("name"),
-                        rs.getBigDecimal("balance"));
+                        rs.getBigDecimal("balance"),
+                        rs.getString("currency"));
                 list.add(a);
             }
+        } finally {
+            GET_ALL.record(start, list.size());
         }
         return list;
     }
 
     public void delete(int id) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (delete(id, conn) != null) {
+                    ledgerVersionDAO.bump(conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** @return the account as it was before deletion, or null if there was none with that id */
+    public Account delete(int id, Connection conn) throws SQLException {
         String sql = "DELETE FROM accounts WHERE id=?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Account before = getById(id, conn);
+            if (before == null) {
+                return null;
+            }
             stmt.setInt(1, id);
-            stmt.executeUpdate();
+            rows = stmt.executeUpdate();
+            changelogDAO.append(ChangeEntry.Entity.ACCOUNT, id, ChangeEntry.Op.DELETE, ChangelogDAO.toJson(before), null, conn);
+            return before;
+        } finally {
+            DELETE.record(start, rows);
         }
     }
 
     public void update(Account a) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (update(a, conn)) {
+                    ledgerVersionDAO.bump(conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Sets the name and balance on the caller's transaction. @return false if there is no such account */
+    public boolean update(Account a, Connection conn) throws SQLException {
         String sql = "UPDATE accounts SET name=?, balance=? WHERE id=?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            Account before = getById(a.getId(), conn);
+            if (before == null) {
+                return false;
+            }
             stmt.setString(1, a.getName());
             stmt.setBigDecimal(2, a.getBalance());
             stmt.setInt(3, a.getId());
-            stmt.executeUpdate();
+            rows = stmt.executeUpdate();
+            Account after = new Account(a.getId(), a.getName(), a.getBalance(), before.getCurrency());
+            changelogDAO.append(ChangeEntry.Entity.ACCOUNT, a.getId(), ChangeEntry.Op.UPDATE,
+                    ChangelogDAO.toJson(before), ChangelogDAO.toJson(after), conn);
+            return true;
+        } finally {
+            UPDATE.record(start, rows);
         }
     }
 
     public void adjustBalance(int accountId, BigDecimal amountChange, Connection conn) throws SQLException {
-        String selectSql = "SELECT balance FROM accounts WHERE id = ?";
-        BigDecimal currentBalance;
-        try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
-            stmt.setInt(1, accountId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    currentBalance = rs.getBigDecimal("balance");
-                } else {
-                    throw new SQLException("Account not found with ID: " + accountId + " for balance adjustment.");
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String selectSql = "SELECT balance FROM accounts WHERE id = ?";
+            BigDecimal currentBalance;
+            try (PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+                stmt.setInt(1, accountId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        currentBalance = rs.getBigDecimal("balance");
+                    } else {
+                        throw new SQLException("Account not found with ID: " + accountId + " for balance adjustment.");
+                    }
                 }
             }
-        }
 
-        BigDecimal newBalance = currentBalance.add(amountChange);
+            BigDecimal newBalance = currentBalance.add(amountChange);
 
-        String updateSql = "UPDATE accounts SET balance = ? WHERE id = ?";
-        try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
-            stmt.setBigDecimal(1, newBalance);
-            stmt.setInt(2, accountId);
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Failed to update balance for account ID: " + accountId + ". Account may have been deleted or value unchanged.");
+            String updateSql = "UPDATE accounts SET balance = ? WHERE id = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+                stmt.setBigDecimal(1, newBalance);
+                stmt.setInt(2, accountId);
+                rows = stmt.executeUpdate();
+                if (rows == 0) {
+                    throw new SQLException("Failed to update balance for account ID: " + accountId + ". Account may have been deleted or value unchanged.");
+                }
             }
+        } finally {
+            ADJUST_BALANCE.record(start, rows);
         }
     }
 
     public Account getById(int id) throws SQLException {
-        String sql = "SELECT * FROM accounts WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DBConnection.getReadConnection()) {
+            return getById(id, conn);
+        }
+    }
+
+    /** Reads with SELECT ... FOR UPDATE when the caller's transaction is open, so the row stays as read until commit. */
+    public Account getById(int id, Connection conn) throws SQLException {
+        String sql = conn.getAutoCommit() ? "SELECT * FROM accounts WHERE id = ?" : "SELECT * FROM accounts WHERE id = ? FOR UPDATE";
+        long start = System.nanoTime();
+        Account account = null;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Account(
+                    account = new Account(
                             rs.getInt("id"),
                             rs.getString("name"),
-                            rs.getBigDecimal("balance"));
+                            rs.getBigDecimal("balance"),
+                            rs.getString("currency"));
                 }
             }
+        } finally {
+            GET_BY_ID.record(start, account != null ? 1 : 0);
         }
-        return null;
+        return account;
     }
 }
\ No newline at end of file
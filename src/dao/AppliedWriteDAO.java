@@ -0,0 +1,61 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+
+public class AppliedWriteDAO {
+    private static final OperationStats FIND_APPLIED = Metrics.operation("AppliedWriteDAO.findApplied");
+    private static final OperationStats INSERT_ALL = Metrics.operation("AppliedWriteDAO.insertAll");
+
+    public Set<String> findApplied(Collection<String> keys, Connection conn) throws SQLException {
+        Set<String> applied = new HashSet<>();
+        if (keys.isEmpty()) {
+            return applied;
+        }
+        StringBuilder sql = new StringBuilder("SELECT idempotency_key FROM applied_writes WHERE idempotency_key IN (");
+        for (int i = 0; i < keys.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(")");
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (String key : keys) {
+                stmt.setString(index++, key);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    applied.add(rs.getString(1));
+                }
+            }
+        } finally {
+            FIND_APPLIED.record(start, applied.size());
+        }
+        return applied;
+    }
+
+    public void insertAll(Collection<String> keys, Connection conn) throws SQLException {
+        if (keys.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO applied_writes (idempotency_key) VALUES (?)";
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (String key : keys) {
+                stmt.setString(1, key);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } finally {
+            INSERT_ALL.record(start, keys.size());
+        }
+    }
+}
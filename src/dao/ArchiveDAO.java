@@ -0,0 +1,180 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.ChangeEntry;
+import src.model.Transaction;
+
+/**
+ * Closed years live in transactions_archive, which is RANGE partitioned by YEAR(date) with one
+ * partition per year plus a catch-all pmax. archive_state holds the last archived date; every
+ * transaction dated on or before it is in the archive, everything after it is in transactions.
+ */
+public class ArchiveDAO {
+    private static final OperationStats GET_ARCHIVED_THROUGH = Metrics.operation("ArchiveDAO.getArchivedThrough");
+    private static final OperationStats ENSURE_YEAR_PARTITION = Metrics.operation("ArchiveDAO.ensureYearPartition");
+    private static final OperationStats LOCK_ARCHIVED_THROUGH = Metrics.operation("ArchiveDAO.lockArchivedThrough");
+    private static final OperationStats MOVE_YEAR = Metrics.operation("ArchiveDAO.moveYear");
+    private static final OperationStats GET_OLDEST_YEAR = Metrics.operation("ArchiveDAO.getOldestYear");
+
+    private static final String COLUMNS = "id, description, amount, date, type, category_id, account_id";
+
+    private final ChangelogDAO changelogDAO = new ChangelogDAO();
+
+    /** @return the last archived date, or null if nothing has been archived yet */
+    public LocalDate getArchivedThrough() throws SQLException {
+        String sql = "SELECT archived_through FROM archive_state WHERE id = 1";
+        long start = System.nanoTime();
+        LocalDate archivedThrough = null;
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                archivedThrough = rs.getDate(1).toLocalDate();
+            }
+        } finally {
+            GET_ARCHIVED_THROUGH.record(start, archivedThrough != null ? 1 : 0);
+        }
+        return archivedThrough;
+    }
+
+    /**
+     * Reads the last archived date on the caller's transaction with a shared lock on archive_state.
+     * {@link #moveYear} updates that row, so no year can be archived until the caller commits, and
+     * rows the caller writes after this check are moved along with the rest of their year.
+     *
+     * @return the last archived date, or null if nothing has been archived yet
+     */
+    public LocalDate lockArchivedThrough(Connection conn) throws SQLException {
+        String sql = "SELECT archived_through FROM archive_state WHERE id = 1 LOCK IN SHARE MODE";
+        long start = System.nanoTime();
+        LocalDate archivedThrough = null;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                archivedThrough = rs.getDate(1).toLocalDate();
+            }
+        } finally {
+            LOCK_ARCHIVED_THROUGH.record(start, archivedThrough != null ? 1 : 0);
+        }
+        return archivedThrough;
+    }
+
+    public int getOldestYear(Connection conn) throws SQLException {
+        String sql = "SELECT YEAR(MIN(date)) FROM transactions";
+        long start = System.nanoTime();
+        int year = -1;
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next() && rs.getObject(1) != null) {
+                year = rs.getInt(1);
+            }
+        } finally {
+            GET_OLDEST_YEAR.record(start, year != -1 ? 1 : 0);
+        }
+        return year;
+    }
+
+    /**
+     * Splits pmax so {@code year} gets its own partition. DDL commits implicitly, so this must
+     * run before the data move starts, not inside it.
+     */
+    public void ensureYearPartition(int year, Connection conn) throws SQLException {
+        String checkSql = "SELECT COUNT(*) FROM information_schema.PARTITIONS " +
+                          "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'transactions_archive' AND PARTITION_NAME = ?";
+        long start = System.nanoTime();
+        int created = 0;
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(checkSql)) {
+                stmt.setString(1, "p" + year);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        return;
+                    }
+                }
+            }
+            // year is an int we computed, not user text, so building the DDL string is safe
+            String reorganizeSql = "ALTER TABLE transactions_archive REORGANIZE PARTITION pmax INTO (" +
+                                   "PARTITION p" + year + " VALUES LESS THAN (" + (year + 1) + "), " +
+                                   "PARTITION pmax VALUES LESS THAN MAXVALUE)";
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(reorganizeSql);
+                created = 1;
+            }
+        } finally {
+            ENSURE_YEAR_PARTITION.record(start, created);
+        }
+    }
+
+    /**
+     * Copies every transaction of {@code year} into the archive with one INSERT ... SELECT, deletes
+     * them from the hot table, advances archive_state and logs one ARCHIVE changelog row per moved
+     * transaction, all on the caller's transaction.
+     *
+     * @return number of rows moved
+     */
+    public int moveYear(int year, Connection conn) throws SQLException {
+        Date from = Date.valueOf(LocalDate.of(year, 1, 1));
+        Date through = Date.valueOf(LocalDate.of(year, 12, 31));
+        long start = System.nanoTime();
+        int moved = 0;
+        try {
+            // advance the watermark first: writers lock it before they touch transactions, so taking
+            // it in the same order means they wait for the move instead of deadlocking with it
+            String stateSql = "INSERT INTO archive_state (id, archived_through) VALUES (1, ?) " +
+                              "ON DUPLICATE KEY UPDATE archived_through = GREATEST(archived_through, VALUES(archived_through))";
+            try (PreparedStatement stmt = conn.prepareStatement(stateSql)) {
+                stmt.setDate(1, through);
+                stmt.executeUpdate();
+            }
+
+            // read under lock for the changelog; the copy and delete below then see exactly these rows
+            List<Integer> ids = new ArrayList<>();
+            List<String> before = new ArrayList<>();
+            String lockSql = "SELECT " + COLUMNS + " FROM transactions WHERE date BETWEEN ? AND ? ORDER BY id FOR UPDATE";
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                stmt.setDate(1, from);
+                stmt.setDate(2, through);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Transaction t = new Transaction(rs.getInt("id"), rs.getString("description"), rs.getBigDecimal("amount"),
+                                rs.getDate("date").toLocalDate(), rs.getString("type"), rs.getInt("category_id"), rs.getInt("account_id"));
+                        ids.add(t.getId());
+                        before.add(ChangelogDAO.toJson(t));
+                    }
+                }
+            }
+
+            String copySql = "INSERT INTO transactions_archive (" + COLUMNS + ") " +
+                             "SELECT " + COLUMNS + " FROM transactions WHERE date BETWEEN ? AND ?";
+            try (PreparedStatement stmt = conn.prepareStatement(copySql)) {
+                stmt.setDate(1, from);
+                stmt.setDate(2, through);
+                moved = stmt.executeUpdate();
+            }
+
+            String deleteSql = "DELETE FROM transactions WHERE date BETWEEN ? AND ?";
+            try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                stmt.setDate(1, from);
+                stmt.setDate(2, through);
+                int deleted = stmt.executeUpdate();
+                if (deleted != moved || moved != ids.size()) {
+                    throw new SQLException("Archiving " + year + " copied " + moved + " rows but deleted " + deleted + "; rolled back.");
+                }
+            }
+            changelogDAO.appendAll(ChangeEntry.Entity.TRANSACTION, ChangeEntry.Op.ARCHIVE, ids, before, null, conn);
+        } finally {
+            MOVE_YEAR.record(start, moved);
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,606 @@
+package src.dao;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import src.backup.BackupInput;
+import src.backup.BackupOutput;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Account;
+import src.model.BackupInfo;
+import src.model.Budget;
+import src.model.Category;
+import src.model.CategoryRule;
+import src.model.ChangeEntry;
+import src.model.Transaction;
+
+/**
+ * Streams the ledger tables to and from the compact format of {@link BackupOutput}.
+ *
+ * A backup reads every table inside one REPEATABLE READ transaction started WITH CONSISTENT
+ * SNAPSHOT, so it is consistent without locking out writers, and records the last changelog
+ * seq the snapshot contains. Rows are streamed from forward-only result sets in primary key
+ * order, so memory stays flat and a restore appends to each clustered index in order.
+ *
+ * A restore truncates each table and reloads it with multi-row inserts of {@value #INSERT_ROWS}
+ * rows, with foreign key and unique checks off so InnoDB can buffer secondary index changes.
+ * Given a target seq it then replays the changelog from the backup's seq up to that point.
+ *
+ * The changelog, applied_writes and ledger_version are not part of a backup: they describe the
+ * live database and must keep moving forward. A restore discards the changelog rows past the
+ * point it restored to, so a later restore cannot replay changes that were undone by this one,
+ * and starts a new history epoch so changelog followers know to reload.
+ */
+public class BackupDAO {
+    private static final OperationStats BACKUP = Metrics.operation("BackupDAO.backup");
+    private static final OperationStats RESTORE = Metrics.operation("BackupDAO.restore");
+    private static final OperationStats REPLAY = Metrics.operation("BackupDAO.replayChangelog");
+    private static final OperationStats GET_SEQ_AT = Metrics.operation("BackupDAO.getSeqAt");
+
+    // in dependency order, each with the primary key it is read in
+    private static final String[][] TABLES = {
+            { "accounts", "id" },
+            { "categories", "id" },
+            { "transactions", "id" },
+            { "transactions_archive", "id, date" },
+            { "archive_state", "id" },
+            { "budgets", "id" },
+            { "category_rules", "id" },
+    };
+    private static final int INSERT_ROWS = 1000;
+    private static final int ROWS_PER_COMMIT = 20_000;
+
+    private final LedgerVersionDAO ledgerVersionDAO = new LedgerVersionDAO();
+    private final ChangelogDAO changelogDAO = new ChangelogDAO();
+
+    public BackupInfo backup(OutputStream target) throws SQLException, IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Connection conn = DBConnection.getReadConnection()) {
+            int isolation = conn.getTransactionIsolation();
+            conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            conn.setAutoCommit(false);
+            try (BackupOutput out = new BackupOutput(target)) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                }
+                long seq = maxChangelogSeq(conn);
+                Instant createdAt = Instant.now();
+                out.writeBytes(BackupOutput.MAGIC);
+                out.writeByte(BackupOutput.VERSION);
+                out.writeLong(seq);
+                out.writeLong(createdAt.toEpochMilli());
+                for (String[] table : TABLES) {
+                    rows += backupTable(table[0], table[1], conn, out);
+                }
+                out.writeByte(0);
+                conn.commit();
+                return new BackupInfo(seq, createdAt, rows, 0);
+            } finally {
+                conn.rollback();
+                conn.setAutoCommit(true);
+                conn.setTransactionIsolation(isolation);
+            }
+        } finally {
+            BACKUP.record(start, rows);
+        }
+    }
+
+    private long backupTable(String table, String primaryKey, Connection conn, BackupOutput out) throws SQLException, IOException {
+        long rows = 0;
+        try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            try (ResultSet rs = stmt.executeQuery("SELECT * FROM " + table + " ORDER BY " + primaryKey)) {
+                ResultSetMetaData meta = rs.getMetaData();
+                int columns = meta.getColumnCount();
+                byte[] kinds = new byte[columns];
+                boolean[] nullable = new boolean[columns];
+                out.writeByte(1);
+                out.writeString(table);
+                out.writeLong(columns);
+                for (int i = 0; i < columns; i++) {
+                    kinds[i] = kindOf(meta.getColumnType(i + 1), table, meta.getColumnName(i + 1));
+                    nullable[i] = meta.isNullable(i + 1) != ResultSetMetaData.columnNoNulls;
+                    out.writeString(meta.getColumnName(i + 1));
+                    out.writeByte(kinds[i]);
+                    out.writeByte(nullable[i] ? 1 : 0);
+                }
+                while (rs.next()) {
+                    out.writeByte(1);
+                    for (int i = 0; i < columns; i++) {
+                        writeValue(rs, i + 1, kinds[i], nullable[i], out);
+                    }
+                    rows++;
+                }
+                out.writeByte(0);
+            }
+        }
+        return rows;
+    }
+
+    private static byte kindOf(int sqlType, String table, String column) throws SQLException {
+        switch (sqlType) {
+            case Types.BIT:
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return BackupOutput.KIND_LONG;
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return BackupOutput.KIND_DECIMAL;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+                return BackupOutput.KIND_STRING;
+            case Types.DATE:
+                return BackupOutput.KIND_DATE;
+            case Types.TIMESTAMP:
+                return BackupOutput.KIND_TIMESTAMP;
+            default:
+                throw new SQLException("Cannot back up " + table + "." + column + ": unsupported column type " + sqlType);
+        }
+    }
+
+    private static void writeValue(ResultSet rs, int index, byte kind, boolean nullable, BackupOutput out) throws SQLException, IOException {
+        switch (kind) {
+            case BackupOutput.KIND_LONG: {
+                long value = rs.getLong(index);
+                if (writeNullFlag(rs.wasNull(), nullable, out)) {
+                    out.writeLong(value);
+                }
+                break;
+            }
+            case BackupOutput.KIND_DECIMAL: {
+                BigDecimal value = rs.getBigDecimal(index);
+                if (writeNullFlag(value == null, nullable, out)) {
+                    out.writeDecimal(value);
+                }
+                break;
+            }
+            case BackupOutput.KIND_STRING: {
+                String value = rs.getString(index);
+                if (writeNullFlag(value == null, nullable, out)) {
+                    out.writeString(value);
+                }
+                break;
+            }
+            case BackupOutput.KIND_DATE: {
+                Date value = rs.getDate(index);
+                if (writeNullFlag(value == null, nullable, out)) {
+                    out.writeLong(value.toLocalDate().toEpochDay());
+                }
+                break;
+            }
+            default: {
+                Timestamp value = rs.getTimestamp(index);
+                if (writeNullFlag(value == null, nullable, out)) {
+                    out.writeLong(value.getTime());
+                }
+                break;
+            }
+        }
+    }
+
+    /** @return whether a value follows */
+    private static boolean writeNullFlag(boolean isNull, boolean nullable, BackupOutput out) throws IOException, SQLException {
+        if (nullable) {
+            out.writeByte(isNull ? 0 : 1);
+        } else if (isNull) {
+            throw new SQLException("NULL in a NOT NULL column");
+        }
+        return !isNull;
+    }
+
+    /**
+     * Replaces the contents of every backed-up table with the backup, then, if {@code untilSeq}
+     * is given, replays the changelog from the backup's seq through {@code untilSeq}. Changelog
+     * rows after the restored point are then deleted and the history epoch is incremented;
+     * new writes continue the changelog from there.
+     *
+     * Each table is truncated before it is loaded, and loads are committed every
+     * {@value #ROWS_PER_COMMIT} rows, so a restore that fails halfway leaves a partial ledger;
+     * run it again.
+     *
+     * @throws IllegalArgumentException if {@code untilSeq} is older than the backup
+     */
+    public BackupInfo restore(InputStream source, Long untilSeq) throws SQLException, IOException {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (BackupInput in = new BackupInput(source);
+             Connection conn = DBConnection.getConnection()) {
+            byte[] magic = new byte[BackupOutput.MAGIC.length];
+            for (int i = 0; i < magic.length; i++) {
+                magic[i] = (byte) in.readByte();
+            }
+            if (!Arrays.equals(magic, BackupOutput.MAGIC)) {
+                throw new IOException("Not a KYS backup file");
+            }
+            int version = in.readByte();
+            if (version != BackupOutput.VERSION) {
+                throw new IOException("Unsupported backup format version " + version);
+            }
+            long seq = in.readLong();
+            Instant createdAt = Instant.ofEpochMilli(in.readLong());
+            if (untilSeq != null && untilSeq < seq) {
+                throw new IllegalArgumentException("The backup already contains changes up to seq " + seq
+                        + "; pick a later point or an older backup.");
+            }
+
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET foreign_key_checks = 0");
+                stmt.execute("SET unique_checks = 0");
+            }
+            long replayed = 0;
+            try {
+                while (in.readByte() == 1) {
+                    rows += restoreTable(in, conn);
+                }
+                conn.commit();
+                if (untilSeq != null) {
+                    replayed = replayChangelog(seq, untilSeq, conn);
+                }
+                // the rest is an abandoned branch: replaying it again from this backup would be wrong
+                changelogDAO.discardAfter(untilSeq != null ? untilSeq : seq, conn);
+                // versions must never repeat, or clients would keep stale data under an old ETag
+                ledgerVersionDAO.bumpEpoch(conn);
+                conn.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("SET foreign_key_checks = 1");
+                    stmt.execute("SET unique_checks = 1");
+                }
+                conn.setAutoCommit(true);
+            }
+            return new BackupInfo(seq, createdAt, rows, replayed);
+        } finally {
+            RESTORE.record(start, rows);
+        }
+    }
+
+    private long restoreTable(BackupInput in, Connection conn) throws SQLException, IOException {
+        String table = in.readString();
+        if (Arrays.stream(TABLES).noneMatch(t -> t[0].equals(table))) {
+            throw new IOException("Backup contains unknown table '" + table + "'");
+        }
+        int columns = (int) in.readLong();
+        if (columns < 1 || columns > 100) {
+            throw new IOException("Malformed column list for table " + table);
+        }
+        String[] names = new String[columns];
+        byte[] kinds = new byte[columns];
+        boolean[] nullable = new boolean[columns];
+        for (int i = 0; i < columns; i++) {
+            names[i] = in.readString();
+            if (!names[i].matches("[A-Za-z0-9_]+")) {
+                throw new IOException("Malformed column name in table " + table);
+            }
+            kinds[i] = (byte) in.readByte();
+            nullable[i] = in.readByte() == 1;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE " + table);
+        }
+        long rows = 0;
+        int inChunk = 0;
+        Object[] values = new Object[INSERT_ROWS * columns];
+        try (PreparedStatement full = conn.prepareStatement(insertSql(table, names, INSERT_ROWS))) {
+            while (in.readByte() == 1) {
+                for (int i = 0; i < columns; i++) {
+                    values[inChunk * columns + i] = readValue(in, kinds[i], nullable[i]);
+                }
+                rows++;
+                if (++inChunk == INSERT_ROWS) {
+                    bind(full, values, values.length);
+                    full.executeUpdate();
+                    inChunk = 0;
+                    if (rows % ROWS_PER_COMMIT == 0) {
+                        conn.commit();
+                    }
+                }
+            }
+        }
+        if (inChunk > 0) {
+            try (PreparedStatement tail = conn.prepareStatement(insertSql(table, names, inChunk))) {
+                bind(tail, values, inChunk * columns);
+                tail.executeUpdate();
+            }
+        }
+        return rows;
+    }
+
+    private static void bind(PreparedStatement stmt, Object[] values, int count) throws SQLException {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == null) {
+                stmt.setNull(i + 1, Types.NULL);
+            } else {
+                stmt.setObject(i + 1, values[i]);
+            }
+        }
+    }
+
+    private static String insertSql(String table, String[] columns, int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i == 0 ? "`" : ", `").append(columns[i]).append('`');
+        }
+        sql.append(") VALUES ");
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns.length; i++) {
+            row.append(i == 0 ? "?" : ",?");
+        }
+        row.append(')');
+        for (int r = 0; r < rows; r++) {
+            sql.append(r == 0 ? "" : ",").append(row);
+        }
+        return sql.toString();
+    }
+
+    private static Object readValue(BackupInput in, byte kind, boolean nullable) throws IOException {
+        if (nullable && in.readByte() == 0) {
+            return null;
+        }
+        switch (kind) {
+            case BackupOutput.KIND_LONG:
+                return in.readLong();
+            case BackupOutput.KIND_DECIMAL:
+                return in.readDecimal();
+            case BackupOutput.KIND_STRING:
+                return in.readString();
+            case BackupOutput.KIND_DATE:
+                return Date.valueOf(LocalDate.ofEpochDay(in.readLong()));
+            case BackupOutput.KIND_TIMESTAMP:
+                return new Timestamp(in.readLong());
+            default:
+                throw new IOException("Unknown column kind " + kind + " in backup file");
+        }
+    }
+
+    /** @return the newest changelog seq written at or before {@code time}, 0 if there is none */
+    public long getSeqAt(LocalDateTime time) throws SQLException {
+        String sql = "SELECT COALESCE(MAX(seq), 0) FROM changelog WHERE changed_at <= ?";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(time));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            GET_SEQ_AT.record(start, 1);
+        }
+    }
+
+    private static long maxChangelogSeq(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM changelog")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Applies the after-state of each changelog entry in (afterSeq, untilSeq] on {@code conn},
+     * adjusting account balances for transaction changes the way the original writes did.
+     * Entries are streamed on a second connection, since a streaming result set occupies its own.
+     */
+    private long replayChangelog(long afterSeq, long untilSeq, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        long applied = 0;
+        try (Connection source = DBConnection.getConnection();
+             PreparedStatement read = source.prepareStatement(
+                     "SELECT seq, entity, entity_id, op, before_data, after_data FROM changelog WHERE seq > ? AND seq <= ? ORDER BY seq",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             Replayer replayer = new Replayer(conn)) {
+            read.setFetchSize(Integer.MIN_VALUE);
+            read.setLong(1, afterSeq);
+            read.setLong(2, untilSeq);
+            try (ResultSet rs = read.executeQuery()) {
+                while (rs.next()) {
+                    replayer.apply(ChangeEntry.Entity.valueOf(rs.getString("entity")), rs.getInt("entity_id"),
+                            ChangeEntry.Op.valueOf(rs.getString("op")), rs.getString("before_data"), rs.getString("after_data"));
+                    if (++applied % ROWS_PER_COMMIT == 0) {
+                        conn.commit();
+                    }
+                }
+            }
+            return applied;
+        } finally {
+            REPLAY.record(start, applied);
+        }
+    }
+
+    /** Prepared once per replay, so each entry costs one or two statement executions. */
+    private static final class Replayer implements AutoCloseable {
+        private final PreparedStatement insertTransaction;
+        private final PreparedStatement updateTransaction;
+        private final PreparedStatement deleteTransaction;
+        private final PreparedStatement archiveTransaction;
+        private final PreparedStatement advanceArchive;
+        private final PreparedStatement adjustBalance;
+        private final PreparedStatement insertAccount;
+        private final PreparedStatement renameAccount;
+        private final PreparedStatement deleteAccount;
+        private final PreparedStatement insertCategory;
+        private final PreparedStatement updateCategory;
+        private final PreparedStatement deleteCategory;
+        private final PreparedStatement insertBudget;
+        private final PreparedStatement insertRule;
+
+        Replayer(Connection conn) throws SQLException {
+            insertTransaction = conn.prepareStatement("INSERT INTO transactions (description, amount, date, type, category_id, account_id, id) VALUES (?,?,?,?,?,?,?)");
+            updateTransaction = conn.prepareStatement("UPDATE transactions SET description=?, amount=?, date=?, type=?, category_id=?, account_id=? WHERE id=?");
+            deleteTransaction = conn.prepareStatement("DELETE FROM transactions WHERE id=?");
+            archiveTransaction = conn.prepareStatement("INSERT INTO transactions_archive (id, description, amount, date, type, category_id, account_id) " +
+                                                       "SELECT id, description, amount, date, type, category_id, account_id FROM transactions WHERE id=?");
+            advanceArchive = conn.prepareStatement("INSERT INTO archive_state (id, archived_through) VALUES (1, ?) " +
+                                                   "ON DUPLICATE KEY UPDATE archived_through = GREATEST(archived_through, VALUES(archived_through))");
+            adjustBalance = conn.prepareStatement("UPDATE accounts SET balance = balance + ? WHERE id = ?");
+            insertAccount = conn.prepareStatement("INSERT INTO accounts (id, name, balance, currency) VALUES (?,?,?,?)");
+            renameAccount = conn.prepareStatement("UPDATE accounts SET name = ?, balance = balance + ? WHERE id = ?");
+            deleteAccount = conn.prepareStatement("DELETE FROM accounts WHERE id=?");
+            insertCategory = conn.prepareStatement("INSERT INTO categories (id, name, description, type) VALUES (?,?,?,?)");
+            updateCategory = conn.prepareStatement("UPDATE categories SET name=?, description=?, type=? WHERE id=?");
+            deleteCategory = conn.prepareStatement("DELETE FROM categories WHERE id=?");
+            insertBudget = conn.prepareStatement("INSERT INTO budgets (id, category_id, period, amount) VALUES (?,?,?,?)");
+            insertRule = conn.prepareStatement("INSERT INTO category_rules (id, pattern, match_type, min_amount, max_amount, category_id, priority) VALUES (?,?,?,?,?,?,?)");
+        }
+
+        void apply(ChangeEntry.Entity entity, int id, ChangeEntry.Op op, String before, String after) throws SQLException {
+            switch (entity) {
+                case TRANSACTION:
+                    applyTransaction(id, op, before, after);
+                    break;
+                case ACCOUNT:
+                    applyAccount(id, op, before, after);
+                    break;
+                case CATEGORY:
+                    applyCategory(id, op, after);
+                    break;
+            }
+        }
+
+        private void applyTransaction(int id, ChangeEntry.Op op, String before, String after) throws SQLException {
+            if (op == ChangeEntry.Op.ARCHIVE) {
+                // the row moves and its year closes, as in ArchiveDAO.moveYear; balances are unaffected
+                archiveTransaction.setInt(1, id);
+                archiveTransaction.executeUpdate();
+                deleteTransaction.setInt(1, id);
+                deleteTransaction.executeUpdate();
+                LocalDate date = ChangelogDAO.transactionFromJson(before).getDate();
+                advanceArchive.setDate(1, Date.valueOf(LocalDate.of(date.getYear(), 12, 31)));
+                advanceArchive.executeUpdate();
+                return;
+            }
+            if (op != ChangeEntry.Op.INSERT) {
+                Transaction old = ChangelogDAO.transactionFromJson(before);
+                adjust(old.getAccountId(), impact(old).negate());
+            }
+            if (op == ChangeEntry.Op.DELETE) {
+                deleteTransaction.setInt(1, id);
+                deleteTransaction.executeUpdate();
+                return;
+            }
+            Transaction t = ChangelogDAO.transactionFromJson(after);
+            PreparedStatement stmt = op == ChangeEntry.Op.INSERT ? insertTransaction : updateTransaction;
+            stmt.setString(1, t.getDescription());
+            stmt.setBigDecimal(2, t.getAmount());
+            stmt.setDate(3, Date.valueOf(t.getDate()));
+            stmt.setString(4, t.getType());
+            stmt.setInt(5, t.getCategoryId());
+            stmt.setInt(6, t.getAccountId());
+            stmt.setInt(7, id);
+            stmt.executeUpdate();
+            adjust(t.getAccountId(), impact(t));
+        }
+
+        private void applyAccount(int id, ChangeEntry.Op op, String before, String after) throws SQLException {
+            switch (op) {
+                case INSERT: {
+                    Account a = ChangelogDAO.accountFromJson(after);
+                    insertAccount.setInt(1, id);
+                    insertAccount.setString(2, a.getName());
+                    insertAccount.setBigDecimal(3, a.getBalance());
+                    insertAccount.setString(4, a.getCurrency());
+                    insertAccount.executeUpdate();
+                    break;
+                }
+                case UPDATE: {
+                    // replayed transactions already moved the balance; apply only what the edit itself changed
+                    Account old = ChangelogDAO.accountFromJson(before);
+                    Account a = ChangelogDAO.accountFromJson(after);
+                    renameAccount.setString(1, a.getName());
+                    renameAccount.setBigDecimal(2, a.getBalance().subtract(old.getBalance()));
+                    renameAccount.setInt(3, id);
+                    renameAccount.executeUpdate();
+                    break;
+                }
+                case DELETE:
+                    deleteAccount.setInt(1, id);
+                    deleteAccount.executeUpdate();
+                    break;
+            }
+        }
+
+        private void applyCategory(int id, ChangeEntry.Op op, String after) throws SQLException {
+            if (op == ChangeEntry.Op.DELETE) {
+                deleteCategory.setInt(1, id);
+                deleteCategory.executeUpdate();
+                return;
+            }
+            Category c = ChangelogDAO.categoryFromJson(after);
+            if (op == ChangeEntry.Op.INSERT) {
+                insertCategory.setInt(1, id);
+                insertCategory.setString(2, c.getName());
+                insertCategory.setString(3, c.getDescription());
+                insertCategory.setString(4, c.getType());
+                insertCategory.executeUpdate();
+                // an undone delete carries the budgets and rules the delete cascaded away
+                for (Budget b : ChangelogDAO.budgetsFromJson(after)) {
+                    insertBudget.setInt(1, b.getId());
+                    insertBudget.setInt(2, id);
+                    insertBudget.setString(3, b.getPeriod());
+                    insertBudget.setBigDecimal(4, b.getAmount());
+                    insertBudget.executeUpdate();
+                }
+                for (CategoryRule r : ChangelogDAO.rulesFromJson(after)) {
+                    insertRule.setInt(1, r.getId());
+                    insertRule.setString(2, r.getPattern());
+                    insertRule.setString(3, r.getMatchType());
+                    insertRule.setBigDecimal(4, r.getMinAmount());
+                    insertRule.setBigDecimal(5, r.getMaxAmount());
+                    insertRule.setInt(6, id);
+                    insertRule.setInt(7, r.getPriority());
+                    insertRule.executeUpdate();
+                }
+            } else {
+                updateCategory.setString(1, c.getName());
+                updateCategory.setString(2, c.getDescription());
+                updateCategory.setString(3, c.getType());
+                updateCategory.setInt(4, id);
+                updateCategory.executeUpdate();
+            }
+        }
+
+        private void adjust(int accountId, BigDecimal amount) throws SQLException {
+            adjustBalance.setBigDecimal(1, amount);
+            adjustBalance.setInt(2, accountId);
+            adjustBalance.executeUpdate();
+        }
+
+        private static BigDecimal impact(Transaction t) {
+            return "Expense".equalsIgnoreCase(t.getType()) ? t.getAmount().negate() : t.getAmount();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            for (PreparedStatement stmt : new PreparedStatement[] { insertTransaction, updateTransaction, deleteTransaction,
+                    archiveTransaction, advanceArchive, adjustBalance, insertAccount, renameAccount, deleteAccount, insertCategory, updateCategory, deleteCategory,
+                    insertBudget, insertRule }) {
+                stmt.close();
+            }
+        }
+    }
+}
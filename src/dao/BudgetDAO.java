@@ -0,0 +1,138 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Budget;
+
+public class BudgetDAO {
+    private static final OperationStats INSERT = Metrics.operation("BudgetDAO.insert");
+    private static final OperationStats GET_ALL = Metrics.operation("BudgetDAO.getAll");
+    private static final OperationStats UPDATE = Metrics.operation("BudgetDAO.update");
+    private static final OperationStats DELETE = Metrics.operation("BudgetDAO.delete");
+    private static final OperationStats GET_BY_CATEGORY = Metrics.operation("BudgetDAO.getByCategory");
+    private static final OperationStats RESTORE = Metrics.operation("BudgetDAO.restore");
+
+    public void insert(Budget b) throws SQLException {
+        String sql = "INSERT INTO budgets (category_id, period, amount) VALUES (?,?,?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, b.getCategoryId());
+            stmt.setString(2, b.getPeriod());
+            stmt.setBigDecimal(3, b.getAmount());
+            rows = stmt.executeUpdate();
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    b.setId(generatedKeys.getInt(1));
+                }
+            }
+        } finally {
+            INSERT.record(start, rows);
+        }
+    }
+
+    public List<Budget> getAll() throws SQLException {
+        List<Budget> list = new ArrayList<>();
+        String sql = "SELECT b.id, b.category_id, b.period, b.amount, c.name AS category_name " +
+                     "FROM budgets b " +
+                     "JOIN categories c ON b.category_id = c.id " +
+                     "ORDER BY b.period, c.name";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                list.add(new Budget(
+                        rs.getInt("id"),
+                        rs.getInt("category_id"),
+                        rs.getString("period"),
+                        rs.getBigDecimal("amount"),
+                        rs.getString("category_name")));
+            }
+        } finally {
+            GET_ALL.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** Reads with SELECT ... FOR UPDATE, on the caller's transaction. */
+    public List<Budget> getByCategory(int categoryId, Connection conn) throws SQLException {
+        List<Budget> list = new ArrayList<>();
+        String sql = "SELECT b.id, b.category_id, b.period, b.amount, c.name AS category_name " +
+                     "FROM budgets b " +
+                     "JOIN categories c ON b.category_id = c.id " +
+                     "WHERE b.category_id = ? ORDER BY b.id FOR UPDATE";
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, categoryId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new Budget(
+                            rs.getInt("id"),
+                            rs.getInt("category_id"),
+                            rs.getString("period"),
+                            rs.getBigDecimal("amount"),
+                            rs.getString("category_name")));
+                }
+            }
+        } finally {
+            GET_BY_CATEGORY.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** Re-inserts budgets under their original ids, on the caller's transaction. */
+    public void restore(List<Budget> budgets, Connection conn) throws SQLException {
+        String sql = "INSERT INTO budgets (id, category_id, period, amount) VALUES (?,?,?,?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Budget b : budgets) {
+                stmt.setInt(1, b.getId());
+                stmt.setInt(2, b.getCategoryId());
+                stmt.setString(3, b.getPeriod());
+                stmt.setBigDecimal(4, b.getAmount());
+                rows += stmt.executeUpdate();
+            }
+        } finally {
+            RESTORE.record(start, rows);
+        }
+    }
+
+    public void update(Budget b) throws SQLException {
+        String sql = "UPDATE budgets SET amount=? WHERE id=?";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setBigDecimal(1, b.getAmount());
+            stmt.setInt(2, b.getId());
+            rows = stmt.executeUpdate();
+        } finally {
+            UPDATE.record(start, rows);
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+        String sql = "DELETE FROM budgets WHERE id=?";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            rows = stmt.executeUpdate();
+        } finally {
+            DELETE.record(start, rows);
+        }
+    }
+}
@@ -1,26 +1,93 @@
 package src.dao;
 
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Budget;
 import src.model.Category;
+import src.model.CategoryRule;
+import src.model.ChangeEntry;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CategoryDAO {
+   private static final OperationStats INSERT = Metrics.operation("CategoryDAO.insert");
+   private static final OperationStats GET_ALL = Metrics.operation("CategoryDAO.getAll");
+   private static final OperationStats DELETE = Metrics.operation("CategoryDAO.delete");
+   private static final OperationStats UPDATE = Metrics.operation("CategoryDAO.update");
+   private static final OperationStats GET_BY_ID = Metrics.operation("CategoryDAO.getById");
+
+   private final LedgerVersionDAO ledgerVersionDAO = new LedgerVersionDAO();
+   private final ChangelogDAO changelogDAO = new ChangelogDAO();
+   private final BudgetDAO budgetDAO = new BudgetDAO();
+   private final CategoryRuleDAO categoryRuleDAO = new CategoryRuleDAO();
+
    public void insert(Category c) throws SQLException {
+       try (Connection conn = DBConnection.getConnection()) {
+           conn.setAutoCommit(false);
+           try {
+               insert(c, conn);
+               ledgerVersionDAO.bump(conn);
+               conn.commit();
+           } catch (SQLException e) {
+               conn.rollback();
+               throw e;
+           } finally {
+               conn.setAutoCommit(true);
+           }
+       }
+   }
+
+   /** Inserts on the caller's transaction and sets the generated id on {@code c}. */
+   public void insert(Category c, Connection conn) throws SQLException {
        String sql = "INSERT INTO categories (name, description, type) VALUES (?,?,?)";
-       try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+       long start = System.nanoTime();
+       int rows = 0;
+       try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
            stmt.setString(1, c.getName());
            stmt.setString(2, c.getDescription());
            stmt.setString(3, c.getType());
-           stmt.executeUpdate();
+           rows = stmt.executeUpdate();
+           try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+               if (generatedKeys.next()) {
+                   c.setId(generatedKeys.getInt(1));
+               }
+           }
+           changelogDAO.append(ChangeEntry.Entity.CATEGORY, c.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(c), conn);
+       } finally {
+           INSERT.record(start, rows);
        }
-   } 
-   
+   }
+
+   /**
+    * Re-inserts a previously deleted category under its original id, together with the budgets
+    * and rules that were deleted with it, on the caller's transaction. Used to undo a deletion.
+    */
+   public void restore(Category c, List<Budget> budgets, List<CategoryRule> rules, Connection conn) throws SQLException {
+       String sql = "INSERT INTO categories (id, name, description, type) VALUES (?,?,?,?)";
+       long start = System.nanoTime();
+       int rows = 0;
+       try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+           stmt.setInt(1, c.getId());
+           stmt.setString(2, c.getName());
+           stmt.setString(3, c.getDescription());
+           stmt.setString(4, c.getType());
+           rows = stmt.executeUpdate();
+           budgetDAO.restore(budgets, conn);
+           categoryRuleDAO.restore(rules, conn);
+           changelogDAO.append(ChangeEntry.Entity.CATEGORY, c.getId(), ChangeEntry.Op.INSERT, null,
+                   ChangelogDAO.toJson(c, budgets, rules), conn);
+       } finally {
+           INSERT.record(start, rows);
+       }
+   }
+
    public List<Category> getAll() throws SQLException {
     List<Category> list = new ArrayList<>();
     String sql = "SELECT * FROM categories ORDER BY id asc";
-    try (Connection conn = DBConnection.getConnection();
+    long start = System.nanoTime();
+    try (Connection conn = DBConnection.getReadConnection();
             Statement stmt = conn.createStatement();
             ResultSet rs = stmt.executeQuery(sql)) {
         while (rs.next()) {
@@ -31,28 +98,113 @@ public class CategoryDAO {
                     rs.getString("type"));
             list.add(t);
         }
+    } finally {
+        GET_ALL.record(start, list.size());
     }
 
     return list;
    }
    
    public void delete(int id) throws SQLException {
+       try (Connection conn = DBConnection.getConnection()) {
+           conn.setAutoCommit(false);
+           try {
+               if (delete(id, conn) != null) {
+                   ledgerVersionDAO.bump(conn);
+               }
+               conn.commit();
+           } catch (SQLException e) {
+               conn.rollback();
+               throw e;
+           } finally {
+               conn.setAutoCommit(true);
+           }
+       }
+   }
+
+   /** @return the category as it was before deletion, or null if there was none with that id */
+   public Category delete(int id, Connection conn) throws SQLException {
        String sql = "DELETE FROM categories WHERE id=?";
-       try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+       long start = System.nanoTime();
+       int rows = 0;
+       try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+           Category before = getById(id, conn);
+           if (before == null) {
+               return null;
+           }
+           // ON DELETE CASCADE removes these without log rows of their own, so the category's row keeps them
+           List<Budget> budgets = budgetDAO.getByCategory(id, conn);
+           List<CategoryRule> rules = categoryRuleDAO.getByCategory(id, conn);
            stmt.setInt(1, id);
-           stmt.executeUpdate();
+           rows = stmt.executeUpdate();
+           changelogDAO.append(ChangeEntry.Entity.CATEGORY, id, ChangeEntry.Op.DELETE,
+                   ChangelogDAO.toJson(before, budgets, rules), null, conn);
+           return before;
+       } finally {
+           DELETE.record(start, rows);
        }
    }
-   
+
    public void update(Category c) throws SQLException {
+       try (Connection conn = DBConnection.getConnection()) {
+           conn.setAutoCommit(false);
+           try {
+               if (update(c, conn)) {
+                   ledgerVersionDAO.bump(conn);
+               }
+               conn.commit();
+           } catch (SQLException e) {
+               conn.rollback();
+               throw e;
+           } finally {
+               conn.setAutoCommit(true);
+           }
+       }
+   }
+
+   /** Updates on the caller's transaction. @return false if there is no such category */
+   public boolean update(Category c, Connection conn) throws SQLException {
        String sql = "UPDATE categories SET name=?, description=?, type=? WHERE id=?";
-       try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+       long start = System.nanoTime();
+       int rows = 0;
+       try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+           Category before = getById(c.getId(), conn);
+           if (before == null) {
+               return false;
+           }
            stmt.setString(1, c.getName());
            stmt.setString(2, c.getDescription());
            stmt.setString(3, c.getType());
            stmt.setInt(4, c.getId());
-           stmt.executeUpdate();
+           rows = stmt.executeUpdate();
+           changelogDAO.append(ChangeEntry.Entity.CATEGORY, c.getId(), ChangeEntry.Op.UPDATE,
+                   ChangelogDAO.toJson(before), ChangelogDAO.toJson(c), conn);
+           return true;
+       } finally {
+           UPDATE.record(start, rows);
        }
-   } 
-   
+   }
+
+   /** Reads with SELECT ... FOR UPDATE, so the row stays as read until the caller's transaction ends. */
+   public Category getById(int id, Connection conn) throws SQLException {
+       String sql = "SELECT * FROM categories WHERE id = ? FOR UPDATE";
+       long start = System.nanoTime();
+       int rows = 0;
+       try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+           stmt.setInt(1, id);
+           try (ResultSet rs = stmt.executeQuery()) {
+               if (!rs.next()) {
+                   return null;
+               }
+               rows = 1;
+               return new Category(
+                       rs.getInt("id"),
+                       rs.getString("name"),
+                       rs.getString("description"),
+                       rs.getString("type"));
+           }
+       } finally {
+           GET_BY_ID.record(start, rows);
+       }
+   }
 }
@@ -0,0 +1,139 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.CategoryRule;
+
+public class CategoryRuleDAO {
+    private static final OperationStats INSERT = Metrics.operation("CategoryRuleDAO.insert");
+    private static final OperationStats GET_ALL = Metrics.operation("CategoryRuleDAO.getAll");
+    private static final OperationStats DELETE = Metrics.operation("CategoryRuleDAO.delete");
+    private static final OperationStats GET_BY_CATEGORY = Metrics.operation("CategoryRuleDAO.getByCategory");
+    private static final OperationStats RESTORE = Metrics.operation("CategoryRuleDAO.restore");
+
+    public void insert(CategoryRule r) throws SQLException {
+        String sql = "INSERT INTO category_rules (pattern, match_type, min_amount, max_amount, category_id, priority) VALUES (?,?,?,?,?,?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, r.getPattern());
+            stmt.setString(2, r.getMatchType());
+            stmt.setBigDecimal(3, r.getMinAmount());
+            stmt.setBigDecimal(4, r.getMaxAmount());
+            stmt.setInt(5, r.getCategoryId());
+            stmt.setInt(6, r.getPriority());
+            rows = stmt.executeUpdate();
+
+            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    r.setId(generatedKeys.getInt(1));
+                }
+            }
+        } finally {
+            INSERT.record(start, rows);
+        }
+    }
+
+    public List<CategoryRule> getAll() throws SQLException {
+        List<CategoryRule> list = new ArrayList<>();
+        String sql = "SELECT r.id, r.pattern, r.match_type, r.min_amount, r.max_amount, r.category_id, r.priority, " +
+                     "c.name AS category_name, c.type AS category_type " +
+                     "FROM category_rules r " +
+                     "JOIN categories c ON r.category_id = c.id " +
+                     "ORDER BY r.priority DESC, r.id ASC";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                list.add(new CategoryRule(
+                        rs.getInt("id"),
+                        rs.getString("pattern"),
+                        rs.getString("match_type"),
+                        rs.getBigDecimal("min_amount"),
+                        rs.getBigDecimal("max_amount"),
+                        rs.getInt("category_id"),
+                        rs.getInt("priority"),
+                        rs.getString("category_name"),
+                        rs.getString("category_type")));
+            }
+        } finally {
+            GET_ALL.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** Reads with SELECT ... FOR UPDATE, on the caller's transaction. */
+    public List<CategoryRule> getByCategory(int categoryId, Connection conn) throws SQLException {
+        List<CategoryRule> list = new ArrayList<>();
+        String sql = "SELECT r.id, r.pattern, r.match_type, r.min_amount, r.max_amount, r.category_id, r.priority, " +
+                     "c.name AS category_name, c.type AS category_type " +
+                     "FROM category_rules r " +
+                     "JOIN categories c ON r.category_id = c.id " +
+                     "WHERE r.category_id = ? ORDER BY r.id FOR UPDATE";
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, categoryId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(new CategoryRule(
+                            rs.getInt("id"),
+                            rs.getString("pattern"),
+                            rs.getString("match_type"),
+                            rs.getBigDecimal("min_amount"),
+                            rs.getBigDecimal("max_amount"),
+                            rs.getInt("category_id"),
+                            rs.getInt("priority"),
+                            rs.getString("category_name"),
+                            rs.getString("category_type")));
+                }
+            }
+        } finally {
+            GET_BY_CATEGORY.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** Re-inserts rules under their original ids, on the caller's transaction. */
+    public void restore(List<CategoryRule> rules, Connection conn) throws SQLException {
+        String sql = "INSERT INTO category_rules (id, pattern, match_type, min_amount, max_amount, category_id, priority) VALUES (?,?,?,?,?,?,?)";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (CategoryRule r : rules) {
+                stmt.setInt(1, r.getId());
+                stmt.setString(2, r.getPattern());
+                stmt.setString(3, r.getMatchType());
+                stmt.setBigDecimal(4, r.getMinAmount());
+                stmt.setBigDecimal(5, r.getMaxAmount());
+                stmt.setInt(6, r.getCategoryId());
+                stmt.setInt(7, r.getPriority());
+                rows += stmt.executeUpdate();
+            }
+        } finally {
+            RESTORE.record(start, rows);
+        }
+    }
+
+    public void delete(int id) throws SQLException {
+        String sql = "DELETE FROM category_rules WHERE id=?";
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+            rows = stmt.executeUpdate();
+        } finally {
+            DELETE.record(start, rows);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package src.dao;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import src.api.JsonParser;
+import src.api.JsonWriter;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.Account;
+import src.model.Budget;
+import src.model.Category;
+import src.model.CategoryRule;
+import src.model.ChangeEntry;
+import src.model.Transaction;
+
+/**
+ * Append-only log of every insert, update and delete of accounts, categories and transactions,
+ * and of every transaction moved into the archive, written by the DAOs on the same connection and in the same database transaction as the
+ * change itself, so a change and its log row are committed or rolled back together.
+ *
+ * Each append first bumps ledger_version, whose row lock is then held until commit. Writers are
+ * therefore serialized from their first log row on, and seq values become visible in increasing
+ * order: a reader that has seen seq N will never later find a committed row below N.
+ *
+ * The seqs appended on a thread are collected between {@link #beginGroup} and
+ * {@link #endGroup}, so a controller can remember which rows one user action produced.
+ */
+public class ChangelogDAO {
+    private static final OperationStats APPEND = Metrics.operation("ChangelogDAO.append");
+    private static final OperationStats GET_SINCE = Metrics.operation("ChangelogDAO.getSince");
+    private static final OperationStats GET_BY_SEQS = Metrics.operation("ChangelogDAO.getBySeqs");
+    private static final OperationStats GET_LAST_SEQ = Metrics.operation("ChangelogDAO.getLastSeq");
+    private static final OperationStats DISCARD_AFTER = Metrics.operation("ChangelogDAO.discardAfter");
+    private static final OperationStats MARK_REVERTS = Metrics.operation("ChangelogDAO.markReverts");
+
+    // null while no group is open, so threads that never open one do not collect anything
+    private static final ThreadLocal<List<Long>> GROUP = new ThreadLocal<>();
+
+    private final LedgerVersionDAO ledgerVersionDAO = new LedgerVersionDAO();
+
+    /** Starts collecting the seqs appended on this thread, discarding any collected so far. */
+    public static void beginGroup() {
+        GROUP.set(new ArrayList<>());
+    }
+
+    /** @return the seqs appended on this thread since {@link #beginGroup}, oldest first */
+    public static List<Long> currentGroup() {
+        List<Long> group = GROUP.get();
+        return group == null ? new ArrayList<>() : new ArrayList<>(group);
+    }
+
+    /** Like {@link #currentGroup}, and stops collecting. Call it after the commit. */
+    public static List<Long> endGroup() {
+        List<Long> seqs = currentGroup();
+        GROUP.remove();
+        return seqs;
+    }
+
+    /** @return the seq of the new row */
+    public long append(ChangeEntry.Entity entity, int entityId, ChangeEntry.Op op, String before, String after,
+                       Connection conn) throws SQLException {
+        List<Long> seqs = appendAll(entity, op, List.of(entityId),
+                before == null ? null : List.of(before), after == null ? null : List.of(after), conn);
+        return seqs.get(0);
+    }
+
+    /**
+     * Appends one row per id with a single batched insert.
+     *
+     * @param before JSON per id, or null if the op has no before state
+     * @param after  JSON per id, or null if the op has no after state
+     */
+    public List<Long> appendAll(ChangeEntry.Entity entity, ChangeEntry.Op op, List<Integer> entityIds,
+                                List<String> before, List<String> after, Connection conn) throws SQLException {
+        if (entityIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String sql = "INSERT INTO changelog (entity, entity_id, op, before_data, after_data) VALUES (?,?,?,?,?)";
+        long start = System.nanoTime();
+        List<Long> seqs = new ArrayList<>(entityIds.size());
+        try {
+            ledgerVersionDAO.bump(conn);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < entityIds.size(); i++) {
+                    stmt.setString(1, entity.name());
+                    stmt.setInt(2, entityIds.get(i));
+                    stmt.setString(3, op.name());
+                    stmt.setString(4, before == null ? null : before.get(i));
+                    stmt.setString(5, after == null ? null : after.get(i));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        seqs.add(keys.getLong(1));
+                    }
+                }
+            }
+            if (seqs.size() != entityIds.size()) {
+                throw new SQLException("Changelog insert returned " + seqs.size() + " keys for " + entityIds.size() + " rows.");
+            }
+            List<Long> group = GROUP.get();
+            if (group != null) {
+                group.addAll(seqs);
+            }
+            return seqs;
+        } finally {
+            APPEND.record(start, entityIds.size());
+        }
+    }
+
+    /** @return the newest seq, 0 if the changelog is empty */
+    public long getLastSeq() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM changelog")) {
+            rs.next();
+            return rs.getLong(1);
+        } finally {
+            GET_LAST_SEQ.record(start, 1);
+        }
+    }
+
+    /**
+     * Deletes every row with a seq greater than {@code seq}, on the caller's transaction. Only for
+     * a restore, which puts the ledger back to the state as of {@code seq}; those rows describe
+     * changes it no longer contains.
+     *
+     * @return number of rows deleted
+     */
+    public int discardAfter(long seq, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM changelog WHERE seq > ?")) {
+            stmt.setLong(1, seq);
+            rows = stmt.executeUpdate();
+            return rows;
+        } finally {
+            DISCARD_AFTER.record(start, rows);
+        }
+    }
+
+    /** @return up to {@code limit} changes with a seq greater than {@code afterSeq}, oldest first */
+    public List<ChangeEntry> getSince(long afterSeq, int limit) throws SQLException {
+        String sql = "SELECT * FROM changelog WHERE seq > ? ORDER BY seq LIMIT ?";
+        long start = System.nanoTime();
+        List<ChangeEntry> list = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setLong(1, afterSeq);
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(read(rs));
+                }
+            }
+        } finally {
+            GET_SINCE.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** @return the entries with the given seqs, oldest first; seqs that do not exist are skipped */
+    public List<ChangeEntry> getBySeqs(List<Long> seqs, Connection conn) throws SQLException {
+        List<ChangeEntry> list = new ArrayList<>(seqs.size());
+        if (seqs.isEmpty()) {
+            return list;
+        }
+        StringBuilder sql = new StringBuilder("SELECT * FROM changelog WHERE seq IN (");
+        for (int i = 0; i < seqs.size(); i++) {
+            sql.append(i == 0 ? "?" : ",?");
+        }
+        sql.append(") ORDER BY seq");
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < seqs.size(); i++) {
+                stmt.setLong(i + 1, seqs.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(read(rs));
+                }
+            }
+        } finally {
+            GET_BY_SEQS.record(start, list.size());
+        }
+        return list;
+    }
+
+    /** Records that each row in {@code seqs} undid the row at the same position in {@code revertedSeqs}. */
+    public void markReverts(List<Long> seqs, List<Long> revertedSeqs, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE changelog SET reverts_seq = ? WHERE seq = ?")) {
+            for (int i = 0; i < seqs.size(); i++) {
+                stmt.setLong(1, revertedSeqs.get(i));
+                stmt.setLong(2, seqs.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        } finally {
+            MARK_REVERTS.record(start, seqs.size());
+        }
+    }
+
+    private static ChangeEntry read(ResultSet rs) throws SQLException {
+        long revertsSeq = rs.getLong("reverts_seq");
+        boolean revertsNothing = rs.wasNull();
+        Timestamp changedAt = rs.getTimestamp("changed_at");
+        return new ChangeEntry(
+                rs.getLong("seq"),
+                ChangeEntry.Entity.valueOf(rs.getString("entity")),
+                rs.getInt("entity_id"),
+                ChangeEntry.Op.valueOf(rs.getString("op")),
+                rs.getString("before_data"),
+                rs.getString("after_data"),
+                revertsNothing ? null : revertsSeq,
+                changedAt == null ? null : changedAt.toLocalDateTime());
+    }
+
+    public static String toJson(Transaction t) {
+        StringWriter out = new StringWriter(128);
+        try {
+            new JsonWriter(out).beginObject()
+                    .name("id").value(t.getId())
+                    .name("description").value(t.getDescription())
+                    .name("amount").value(t.getAmount())
+                    .name("date").value(t.getDate().toString())
+                    .name("type").value(t.getType())
+                    .name("categoryId").value(t.getCategoryId())
+                    .name("accountId").value(t.getAccountId())
+                    .endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public static String toJson(Account a) {
+        StringWriter out = new StringWriter(64);
+        try {
+            new JsonWriter(out).beginObject()
+                    .name("id").value(a.getId())
+                    .name("name").value(a.getName())
+                    .name("balance").value(a.getBalance())
+                    .name("currency").value(a.getCurrency())
+                    .endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public static String toJson(Category c) {
+        StringWriter out = new StringWriter(64);
+        try {
+            new JsonWriter(out).beginObject()
+                    .name("id").value(c.getId())
+                    .name("name").value(c.getName())
+                    .name("description").value(c.getDescription())
+                    .name("type").value(c.getType())
+                    .endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Like {@link #toJson(Category)}, and also keeps the category's budgets and rules, which the
+     * database removes together with the category and which an undo has to bring back.
+     */
+    public static String toJson(Category c, List<Budget> budgets, List<CategoryRule> rules) {
+        StringWriter out = new StringWriter(256);
+        try {
+            JsonWriter json = new JsonWriter(out).beginObject()
+                    .name("id").value(c.getId())
+                    .name("name").value(c.getName())
+                    .name("description").value(c.getDescription())
+                    .name("type").value(c.getType())
+                    .name("budgets").beginArray();
+            for (Budget b : budgets) {
+                json.beginObject()
+                        .name("id").value(b.getId())
+                        .name("period").value(b.getPeriod())
+                        .name("amount").value(b.getAmount())
+                        .endObject();
+            }
+            json.endArray().name("rules").beginArray();
+            for (CategoryRule r : rules) {
+                json.beginObject()
+                        .name("id").value(r.getId())
+                        .name("pattern").value(r.getPattern())
+                        .name("matchType").value(r.getMatchType())
+                        .name("minAmount").value(r.getMinAmount())
+                        .name("maxAmount").value(r.getMaxAmount())
+                        .name("priority").value(r.getPriority())
+                        .endObject();
+            }
+            json.endArray().endObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public static Transaction transactionFromJson(String json) {
+        Map<String, Object> m = object(json);
+        return new Transaction(
+                ((BigDecimal) m.get("id")).intValueExact(),
+                (String) m.get("description"),
+                (BigDecimal) m.get("amount"),
+                LocalDate.parse((String) m.get("date")),
+                (String) m.get("type"),
+                ((BigDecimal) m.get("categoryId")).intValueExact(),
+                ((BigDecimal) m.get("accountId")).intValueExact());
+    }
+
+    public static Account accountFromJson(String json) {
+        Map<String, Object> m = object(json);
+        return new Account(
+                ((BigDecimal) m.get("id")).intValueExact(),
+                (String) m.get("name"),
+                (BigDecimal) m.get("balance"),
+                (String) m.get("currency"));
+    }
+
+    public static Category categoryFromJson(String json) {
+        Map<String, Object> m = object(json);
+        return new Category(
+                ((BigDecimal) m.get("id")).intValueExact(),
+                (String) m.get("name"),
+                (String) m.get("description"),
+                (String) m.get("type"));
+    }
+
+    /** @return the budgets kept by {@link #toJson(Category, List, List)}, empty if there were none */
+    public static List<Budget> budgetsFromJson(String json) {
+        Map<String, Object> m = object(json);
+        int categoryId = ((BigDecimal) m.get("id")).intValueExact();
+        List<Budget> budgets = new ArrayList<>();
+        for (Map<String, Object> b : objects(m.get("budgets"))) {
+            budgets.add(new Budget(
+                    ((BigDecimal) b.get("id")).intValueExact(),
+                    categoryId,
+                    (String) b.get("period"),
+                    (BigDecimal) b.get("amount"),
+                    (String) m.get("name")));
+        }
+        return budgets;
+    }
+
+    /** @return the rules kept by {@link #toJson(Category, List, List)}, empty if there were none */
+    public static List<CategoryRule> rulesFromJson(String json) {
+        Map<String, Object> m = object(json);
+        int categoryId = ((BigDecimal) m.get("id")).intValueExact();
+        List<CategoryRule> rules = new ArrayList<>();
+        for (Map<String, Object> r : objects(m.get("rules"))) {
+            rules.add(new CategoryRule(
+                    ((BigDecimal) r.get("id")).intValueExact(),
+                    (String) r.get("pattern"),
+                    (String) r.get("matchType"),
+                    (BigDecimal) r.get("minAmount"),
+                    (BigDecimal) r.get("maxAmount"),
+                    categoryId,
+                    ((BigDecimal) r.get("priority")).intValueExact(),
+                    (String) m.get("name"),
+                    (String) m.get("type")));
+        }
+        return rules;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> objects(Object array) {
+        return array == null ? new ArrayList<>() : (List<Map<String, Object>>) array;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> object(String json) {
+        return (Map<String, Object>) JsonParser.parse(json);
+    }
+}
@@ -0,0 +1,189 @@
+package src.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+
+/**
+ * A bounded pool of physical connections. {@link #getConnection()} hands out a proxy whose
+ * {@code close()} returns the connection to the pool instead of closing it, so DAO code keeps
+ * using try-with-resources unchanged.
+ *
+ * Connections idle for longer than {@value #VALIDATE_AFTER_MILLIS} ms are checked with
+ * {@link Connection#isValid} before reuse. A connection is dropped instead of being returned if
+ * it has been closed, a call on it failed with a connection-level SQL state (class 08), or it
+ * cannot be reset to auto-commit.
+ *
+ * Waiting uses java.util.concurrent locks only, so virtual threads blocked on the pool do not
+ * pin their carrier thread.
+ */
+public class ConnectionPool {
+    private static final OperationStats ACQUIRE = Metrics.operation("ConnectionPool.acquire");
+    private static final long VALIDATE_AFTER_MILLIS = 5_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final ArrayBlockingQueue<Idle> idle;
+
+    public ConnectionPool(String url, String username, String password, int maxSize, long timeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("Timed out after " + timeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            Connection physical = takeIdle();
+            if (physical == null) {
+                physical = DriverManager.getConnection(url, username, password);
+            }
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        } finally {
+            ACQUIRE.record(start, 1);
+        }
+    }
+
+    /** Closes every idle connection. Connections in use are closed when they are returned. */
+    public void close() {
+        Idle entry;
+        while ((entry = idle.poll()) != null) {
+            closeQuietly(entry.connection);
+        }
+    }
+
+    private Connection takeIdle() {
+        Idle entry;
+        while ((entry = idle.poll()) != null) {
+            if (System.currentTimeMillis() - entry.returnedAt < VALIDATE_AFTER_MILLIS) {
+                return entry.connection;
+            }
+            try {
+                if (entry.connection.isValid(2)) {
+                    return entry.connection;
+                }
+            } catch (SQLException e) {
+                // fall through and discard it
+            }
+            closeQuietly(entry.connection);
+        }
+        return null;
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+                new PooledHandler(physical));
+    }
+
+    private void release(Connection physical, boolean broken) {
+        try {
+            if (!broken && !physical.isClosed()) {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                if (idle.offer(new Idle(physical, System.currentTimeMillis()))) {
+                    return;
+                }
+            }
+        } catch (SQLException e) {
+            // cannot be reset; discard below
+        } finally {
+            permits.release();
+        }
+        closeQuietly(physical);
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // already unusable
+        }
+    }
+
+    private record Idle(Connection connection, long returnedAt) {
+    }
+
+    private final class PooledHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean closed;
+        private boolean broken;
+
+        PooledHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(physical, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null
+                        && sqlException.getSQLState().startsWith("08")) {
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -2,14 +2,179 @@ package src.dao;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+
+/**
+ * Connections to the primary database and, if configured, its read replicas.
+ *
+ * Configuration is read from system properties: {@code kys.db.url}, {@code kys.db.user} and
+ * {@code kys.db.password} for the primary, and {@code kys.db.replicas} for a comma-separated
+ * list of replica JDBC URLs that use the same credentials.
+ *
+ * {@link #getConnection()} always returns a primary connection; use it for writes and for reads
+ * that guard a write. {@link #getReadConnection()} returns a replica connection for read-only
+ * work such as lists, summaries and reports, but only from a replica that has caught up with
+ * every ledger version this process has written or read on the primary. A caller therefore
+ * always sees its own writes; if no replica has caught up yet, or none is reachable, the read
+ * goes to the primary.
+ */
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/kys";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "";
-    
+    // executeBatch() sends one multi-row statement instead of a round trip per row (imports, bulk edits, changelog)
+    private static final String URL_OPTIONS = "rewriteBatchedStatements=true";
+    private static final String URL = withOptions(System.getProperty("kys.db.url", "jdbc:mysql://localhost:3306/kys"), URL_OPTIONS);
+    private static final String USERNAME = System.getProperty("kys.db.user", "root");
+    private static final String PASSWORD = System.getProperty("kys.db.password", "");
+    // only worth it when connections are reused: cache prepared statements and skip round trips for unchanged session state
+    private static final String POOLED_URL_OPTIONS = "cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048&useLocalSessionState=true";
+    private static final long REPLICA_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private static final OperationStats REPLICA_READ = Metrics.operation("DBConnection.replicaRead");
+    private static final OperationStats REPLICA_BEHIND = Metrics.operation("DBConnection.replicaBehind");
+    private static final OperationStats REPLICA_UNREACHABLE = Metrics.operation("DBConnection.replicaUnreachable");
+
+    private static volatile ConnectionPool pool;
+    private static final List<Replica> replicas = parseReplicas(System.getProperty("kys.db.replicas"));
+    private static final AtomicInteger nextReplica = new AtomicInteger();
+    // highest ledger version this process has written or seen on the primary
+    private static final AtomicLong minReadVersion = new AtomicLong();
+
+    private static final class Replica {
+        final String url;
+        volatile ConnectionPool pool;
+        // highest ledger version this replica is known to have applied
+        final AtomicLong caughtUpTo = new AtomicLong();
+        volatile long downUntilNanos;
+
+        Replica(String url) {
+            this.url = url;
+        }
+
+        Connection getConnection() throws SQLException {
+            ConnectionPool p = pool;
+            return p != null ? p.getConnection() : DriverManager.getConnection(url, USERNAME, PASSWORD);
+        }
+    }
+
     public static Connection getConnection() throws SQLException {
+        ConnectionPool p = pool;
+        if (p != null) {
+            return p.getConnection();
+        }
         return DriverManager.getConnection(URL, USERNAME, PASSWORD);
     }
+
+    /**
+     * A connection for read-only queries: from a replica that has caught up with this process's
+     * writes, or from the primary if there is none. Never write through it.
+     */
+    public static Connection getReadConnection() throws SQLException {
+        if (replicas.isEmpty()) {
+            return getConnection();
+        }
+        long required = minReadVersion.get();
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            long downUntil = replica.downUntilNanos;
+            if (downUntil != 0 && System.nanoTime() - downUntil < 0) {
+                continue;
+            }
+            long start = System.nanoTime();
+            Connection conn;
+            try {
+                conn = replica.getConnection();
+            } catch (SQLException e) {
+                replica.downUntilNanos = System.nanoTime() + REPLICA_RETRY_NANOS;
+                REPLICA_UNREACHABLE.record(start, 1);
+                continue;
+            }
+            try {
+                if (replica.caughtUpTo.get() >= required || hasReached(replica, required, conn)) {
+                    REPLICA_READ.record(start, 1);
+                    return conn;
+                }
+                REPLICA_BEHIND.record(start, 1);
+            } catch (SQLException e) {
+                replica.downUntilNanos = System.nanoTime() + REPLICA_RETRY_NANOS;
+                REPLICA_UNREACHABLE.record(start, 1);
+            }
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                // unusable anyway
+            }
+        }
+        return getConnection();
+    }
+
+    /**
+     * Records a ledger version written or read on the primary; replica reads must reflect at
+     * least this version from now on. Versions from writes are noted before their commit, so
+     * until the commit reaches a replica its reads go to the primary.
+     */
+    static void noteVersion(long version) {
+        minReadVersion.accumulateAndGet(version, Math::max);
+    }
+
+    private static boolean hasReached(Replica replica, long required, Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version FROM ledger_version WHERE id = 1");
+             ResultSet rs = stmt.executeQuery()) {
+            long version = rs.next() ? rs.getLong(1) : 0;
+            replica.caughtUpTo.accumulateAndGet(version, Math::max);
+            return version >= required;
+        }
+    }
+
+    private static String withOptions(String url, String options) {
+        return url + (url.contains("?") ? "&" : "?") + options;
+    }
+
+    private static List<Replica> parseReplicas(String urls) {
+        if (urls == null || urls.isBlank()) {
+            return Collections.emptyList();
+        }
+        List<Replica> list = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                list.add(new Replica(withOptions(url.trim(), URL_OPTIONS)));
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Switches {@link #getConnection()} to a pool of at most {@code maxSize} connections. Meant for
+     * long-running, highly concurrent processes such as the API server; the desktop app opens a
+     * connection per call. Each replica gets a pool of the same size.
+     */
+    public static synchronized void enablePooling(int maxSize, long timeoutMillis) {
+        disablePooling();
+        pool = new ConnectionPool(withOptions(URL, POOLED_URL_OPTIONS), USERNAME, PASSWORD, maxSize, timeoutMillis);
+        for (Replica replica : replicas) {
+            replica.pool = new ConnectionPool(withOptions(replica.url, POOLED_URL_OPTIONS), USERNAME, PASSWORD, maxSize, timeoutMillis);
+        }
+    }
+
+    public static synchronized void disablePooling() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+        for (Replica replica : replicas) {
+            if (replica.pool != null) {
+                replica.pool.close();
+                replica.pool = null;
+            }
+        }
+    }
 }
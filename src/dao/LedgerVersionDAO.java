@@ -0,0 +1,89 @@
+package src.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+
+/**
+ * A single counter in ledger_version that every committed change to accounts, categories or
+ * transactions increments. Readers use it to tell whether anything changed since they last
+ * looked (for example the API server's ETags) without comparing data.
+ *
+ * The same row holds the history epoch, which only a restore increments: it discards changelog
+ * rows, so anyone following the changelog must reload instead of applying changes on top.
+ */
+public class LedgerVersionDAO {
+    private static final OperationStats GET_VERSION = Metrics.operation("LedgerVersionDAO.getVersion");
+    private static final OperationStats BUMP = Metrics.operation("LedgerVersionDAO.bump");
+    private static final OperationStats GET_EPOCH = Metrics.operation("LedgerVersionDAO.getEpoch");
+
+    /** @return the current version, 0 if nothing has been changed since the table was created */
+    public long getVersion() throws SQLException {
+        String sql = "SELECT version FROM ledger_version WHERE id = 1";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            long version = rs.next() ? rs.getLong(1) : 0;
+            DBConnection.noteVersion(version);
+            return version;
+        } finally {
+            GET_VERSION.record(start, 1);
+        }
+    }
+
+    /** @return the history epoch, 0 if no restore has rewritten the changelog */
+    public long getEpoch() throws SQLException {
+        String sql = "SELECT epoch FROM ledger_version WHERE id = 1";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } finally {
+            GET_EPOCH.record(start, 1);
+        }
+    }
+
+    /** Like {@link #bump}, and also increments the history epoch. */
+    public void bumpEpoch(Connection conn) throws SQLException {
+        bump(conn);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE ledger_version SET epoch = epoch + 1 WHERE id = 1");
+        }
+    }
+
+    /**
+     * Increments the version on the caller's transaction and holds the ledger_version row lock until
+     * it commits or rolls back, so concurrent writers are serialized from their first bump on.
+     * {@link ChangelogDAO} bumps before each changelog insert for exactly that reason, which keeps
+     * changelog seqs committed in order. Bumping again later in the same transaction is cheap, since
+     * the lock is already held, and still leaves a distinct version for the commit.
+     *
+     * The new version comes back in the OK packet through LAST_INSERT_ID(expr), at no extra
+     * round trip, and is passed to {@link DBConnection#noteVersion} for read-your-writes.
+     */
+    public void bump(Connection conn) throws SQLException {
+        String sql = "INSERT INTO ledger_version (id, version) VALUES (1, 1) ON DUPLICATE KEY UPDATE version = LAST_INSERT_ID(version + 1)";
+        long start = System.nanoTime();
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            // 1 row affected: the row was just created with version 1; 2: an existing row was updated
+            if (stmt.executeUpdate() == 1) {
+                DBConnection.noteVersion(1);
+            } else {
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        DBConnection.noteVersion(keys.getLong(1));
+                    }
+                }
+            }
+        } finally {
+            BUMP.record(start, 1);
+        }
+    }
+}
@@ -7,24 +7,77 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
+import src.fx.FxRates;
+import src.metrics.Metrics;
+import src.metrics.OperationStats;
+import src.model.CategorySummary;
+import src.model.ChangeEntry;
 import src.model.Transaction;
 
 public class TransactionDAO {
+    private static final OperationStats INSERT = Metrics.operation("TransactionDAO.insert");
+    private static final OperationStats GET_ALL = Metrics.operation("TransactionDAO.getAll");
+    private static final OperationStats GET_BY_ID = Metrics.operation("TransactionDAO.getById");
+    private static final OperationStats DELETE = Metrics.operation("TransactionDAO.delete");
+    private static final OperationStats UPDATE = Metrics.operation("TransactionDAO.update");
+    private static final OperationStats INSERT_AND_UPDATE_ACCOUNT = Metrics.operation("TransactionDAO.insertTransactionAndUpdateAccount");
+    private static final OperationStats DELETE_AND_UPDATE_ACCOUNT = Metrics.operation("TransactionDAO.deleteTransactionAndUpdateAccount");
+    private static final OperationStats UPDATE_AND_UPDATE_ACCOUNTS = Metrics.operation("TransactionDAO.updateTransactionAndUpdateAccounts");
+    private static final OperationStats COUNT_BY_ACCOUNT = Metrics.operation("TransactionDAO.countByAccountId");
+    private static final OperationStats COUNT_BY_CATEGORY = Metrics.operation("TransactionDAO.countByCategoryId");
+    private static final OperationStats GET_BY_DATE_RANGE = Metrics.operation("TransactionDAO.getByDateRange");
+    private static final OperationStats FOR_EACH_IN_RANGE = Metrics.operation("TransactionDAO.forEachInRange");
+    private static final OperationStats SUM_BY_CATEGORY = Metrics.operation("TransactionDAO.sumByCategory");
+    private static final OperationStats NET_CHANGE_AFTER = Metrics.operation("TransactionDAO.netChangeAfter");
+    private static final OperationStats INSERT_BATCH = Metrics.operation("TransactionDAO.insertBatchAndUpdateAccounts");
+    private static final OperationStats DELETE_BATCH = Metrics.operation("TransactionDAO.deleteBatchAndUpdateAccounts");
+    private static final OperationStats UPDATE_BATCH = Metrics.operation("TransactionDAO.updateBatchAndUpdateAccounts");
+    // ids per IN (...) list; keeps each statement well below max_allowed_packet and the placeholder limit
+    private static final int ID_CHUNK_SIZE = 500;
+    private static final OperationStats FOR_EACH_DEDUPE_KEY = Metrics.operation("TransactionDAO.forEachDedupeKey");
+    private static final OperationStats RESTORE_AND_UPDATE_ACCOUNT = Metrics.operation("TransactionDAO.restoreTransactionAndUpdateAccount");
+    private static final OperationStats GET_DATE_SPAN = Metrics.operation("TransactionDAO.getDateSpan");
+
+    private final ChangelogDAO changelogDAO = new ChangelogDAO();
 
     public void insert(Transaction t) throws SQLException {
         String sql = "INSERT INTO transactions (description, amount, date, type, category_id, account_id) VALUES (?,?,?,?,?,?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, t.getDescription());
-            stmt.setBigDecimal(2, t.getAmount());
-            stmt.setDate(3, Date.valueOf(t.getDate()));
-            stmt.setString(4, t.getType());
-            stmt.setInt(5, t.getCategoryId());
-            stmt.setInt(6, t.getAccountId());
-            stmt.executeUpdate();
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, t.getDescription());
+                stmt.setBigDecimal(2, t.getAmount());
+                stmt.setDate(3, Date.valueOf(t.getDate()));
+                stmt.setString(4, t.getType());
+                stmt.setInt(5, t.getCategoryId());
+                stmt.setInt(6, t.getAccountId());
+                rows = stmt.executeUpdate();
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        t.setId(generatedKeys.getInt(1));
+                    }
+                }
+                changelogDAO.append(ChangeEntry.Entity.TRANSACTION, t.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(t), conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            INSERT.record(start, rows);
         }
     }
 
@@ -37,7 +90,8 @@ public class TransactionDAO {
                      "LEFT JOIN categories c ON t.category_id = c.id " +
                      "LEFT JOIN accounts a ON t.account_id = a.id " +
                      "ORDER BY t.date DESC, t.id DESC";
-        try (Connection conn = DBConnection.getConnection();
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
@@ -54,10 +108,324 @@ public class TransactionDAO {
                 );
                 list.add(t);
             }
+        } finally {
+            GET_ALL.record(start, list.size());
+        }
+        return list;
+    }
+
+    /**
+     * Transactions dated between {@code from} and {@code to} (inclusive), newest first. Only the
+     * tables that can hold the range are queried: the hot table for dates after
+     * {@code archivedThrough}, the archive (pruned to the matching year partitions by the date
+     * predicate) for dates on or before it.
+     */
+    public List<Transaction> getByDateRange(LocalDate from, LocalDate to, LocalDate archivedThrough) throws SQLException {
+        List<Transaction> list = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            forEachInRange(from, to, archivedThrough, null, null, list::add);
+        } finally {
+            GET_BY_DATE_RANGE.record(start, list.size());
+        }
+        return list;
+    }
+
+    /**
+     * Like {@link #getByDateRange} but hands rows to {@code consumer} as they arrive from the
+     * server instead of building a list, so memory stays flat however many rows match.
+     * {@code accountId} and {@code categoryId} are optional filters.
+     *
+     * @return number of rows streamed
+     */
+    public long forEachInRange(LocalDate from, LocalDate to, LocalDate archivedThrough, Integer accountId, Integer categoryId,
+                               Consumer<Transaction> consumer) throws SQLException {
+        return forEachInRange(from, to, archivedThrough, accountId, categoryId, null, 0, 0, consumer);
+    }
+
+    /**
+     * One page of {@link #forEachInRange}: at most {@code limit} rows (0 for no limit) that sort
+     * after the row ({@code beforeDate}, {@code beforeId}) in newest-first order. Paging by key
+     * instead of OFFSET keeps every page an index range scan, however deep the client pages.
+     */
+    public long forEachInRange(LocalDate from, LocalDate to, LocalDate archivedThrough, Integer accountId, Integer categoryId,
+                               LocalDate beforeDate, int beforeId, int limit, Consumer<Transaction> consumer) throws SQLException {
+        boolean needsHot = archivedThrough == null || to.isAfter(archivedThrough);
+        boolean needsArchive = archivedThrough != null && !from.isAfter(archivedThrough);
+        String select = "SELECT t.id, t.description, t.amount, t.date, t.type, " +
+                        "t.category_id, c.name as category_name, " +
+                        "t.account_id, a.name as account_name " +
+                        "FROM %s t " +
+                        "LEFT JOIN categories c ON t.category_id = c.id " +
+                        "LEFT JOIN accounts a ON t.account_id = a.id " +
+                        "WHERE t.date BETWEEN ? AND ?" +
+                        (accountId != null ? " AND t.account_id = ?" : "") +
+                        (categoryId != null ? " AND t.category_id = ?" : "") +
+                        (beforeDate != null ? " AND (t.date < ? OR (t.date = ? AND t.id < ?))" : "");
+        if (limit > 0) {
+            // each branch is limited too, so neither table is read past the page
+            select = "(" + select + " ORDER BY t.date DESC, t.id DESC LIMIT " + limit + ")";
+        }
+        StringBuilder sql = new StringBuilder();
+        if (needsHot) {
+            sql.append(String.format(select, "transactions"));
+        }
+        if (needsArchive) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append(String.format(select, "transactions_archive"));
+        }
+        sql.append(" ORDER BY date DESC, id DESC");
+        if (limit > 0) {
+            sql.append(" LIMIT ").append(limit);
+        }
+
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams row by row instead of buffering the whole result with this fetch size
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            int index = 1;
+            for (int i = (needsHot ? 1 : 0) + (needsArchive ? 1 : 0); i > 0; i--) {
+                stmt.setDate(index++, Date.valueOf(from));
+                stmt.setDate(index++, Date.valueOf(to));
+                if (accountId != null) {
+                    stmt.setInt(index++, accountId);
+                }
+                if (categoryId != null) {
+                    stmt.setInt(index++, categoryId);
+                }
+                if (beforeDate != null) {
+                    stmt.setDate(index++, Date.valueOf(beforeDate));
+                    stmt.setDate(index++, Date.valueOf(beforeDate));
+                    stmt.setInt(index++, beforeId);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new Transaction(
+                            rs.getInt("id"),
+                            rs.getString("description"),
+                            rs.getBigDecimal("amount"),
+                            rs.getDate("date").toLocalDate(),
+                            rs.getString("type"),
+                            rs.getInt("category_id"),
+                            rs.getInt("account_id"),
+                            rs.getString("category_name"),
+                            rs.getString("account_name")
+                    ));
+                    rows++;
+                }
+            }
+        } finally {
+            FOR_EACH_IN_RANGE.record(start, rows);
         }
+        return rows;
+    }
+
+    /**
+     * Totals per category and type, in the base currency. The database sums base-currency rows per
+     * category and foreign-currency rows per category, currency and day, so only one conversion
+     * per day and currency is done here, however many transactions there are.
+     */
+    public List<CategorySummary> sumByCategory(LocalDate from, LocalDate to, LocalDate archivedThrough) throws SQLException {
+        boolean needsHot = archivedThrough == null || to.isAfter(archivedThrough);
+        boolean needsArchive = archivedThrough != null && !from.isAfter(archivedThrough);
+        String source;
+        if (needsHot && needsArchive) {
+            source = "(SELECT amount, date, type, category_id, account_id FROM transactions WHERE date BETWEEN ? AND ? " +
+                     "UNION ALL SELECT amount, date, type, category_id, account_id FROM transactions_archive WHERE date BETWEEN ? AND ?)";
+        } else {
+            source = "(SELECT amount, date, type, category_id, account_id FROM " + (needsHot ? "transactions" : "transactions_archive") +
+                     " WHERE date BETWEEN ? AND ?)";
+        }
+        // the base currency is joined in once so the CASE expressions carry no placeholders and can be repeated in GROUP BY
+        String currencyExpr = "CASE WHEN a.currency = fx.base THEN NULL ELSE a.currency END";
+        String rateDateExpr = "CASE WHEN a.currency = fx.base THEN NULL ELSE t.date END";
+        String sql = "SELECT t.category_id, c.name AS category_name, t.type, " +
+                     currencyExpr + " AS currency, " +
+                     rateDateExpr + " AS rate_date, " +
+                     "SUM(t.amount) AS total, COUNT(*) AS cnt " +
+                     "FROM " + source + " t " +
+                     "CROSS JOIN (SELECT ? AS base) fx " +
+                     "LEFT JOIN categories c ON t.category_id = c.id " +
+                     "LEFT JOIN accounts a ON t.account_id = a.id " +
+                     "GROUP BY t.category_id, c.name, t.type, " + currencyExpr + ", " + rateDateExpr;
+        FxRates rates = FxRates.getDefault();
+        Map<String, CategorySummary> byCategory = new HashMap<>();
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int i = (needsHot ? 1 : 0) + (needsArchive ? 1 : 0); i > 0; i--) {
+                stmt.setDate(index++, Date.valueOf(from));
+                stmt.setDate(index++, Date.valueOf(to));
+            }
+            stmt.setString(index, rates.getBaseCurrency());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    BigDecimal total = rs.getBigDecimal("total");
+                    String currency = rs.getString("currency");
+                    if (currency != null) {
+                        total = rates.toBase(total, currency, rs.getDate("rate_date").toLocalDate());
+                    }
+                    int categoryId = rs.getInt("category_id");
+                    String type = rs.getString("type");
+                    CategorySummary previous = byCategory.get(categoryId + ":" + type);
+                    byCategory.put(categoryId + ":" + type, new CategorySummary(categoryId, rs.getString("category_name"), type,
+                            previous != null ? previous.getTotal().add(total) : total,
+                            (previous != null ? previous.getCount() : 0) + rs.getLong("cnt")));
+                }
+            }
+        } finally {
+            SUM_BY_CATEGORY.record(start, rows);
+        }
+        List<CategorySummary> list = new ArrayList<>(byCategory.values());
+        list.sort((a, b) -> a.getType().equals(b.getType()) ? b.getTotal().compareTo(a.getTotal()) : a.getType().compareTo(b.getType()));
         return list;
     }
 
+    /**
+     * Streams just the columns duplicate detection compares (id, description, amount, date,
+     * account) for every transaction dated within [from, to], live and archived, without the
+     * category and account joins of {@link #forEachInRange}. Type and category are left at
+     * null and 0.
+     *
+     * @return number of rows streamed
+     */
+    public long forEachDedupeKey(LocalDate from, LocalDate to, LocalDate archivedThrough,
+                                 Consumer<Transaction> consumer) throws SQLException {
+        boolean needsHot = archivedThrough == null || to.isAfter(archivedThrough);
+        boolean needsArchive = archivedThrough != null && !from.isAfter(archivedThrough);
+        String select = "SELECT id, description, amount, date, account_id FROM %s WHERE date BETWEEN ? AND ?";
+        String sql;
+        if (needsHot && needsArchive) {
+            sql = String.format(select, "transactions") + " UNION ALL " + String.format(select, "transactions_archive");
+        } else {
+            sql = String.format(select, needsHot ? "transactions" : "transactions_archive");
+        }
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            int index = 1;
+            for (int i = (needsHot ? 1 : 0) + (needsArchive ? 1 : 0); i > 0; i--) {
+                stmt.setDate(index++, Date.valueOf(from));
+                stmt.setDate(index++, Date.valueOf(to));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(new Transaction(
+                            rs.getInt("id"),
+                            rs.getString("description"),
+                            rs.getBigDecimal("amount"),
+                            rs.getDate("date").toLocalDate(),
+                            null,
+                            0,
+                            rs.getInt("account_id")));
+                    rows++;
+                }
+            }
+        } finally {
+            FOR_EACH_DEDUPE_KEY.record(start, rows);
+        }
+        return rows;
+    }
+
+    /** @return the oldest and newest transaction dates across live and archived rows, or null if there are none */
+    public LocalDate[] getDateSpan() throws SQLException {
+        String sql = "SELECT MIN(d_min), MAX(d_max) FROM (" +
+                     "SELECT MIN(date) AS d_min, MAX(date) AS d_max FROM transactions " +
+                     "UNION ALL SELECT MIN(date), MAX(date) FROM transactions_archive) spans";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            Date min = rs.getDate(1);
+            Date max = rs.getDate(2);
+            return min == null ? null : new LocalDate[]{min.toLocalDate(), max.toLocalDate()};
+        } finally {
+            GET_DATE_SPAN.record(start, 1);
+        }
+    }
+
+    /** Net effect on the account balance of all its transactions dated after {@code date}. */
+    public BigDecimal netChangeAfter(int accountId, LocalDate date) throws SQLException {
+        String net = "SUM(CASE WHEN type = 'EXPENSE' THEN -amount ELSE amount END)";
+        String sql = "SELECT COALESCE((SELECT " + net + " FROM transactions WHERE account_id = ? AND date > ?), 0) + " +
+                     "COALESCE((SELECT " + net + " FROM transactions_archive WHERE account_id = ? AND date > ?), 0)";
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, accountId);
+            stmt.setDate(2, Date.valueOf(date));
+            stmt.setInt(3, accountId);
+            stmt.setDate(4, Date.valueOf(date));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getBigDecimal(1);
+            }
+        } finally {
+            NET_CHANGE_AFTER.record(start, 1);
+        }
+    }
+
+    /**
+     * Inserts all rows with one batched statement and applies one balance adjustment per
+     * affected account, on the caller's transaction. Sets the generated id on each transaction.
+     */
+    public void insertBatchAndUpdateAccounts(List<Transaction> transactions, AccountDAO accountDAO, Connection conn) throws SQLException {
+        String sqlInsert = "INSERT INTO transactions (description, amount, date, type, category_id, account_id) VALUES (?,?,?,?,?,?)";
+        // sorted, so accounts are locked in ascending id order like in applyAdjustments
+        Map<Integer, BigDecimal> adjustments = new TreeMap<>();
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            try (PreparedStatement stmt = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                for (Transaction t : transactions) {
+                    stmt.setString(1, t.getDescription());
+                    stmt.setBigDecimal(2, t.getAmount());
+                    stmt.setDate(3, Date.valueOf(t.getDate()));
+                    stmt.setString(4, t.getType());
+                    stmt.setInt(5, t.getCategoryId());
+                    stmt.setInt(6, t.getAccountId());
+                    stmt.addBatch();
+
+                    BigDecimal amountChange = t.getAmount();
+                    if ("Expense".equalsIgnoreCase(t.getType())) {
+                        amountChange = amountChange.negate();
+                    }
+                    adjustments.merge(t.getAccountId(), amountChange, BigDecimal::add);
+                }
+                stmt.executeBatch();
+                rows = transactions.size();
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (int i = 0; i < transactions.size() && generatedKeys.next(); i++) {
+                        transactions.get(i).setId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+            for (Map.Entry<Integer, BigDecimal> adjustment : adjustments.entrySet()) {
+                accountDAO.adjustBalance(adjustment.getKey(), adjustment.getValue(), conn);
+            }
+            List<Integer> ids = new ArrayList<>(transactions.size());
+            List<String> after = new ArrayList<>(transactions.size());
+            for (Transaction t : transactions) {
+                ids.add(t.getId());
+                after.add(ChangelogDAO.toJson(t));
+            }
+            changelogDAO.appendAll(ChangeEntry.Entity.TRANSACTION, ChangeEntry.Op.INSERT, ids, null, after, conn);
+        } finally {
+            INSERT_BATCH.record(start, rows);
+        }
+    }
+
     public Transaction getById(int id) throws SQLException {
         String sql = "SELECT t.id, t.description, t.amount, t.date, t.type, " +
                      "t.category_id, c.name as category_name, " +
@@ -66,12 +434,14 @@ public class TransactionDAO {
                      "LEFT JOIN categories c ON t.category_id = c.id " +
                      "LEFT JOIN accounts a ON t.account_id = a.id " +
                      "WHERE t.id = ?";
-        try (Connection conn = DBConnection.getConnection();
+        long start = System.nanoTime();
+        Transaction transaction = null;
+        try (Connection conn = DBConnection.getReadConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Transaction(
+                    transaction = new Transaction(
                             rs.getInt("id"),
                             rs.getString("description"),
                             rs.getBigDecimal("amount"),
@@ -84,30 +454,67 @@ public class TransactionDAO {
                     );
                 }
             }
+        } finally {
+            GET_BY_ID.record(start, transaction != null ? 1 : 0);
         }
-        return null;
+        return transaction;
     }
 
 
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM transactions WHERE id=?";
-        try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Transaction before = getById(id, conn);
+                stmt.setInt(1, id);
+                rows = stmt.executeUpdate();
+                if (rows > 0) {
+                    changelogDAO.append(ChangeEntry.Entity.TRANSACTION, id, ChangeEntry.Op.DELETE, ChangelogDAO.toJson(before), null, conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            DELETE.record(start, rows);
         }
     }
 
     public void update(Transaction t) throws SQLException {
         String sql = "UPDATE transactions SET description=?, amount=?, date=?, type=?, category_id=?, account_id=? WHERE id=?";
-        try (Connection conn = DBConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, t.getDescription());
-            stmt.setBigDecimal(2, t.getAmount());
-            stmt.setDate(3, Date.valueOf(t.getDate()));
-            stmt.setString(4, t.getType());
-            stmt.setInt(5, t.getCategoryId());
-            stmt.setInt(6, t.getAccountId());
-            stmt.setInt(7, t.getId());
-            stmt.executeUpdate();
+        long start = System.nanoTime();
+        int rows = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                Transaction before = getById(t.getId(), conn);
+                stmt.setString(1, t.getDescription());
+                stmt.setBigDecimal(2, t.getAmount());
+                stmt.setDate(3, Date.valueOf(t.getDate()));
+                stmt.setString(4, t.getType());
+                stmt.setInt(5, t.getCategoryId());
+                stmt.setInt(6, t.getAccountId());
+                stmt.setInt(7, t.getId());
+                rows = stmt.executeUpdate();
+                if (rows > 0) {
+                    changelogDAO.append(ChangeEntry.Entity.TRANSACTION, t.getId(), ChangeEntry.Op.UPDATE,
+                            ChangelogDAO.toJson(before), ChangelogDAO.toJson(t), conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            UPDATE.record(start, rows);
         }
     }
 
@@ -119,11 +526,13 @@ public class TransactionDAO {
                      "LEFT JOIN categories c ON t.category_id = c.id " +
                      "LEFT JOIN accounts a ON t.account_id = a.id " +
                      "WHERE t.id = ?";
+        long start = System.nanoTime();
+        Transaction transaction = null;
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return new Transaction(
+                    transaction = new Transaction(
                             rs.getInt("id"),
                             rs.getString("description"),
                             rs.getBigDecimal("amount"),
@@ -136,108 +545,392 @@ public class TransactionDAO {
                     );
                 }
             }
+        } finally {
+            GET_BY_ID.record(start, transaction != null ? 1 : 0);
         }
-        return null;
+        return transaction;
     }
 
     public void insertTransactionAndUpdateAccount(Transaction t, AccountDAO accountDAO, Connection conn) throws SQLException {
-        String sqlInsert = "INSERT INTO transactions (description, amount, date, type, category_id, account_id) VALUES (?,?,?,?,?,?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, t.getDescription());
-            stmt.setBigDecimal(2, t.getAmount());
-            stmt.setDate(3, Date.valueOf(t.getDate()));
-            stmt.setString(4, t.getType());
-            stmt.setInt(5, t.getCategoryId());
-            stmt.setInt(6, t.getAccountId());
-            stmt.executeUpdate();
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String sqlInsert = "INSERT INTO transactions (description, amount, date, type, category_id, account_id) VALUES (?,?,?,?,?,?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sqlInsert, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, t.getDescription());
+                stmt.setBigDecimal(2, t.getAmount());
+                stmt.setDate(3, Date.valueOf(t.getDate()));
+                stmt.setString(4, t.getType());
+                stmt.setInt(5, t.getCategoryId());
+                stmt.setInt(6, t.getAccountId());
+                rows = stmt.executeUpdate();
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        t.setId(generatedKeys.getInt(1));
+                    }
+                }
+            }
+
+            BigDecimal amountChange = t.getAmount();
+            if ("Expense".equalsIgnoreCase(t.getType())) {
+                amountChange = amountChange.negate(); 
+            }
+            accountDAO.adjustBalance(t.getAccountId(), amountChange, conn);
+            changelogDAO.append(ChangeEntry.Entity.TRANSACTION, t.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(t), conn);
+        } finally {
+            INSERT_AND_UPDATE_ACCOUNT.record(start, rows);
         }
+    }
 
-        BigDecimal amountChange = t.getAmount();
-        if ("Expense".equalsIgnoreCase(t.getType())) {
-            amountChange = amountChange.negate(); 
+    /**
+     * Re-inserts a previously deleted transaction under its original id and applies it to its
+     * account's balance, on the caller's transaction. Used to undo a deletion.
+     */
+    public void restoreTransactionAndUpdateAccount(Transaction t, AccountDAO accountDAO, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            String sqlInsert = "INSERT INTO transactions (id, description, amount, date, type, category_id, account_id) VALUES (?,?,?,?,?,?,?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sqlInsert)) {
+                stmt.setInt(1, t.getId());
+                stmt.setString(2, t.getDescription());
+                stmt.setBigDecimal(3, t.getAmount());
+                stmt.setDate(4, Date.valueOf(t.getDate()));
+                stmt.setString(5, t.getType());
+                stmt.setInt(6, t.getCategoryId());
+                stmt.setInt(7, t.getAccountId());
+                rows = stmt.executeUpdate();
+            }
+            accountDAO.adjustBalance(t.getAccountId(), balanceImpact(t), conn);
+            changelogDAO.append(ChangeEntry.Entity.TRANSACTION, t.getId(), ChangeEntry.Op.INSERT, null, ChangelogDAO.toJson(t), conn);
+        } finally {
+            RESTORE_AND_UPDATE_ACCOUNT.record(start, rows);
         }
-        accountDAO.adjustBalance(t.getAccountId(), amountChange, conn);
     }
 
-    public void deleteTransactionAndUpdateAccount(int transactionId, AccountDAO accountDAO, Connection conn) throws SQLException {
-        Transaction t = this.getById(transactionId, conn);
-        if (t == null) {
-            throw new SQLException("Transaction with ID " + transactionId + " not found for deletion.");
+    /**
+     * Deletes all given transactions with one DELETE per {@value #ID_CHUNK_SIZE} ids and applies one
+     * balance adjustment per affected account, on the caller's transaction. The rows are read and
+     * locked first, so balances are reverted from what is stored rather than what a client last saw.
+     *
+     * @return the rows as they were before deletion
+     * @throws SQLException if any of the ids does not exist
+     */
+    public List<Transaction> deleteBatchAndUpdateAccounts(List<Integer> ids, AccountDAO accountDAO, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int affected = 0;
+        try {
+            List<Transaction> rows = lockByIds(ids, conn);
+            SortedMap<Integer, BigDecimal> adjustments = new TreeMap<>();
+            for (Transaction t : rows) {
+                adjustments.merge(t.getAccountId(), balanceImpact(t).negate(), BigDecimal::add);
+            }
+            for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM transactions WHERE id IN (" + placeholders(chunk.size()) + ")")) {
+                    setIds(stmt, 1, chunk);
+                    affected += stmt.executeUpdate();
+                }
+            }
+            applyAdjustments(adjustments, accountDAO, conn);
+            List<Integer> deletedIds = new ArrayList<>(rows.size());
+            List<String> before = new ArrayList<>(rows.size());
+            for (Transaction t : rows) {
+                deletedIds.add(t.getId());
+                before.add(ChangelogDAO.toJson(t));
+            }
+            changelogDAO.appendAll(ChangeEntry.Entity.TRANSACTION, ChangeEntry.Op.DELETE, deletedIds, before, null, conn);
+            return rows;
+        } finally {
+            DELETE_BATCH.record(start, affected);
         }
+    }
 
-        String sqlDelete = "DELETE FROM transactions WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sqlDelete)) {
-            stmt.setInt(1, transactionId);
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Deleting transaction failed, no rows affected. ID: " + transactionId);
+    /**
+     * Sets the category, account and/or date of all given transactions; null arguments leave that
+     * column alone. Runs one UPDATE per {@value #ID_CHUNK_SIZE} ids and, when the account changes,
+     * one balance adjustment per affected account, on the caller's transaction.
+     *
+     * @return the rows as they were before the update
+     * @throws SQLException if any of the ids does not exist
+     */
+    public List<Transaction> updateBatchAndUpdateAccounts(List<Integer> ids, Integer categoryId, Integer accountId, LocalDate date,
+                                             AccountDAO accountDAO, Connection conn) throws SQLException {
+        List<String> assignments = new ArrayList<>();
+        if (categoryId != null) {
+            assignments.add("category_id = ?");
+        }
+        if (accountId != null) {
+            assignments.add("account_id = ?");
+        }
+        if (date != null) {
+            assignments.add("date = ?");
+        }
+        if (assignments.isEmpty()) {
+            return new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        int affected = 0;
+        try {
+            SortedMap<Integer, BigDecimal> adjustments = new TreeMap<>();
+            List<Transaction> rows = lockByIds(ids, conn);
+            if (accountId != null) {
+                for (Transaction t : rows) {
+                    if (t.getAccountId() != accountId) {
+                        BigDecimal impact = balanceImpact(t);
+                        adjustments.merge(t.getAccountId(), impact.negate(), BigDecimal::add);
+                        adjustments.merge(accountId, impact, BigDecimal::add);
+                    }
+                }
+            }
+            String sql = "UPDATE transactions SET " + String.join(", ", assignments) + " WHERE id IN (%s)";
+            for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+                try (PreparedStatement stmt = conn.prepareStatement(String.format(sql, placeholders(chunk.size())))) {
+                    int index = 1;
+                    if (categoryId != null) {
+                        stmt.setInt(index++, categoryId);
+                    }
+                    if (accountId != null) {
+                        stmt.setInt(index++, accountId);
+                    }
+                    if (date != null) {
+                        stmt.setDate(index++, Date.valueOf(date));
+                    }
+                    setIds(stmt, index, chunk);
+                    affected += stmt.executeUpdate();
+                }
+            }
+            applyAdjustments(adjustments, accountDAO, conn);
+            List<Integer> updatedIds = new ArrayList<>(rows.size());
+            List<String> before = new ArrayList<>(rows.size());
+            List<String> after = new ArrayList<>(rows.size());
+            for (Transaction t : rows) {
+                updatedIds.add(t.getId());
+                before.add(ChangelogDAO.toJson(t));
+                after.add(ChangelogDAO.toJson(new Transaction(t.getId(), t.getDescription(), t.getAmount(),
+                        date != null ? date : t.getDate(), t.getType(),
+                        categoryId != null ? categoryId : t.getCategoryId(),
+                        accountId != null ? accountId : t.getAccountId())));
             }
+            changelogDAO.appendAll(ChangeEntry.Entity.TRANSACTION, ChangeEntry.Op.UPDATE, updatedIds, before, after, conn);
+            return rows;
+        } finally {
+            UPDATE_BATCH.record(start, affected);
         }
+    }
 
-        BigDecimal balanceAdjustment;
-        if ("Expense".equalsIgnoreCase(t.getType())) {
-            balanceAdjustment = t.getAmount();
-        } else { 
-            balanceAdjustment = t.getAmount().negate();
+    /**
+     * Reads the rows with SELECT ... FOR UPDATE so their amounts and accounts cannot change until commit.
+     *
+     * @throws SQLException if any of the ids does not exist
+     */
+    public List<Transaction> lockByIds(List<Integer> ids, Connection conn) throws SQLException {
+        List<Transaction> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            String sql = "SELECT id, description, amount, date, type, category_id, account_id FROM transactions " +
+                         "WHERE id IN (" + placeholders(chunk.size()) + ") FOR UPDATE";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                setIds(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows.add(new Transaction(
+                                rs.getInt("id"),
+                                rs.getString("description"),
+                                rs.getBigDecimal("amount"),
+                                rs.getDate("date").toLocalDate(),
+                                rs.getString("type"),
+                                rs.getInt("category_id"),
+                                rs.getInt("account_id")));
+                    }
+                }
+            }
+        }
+        if (rows.size() != ids.size()) {
+            throw new SQLException((ids.size() - rows.size()) + " of the selected transactions no longer exist. Refresh and try again.");
         }
-        accountDAO.adjustBalance(t.getAccountId(), balanceAdjustment, conn);
+        return rows;
     }
 
-    public void updateTransactionAndUpdateAccounts(Transaction oldTransactionData, Transaction newTransaction, AccountDAO accountDAO, Connection conn) throws SQLException {
-        BigDecimal oldAmountReversion;
-        if ("Expense".equalsIgnoreCase(oldTransactionData.getType())) {
-            oldAmountReversion = oldTransactionData.getAmount(); 
-        } else { 
-            oldAmountReversion = oldTransactionData.getAmount().negate(); 
+    /**
+     * Takes the sorted map so account rows are always locked in ascending id order: two batches
+     * touching the same accounts then wait for each other instead of deadlocking.
+     */
+    private static void applyAdjustments(SortedMap<Integer, BigDecimal> adjustments, AccountDAO accountDAO, Connection conn) throws SQLException {
+        for (Map.Entry<Integer, BigDecimal> adjustment : adjustments.entrySet()) {
+            if (adjustment.getValue().signum() != 0) {
+                accountDAO.adjustBalance(adjustment.getKey(), adjustment.getValue(), conn);
+            }
         }
-        accountDAO.adjustBalance(oldTransactionData.getAccountId(), oldAmountReversion, conn);
+    }
+
+    // what the transaction contributes to its account's balance
+    private static BigDecimal balanceImpact(Transaction t) {
+        return "Expense".equalsIgnoreCase(t.getType()) ? t.getAmount().negate() : t.getAmount();
+    }
 
-        BigDecimal newAmountImpact = newTransaction.getAmount();
-        if ("Expense".equalsIgnoreCase(newTransaction.getType())) {
-            newAmountImpact = newAmountImpact.negate(); 
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
         }
-        accountDAO.adjustBalance(newTransaction.getAccountId(), newAmountImpact, conn);
+        return sb.toString();
+    }
+
+    private static void setIds(PreparedStatement stmt, int firstIndex, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            stmt.setInt(firstIndex + i, ids.get(i));
+        }
+    }
 
-        String sqlUpdate = "UPDATE transactions SET description=?, amount=?, date=?, type=?, category_id=?, account_id=? WHERE id=?";
-        try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
-            stmt.setString(1, newTransaction.getDescription());
-            stmt.setBigDecimal(2, newTransaction.getAmount());
-            stmt.setDate(3, Date.valueOf(newTransaction.getDate()));
-            stmt.setString(4, newTransaction.getType());
-            stmt.setInt(5, newTransaction.getCategoryId());
-            stmt.setInt(6, newTransaction.getAccountId());
-            stmt.setInt(7, newTransaction.getId()); 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                 throw new SQLException("Updating transaction failed, no rows affected. ID: " + newTransaction.getId());
+    /** @return the row as it was before deletion */
+    public Transaction deleteTransactionAndUpdateAccount(int transactionId, AccountDAO accountDAO, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            Transaction t = this.getById(transactionId, conn);
+            if (t == null) {
+                throw new SQLException("Transaction with ID " + transactionId + " not found for deletion.");
             }
+
+            String sqlDelete = "DELETE FROM transactions WHERE id=?";
+            try (PreparedStatement stmt = conn.prepareStatement(sqlDelete)) {
+                stmt.setInt(1, transactionId);
+                rows = stmt.executeUpdate();
+                if (rows == 0) {
+                    throw new SQLException("Deleting transaction failed, no rows affected. ID: " + transactionId);
+                }
+            }
+
+            BigDecimal balanceAdjustment;
+            if ("Expense".equalsIgnoreCase(t.getType())) {
+                balanceAdjustment = t.getAmount();
+            } else { 
+                balanceAdjustment = t.getAmount().negate();
+            }
+            accountDAO.adjustBalance(t.getAccountId(), balanceAdjustment, conn);
+            changelogDAO.append(ChangeEntry.Entity.TRANSACTION, transactionId, ChangeEntry.Op.DELETE, ChangelogDAO.toJson(t), null, conn);
+            return t;
+        } finally {
+            DELETE_AND_UPDATE_ACCOUNT.record(start, rows);
+        }
+    }
+
+    public void updateTransactionAndUpdateAccounts(Transaction oldTransactionData, Transaction newTransaction, AccountDAO accountDAO, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        int rows = 0;
+        try {
+            BigDecimal oldAmountReversion;
+            if ("Expense".equalsIgnoreCase(oldTransactionData.getType())) {
+                oldAmountReversion = oldTransactionData.getAmount(); 
+            } else { 
+                oldAmountReversion = oldTransactionData.getAmount().negate(); 
+            }
+            accountDAO.adjustBalance(oldTransactionData.getAccountId(), oldAmountReversion, conn);
+
+            BigDecimal newAmountImpact = newTransaction.getAmount();
+            if ("Expense".equalsIgnoreCase(newTransaction.getType())) {
+                newAmountImpact = newAmountImpact.negate(); 
+            }
+            accountDAO.adjustBalance(newTransaction.getAccountId(), newAmountImpact, conn);
+
+            String sqlUpdate = "UPDATE transactions SET description=?, amount=?, date=?, type=?, category_id=?, account_id=? WHERE id=?";
+            try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
+                stmt.setString(1, newTransaction.getDescription());
+                stmt.setBigDecimal(2, newTransaction.getAmount());
+                stmt.setDate(3, Date.valueOf(newTransaction.getDate()));
+                stmt.setString(4, newTransaction.getType());
+                stmt.setInt(5, newTransaction.getCategoryId());
+                stmt.setInt(6, newTransaction.getAccountId());
+                stmt.setInt(7, newTransaction.getId()); 
+                rows = stmt.executeUpdate();
+                if (rows == 0) {
+                     throw new SQLException("Updating transaction failed, no rows affected. ID: " + newTransaction.getId());
+                }
+            }
+            changelogDAO.append(ChangeEntry.Entity.TRANSACTION, newTransaction.getId(), ChangeEntry.Op.UPDATE,
+                    ChangelogDAO.toJson(oldTransactionData), ChangelogDAO.toJson(newTransaction), conn);
+        } finally {
+            UPDATE_AND_UPDATE_ACCOUNTS.record(start, rows);
         }
     }
     
     public int countByAccountId(int accountId) throws SQLException {
-    String sql = "SELECT COUNT(*) FROM transactions WHERE account_id = ?";
+    // archived rows have no foreign keys, so they must be counted here to keep deletes safe
+    String sql = "SELECT (SELECT COUNT(*) FROM transactions WHERE account_id = ?) + " +
+                 "(SELECT COUNT(*) FROM transactions_archive WHERE account_id = ?)";
+    long start = System.nanoTime();
     try (Connection conn = DBConnection.getConnection();
          PreparedStatement stmt = conn.prepareStatement(sql)) {
         stmt.setInt(1, accountId);
+        stmt.setInt(2, accountId);
         try (ResultSet rs = stmt.executeQuery()) {
             if (rs.next()) {
                 return rs.getInt(1);
             }
         }
+    } finally {
+        COUNT_BY_ACCOUNT.record(start, 1);
     }
     return 0;
 }
    public int countByCategoryId(int categoryId) throws SQLException {
-    String sql = "SELECT COUNT(*) FROM transactions WHERE category_id = ?";
+    // archived rows have no foreign keys, so they must be counted here to keep deletes safe
+    String sql = "SELECT (SELECT COUNT(*) FROM transactions WHERE category_id = ?) + " +
+                 "(SELECT COUNT(*) FROM transactions_archive WHERE category_id = ?)";
+    long start = System.nanoTime();
     try (Connection conn = DBConnection.getConnection();
          PreparedStatement stmt = conn.prepareStatement(sql)) {
         stmt.setInt(1, categoryId);
+        stmt.setInt(2, categoryId);
         try (ResultSet rs = stmt.executeQuery()) {
             if (rs.next()) {
                 return rs.getInt(1);
             }
         }
+    } finally {
+        COUNT_BY_CATEGORY.record(start, 1);
     }
     return 0;
 }
+
+    /**
+     * Like {@link #countByAccountId(int)}, but with locking reads on the caller's transaction, so
+     * the count holds until it ends: a transaction added to the account meanwhile has to wait.
+     */
+    public int countByAccountId(int accountId, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return countLocked("account_id", accountId, conn);
+        } finally {
+            COUNT_BY_ACCOUNT.record(start, 1);
+        }
+    }
+
+    /** Like {@link #countByAccountId(int, Connection)}, for a category. */
+    public int countByCategoryId(int categoryId, Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return countLocked("category_id", categoryId, conn);
+        } finally {
+            COUNT_BY_CATEGORY.record(start, 1);
+        }
+    }
+
+    private static int countLocked(String column, int id, Connection conn) throws SQLException {
+        int count = 0;
+        for (String table : new String[] { "transactions", "transactions_archive" }) {
+            String sql = "SELECT COUNT(*) FROM " + table + " WHERE " + column + " = ? LOCK IN SHARE MODE";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setInt(1, id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    count += rs.getInt(1);
+                }
+            }
+        }
+        return count;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package src.dedupe;
+
+import java.sql.SQLException;
+
+import src.model.Transaction;
+
+/**
+ * Decides, row by row, which rows of an import are already in the ledger.
+ *
+ * Bank statements legitimately repeat rows (two identical coffees on the same day), so a row is
+ * only a duplicate while the import has not yet seen more copies of it than the ledger holds:
+ * re-importing a statement that overlaps one already loaded skips exactly the overlap and keeps
+ * anything new. Not thread-safe; use one filter per import.
+ */
+public final class DuplicateFilter {
+    private final DuplicateIndex ledger;
+    private final FingerprintCounts seen = new FingerprintCounts(1024);
+
+    public DuplicateFilter(DuplicateIndex ledger) {
+        this.ledger = ledger;
+    }
+
+    /** @return true if {@code t} matches a ledger transaction not already claimed by an earlier row */
+    public boolean isDuplicate(Transaction t) throws SQLException {
+        return seen.increment(Fingerprints.of(t)) <= ledger.ledgerCount(t);
+    }
+}
@@ -0,0 +1,78 @@
+package src.dedupe;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import src.model.Transaction;
+
+/**
+ * How many ledger transactions share each fingerprint, loaded one calendar month at a time
+ * the first time a date in that month is asked about. Each month costs one streaming query,
+ * and every later lookup in it is an in-memory probe, so checking a batch of imported rows
+ * needs a query per month touched, not per row.
+ *
+ * An index can be limited to a window of recent months; {@link #covers} tells callers whether
+ * a date falls inside it.
+ */
+public final class DuplicateIndex {
+    /** Streams the fingerprint of every ledger transaction dated in {@code month} to {@code sink}. */
+    @FunctionalInterface
+    public interface MonthLoader {
+        void load(YearMonth month, LongConsumer sink) throws SQLException;
+    }
+
+    private final MonthLoader loader;
+    private final YearMonth oldestMonth;
+    private final FingerprintCounts ledger = new FingerprintCounts(1024);
+    private final Set<YearMonth> loadedMonths = new HashSet<>();
+
+    /** @param oldestMonth first month the index answers for, or null for no limit */
+    public DuplicateIndex(MonthLoader loader, YearMonth oldestMonth) {
+        this.loader = loader;
+        this.oldestMonth = oldestMonth;
+    }
+
+    public boolean covers(LocalDate date) {
+        return oldestMonth == null || !YearMonth.from(date).isBefore(oldestMonth);
+    }
+
+    /** @return number of ledger transactions with the same fingerprint as {@code t} */
+    public synchronized int ledgerCount(Transaction t) throws SQLException {
+        if (!covers(t.getDate())) {
+            throw new IllegalArgumentException(t.getDate() + " is outside this index's window");
+        }
+        ensureLoaded(YearMonth.from(t.getDate()));
+        return ledger.get(Fingerprints.of(t));
+    }
+
+    /** Records a transaction that was just saved; a no-op for months not loaded yet. */
+    public synchronized void added(Transaction t) {
+        if (t.getDate() != null && loadedMonths.contains(YearMonth.from(t.getDate()))) {
+            ledger.increment(Fingerprints.of(t));
+        }
+    }
+
+    private void ensureLoaded(YearMonth month) throws SQLException {
+        if (loadedMonths.contains(month)) {
+            return;
+        }
+        // buffered and applied only after the load succeeds, so a failed load leaves nothing half-counted
+        long[][] buffer = { new long[256] };
+        int[] count = { 0 };
+        loader.load(month, fingerprint -> {
+            if (count[0] == buffer[0].length) {
+                buffer[0] = Arrays.copyOf(buffer[0], count[0] * 2);
+            }
+            buffer[0][count[0]++] = fingerprint;
+        });
+        for (int i = 0; i < count[0]; i++) {
+            ledger.increment(buffer[0][i]);
+        }
+        loadedMonths.add(month);
+    }
+}
@@ -0,0 +1,82 @@
+package src.dedupe;
+
+/**
+ * Open-addressing multiset of fingerprints: two parallel primitive arrays and no per-entry
+ * objects, so a few hundred thousand transactions fit in a few megabytes. Not thread-safe.
+ */
+public final class FingerprintCounts {
+    // 0 marks an empty slot, so a fingerprint that happens to be 0 is stored under this instead
+    private static final long ZERO_KEY = 0x9e3779b97f4a7c15L;
+
+    private long[] keys;
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    public FingerprintCounts() {
+        this(64);
+    }
+
+    public FingerprintCounts(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, 16)) << 1;
+        keys = new long[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** @return the count after adding one */
+    public int increment(long fingerprint) {
+        long key = fingerprint == 0 ? ZERO_KEY : fingerprint;
+        int slot = find(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            size++;
+            if (size * 2 > keys.length) {
+                grow();
+                slot = find(key);
+            }
+        }
+        return ++counts[slot];
+    }
+
+    /** Removes one occurrence, if there is any. */
+    public void decrement(long fingerprint) {
+        int slot = find(fingerprint == 0 ? ZERO_KEY : fingerprint);
+        if (counts[slot] > 0) {
+            counts[slot]--;
+        }
+    }
+
+    public int get(long fingerprint) {
+        return counts[find(fingerprint == 0 ? ZERO_KEY : fingerprint)];
+    }
+
+    /** Number of distinct fingerprints ever added. */
+    public int size() {
+        return size;
+    }
+
+    private int find(long key) {
+        // fingerprints are already well mixed, so the low bits make a good index
+        int slot = (int) key & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package src.dedupe;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+import src.model.Transaction;
+
+/**
+ * 64-bit fingerprints of what makes two transactions "the same" for duplicate detection: the
+ * account, the date, the amount and the description, compared case-insensitively with runs of
+ * whitespace treated as one space. Type and category are deliberately left out, since they are
+ * what a user tends to fix up after an import.
+ *
+ * Distinct transactions collide with probability around 2^-64 per pair, which is far below
+ * anything that matters for flagging possible duplicates.
+ */
+public final class Fingerprints {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Fingerprints() {
+    }
+
+    public static long of(Transaction t) {
+        return of(t.getAccountId(), t.getDate(), t.getAmount(), t.getDescription());
+    }
+
+    public static long of(int accountId, LocalDate date, BigDecimal amount, String description) {
+        long h = FNV_OFFSET;
+        h = mixLong(h, accountId);
+        h = mixLong(h, date.toEpochDay());
+        // amounts are DECIMAL(15,2); compare them at that scale so 5 and 5.00 are equal
+        h = mixLong(h, amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue());
+        boolean pendingSpace = false;
+        boolean started = false;
+        for (int i = 0; i < description.length(); i++) {
+            char c = description.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = started;
+                continue;
+            }
+            if (pendingSpace) {
+                h = mixChar(h, ' ');
+                pendingSpace = false;
+            }
+            h = mixChar(h, Character.toLowerCase(c));
+            started = true;
+        }
+        return finish(h);
+    }
+
+    private static long mixLong(long h, long value) {
+        for (int i = 0; i < 8; i++) {
+            h ^= (value >>> (i * 8)) & 0xff;
+            h *= FNV_PRIME;
+        }
+        return h;
+    }
+
+    private static long mixChar(long h, char c) {
+        h ^= c & 0xff;
+        h *= FNV_PRIME;
+        h ^= c >>> 8;
+        h *= FNV_PRIME;
+        return h;
+    }
+
+    // MurmurHash3 finalizer: spreads FNV's weak low bits over the whole word for table indexing
+    private static long finish(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
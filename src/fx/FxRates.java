@@ -0,0 +1,168 @@
+package src.fx;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Exchange rates into the base currency, read from a local CSV file of
+ * {@code date,currency,rate} lines where {@code rate} is how many units of the base currency one
+ * unit of {@code currency} buys. A rate applies from its date until the next one for that
+ * currency; dates before the first rate use the first rate.
+ *
+ * Each currency's rates are held as a sorted {@code int[]} of epoch days next to a {@code long[]}
+ * of rates at a fixed scale, so a lookup is a binary search over primitives. The last index found
+ * is remembered per currency, and since ledgers are usually read in date order most lookups are
+ * answered by that one check.
+ *
+ * The file is {@code ~/.kys/fx-rates.csv} unless {@code -Dkys.fx.rates} names another; the base
+ * currency is {@code -Dkys.currency}, IDR by default. Lines starting with # are comments.
+ */
+public final class FxRates {
+    public static final String DEFAULT_BASE_CURRENCY = "IDR";
+    private static final int RATE_SCALE = 8;
+
+    private static FxRates defaultRates;
+
+    private final String baseCurrency;
+    private final Map<String, Series> series;
+
+    private static final class Series {
+        final int[] days;
+        final long[] rates;
+        // a stale value read by another thread only costs a binary search
+        int lastIndex;
+
+        Series(int[] days, long[] rates) {
+            this.days = days;
+            this.rates = rates;
+        }
+
+        long rateOn(int day) {
+            int i = lastIndex;
+            if (days[i] <= day && (i + 1 == days.length || days[i + 1] > day)) {
+                return rates[i];
+            }
+            i = Arrays.binarySearch(days, day);
+            if (i < 0) {
+                i = Math.max(0, -i - 2);
+            }
+            lastIndex = i;
+            return rates[i];
+        }
+    }
+
+    private FxRates(String baseCurrency, Map<String, Series> series) {
+        this.baseCurrency = baseCurrency;
+        this.series = series;
+    }
+
+    /** The rates from the configured file, loaded on first use; no rates at all if there is no file. */
+    public static synchronized FxRates getDefault() {
+        if (defaultRates == null) {
+            Path file = defaultFile();
+            String base = System.getProperty("kys.currency", DEFAULT_BASE_CURRENCY).toUpperCase(Locale.ROOT);
+            try {
+                defaultRates = Files.exists(file) ? load(file, base) : new FxRates(base, new HashMap<>());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read exchange rates from " + file, e);
+            }
+        }
+        return defaultRates;
+    }
+
+    public static Path defaultFile() {
+        String configured = System.getProperty("kys.fx.rates");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".kys", "fx-rates.csv");
+    }
+
+    /** @throws IllegalArgumentException naming the line, if a line cannot be parsed */
+    public static FxRates load(Path file, String baseCurrency) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader, baseCurrency);
+        }
+    }
+
+    public static FxRates parse(BufferedReader reader, String baseCurrency) throws IOException {
+        Map<String, List<long[]>> entries = new HashMap<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("date,")) {
+                continue;
+            }
+            String[] fields = line.split(",");
+            try {
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("expected date,currency,rate");
+                }
+                long day = LocalDate.parse(fields[0].trim()).toEpochDay();
+                String currency = fields[1].trim().toUpperCase(Locale.ROOT);
+                BigDecimal rate = new BigDecimal(fields[2].trim());
+                if (rate.signum() <= 0) {
+                    throw new IllegalArgumentException("rate must be positive");
+                }
+                long unscaled = rate.setScale(RATE_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+                entries.computeIfAbsent(currency, c -> new ArrayList<>()).add(new long[]{day, unscaled});
+            } catch (DateTimeParseException | ArithmeticException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Exchange rates line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        Map<String, Series> series = new HashMap<>();
+        for (Map.Entry<String, List<long[]>> e : entries.entrySet()) {
+            List<long[]> list = e.getValue();
+            list.sort((a, b) -> Long.compare(a[0], b[0]));
+            int[] days = new int[list.size()];
+            long[] rates = new long[list.size()];
+            for (int i = 0; i < list.size(); i++) {
+                days[i] = (int) list.get(i)[0];
+                rates[i] = list.get(i)[1];
+            }
+            series.put(e.getKey(), new Series(days, rates));
+        }
+        return new FxRates(baseCurrency, series);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    /** Whether amounts in {@code currency} can be converted: it is the base currency or has rates. */
+    public boolean supports(String currency) {
+        return baseCurrency.equals(currency) || series.containsKey(currency);
+    }
+
+    /**
+     * @return {@code amount} in the base currency at the rate in effect on {@code date}, to 2 decimals
+     * @throws IllegalArgumentException if there are no rates for {@code currency}
+     */
+    public BigDecimal toBase(BigDecimal amount, String currency, LocalDate date) {
+        if (currency == null || baseCurrency.equals(currency)) {
+            return amount;
+        }
+        Series s = series.get(currency);
+        if (s == null) {
+            throw new IllegalArgumentException("No exchange rate for " + currency);
+        }
+        long rate = s.rateOn((int) date.toEpochDay());
+        return amount.multiply(BigDecimal.valueOf(rate, RATE_SCALE)).setScale(2, RoundingMode.HALF_UP);
+    }
+}
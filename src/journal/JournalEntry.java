@@ -0,0 +1,88 @@
+package src.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import src.model.Transaction;
+
+/**
+ * One mutation recorded while the database was unreachable. The idempotency key is stored
+ * in {@code applied_writes} when the entry is replayed, so an entry is never applied twice.
+ */
+public class JournalEntry {
+    public enum Op { ADD, UPDATE, DELETE }
+
+    private final long sequence;
+    private final String idempotencyKey;
+    private final Op op;
+    private final Transaction transaction;
+
+    public JournalEntry(long sequence, String idempotencyKey, Op op, Transaction transaction) {
+        this.sequence = sequence;
+        this.idempotencyKey = idempotencyKey;
+        this.op = op;
+        this.transaction = transaction;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(sequence);
+            out.writeUTF(idempotencyKey);
+            out.writeByte(op.ordinal());
+            out.writeInt(transaction.getId());
+            out.writeUTF(nullToEmpty(transaction.getDescription()));
+            out.writeUTF(transaction.getAmount() != null ? transaction.getAmount().toPlainString() : "0");
+            out.writeLong(transaction.getDate() != null ? transaction.getDate().toEpochDay() : Long.MIN_VALUE);
+            out.writeUTF(nullToEmpty(transaction.getType()));
+            out.writeInt(transaction.getCategoryId());
+            out.writeInt(transaction.getAccountId());
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(ByteBuffer payload) throws IOException {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            long sequence = in.readLong();
+            String key = in.readUTF();
+            Op op = Op.values()[in.readByte()];
+            int id = in.readInt();
+            String description = in.readUTF();
+            BigDecimal amount = new BigDecimal(in.readUTF());
+            long epochDay = in.readLong();
+            LocalDate date = epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+            String type = in.readUTF();
+            int categoryId = in.readInt();
+            int accountId = in.readInt();
+            return new JournalEntry(sequence, key, op, new Transaction(id, description, amount, date, type, categoryId, accountId));
+        }
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,327 @@
+package src.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import src.model.Transaction;
+
+/**
+ * Durable append-only journal of mutations made while the database is unreachable.
+ *
+ * The journal is a directory of fixed-size, memory-mapped segment files named after the
+ * sequence of their first entry. Each record is [int length][int crc32][payload]; a zero
+ * length marks the end of the written part of a segment, and a CRC mismatch (torn write)
+ * is treated the same way. Appends only copy into the mapped buffer; {@link #append}
+ * then forces the segment to disk, and concurrent appenders share a single force
+ * (group commit). The sequence of the last replayed entry is kept in a checkpoint file;
+ * fully replayed segments are deleted.
+ *
+ * Only one process can own a journal directory at a time; {@link #open} returns null when
+ * another KYS instance already holds it.
+ */
+public class WriteJournal {
+    private static final int SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int RECORD_HEADER = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Object syncLock = new Object();
+
+    private Path activePath;
+    private FileChannel activeChannel;
+    private MappedByteBuffer activeBuffer;
+    private long nextSequence;
+    private long lastApplied;
+    private long appendedEnd;
+    private long syncedEnd;
+    private long segmentBase;
+
+    private WriteJournal(Path directory, FileChannel lockChannel, FileLock lock) {
+        this.directory = directory;
+        this.lockChannel = lockChannel;
+        this.lock = lock;
+    }
+
+    private static WriteJournal defaultJournal;
+    private static boolean defaultJournalOpened;
+
+    /**
+     * The journal in {@link #defaultDirectory()}, shared by every controller in this process.
+     * Returns null if it cannot be opened or another process owns it.
+     */
+    public static synchronized WriteJournal getDefault() {
+        if (!defaultJournalOpened) {
+            defaultJournalOpened = true;
+            try {
+                defaultJournal = open(defaultDirectory());
+                if (defaultJournal == null) {
+                    System.err.println("Offline journal is in use by another KYS instance; offline saving is disabled.");
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to open offline journal: " + e.getMessage());
+            }
+        }
+        return defaultJournal;
+    }
+
+    public static Path defaultDirectory() {
+        String configured = System.getProperty("kys.journal.dir");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".kys", "journal");
+    }
+
+    public static WriteJournal open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            return null;
+        }
+        WriteJournal journal = new WriteJournal(directory, lockChannel, lock);
+        journal.recover();
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        lastApplied = readCheckpoint();
+        nextSequence = lastApplied + 1;
+        List<Path> segments = segments();
+        for (Path segment : segments) {
+            for (JournalEntry entry : readSegment(segment)) {
+                nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+            }
+        }
+        deleteAppliedSegments(segments);
+        segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(nextSequence);
+        } else {
+            openExistingSegment(segments.get(segments.size() - 1));
+        }
+    }
+
+    /** Appends and durably stores one mutation. Returns once the entry has been forced to disk. */
+    public JournalEntry append(JournalEntry.Op op, Transaction t) throws IOException {
+        JournalEntry entry;
+        MappedByteBuffer buffer;
+        long end;
+        synchronized (this) {
+            entry = new JournalEntry(nextSequence, UUID.randomUUID().toString(), op, t);
+            byte[] payload = entry.encode();
+            if (activeBuffer.remaining() < RECORD_HEADER + payload.length + 4) {
+                if (RECORD_HEADER + payload.length + 4 > SEGMENT_SIZE) {
+                    throw new IOException("Journal entry too large: " + payload.length + " bytes");
+                }
+                forceActive();
+                openSegment(entry.getSequence());
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            int position = activeBuffer.position();
+            activeBuffer.putInt(position + 4, (int) crc.getValue());
+            activeBuffer.put(position + RECORD_HEADER, payload);
+            // length goes last so a reader never sees a complete header for a partially copied record
+            activeBuffer.putInt(position, payload.length);
+            activeBuffer.position(position + RECORD_HEADER + payload.length);
+            nextSequence++;
+            appendedEnd = segmentBase + activeBuffer.position();
+            buffer = activeBuffer;
+            end = appendedEnd;
+        }
+        syncTo(buffer, end);
+        return entry;
+    }
+
+    // Outside the append lock, so appenders that arrive while a force is running are covered by the next one.
+    private void syncTo(MappedByteBuffer buffer, long end) {
+        synchronized (syncLock) {
+            if (syncedEnd >= end) {
+                return;
+            }
+            buffer.force();
+            syncedEnd = end;
+        }
+    }
+
+    public synchronized boolean hasPending() {
+        return nextSequence - 1 > lastApplied;
+    }
+
+    /** All entries not yet marked applied, in append order. */
+    public synchronized List<JournalEntry> readPending() throws IOException {
+        List<JournalEntry> pending = new ArrayList<>();
+        for (Path segment : segments()) {
+            for (JournalEntry entry : readSegment(segment)) {
+                if (entry.getSequence() > lastApplied) {
+                    pending.add(entry);
+                }
+            }
+        }
+        return pending;
+    }
+
+    /** Records that every entry up to and including {@code sequence} has been committed to the database. */
+    public synchronized void markApplied(long sequence) throws IOException {
+        if (sequence <= lastApplied) {
+            return;
+        }
+        Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(sequence).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        }
+        Files.move(tmp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lastApplied = sequence;
+
+        if (lastApplied == nextSequence - 1 && activeBuffer.position() > 0) {
+            // everything is replayed: start a fresh segment so the old ones can be dropped
+            forceActive();
+            openSegment(nextSequence);
+        }
+        deleteAppliedSegments(segments());
+    }
+
+    public synchronized void close() throws IOException {
+        forceActive();
+        activeChannel.close();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void forceActive() {
+        if (activeBuffer != null) {
+            synchronized (syncLock) {
+                activeBuffer.force();
+                syncedEnd = Math.max(syncedEnd, appendedEnd);
+            }
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        if (activeChannel != null) {
+            activeChannel.close();
+        }
+        activePath = directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+        activeChannel = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        segmentBase = firstSequence * (long) SEGMENT_SIZE;
+        appendedEnd = segmentBase;
+        synchronized (syncLock) {
+            syncedEnd = Math.max(syncedEnd, segmentBase);
+        }
+    }
+
+    private void openExistingSegment(Path segment) throws IOException {
+        activePath = segment;
+        activeChannel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeBuffer = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+        activeBuffer.position(endOfRecords(activeBuffer));
+        segmentBase = firstSequenceOf(segment) * (long) SEGMENT_SIZE;
+        appendedEnd = segmentBase + activeBuffer.position();
+        synchronized (syncLock) {
+            syncedEnd = appendedEnd;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private void deleteAppliedSegments(List<Path> segments) {
+        // a segment is fully applied when the next segment starts at or below lastApplied + 1
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            Path segment = segments.get(i);
+            if (segment.equals(activePath) || firstSequenceOf(segments.get(i + 1)) > lastApplied + 1) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(segment);
+            } catch (IOException e) {
+                // still mapped on some platforms; it is retried on the next checkpoint or restart
+            }
+        }
+    }
+
+    private List<JournalEntry> readSegment(Path segment) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        ByteBuffer buffer;
+        if (segment.equals(activePath)) {
+            buffer = activeBuffer.duplicate();
+            buffer.position(0);
+        } else {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        }
+        int end = endOfRecords(buffer);
+        int position = 0;
+        while (position < end) {
+            int length = buffer.getInt(position);
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(position + RECORD_HEADER).limit(position + RECORD_HEADER + length);
+            entries.add(JournalEntry.decode(payload));
+            position += RECORD_HEADER + length;
+        }
+        return entries;
+    }
+
+    private static int endOfRecords(ByteBuffer buffer) {
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.duplicate();
+            payload.position(position + RECORD_HEADER).limit(position + RECORD_HEADER + length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    private static long firstSequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path checkpoint = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        String text = Files.readString(checkpoint, StandardCharsets.US_ASCII).trim();
+        return text.isEmpty() ? 0 : Long.parseLong(text);
+    }
+}
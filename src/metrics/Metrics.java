@@ -0,0 +1,128 @@
+package src.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide registry of operation timings for the DAOs and controllers.
+ * Callers keep the {@link OperationStats} from {@link #operation(String)} in a static field,
+ * so recording a call is just a few LongAdder/atomic updates with no lookups or locks.
+ */
+public final class Metrics implements MetricsMXBean {
+    public static final String OBJECT_NAME = "src.metrics:type=Metrics";
+
+    private static final Metrics INSTANCE = new Metrics();
+    private static final ConcurrentHashMap<String, OperationStats> OPERATIONS = new ConcurrentHashMap<>();
+
+    private volatile long resetAtNanos = System.nanoTime();
+
+    private Metrics() {
+    }
+
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    public static OperationStats operation(String name) {
+        return OPERATIONS.computeIfAbsent(name, OperationStats::new);
+    }
+
+    @Override
+    public List<OperationSnapshot> getOperations() {
+        List<OperationSnapshot> list = new ArrayList<>();
+        for (OperationStats stats : OPERATIONS.values()) {
+            list.add(stats.snapshot());
+        }
+        list.sort(Comparator.comparing(OperationSnapshot::getName));
+        return list;
+    }
+
+    @Override
+    public long getUptimeSeconds() {
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - resetAtNanos);
+    }
+
+    @Override
+    public void reset() {
+        for (OperationStats stats : OPERATIONS.values()) {
+            stats.reset();
+        }
+        resetAtNanos = System.nanoTime();
+    }
+
+    @Override
+    public String dump() {
+        double seconds = Math.max((System.nanoTime() - resetAtNanos) / 1_000_000_000.0, 0.001);
+        StringBuilder sb = new StringBuilder();
+        sb.append("# ").append(LocalDateTime.now()).append(String.format(" (%.0fs of data)%n", seconds));
+        sb.append(String.format("%-45s %10s %9s %10s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "ops/s", "rows", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (OperationSnapshot s : getOperations()) {
+            if (s.getCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-45s %10d %9.2f %10d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    s.getName(), s.getCount(), s.getCount() / seconds, s.getRows(), s.getMeanMillis(),
+                    s.getP50Millis(), s.getP95Millis(), s.getP99Millis(), s.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Failed to register metrics MBean: " + e.getMessage());
+        }
+    }
+
+    /** Appends {@link #dump()} to {@code file} every {@code intervalSeconds} on a daemon thread. */
+    public static void startPeriodicDump(Path file, long intervalSeconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                Files.writeString(file, INSTANCE.dump() + System.lineSeparator(), StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("Failed to write metrics dump: " + e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reads -Dkys.metrics.dump=&lt;file&gt; and -Dkys.metrics.dumpInterval=&lt;seconds&gt; (default 60)
+     * and starts the periodic dump when a file is given.
+     */
+    public static void startPeriodicDumpFromSystemProperties() {
+        String file = System.getProperty("kys.metrics.dump");
+        if (file == null || file.isBlank()) {
+            return;
+        }
+        long interval = Long.getLong("kys.metrics.dumpInterval", 60L);
+        startPeriodicDump(Path.of(file), Math.max(interval, 1));
+    }
+}
@@ -0,0 +1,13 @@
+package src.metrics;
+
+import java.util.List;
+
+public interface MetricsMXBean {
+    List<OperationSnapshot> getOperations();
+
+    long getUptimeSeconds();
+
+    void reset();
+
+    String dump();
+}
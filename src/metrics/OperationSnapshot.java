@@ -0,0 +1,62 @@
+package src.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time view of an {@link OperationStats}. Plain getters so JMX can expose it as CompositeData.
+ */
+public class OperationSnapshot {
+    private final String name;
+    private final long count;
+    private final long rows;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    @ConstructorProperties({"name", "count", "rows", "meanMillis", "p50Millis", "p95Millis", "p99Millis", "maxMillis"})
+    public OperationSnapshot(String name, long count, long rows, double meanMillis,
+                             double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+        this.name = name;
+        this.count = count;
+        this.rows = rows;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP95Millis() {
+        return p95Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,103 @@
+package src.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free timing for one named operation. Latencies go into a log-linear histogram
+ * (8 sub-buckets per power of two of microseconds, so percentiles are within ~12%).
+ */
+public class OperationStats {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Records one call that started at {@code startNanos} (from System.nanoTime()) and touched {@code rowCount} rows. */
+    public void record(long startNanos, long rowCount) {
+        long nanos = System.nanoTime() - startNanos;
+        count.increment();
+        totalNanos.add(nanos);
+        rows.add(rowCount);
+        histogram.incrementAndGet(bucketOf(nanos / 1000));
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+
+    public OperationSnapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = histogram.get(i);
+            total += buckets[i];
+        }
+        long calls = count.sum();
+        double meanMillis = calls == 0 ? 0 : totalNanos.sum() / (double) calls / 1_000_000.0;
+        return new OperationSnapshot(name, calls, rows.sum(), meanMillis,
+                percentileMillis(buckets, total, 0.50),
+                percentileMillis(buckets, total, 0.95),
+                percentileMillis(buckets, total, 0.99),
+                maxNanos.get() / 1_000_000.0);
+    }
+
+    void reset() {
+        count.reset();
+        totalNanos.reset();
+        rows.reset();
+        maxNanos.set(0);
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram.set(i, 0);
+        }
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(micros, 0);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (micros >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long bucketUpperMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    private static double percentileMillis(long[] buckets, long total, double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return bucketUpperMicros(i) / 1000.0;
+            }
+        }
+        return bucketUpperMicros(buckets.length - 1) / 1000.0;
+    }
+}
@@ -6,16 +6,28 @@ public class Account {
     private int id;
     private String name;
     private BigDecimal balance;
+    private String currency;
 
     public Account(int id, String name, BigDecimal balance) {
+        this(id, name, balance, null);
+    }
+
+    public Account(int id, String name, BigDecimal balance, String currency) {
         this.id = id;
         this.name = name;
         this.balance = balance;
+        this.currency = currency;
     }
 
     public Account(String name, BigDecimal balance) {
+        this(name, balance, null);
+    }
+
+    /** @param currency ISO 4217 code, or null for the base currency */
+    public Account(String name, BigDecimal balance, String currency) {
         this.name = name;
         this.balance = balance;
+        this.currency = currency;
     }
 
     public int getId() {
@@ -41,4 +53,9 @@ public class Account {
     public void setBalance(BigDecimal balance) {
         this.balance = balance;
     }
+
+    /** ISO 4217 code of the balance and of every transaction on this account; fixed once created. */
+    public String getCurrency() {
+        return currency;
+    }
 }
@@ -0,0 +1,37 @@
+package src.model;
+
+import java.time.Instant;
+
+/** What a backup contains, or what a restore did. */
+public class BackupInfo {
+    private final long changelogSeq;
+    private final Instant createdAt;
+    private final long rows;
+    private final long changesReplayed;
+
+    public BackupInfo(long changelogSeq, Instant createdAt, long rows, long changesReplayed) {
+        this.changelogSeq = changelogSeq;
+        this.createdAt = createdAt;
+        this.rows = rows;
+        this.changesReplayed = changesReplayed;
+    }
+
+    /** @return the last changelog seq included in the snapshot; later changes can be replayed on top */
+    public long getChangelogSeq() {
+        return changelogSeq;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /** @return rows written to or read from the backup file */
+    public long getRows() {
+        return rows;
+    }
+
+    /** @return changelog entries applied on top of the backup by a point-in-time restore */
+    public long getChangesReplayed() {
+        return changesReplayed;
+    }
+}
@@ -0,0 +1,66 @@
+package src.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** "Spend at most {@code amount} in category {@code categoryId} per calendar month (or year)." */
+public class Budget {
+    public static final String MONTHLY = "MONTHLY";
+    public static final String YEARLY = "YEARLY";
+
+    private int id;
+    private int categoryId;
+    private String period;
+    private BigDecimal amount;
+    private String categoryName;
+
+    public Budget(int categoryId, String period, BigDecimal amount) {
+        this.categoryId = categoryId;
+        this.period = period;
+        this.amount = amount;
+    }
+
+    public Budget(int id, int categoryId, String period, BigDecimal amount, String categoryName) {
+        this(categoryId, period, amount);
+        this.id = id;
+        this.categoryName = categoryName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    /** First day of the budget period that contains {@code date}. */
+    public LocalDate periodStart(LocalDate date) {
+        return YEARLY.equals(period) ? date.withDayOfYear(1) : date.withDayOfMonth(1);
+    }
+
+    /** Last day of the budget period that contains {@code date}. */
+    public LocalDate periodEnd(LocalDate date) {
+        return YEARLY.equals(period) ? date.withDayOfYear(date.lengthOfYear()) : date.withDayOfMonth(date.lengthOfMonth());
+    }
+}
@@ -0,0 +1,52 @@
+package src.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/** How much of a budget has been used in one period. */
+public class BudgetStatus {
+    private final Budget budget;
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+    private final BigDecimal spent;
+
+    public BudgetStatus(Budget budget, LocalDate periodStart, LocalDate periodEnd, BigDecimal spent) {
+        this.budget = budget;
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+        this.spent = spent;
+    }
+
+    public Budget getBudget() {
+        return budget;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public BigDecimal getRemaining() {
+        return budget.getAmount().subtract(spent);
+    }
+
+    /** @return spent as a fraction of the budget; above 1 when over budget */
+    public double getFractionUsed() {
+        if (budget.getAmount().signum() == 0) {
+            return spent.signum() > 0 ? Double.POSITIVE_INFINITY : 0;
+        }
+        return spent.divide(budget.getAmount(), 4, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    public boolean isOverBudget() {
+        return spent.compareTo(budget.getAmount()) > 0;
+    }
+}
@@ -0,0 +1,84 @@
+package src.model;
+
+import java.math.BigDecimal;
+
+/**
+ * "Transactions whose description contains {@code pattern} (and whose amount is within
+ * [minAmount, maxAmount], when set) belong to category {@code categoryId}." Among matching rules
+ * the highest priority wins, then the lowest id.
+ */
+public class CategoryRule {
+    public static final String KEYWORD = "KEYWORD";
+    public static final String REGEX = "REGEX";
+
+    private int id;
+    private String pattern;
+    private String matchType;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private int categoryId;
+    private int priority;
+    private String categoryName;
+    private String categoryType;
+
+    public CategoryRule(String pattern, String matchType, BigDecimal minAmount, BigDecimal maxAmount,
+                        int categoryId, int priority) {
+        this.pattern = pattern;
+        this.matchType = matchType;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.categoryId = categoryId;
+        this.priority = priority;
+    }
+
+    public CategoryRule(int id, String pattern, String matchType, BigDecimal minAmount, BigDecimal maxAmount,
+                        int categoryId, int priority, String categoryName, String categoryType) {
+        this(pattern, matchType, minAmount, maxAmount, categoryId, priority);
+        this.id = id;
+        this.categoryName = categoryName;
+        this.categoryType = categoryType;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String getMatchType() {
+        return matchType;
+    }
+
+    /** @return the smallest matching amount, or null for no lower bound */
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+
+    /** @return the largest matching amount, or null for no upper bound */
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    /** INCOME_CATEGORY or EXPENSE_CATEGORY, from the rule's category */
+    public String getCategoryType() {
+        return categoryType;
+    }
+}
@@ -0,0 +1,39 @@
+package src.model;
+
+import java.math.BigDecimal;
+
+public class CategorySummary {
+    private final int categoryId;
+    private final String categoryName;
+    private final String type;
+    private final BigDecimal total;
+    private final long count;
+
+    public CategorySummary(int categoryId, String categoryName, String type, BigDecimal total, long count) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.total = total;
+        this.count = count;
+    }
+
+    public int getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
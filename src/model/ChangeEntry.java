@@ -0,0 +1,69 @@
+package src.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the changelog: a single insert, update or delete of an account, category or
+ * transaction, or a transaction moved into the archive. {@code before} and {@code after} are the
+ * row as JSON; before is null for an insert and after is null for a delete or an archive move.
+ */
+public class ChangeEntry {
+    public enum Entity { TRANSACTION, ACCOUNT, CATEGORY }
+
+    /** ARCHIVE: the transaction left the transactions table for transactions_archive, where it stays read-only */
+    public enum Op { INSERT, UPDATE, DELETE, ARCHIVE }
+
+    private final long seq;
+    private final Entity entity;
+    private final int entityId;
+    private final Op op;
+    private final String before;
+    private final String after;
+    private final Long revertsSeq;
+    private final LocalDateTime changedAt;
+
+    public ChangeEntry(long seq, Entity entity, int entityId, Op op, String before, String after,
+                       Long revertsSeq, LocalDateTime changedAt) {
+        this.seq = seq;
+        this.entity = entity;
+        this.entityId = entityId;
+        this.op = op;
+        this.before = before;
+        this.after = after;
+        this.revertsSeq = revertsSeq;
+        this.changedAt = changedAt;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public Op getOp() {
+        return op;
+    }
+
+    public String getBefore() {
+        return before;
+    }
+
+    public String getAfter() {
+        return after;
+    }
+
+    /** @return the seq of the change this one undid, or null if it was not written by an undo or redo */
+    public Long getRevertsSeq() {
+        return revertsSeq;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+}
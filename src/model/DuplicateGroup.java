@@ -0,0 +1,42 @@
+package src.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/** Transactions that share account, date, amount and description, lowest id first. */
+public class DuplicateGroup {
+    private final int accountId;
+    private final LocalDate date;
+    private final BigDecimal amount;
+    private final String description;
+    private final List<Integer> transactionIds;
+
+    public DuplicateGroup(int accountId, LocalDate date, BigDecimal amount, String description, List<Integer> transactionIds) {
+        this.accountId = accountId;
+        this.date = date;
+        this.amount = amount;
+        this.description = description;
+        this.transactionIds = transactionIds;
+    }
+
+    public int getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public List<Integer> getTransactionIds() {
+        return transactionIds;
+    }
+}
@@ -0,0 +1,265 @@
+package src.rules;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import src.model.CategoryRule;
+
+/**
+ * An immutable, thread-safe compilation of a rule set.
+ *
+ * All keyword rules are compiled into one Aho-Corasick automaton, stored as a dense DFA
+ * transition table over the characters that occur in any keyword. Classifying a description is
+ * one pass over its characters with a single array lookup per character, however many keyword
+ * rules exist. Keywords match case-insensitively, with runs of whitespace treated as one space,
+ * and only as whole words: "gas" matches "Shell Gas #12" but not "Las Vegas".
+ *
+ * Regex rules cannot be merged into the automaton. They are checked one by one in priority
+ * order, and only those that would outrank the best keyword match, so they only cost time when
+ * there are few of them or they outrank the keywords.
+ */
+public final class RuleMatcher {
+    private static final RuleMatcher EMPTY = compile(List.of());
+
+    // rules in rank order: highest priority first, then lowest id; a lower rank wins
+    private final CategoryRule[] rules;
+    private final Pattern[] regexByRank;
+    private final int[] regexRanks;
+    private final int[] keywordLength;
+
+    private final char[] charClass;
+    private final int alphabetSize;
+    private final int[] delta;
+    // first rule (by rank) whose keyword ends in this state, -1 if none; more via nextRuleAtState
+    private final int[] stateFirstRule;
+    private final int[] nextRuleAtState;
+    // nearest proper suffix state that ends a keyword, -1 if none
+    private final int[] dictLink;
+
+    private RuleMatcher(CategoryRule[] rules, Pattern[] regexByRank, int[] regexRanks, int[] keywordLength,
+                        char[] charClass, int alphabetSize, int[] delta, int[] stateFirstRule,
+                        int[] nextRuleAtState, int[] dictLink) {
+        this.rules = rules;
+        this.regexByRank = regexByRank;
+        this.regexRanks = regexRanks;
+        this.keywordLength = keywordLength;
+        this.charClass = charClass;
+        this.alphabetSize = alphabetSize;
+        this.delta = delta;
+        this.stateFirstRule = stateFirstRule;
+        this.nextRuleAtState = nextRuleAtState;
+        this.dictLink = dictLink;
+    }
+
+    public static RuleMatcher empty() {
+        return EMPTY;
+    }
+
+    /** Rules with an invalid regex or an empty keyword are skipped. */
+    public static RuleMatcher compile(List<CategoryRule> ruleList) {
+        List<CategoryRule> sorted = new ArrayList<>(ruleList);
+        sorted.sort(Comparator.comparingInt(CategoryRule::getPriority).reversed().thenComparingInt(CategoryRule::getId));
+
+        List<CategoryRule> kept = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        List<char[]> keywords = new ArrayList<>();
+        for (CategoryRule rule : sorted) {
+            if (CategoryRule.REGEX.equals(rule.getMatchType())) {
+                try {
+                    patterns.add(Pattern.compile(rule.getPattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+                } catch (PatternSyntaxException e) {
+                    System.err.println("Skipping categorization rule " + rule.getId() + ": " + e.getDescription());
+                    continue;
+                }
+                keywords.add(null);
+            } else {
+                char[] keyword = normalize(rule.getPattern());
+                if (keyword.length == 0) {
+                    continue;
+                }
+                patterns.add(null);
+                keywords.add(keyword);
+            }
+            kept.add(rule);
+        }
+
+        int ruleCount = kept.size();
+        CategoryRule[] rules = kept.toArray(new CategoryRule[0]);
+        Pattern[] regexByRank = patterns.toArray(new Pattern[0]);
+        int[] keywordLength = new int[ruleCount];
+        int regexCount = 0;
+        int totalKeywordChars = 0;
+        char[] charClass = new char[Character.MAX_VALUE + 1];
+        int alphabetSize = 1; // class 0: any character that appears in no keyword
+        for (int r = 0; r < ruleCount; r++) {
+            char[] keyword = keywords.get(r);
+            if (keyword == null) {
+                regexCount++;
+                continue;
+            }
+            keywordLength[r] = keyword.length;
+            totalKeywordChars += keyword.length;
+            for (char c : keyword) {
+                if (charClass[c] == 0) {
+                    charClass[c] = (char) alphabetSize++;
+                }
+            }
+        }
+        int[] regexRanks = new int[regexCount];
+        for (int r = 0, i = 0; r < ruleCount; r++) {
+            if (keywords.get(r) == null) {
+                regexRanks[i++] = r;
+            }
+        }
+
+        // trie: delta doubles as the goto function while building, -1 meaning "no edge"
+        int maxStates = totalKeywordChars + 1;
+        int[] delta = new int[maxStates * alphabetSize];
+        Arrays.fill(delta, -1);
+        int[] stateFirstRule = new int[maxStates];
+        Arrays.fill(stateFirstRule, -1);
+        int[] nextRuleAtState = new int[ruleCount];
+        int states = 1;
+        for (int r = ruleCount - 1; r >= 0; r--) {
+            // inserted lowest rank last so each state's rule list comes out in rank order
+            char[] keyword = keywords.get(r);
+            if (keyword == null) {
+                continue;
+            }
+            int state = 0;
+            for (char c : keyword) {
+                int edge = state * alphabetSize + charClass[c];
+                if (delta[edge] < 0) {
+                    delta[edge] = states++;
+                }
+                state = delta[edge];
+            }
+            nextRuleAtState[r] = stateFirstRule[state];
+            stateFirstRule[state] = r;
+        }
+
+        // breadth-first: fill failure links and turn the trie into a complete DFA
+        int[] fail = new int[states];
+        int[] dictLink = new int[states];
+        dictLink[0] = -1;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < alphabetSize; c++) {
+            int next = delta[c];
+            if (next < 0) {
+                delta[c] = 0;
+            } else {
+                fail[next] = 0;
+                dictLink[next] = -1;
+                queue.add(next);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            int base = state * alphabetSize;
+            int failBase = fail[state] * alphabetSize;
+            for (int c = 0; c < alphabetSize; c++) {
+                int next = delta[base + c];
+                if (next < 0) {
+                    delta[base + c] = delta[failBase + c];
+                } else {
+                    int f = delta[failBase + c];
+                    fail[next] = f;
+                    dictLink[next] = stateFirstRule[f] >= 0 ? f : dictLink[f];
+                    queue.add(next);
+                }
+            }
+        }
+
+        return new RuleMatcher(rules, regexByRank, regexRanks, keywordLength, charClass, alphabetSize,
+                Arrays.copyOf(delta, states * alphabetSize), Arrays.copyOf(stateFirstRule, states),
+                nextRuleAtState, dictLink);
+    }
+
+    /**
+     * @param amount          null to ignore amount ranges
+     * @param transactionType INCOME or EXPENSE to consider only rules whose category has that
+     *                        type, or null for any
+     * @return the winning rule, or null if none matches
+     */
+    public CategoryRule classify(String description, BigDecimal amount, String transactionType) {
+        if (description == null || rules.length == 0) {
+            return null;
+        }
+        char[] text = normalize(description);
+        int n = text.length;
+        int best = Integer.MAX_VALUE;
+        int state = 0;
+        for (int i = 0; i < n; i++) {
+            state = delta[state * alphabetSize + charClass[text[i]]];
+            for (int o = stateFirstRule[state] >= 0 ? state : dictLink[state]; o >= 0; o = dictLink[o]) {
+                for (int r = stateFirstRule[o]; r >= 0 && r < best; r = nextRuleAtState[r]) {
+                    if (isWholeWord(text, i - keywordLength[r] + 1, i) && accepts(rules[r], amount, transactionType)) {
+                        best = r;
+                        break;
+                    }
+                }
+            }
+        }
+        for (int r : regexRanks) {
+            if (r >= best) {
+                break;
+            }
+            if (accepts(rules[r], amount, transactionType) && regexByRank[r].matcher(description).find()) {
+                best = r;
+                break;
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : rules[best];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    private static boolean isWholeWord(char[] text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text[start - 1]))
+                && (end == text.length - 1 || !Character.isLetterOrDigit(text[end + 1]));
+    }
+
+    private static boolean accepts(CategoryRule rule, BigDecimal amount, String transactionType) {
+        if (transactionType != null && rule.getCategoryType() != null
+                && "INCOME".equalsIgnoreCase(transactionType) != "INCOME_CATEGORY".equals(rule.getCategoryType())) {
+            return false;
+        }
+        if (amount != null) {
+            if (rule.getMinAmount() != null && amount.compareTo(rule.getMinAmount()) < 0) {
+                return false;
+            }
+            if (rule.getMaxAmount() != null && amount.compareTo(rule.getMaxAmount()) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Lower-cases, maps every whitespace run to a single space and trims. */
+    static char[] normalize(String s) {
+        char[] out = new char[s.length()];
+        int n = 0;
+        boolean pendingSpace = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = n > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out[n++] = ' ';
+                pendingSpace = false;
+            }
+            out[n++] = Character.toLowerCase(c);
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+}
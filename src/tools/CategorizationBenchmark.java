@@ -0,0 +1,164 @@
+package src.tools;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import src.model.CategoryRule;
+import src.rules.RuleMatcher;
+
+/**
+ * Measures classification throughput of {@link RuleMatcher} for growing rule counts, next to a
+ * naive loop that tests every rule's keyword with String.contains. No database is needed:
+ * rules and descriptions are synthetic.
+ *
+ * Usage: java src.tools.CategorizationBenchmark [--rules 10,100,1000,5000] [--regex 10]
+ *                                               [--descriptions 100000] [--seconds 2]
+ *
+ * Each rule is a random made-up word; about half the descriptions contain one of them. The
+ * automaton's cost per description should stay flat as the rule count grows while the naive
+ * loop grows linearly.
+ */
+public class CategorizationBenchmark {
+    private int[] ruleCounts = {10, 100, 1000, 5000};
+    private int regexRules = 10;
+    private int descriptionCount = 100_000;
+    private int seconds = 2;
+
+    // keeps the JIT from discarding the work
+    private long sink;
+
+    public static void main(String[] args) {
+        CategorizationBenchmark benchmark = new CategorizationBenchmark();
+        benchmark.parseArgs(args);
+        benchmark.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rules":
+                    String[] parts = args[++i].split(",");
+                    ruleCounts = new int[parts.length];
+                    for (int p = 0; p < parts.length; p++) {
+                        ruleCounts[p] = Integer.parseInt(parts[p].trim());
+                    }
+                    break;
+                case "--regex": regexRules = Integer.parseInt(args[++i]); break;
+                case "--descriptions": descriptionCount = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    private void run() {
+        System.out.printf("%8s %8s %12s %14s %14s %10s%n", "rules", "regex", "compile ms", "automaton/s", "naive/s", "matched");
+        for (int ruleCount : ruleCounts) {
+            Random random = new Random(42);
+            List<String> words = randomWords(random, ruleCount);
+            List<CategoryRule> rules = new ArrayList<>();
+            for (int i = 0; i < ruleCount; i++) {
+                rules.add(new CategoryRule(i + 1, words.get(i), CategoryRule.KEYWORD, null, null, 1 + i % 20, 0,
+                        "c" + (1 + i % 20), "EXPENSE_CATEGORY"));
+            }
+            for (int i = 0; i < regexRules; i++) {
+                // low priority, so they are only tried when no keyword matches
+                rules.add(new CategoryRule(ruleCount + i + 1, "^ref\\s*" + i + "\\d{4}$", CategoryRule.REGEX, null, null,
+                        99, -1, "regex", "EXPENSE_CATEGORY"));
+            }
+            String[] descriptions = descriptions(random, words, descriptionCount);
+
+            long compileStart = System.nanoTime();
+            RuleMatcher matcher = RuleMatcher.compile(rules);
+            double compileMillis = (System.nanoTime() - compileStart) / 1_000_000.0;
+
+            long matched = 0;
+            for (String d : descriptions) {
+                if (matcher.classify(d, BigDecimal.TEN, "EXPENSE") != null) {
+                    matched++;
+                }
+            }
+            double automatonRate = measure(() -> {
+                for (String d : descriptions) {
+                    CategoryRule r = matcher.classify(d, BigDecimal.TEN, "EXPENSE");
+                    sink += r != null ? r.getId() : 0;
+                }
+            }, descriptions.length);
+            double naiveRate = measure(() -> {
+                for (String d : descriptions) {
+                    sink += naiveClassify(d.toLowerCase(), words);
+                }
+            }, descriptions.length);
+
+            System.out.printf("%8d %8d %12.1f %14.0f %14.0f %9.1f%%%n", ruleCount, regexRules, compileMillis,
+                    automatonRate, naiveRate, 100.0 * matched / descriptions.length);
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /** Runs {@code work} repeatedly for the configured time after a warm-up and returns items per second. */
+    private double measure(Runnable work, int itemsPerRun) {
+        long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        while (System.nanoTime() < warmupEnd) {
+            work.run();
+        }
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long runs = 0;
+        long now;
+        do {
+            work.run();
+            runs++;
+            now = System.nanoTime();
+        } while (now < end);
+        return runs * (double) itemsPerRun / ((now - start) / 1_000_000_000.0);
+    }
+
+    private static int naiveClassify(String description, List<String> words) {
+        for (int i = 0; i < words.size(); i++) {
+            if (description.contains(words.get(i))) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static List<String> randomWords(Random random, int count) {
+        Set<String> words = new HashSet<>();
+        List<String> list = new ArrayList<>();
+        while (list.size() < count) {
+            int length = 4 + random.nextInt(8);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            if (words.add(sb.toString())) {
+                list.add(sb.toString());
+            }
+        }
+        return list;
+    }
+
+    private static String[] descriptions(Random random, List<String> words, int count) {
+        String[] fillers = {"payment", "card", "purchase", "pos", "debit", "transfer", "online", "store", "id", "ref"};
+        String[] descriptions = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(fillers[random.nextInt(fillers.length)].toUpperCase()).append(' ');
+            if (random.nextBoolean()) {
+                sb.append(words.get(random.nextInt(words.size())).toUpperCase()).append(' ');
+            }
+            sb.append(fillers[random.nextInt(fillers.length)]).append(" #").append(random.nextInt(100_000));
+            descriptions[i] = sb.toString();
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,346 @@
+package src.tools;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import src.controller.AccountController;
+import src.controller.CategoryController;
+import src.controller.TransactionController;
+import src.model.Account;
+import src.model.Category;
+import src.model.Transaction;
+
+/**
+ * Headless load generator that runs N simulated ledger users against TransactionController,
+ * each on its own virtual thread.
+ *
+ * Usage: java src.tools.LoadTest [--users 50] [--duration 30] [--write-ratio 0.3]
+ *                                [--accounts 8,9] [--category 11] [--keep]
+ *
+ * Every write moves an account balance by exactly one unit (adds are INCOME of 1.00, updates
+ * toggle the amount between 1.00 and 2.00, deletes remove the row), so at the end the gap
+ * between the expected and the actual balance change of an account is the net number of
+ * balance adjustments that were lost to concurrent read-modify-write.
+ */
+public class LoadTest {
+    private static final BigDecimal UNIT = new BigDecimal("1.00");
+    private static final BigDecimal DOUBLE_UNIT = new BigDecimal("2.00");
+    private static final String DESCRIPTION_PREFIX = "loadtest-";
+
+    private enum Op { READ_TRANSACTIONS, READ_ACCOUNTS, ADD, UPDATE, DELETE }
+
+    // no offline journal: a failed write must show up as a failure, not as a queued success
+    private final TransactionController transactionController = new TransactionController(null);
+    private final AccountController accountController = new AccountController();
+    private final CategoryController categoryController = new CategoryController();
+
+    private int users = 50;
+    private int durationSeconds = 30;
+    private double writeRatio = 0.3;
+    private int[] accountIds;
+    private int categoryId = -1;
+    private boolean keep = false;
+
+    private final Map<Op, OpStats> stats = new HashMap<>();
+    private final Map<Integer, LongAdder> expectedUnits = new HashMap<>();
+    private final LongAdder deadlocks = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+    private final LongAdder otherErrors = new LongAdder();
+
+    public static void main(String[] args) throws Exception {
+        LoadTest test = new LoadTest();
+        test.parseArgs(args);
+        test.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--users": users = Integer.parseInt(args[++i]); break;
+                case "--duration": durationSeconds = Integer.parseInt(args[++i]); break;
+                case "--write-ratio": writeRatio = Double.parseDouble(args[++i]); break;
+                case "--accounts":
+                    accountIds = Arrays.stream(args[++i].split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+                    break;
+                case "--category": categoryId = Integer.parseInt(args[++i]); break;
+                case "--keep": keep = true; break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (writeRatio < 0 || writeRatio > 1) {
+            throw new IllegalArgumentException("--write-ratio must be between 0 and 1");
+        }
+    }
+
+    private void run() throws Exception {
+        resolveTargets();
+        for (Op op : Op.values()) {
+            stats.put(op, new OpStats());
+        }
+        for (int id : accountIds) {
+            expectedUnits.put(id, new LongAdder());
+        }
+
+        Map<Integer, BigDecimal> balancesBefore = balances();
+        System.out.printf("Running %d users for %ds, write ratio %.2f, accounts %s, category %d%n",
+                users, durationSeconds, writeRatio, Arrays.toString(accountIds), categoryId);
+
+        List<SimulatedUser> simulatedUsers = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                SimulatedUser user = new SimulatedUser(i, deadline);
+                simulatedUsers.add(user);
+                executor.submit(user);
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Map<Integer, BigDecimal> balancesAfter = balances();
+        report(elapsed, balancesBefore, balancesAfter);
+
+        if (!keep) {
+            cleanup(simulatedUsers);
+        }
+    }
+
+    private void resolveTargets() throws SQLException {
+        if (accountIds == null) {
+            accountIds = accountController.getAccounts().stream().mapToInt(Account::getId).toArray();
+        }
+        if (accountIds.length == 0) {
+            throw new IllegalStateException("No accounts to run against; create one first or pass --accounts.");
+        }
+        if (categoryId < 0) {
+            for (Category c : categoryController.getCategories()) {
+                if ("INCOME_CATEGORY".equals(c.getType())) {
+                    categoryId = c.getId();
+                    break;
+                }
+            }
+        }
+        if (categoryId < 0) {
+            throw new IllegalStateException("No income category found; create one first or pass --category.");
+        }
+    }
+
+    private Map<Integer, BigDecimal> balances() throws SQLException {
+        Map<Integer, BigDecimal> result = new HashMap<>();
+        for (int id : accountIds) {
+            Account a = accountController.getAccountById(id);
+            result.put(id, a != null ? a.getBalance() : BigDecimal.ZERO);
+        }
+        return result;
+    }
+
+    private void report(long elapsedNanos, Map<Integer, BigDecimal> before, Map<Integer, BigDecimal> after) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long totalOps = 0;
+        System.out.println();
+        System.out.printf("%-18s %9s %9s %9s %9s %9s %9s%n", "operation", "count", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Op op : Op.values()) {
+            long[] samples = stats.get(op).merged();
+            totalOps += samples.length;
+            if (samples.length == 0) {
+                continue;
+            }
+            Arrays.sort(samples);
+            System.out.printf("%-18s %9d %9.1f %9.2f %9.2f %9.2f %9.2f%n", op, samples.length, samples.length / seconds,
+                    millis(percentile(samples, 0.50)), millis(percentile(samples, 0.95)),
+                    millis(percentile(samples, 0.99)), millis(samples[samples.length - 1]));
+        }
+        System.out.printf("%nTotal: %d successful ops in %.1fs (%.1f ops/s)%n", totalOps, seconds, totalOps / seconds);
+        System.out.printf("Deadlocks: %d, lock wait timeouts: %d, other errors: %d%n",
+                deadlocks.sum(), lockTimeouts.sum(), otherErrors.sum());
+
+        long lostTotal = 0;
+        System.out.println();
+        System.out.printf("%-10s %14s %14s %14s%n", "account", "expected", "actual", "lost updates");
+        for (int id : accountIds) {
+            BigDecimal expected = UNIT.multiply(BigDecimal.valueOf(expectedUnits.get(id).sum()));
+            BigDecimal actual = after.get(id).subtract(before.get(id));
+            long lost = expected.subtract(actual).divide(UNIT).abs().longValue();
+            lostTotal += lost;
+            System.out.printf("%-10d %14s %14s %14d%n", id, expected.toPlainString(), actual.toPlainString(), lost);
+        }
+        System.out.printf("Lost updates (net, all accounts): %d%n", lostTotal);
+    }
+
+    private void cleanup(List<SimulatedUser> simulatedUsers) {
+        int removed = 0;
+        for (SimulatedUser user : simulatedUsers) {
+            for (Transaction t : user.owned) {
+                try {
+                    transactionController.deleteTransaction(t.getId());
+                    removed++;
+                } catch (SQLException e) {
+                    System.err.println("Cleanup failed for transaction " + t.getId() + ": " + e.getMessage());
+                }
+            }
+        }
+        System.out.println("Removed " + removed + " load test transactions.");
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private void recordFailure(SQLException e) {
+        // 1213 = ER_LOCK_DEADLOCK, 1205 = ER_LOCK_WAIT_TIMEOUT (same codes on MariaDB and MySQL)
+        if (e.getErrorCode() == 1213 || "40001".equals(e.getSQLState())) {
+            deadlocks.increment();
+        } else if (e.getErrorCode() == 1205) {
+            lockTimeouts.increment();
+        } else {
+            otherErrors.increment();
+        }
+    }
+
+    private static BigDecimal impact(Transaction t) {
+        return "EXPENSE".equalsIgnoreCase(t.getType()) ? t.getAmount().negate() : t.getAmount();
+    }
+
+    private void expect(int accountId, BigDecimal change) {
+        expectedUnits.get(accountId).add(change.divide(UNIT).longValueExact());
+    }
+
+    private static final class OpStats {
+        private final List<long[]> chunks = new ArrayList<>();
+
+        synchronized void add(long[] samples, int count) {
+            chunks.add(Arrays.copyOf(samples, count));
+        }
+
+        synchronized long[] merged() {
+            int total = 0;
+            for (long[] c : chunks) {
+                total += c.length;
+            }
+            long[] result = new long[total];
+            int pos = 0;
+            for (long[] c : chunks) {
+                System.arraycopy(c, 0, result, pos, c.length);
+                pos += c.length;
+            }
+            return result;
+        }
+    }
+
+    private final class SimulatedUser implements Runnable {
+        private final int userId;
+        private final long deadline;
+        private final List<Transaction> owned = new ArrayList<>();
+        private final Map<Op, long[]> samples = new HashMap<>();
+        private final Map<Op, Integer> counts = new HashMap<>();
+
+        SimulatedUser(int userId, long deadline) {
+            this.userId = userId;
+            this.deadline = deadline;
+            for (Op op : Op.values()) {
+                samples.put(op, new long[1024]);
+                counts.put(op, 0);
+            }
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                Op op = nextOp(random);
+                long start = System.nanoTime();
+                try {
+                    execute(op, random);
+                    record(op, System.nanoTime() - start);
+                } catch (SQLException e) {
+                    recordFailure(e);
+                }
+            }
+            for (Op op : Op.values()) {
+                stats.get(op).add(samples.get(op), counts.get(op));
+            }
+        }
+
+        private Op nextOp(ThreadLocalRandom random) {
+            if (random.nextDouble() >= writeRatio) {
+                return random.nextInt(4) == 0 ? Op.READ_TRANSACTIONS : Op.READ_ACCOUNTS;
+            }
+            if (owned.isEmpty()) {
+                return Op.ADD;
+            }
+            int roll = random.nextInt(100);
+            if (roll < 60) {
+                return Op.ADD;
+            }
+            return roll < 85 ? Op.UPDATE : Op.DELETE;
+        }
+
+        private void execute(Op op, ThreadLocalRandom random) throws SQLException {
+            switch (op) {
+                case READ_TRANSACTIONS:
+                    transactionController.getTransactions();
+                    break;
+                case READ_ACCOUNTS:
+                    accountController.getAccounts();
+                    break;
+                case ADD: {
+                    int accountId = accountIds[random.nextInt(accountIds.length)];
+                    Transaction t = new Transaction(DESCRIPTION_PREFIX + userId, UNIT, LocalDate.now(), "INCOME", categoryId, accountId);
+                    transactionController.addTransaction(t);
+                    owned.add(t);
+                    expect(accountId, impact(t));
+                    break;
+                }
+                case UPDATE: {
+                    Transaction current = owned.get(random.nextInt(owned.size()));
+                    BigDecimal newAmount = current.getAmount().compareTo(UNIT) == 0 ? DOUBLE_UNIT : UNIT;
+                    Transaction updated = new Transaction(current.getId(), current.getDescription(), newAmount,
+                            current.getDate(), current.getType(), current.getCategoryId(), current.getAccountId());
+                    transactionController.updateTransaction(updated);
+                    expect(current.getAccountId(), impact(updated).subtract(impact(current)));
+                    current.setAmount(newAmount);
+                    break;
+                }
+                case DELETE: {
+                    Transaction current = owned.remove(random.nextInt(owned.size()));
+                    try {
+                        transactionController.deleteTransaction(current.getId());
+                    } catch (SQLException e) {
+                        owned.add(current);
+                        throw e;
+                    }
+                    expect(current.getAccountId(), impact(current).negate());
+                    break;
+                }
+            }
+        }
+
+        private void record(Op op, long nanos) {
+            long[] buffer = samples.get(op);
+            int count = counts.get(op);
+            if (count == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                samples.put(op, buffer);
+            }
+            buffer[count] = nanos;
+            counts.put(op, count + 1);
+        }
+    }
+}
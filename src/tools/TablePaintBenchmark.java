@@ -0,0 +1,191 @@
+package src.tools;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableModel;
+
+import src.model.Transaction;
+import src.view.NumericCellRenderer;
+import src.view.TransactionTableModel;
+
+/**
+ * Measures how long the transaction table takes to paint a window of rows, and how many bytes
+ * each paint allocates, for the cached {@link TransactionTableModel} next to a model that formats
+ * every cell on every call, as the table used to. Paints into an offscreen image, so it runs
+ * headless and needs no database.
+ *
+ * Usage: java src.tools.TablePaintBenchmark [--rows 100000] [--visible 50,200,1000] [--seconds 2]
+ *
+ * Each paint scrolls the window one page further, wrapping around, so after the first pass the
+ * cached model serves every cell from memory.
+ */
+public class TablePaintBenchmark {
+    private static final int ROW_HEIGHT = 16;
+
+    private int rowCount = 100_000;
+    private int[] visibleCounts = {50, 200, 1000};
+    private int seconds = 2;
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        TablePaintBenchmark benchmark = new TablePaintBenchmark();
+        benchmark.parseArgs(args);
+        benchmark.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rows": rowCount = Integer.parseInt(args[++i]); break;
+                case "--visible":
+                    String[] parts = args[++i].split(",");
+                    visibleCounts = new int[parts.length];
+                    for (int p = 0; p < parts.length; p++) {
+                        visibleCounts[p] = Integer.parseInt(parts[p].trim());
+                    }
+                    break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+    }
+
+    private void run() {
+        List<Transaction> transactions = transactions(rowCount);
+        System.out.printf("%8s %14s %14s %18s %18s%n", "visible", "uncached ms", "cached ms",
+                "uncached B/paint", "cached B/paint");
+        for (int visible : visibleCounts) {
+            TransactionTableModel cached = new TransactionTableModel();
+            cached.setTransactions(transactions);
+            JTable cachedTable = table(cached, visible);
+            cachedTable.getColumnModel().getColumn(TransactionTableModel.ID_COLUMN).setCellRenderer(new NumericCellRenderer());
+            cachedTable.getColumnModel().getColumn(TransactionTableModel.AMOUNT_COLUMN).setCellRenderer(new NumericCellRenderer());
+            JTable uncachedTable = table(new FormattingModel(transactions), visible);
+
+            double[] uncached = measure(uncachedTable, visible);
+            double[] withCache = measure(cachedTable, visible);
+            System.out.printf("%8d %14.3f %14.3f %18.0f %18.0f%n", visible, uncached[0], withCache[0],
+                    uncached[1], withCache[1]);
+        }
+    }
+
+    private JTable table(TableModel model, int visibleRows) {
+        JTable table = new JTable(model);
+        table.setRowHeight(ROW_HEIGHT);
+        table.setSize(900, model.getRowCount() * ROW_HEIGHT);
+        table.doLayout();
+        return table;
+    }
+
+    /** @return average milliseconds per paint and bytes allocated per paint */
+    private double[] measure(JTable table, int visibleRows) {
+        BufferedImage image = new BufferedImage(900, visibleRows * ROW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        int pages = Math.max(1, table.getRowCount() / visibleRows);
+        long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+        int page = 0;
+        while (System.nanoTime() < warmupEnd) {
+            paint(table, image, page++ % pages, visibleRows);
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long paints = 0;
+        long now;
+        do {
+            paint(table, image, page++ % pages, visibleRows);
+            paints++;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new double[]{(now - start) / 1_000_000.0 / paints, (double) allocated / paints};
+    }
+
+    private static void paint(JTable table, BufferedImage image, int page, int visibleRows) {
+        Graphics2D g = image.createGraphics();
+        try {
+            int top = page * visibleRows * ROW_HEIGHT;
+            g.translate(0, -top);
+            // JTable paints only the rows inside the clip, as it does inside a scroll pane
+            g.setClip(new Rectangle(0, top, table.getWidth(), visibleRows * ROW_HEIGHT));
+            table.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static List<Transaction> transactions(int count) {
+        Random random = new Random(42);
+        String[] words = {"Groceries", "Coffee", "Salary", "Rent", "Fuel", "Pharmacy", "Transfer", "Dinner"};
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        List<Transaction> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextInt(50_000_000), 2);
+            list.add(new Transaction(i + 1, words[random.nextInt(words.length)] + " #" + i, amount,
+                    base.plusDays(random.nextInt(700)), random.nextBoolean() ? "INCOME" : "EXPENSE",
+                    1, 1, "Category " + random.nextInt(20), "Account " + random.nextInt(5)));
+        }
+        return list;
+    }
+
+    /** The table model as it was before display strings were cached: everything formatted per call. */
+    private static final class FormattingModel extends AbstractTableModel {
+        private final String[] columnNames = {"ID", "Date", "Description", "Amount", "Type", "Category", "Account"};
+        private final DecimalFormat currencyFormatter = new DecimalFormat("###,##0.00");
+        private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        private final List<Transaction> transactions;
+
+        FormattingModel(List<Transaction> transactions) {
+            this.transactions = transactions;
+        }
+
+        @Override
+        public int getRowCount() {
+            return transactions.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int columnIndex) {
+            return columnNames[columnIndex];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            return columnIndex == 0 ? Integer.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            Transaction t = transactions.get(rowIndex);
+            switch (columnIndex) {
+                case 0: return t.getId();
+                case 1: return t.getDate().format(dateFormatter);
+                case 2: return t.getDescription();
+                case 3: return currencyFormatter.format(t.getAmount());
+                case 4: return t.getType();
+                case 5: return t.getCategoryName();
+                case 6: return t.getAccountName();
+                default: return null;
+            }
+        }
+    }
+}
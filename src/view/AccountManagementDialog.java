@@ -7,6 +7,7 @@ import java.awt.GridLayout;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Locale;
 
 import javax.swing.JButton;
 import javax.swing.JDialog;
@@ -20,6 +21,7 @@ import javax.swing.ListSelectionModel;
 
 import src.controller.AccountController;
 import src.controller.TransactionController;
+import src.fx.FxRates;
 import src.model.Account;
 
 public class AccountManagementDialog extends JDialog {
@@ -73,11 +75,14 @@ public class AccountManagementDialog extends JDialog {
     private void addAccount() {
         JTextField nameField = new JTextField();
         JTextField balanceField = new JTextField("0.00");
+        JTextField currencyField = new JTextField(FxRates.getDefault().getBaseCurrency());
         JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
         panel.add(new JLabel("Account Name:"));
         panel.add(nameField);
         panel.add(new JLabel("Initial Balance:"));
         panel.add(balanceField);
+        panel.add(new JLabel("Currency (e.g. IDR, USD):"));
+        panel.add(currencyField);
 
         int result = JOptionPane.showConfirmDialog(this, panel, "Add New Account", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
         if (result == JOptionPane.OK_OPTION) {
@@ -88,10 +93,17 @@ public class AccountManagementDialog extends JDialog {
             }
             try {
                 BigDecimal balance = new BigDecimal(balanceField.getText().trim().replace(",", "."));
-                accountController.addAccount(new Account(name, balance));
+                String currency = currencyField.getText().trim().toUpperCase(Locale.ROOT);
+                if (!currency.matches("[A-Z]{3}")) {
+                    JOptionPane.showMessageDialog(this, "Currency must be a three-letter code such as USD.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                accountController.addAccount(new Account(name, balance, currency));
                 loadAccounts();
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Invalid balance format.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
             } catch (SQLException ex) {
                 JOptionPane.showMessageDialog(this, "Error adding account: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             }
@@ -9,7 +9,7 @@ import javax.swing.table.AbstractTableModel;
 import src.model.Account;
 
 public class AccountTableModel extends AbstractTableModel {
-    private final String[] columnNames = {"ID", "Name", "Balance"};
+    private final String[] columnNames = {"ID", "Name", "Currency", "Balance"};
     private List<Account> accounts;
     private final DecimalFormat currencyFormatter = new DecimalFormat("###,##0.00");
 
@@ -50,6 +50,8 @@ public class AccountTableModel extends AbstractTableModel {
             case 1:
                 return account.getName();
             case 2:
+                return account.getCurrency();
+            case 3:
                 return currencyFormatter.format(account.getBalance());
             default:
                 return null;
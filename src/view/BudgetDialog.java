@@ -0,0 +1,177 @@
+package src.view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.GridLayout;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+
+import src.controller.BudgetController;
+import src.controller.CategoryController;
+import src.model.Budget;
+import src.model.Category;
+
+public class BudgetDialog extends JDialog {
+    private BudgetController budgetController;
+    private CategoryController categoryController;
+    private JTable budgetTable;
+    private BudgetTableModel budgetTableModel;
+
+    private static class CategoryItem {
+        private final int id;
+        private final String name;
+        public CategoryItem(int id, String name) { this.id = id; this.name = name; }
+        public int getId() { return id; }
+        @Override public String toString() { return name; }
+    }
+
+    public BudgetDialog(Frame owner, BudgetController budgetCtrl, CategoryController catCtrl) {
+        super(owner, "Budgets", true);
+        this.budgetController = budgetCtrl;
+        this.categoryController = catCtrl;
+        initComponents();
+        loadBudgets();
+        setSize(550, 350);
+        setLocationRelativeTo(owner);
+    }
+
+    private void initComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        budgetTableModel = new BudgetTableModel();
+        budgetTable = new JTable(budgetTableModel);
+        budgetTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        add(new JScrollPane(budgetTable), BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton addButton = new JButton("Add");
+        JButton editButton = new JButton("Change Amount");
+        JButton deleteButton = new JButton("Delete");
+        JButton closeButton = new JButton("Close");
+
+        buttonPanel.add(addButton);
+        buttonPanel.add(editButton);
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        addButton.addActionListener(e -> addBudget());
+        editButton.addActionListener(e -> changeAmount());
+        deleteButton.addActionListener(e -> deleteBudget());
+        closeButton.addActionListener(e -> setVisible(false));
+    }
+
+    private void loadBudgets() {
+        try {
+            budgetTableModel.setBudgets(budgetController.getBudgets());
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error loading budgets: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void addBudget() {
+        JComboBox<CategoryItem> categoryComboBox = new JComboBox<>();
+        try {
+            for (Category c : categoryController.getCategories()) {
+                if ("EXPENSE_CATEGORY".equals(c.getType())) {
+                    categoryComboBox.addItem(new CategoryItem(c.getId(), c.getName()));
+                }
+            }
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error loading categories: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (categoryComboBox.getItemCount() == 0) {
+            JOptionPane.showMessageDialog(this, "Please create an expense category first.", "No Categories", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JComboBox<String> periodComboBox = new JComboBox<>(new String[]{Budget.MONTHLY, Budget.YEARLY});
+        JTextField amountField = new JTextField();
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Category:"));
+        panel.add(categoryComboBox);
+        panel.add(new JLabel("Period:"));
+        panel.add(periodComboBox);
+        panel.add(new JLabel("Amount:"));
+        panel.add(amountField);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Add Budget", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        try {
+            CategoryItem category = (CategoryItem) categoryComboBox.getSelectedItem();
+            BigDecimal amount = new BigDecimal(amountField.getText().trim());
+            budgetController.addBudget(new Budget(category.getId(), (String) periodComboBox.getSelectedItem(), amount));
+            loadBudgets();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Amount must be a number.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (SQLException ex) {
+            String message = ex.getSQLState() != null && ex.getSQLState().startsWith("23")
+                    ? "This category already has a budget for that period."
+                    : "Error adding budget: " + ex.getMessage();
+            JOptionPane.showMessageDialog(this, message, "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void changeAmount() {
+        int selectedRow = budgetTable.getSelectedRow();
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a budget to change.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        Budget budget = budgetTableModel.getBudgetAt(selectedRow);
+        String input = (String) JOptionPane.showInputDialog(this, "New amount for " + budget.getCategoryName() + ":",
+                "Change Amount", JOptionPane.PLAIN_MESSAGE, null, null, budget.getAmount().toPlainString());
+        if (input == null) {
+            return;
+        }
+        try {
+            budget.setAmount(new BigDecimal(input.trim()));
+            budgetController.updateBudget(budget);
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Amount must be a number.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error updating budget: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+        loadBudgets();
+    }
+
+    private void deleteBudget() {
+        int selectedRow = budgetTable.getSelectedRow();
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a budget to delete.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        Budget budget = budgetTableModel.getBudgetAt(selectedRow);
+        int confirmation = JOptionPane.showConfirmDialog(this,
+                "Are you sure you want to delete the budget for '" + budget.getCategoryName() + "'?",
+                "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        if (confirmation != JOptionPane.YES_OPTION) {
+            return;
+        }
+        try {
+            budgetController.deleteBudget(budget.getId());
+            loadBudgets();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error deleting budget: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package src.view;
+
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import src.model.Budget;
+
+public class BudgetTableModel extends AbstractTableModel {
+    private final DecimalFormat currencyFormatter = new DecimalFormat("###,##0.00");
+    private final String[] columnNames = {"ID", "Category", "Period", "Amount"};
+    private List<Budget> budgets;
+
+    public BudgetTableModel() {
+        this.budgets = new ArrayList<>();
+    }
+
+    public void setBudgets(List<Budget> budgets) {
+        this.budgets = budgets;
+        fireTableDataChanged();
+    }
+
+    public Budget getBudgetAt(int rowIndex) {
+        return budgets.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return budgets.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return columnNames[columnIndex];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Budget budget = budgets.get(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return budget.getId();
+            case 1:
+                return budget.getCategoryName();
+            case 2:
+                return Budget.YEARLY.equals(budget.getPeriod()) ? "Yearly" : "Monthly";
+            case 3:
+                return currencyFormatter.format(budget.getAmount());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package src.view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.GridLayout;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+
+import src.controller.CategoryController;
+import src.controller.CategoryRuleController;
+import src.model.Category;
+import src.model.CategoryRule;
+
+public class CategoryRuleDialog extends JDialog {
+    private CategoryRuleController ruleController;
+    private CategoryController categoryController;
+    private JTable ruleTable;
+    private CategoryRuleTableModel ruleTableModel;
+
+    private static class CategoryItem {
+        private final int id;
+        private final String name;
+        public CategoryItem(int id, String name) { this.id = id; this.name = name; }
+        public int getId() { return id; }
+        @Override public String toString() { return name; }
+    }
+
+    public CategoryRuleDialog(Frame owner, CategoryRuleController ruleCtrl, CategoryController catCtrl) {
+        super(owner, "Categorization Rules", true);
+        this.ruleController = ruleCtrl;
+        this.categoryController = catCtrl;
+        initComponents();
+        loadRules();
+        setSize(700, 400);
+        setLocationRelativeTo(owner);
+    }
+
+    private void initComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        ruleTableModel = new CategoryRuleTableModel();
+        ruleTable = new JTable(ruleTableModel);
+        ruleTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        add(new JScrollPane(ruleTable), BorderLayout.CENTER);
+
+        JLabel hint = new JLabel("<html>New transactions get the category of the highest-priority matching rule. " +
+                "Keywords match whole words, ignoring case.</html>");
+        add(hint, BorderLayout.NORTH);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton addButton = new JButton("Add");
+        JButton deleteButton = new JButton("Delete");
+        JButton testButton = new JButton("Test...");
+        JButton closeButton = new JButton("Close");
+
+        buttonPanel.add(addButton);
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(testButton);
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        addButton.addActionListener(e -> addRule());
+        deleteButton.addActionListener(e -> deleteRule());
+        testButton.addActionListener(e -> testRules());
+        closeButton.addActionListener(e -> setVisible(false));
+    }
+
+    private void loadRules() {
+        try {
+            ruleController.reload();
+            List<CategoryRule> rules = ruleController.getRules();
+            ruleTableModel.setRules(rules);
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error loading rules: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void addRule() {
+        JComboBox<CategoryItem> categoryComboBox = new JComboBox<>();
+        try {
+            for (Category c : categoryController.getCategories()) {
+                String kind = "INCOME_CATEGORY".equals(c.getType()) ? "income" : "expense";
+                categoryComboBox.addItem(new CategoryItem(c.getId(), c.getName() + " (" + kind + ")"));
+            }
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error loading categories: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (categoryComboBox.getItemCount() == 0) {
+            JOptionPane.showMessageDialog(this, "Please create a category first.", "No Categories", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+
+        JTextField patternField = new JTextField();
+        JComboBox<String> matchTypeComboBox = new JComboBox<>(new String[]{CategoryRule.KEYWORD, CategoryRule.REGEX});
+        JTextField minField = new JTextField();
+        JTextField maxField = new JTextField();
+        JTextField priorityField = new JTextField("0");
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(new JLabel("Keyword or pattern:"));
+        panel.add(patternField);
+        panel.add(new JLabel("Match type:"));
+        panel.add(matchTypeComboBox);
+        panel.add(new JLabel("Min amount (optional):"));
+        panel.add(minField);
+        panel.add(new JLabel("Max amount (optional):"));
+        panel.add(maxField);
+        panel.add(new JLabel("Category:"));
+        panel.add(categoryComboBox);
+        panel.add(new JLabel("Priority (higher wins):"));
+        panel.add(priorityField);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Add Rule", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        String pattern = patternField.getText().trim();
+        if (pattern.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Pattern cannot be empty.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            BigDecimal min = minField.getText().isBlank() ? null : new BigDecimal(minField.getText().trim());
+            BigDecimal max = maxField.getText().isBlank() ? null : new BigDecimal(maxField.getText().trim());
+            int priority = Integer.parseInt(priorityField.getText().trim());
+            CategoryItem category = (CategoryItem) categoryComboBox.getSelectedItem();
+            ruleController.addRule(new CategoryRule(pattern, (String) matchTypeComboBox.getSelectedItem(), min, max,
+                    category.getId(), priority));
+            loadRules();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Amounts and priority must be numbers.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (PatternSyntaxException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid regular expression: " + ex.getDescription(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error adding rule: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void deleteRule() {
+        int selectedRow = ruleTable.getSelectedRow();
+        if (selectedRow < 0) {
+            JOptionPane.showMessageDialog(this, "Please select a rule to delete.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        CategoryRule rule = ruleTableModel.getRuleAt(selectedRow);
+        int confirmation = JOptionPane.showConfirmDialog(this,
+                "Are you sure you want to delete the rule '" + rule.getPattern() + "'?",
+                "Confirm Deletion", JOptionPane.YES_NO_OPTION);
+        if (confirmation != JOptionPane.YES_OPTION) {
+            return;
+        }
+        try {
+            ruleController.deleteRule(rule.getId());
+            loadRules();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error deleting rule: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void testRules() {
+        String description = JOptionPane.showInputDialog(this, "Transaction description:", "Test Rules", JOptionPane.PLAIN_MESSAGE);
+        if (description == null) {
+            return;
+        }
+        CategoryRule rule = ruleController.getMatcher().classify(description, null, null);
+        String message = rule == null
+                ? "No rule matches."
+                : "Rule '" + rule.getPattern() + "' matches: category " + rule.getCategoryName() + ".";
+        JOptionPane.showMessageDialog(this, message, "Test Rules", JOptionPane.INFORMATION_MESSAGE);
+    }
+}
@@ -0,0 +1,64 @@
+package src.view;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.table.AbstractTableModel;
+
+import src.model.CategoryRule;
+
+public class CategoryRuleTableModel extends AbstractTableModel {
+    private final String[] columnNames = {"ID", "Pattern", "Match", "Min Amount", "Max Amount", "Category", "Priority"};
+    private List<CategoryRule> rules;
+
+    public CategoryRuleTableModel() {
+        this.rules = new ArrayList<>();
+    }
+
+    public void setRules(List<CategoryRule> rules) {
+        this.rules = rules;
+        fireTableDataChanged();
+    }
+
+    public CategoryRule getRuleAt(int rowIndex) {
+        return rules.get(rowIndex);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rules.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return columnNames[columnIndex];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        CategoryRule rule = rules.get(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return rule.getId();
+            case 1:
+                return rule.getPattern();
+            case 2:
+                return rule.getMatchType();
+            case 3:
+                return rule.getMinAmount() != null ? rule.getMinAmount().toPlainString() : "";
+            case 4:
+                return rule.getMaxAmount() != null ? rule.getMaxAmount().toPlainString() : "";
+            case 5:
+                return rule.getCategoryName();
+            case 6:
+                return rule.getPriority();
+            default:
+                return null;
+        }
+    }
+}
@@ -1,31 +1,45 @@
 package src.view;
 
 import java.awt.BorderLayout;
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JProgressBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextArea;
+import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 
 import src.controller.AccountController;
+import src.controller.BudgetController;
 import src.controller.CategoryController;
+import src.controller.CategoryRuleController;
 import src.controller.TransactionController;
+import src.fx.FxRates;
 import src.model.Account;
+import src.model.Budget;
+import src.model.BudgetStatus;
+import src.model.Category;
 import src.model.Transaction; 
 
 import java.text.DecimalFormat;
@@ -34,12 +48,14 @@ public class DashboardPanel extends JPanel {
     private TransactionController transactionController;
     private AccountController accountController;
     private CategoryController categoryController;
+    private CategoryRuleController categoryRuleController;
+    private BudgetController budgetController;
     private JFrame ownerFrame;
 
     // Transaction components
     private JTable transactionTable;
     private TransactionTableModel transactionTableModel;
-    private JButton addTransactionButton, editTransactionButton, deleteTransactionButton;
+    private JButton addTransactionButton, editTransactionButton, bulkEditButton, deleteTransactionButton;
 
     // Account components
     private JPanel accountsOverviewPanel; 
@@ -51,12 +67,30 @@ public class DashboardPanel extends JPanel {
     private JLabel totalIncomeLabel;
     private JLabel totalExpensesLabel; 
 
-    private final DecimalFormat currencyFormatter = new DecimalFormat("Rp ###,##0.00");
+    // Budget components
+    private JPanel budgetsPanel;
+
+    // totals are shown in the base currency; "Rp" for the default IDR
+    private final DecimalFormat currencyFormatter = new DecimalFormat(
+            (FxRates.DEFAULT_BASE_CURRENCY.equals(FxRates.getDefault().getBaseCurrency()) ? "Rp" : FxRates.getDefault().getBaseCurrency())
+            + " ###,##0.00");
+    private final DecimalFormat amountFormatter = new DecimalFormat("###,##0.00");
+
+    private static class ChoiceItem {
+        private final int id;
+        private final String name;
+        public ChoiceItem(int id, String name) { this.id = id; this.name = name; }
+        public int getId() { return id; }
+        @Override public String toString() { return name; }
+    }
 
-    public DashboardPanel(TransactionController tCtrl, AccountController aCtrl, CategoryController cCtrl, JFrame owner) {
+    public DashboardPanel(TransactionController tCtrl, AccountController aCtrl, CategoryController cCtrl,
+                          CategoryRuleController rCtrl, BudgetController bCtrl, JFrame owner) {
         this.transactionController = tCtrl;
         this.accountController = aCtrl;
         this.categoryController = cCtrl;
+        this.categoryRuleController = rCtrl;
+        this.budgetController = bCtrl;
         this.ownerFrame = owner;
 
         setLayout(new BorderLayout(10, 10)); 
@@ -72,8 +106,11 @@ public class DashboardPanel extends JPanel {
 
         transactionTableModel = new TransactionTableModel();
         transactionTable = new JTable(transactionTableModel);
-        transactionTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        transactionTable.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         transactionTable.setFillsViewportHeight(true); 
+        NumericCellRenderer numericRenderer = new NumericCellRenderer();
+        transactionTable.getColumnModel().getColumn(TransactionTableModel.ID_COLUMN).setCellRenderer(numericRenderer);
+        transactionTable.getColumnModel().getColumn(TransactionTableModel.AMOUNT_COLUMN).setCellRenderer(numericRenderer);
 
         JScrollPane scrollPane = new JScrollPane(transactionTable);
         transactionsSection.add(scrollPane, BorderLayout.CENTER);
@@ -81,14 +118,17 @@ public class DashboardPanel extends JPanel {
         JPanel transactionButtonsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         addTransactionButton = new JButton("Add");
         editTransactionButton = new JButton("Edit");
+        bulkEditButton = new JButton("Bulk Edit...");
         deleteTransactionButton = new JButton("Delete");
         transactionButtonsPanel.add(addTransactionButton);
         transactionButtonsPanel.add(editTransactionButton);
+        transactionButtonsPanel.add(bulkEditButton);
         transactionButtonsPanel.add(deleteTransactionButton);
         transactionsSection.add(transactionButtonsPanel, BorderLayout.SOUTH);
 
         addTransactionButton.addActionListener(e -> addTransaction());
         editTransactionButton.addActionListener(e -> editTransaction());
+        bulkEditButton.addActionListener(e -> bulkEditTransactions());
         deleteTransactionButton.addActionListener(e -> deleteTransaction());
 
         JPanel rightPanel = new JPanel();
@@ -119,6 +159,14 @@ public class DashboardPanel extends JPanel {
         overallSummaryPanel.add(new JLabel("Total Expenses:"));
         overallSummaryPanel.add(totalExpensesLabel);
         rightPanel.add(overallSummaryPanel);
+        rightPanel.add(Box.createRigidArea(new Dimension(0,10)));
+
+        budgetsPanel = new JPanel();
+        budgetsPanel.setLayout(new BoxLayout(budgetsPanel, BoxLayout.Y_AXIS));
+        JPanel budgetsSection = new JPanel(new BorderLayout(5,5));
+        budgetsSection.setBorder(BorderFactory.createTitledBorder("Budgets (This Period)"));
+        budgetsSection.add(new JScrollPane(budgetsPanel), BorderLayout.CENTER);
+        rightPanel.add(budgetsSection);
 
         add(transactionsSection, BorderLayout.CENTER);
         add(rightPanel, BorderLayout.EAST);
@@ -128,6 +176,7 @@ public class DashboardPanel extends JPanel {
         refreshTransactionTable();
         refreshAccountSummary();
         calculateOverallSummary();
+        refreshBudgets();
     }
     
     public void refreshUIData() {
@@ -135,6 +184,35 @@ public class DashboardPanel extends JPanel {
         refreshTransactionTable();
         refreshAccountSummary();
         calculateOverallSummary();
+        refreshBudgets();
+    }
+
+    private void refreshBudgets() {
+        budgetsPanel.removeAll();
+        try {
+            // served from running totals; only a period not seen before costs an aggregate query
+            List<BudgetStatus> statuses = budgetController.getBudgetStatus(LocalDate.now());
+            if (statuses.isEmpty()) {
+                budgetsPanel.add(new JLabel("No budgets. Use Manage -> Budgets..."));
+            }
+            for (BudgetStatus status : statuses) {
+                JProgressBar bar = new JProgressBar(0, 1000);
+                bar.setValue((int) Math.min(1000, Math.round(status.getFractionUsed() * 1000)));
+                bar.setStringPainted(true);
+                bar.setString(currencyFormatter.format(status.getSpent()) + " / " + currencyFormatter.format(status.getBudget().getAmount()));
+                if (status.isOverBudget()) {
+                    bar.setForeground(Color.RED);
+                }
+                JLabel label = new JLabel(status.getBudget().getCategoryName()
+                        + (Budget.YEARLY.equals(status.getBudget().getPeriod()) ? " (year)" : " (month)"));
+                budgetsPanel.add(label);
+                budgetsPanel.add(bar);
+            }
+        } catch (SQLException e) {
+            budgetsPanel.add(new JLabel("Error loading budgets."));
+        }
+        budgetsPanel.revalidate();
+        budgetsPanel.repaint();
     }
 
     private void refreshTransactionTable() {
@@ -152,9 +230,10 @@ public class DashboardPanel extends JPanel {
             List<Account> accounts = accountController.getAccounts();
             StringBuilder sb = new StringBuilder();
             BigDecimal totalSystemBalance = BigDecimal.ZERO;
+            LocalDate today = LocalDate.now();
             for (Account acc : accounts) {
-                sb.append(String.format("%-15.15s: %s\n", acc.getName(), currencyFormatter.format(acc.getBalance())));
-                totalSystemBalance = totalSystemBalance.add(acc.getBalance());
+                sb.append(String.format("%-15.15s: %s %s\n", acc.getName(), acc.getCurrency(), amountFormatter.format(acc.getBalance())));
+                totalSystemBalance = totalSystemBalance.add(FxRates.getDefault().toBase(acc.getBalance(), acc.getCurrency(), today));
             }
             accountSummaryArea.setText(sb.toString());
             totalBalanceLabel.setText(currencyFormatter.format(totalSystemBalance));
@@ -162,6 +241,8 @@ public class DashboardPanel extends JPanel {
             JOptionPane.showMessageDialog(ownerFrame, "Error loading accounts: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
             accountSummaryArea.setText("Error loading accounts.");
             totalBalanceLabel.setText("N/A");
+        } catch (IllegalArgumentException e) {
+            totalBalanceLabel.setText("N/A (" + e.getMessage() + ")");
         }
     }
 
@@ -169,12 +250,20 @@ public class DashboardPanel extends JPanel {
         BigDecimal income = BigDecimal.ZERO;
         BigDecimal expenses = BigDecimal.ZERO;
         if (transactions != null) {
-            for (Transaction t : transactions) {
-                if ("INCOME".equalsIgnoreCase(t.getType())) {
-                    income = income.add(t.getAmount());
-                } else if ("EXPENSE".equalsIgnoreCase(t.getType())) {
-                    expenses = expenses.add(t.getAmount());
+            try {
+                for (Transaction t : transactions) {
+                    // a map lookup and, for foreign accounts, a cached rate lookup per row
+                    BigDecimal amount = transactionController.toBaseCurrency(t);
+                    if ("INCOME".equalsIgnoreCase(t.getType())) {
+                        income = income.add(amount);
+                    } else if ("EXPENSE".equalsIgnoreCase(t.getType())) {
+                        expenses = expenses.add(amount);
+                    }
                 }
+            } catch (SQLException | IllegalArgumentException e) {
+                totalIncomeLabel.setText("N/A");
+                totalExpensesLabel.setText("N/A");
+                return;
             }
         }
         totalIncomeLabel.setText(currencyFormatter.format(income));
@@ -209,7 +298,7 @@ public class DashboardPanel extends JPanel {
         }
 
         // checks passed, open dialog
-        TransactionDialog dialog = new TransactionDialog(ownerFrame, transactionController, accountController, categoryController, null, this::refreshUIData);
+        TransactionDialog dialog = new TransactionDialog(ownerFrame, transactionController, accountController, categoryController, categoryRuleController, null, this::refreshUIData);
         dialog.setVisible(true);
 
     } catch (SQLException e) {
@@ -219,16 +308,114 @@ public class DashboardPanel extends JPanel {
 
     private void editTransaction() {
         int selectedRow = transactionTable.getSelectedRow();
-        if (selectedRow >= 0) {
+        if (transactionTable.getSelectedRowCount() > 1) {
+            JOptionPane.showMessageDialog(ownerFrame, "Select a single transaction to edit, or use Bulk Edit for several.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+        } else if (selectedRow >= 0) {
             Transaction selectedTransaction = transactionTableModel.getTransactionAt(selectedRow);
-            TransactionDialog dialog = new TransactionDialog(ownerFrame, transactionController, accountController, categoryController, selectedTransaction, this::refreshUIData);
+            TransactionDialog dialog = new TransactionDialog(ownerFrame, transactionController, accountController, categoryController, categoryRuleController, selectedTransaction, this::refreshUIData);
             dialog.setVisible(true);
         } else {
             JOptionPane.showMessageDialog(ownerFrame, "Please select a transaction to edit.", "Selection Required", JOptionPane.WARNING_MESSAGE);
         }
     }
 
+    private List<Transaction> getSelectedTransactions() {
+        List<Transaction> selected = new ArrayList<>();
+        for (int row : transactionTable.getSelectedRows()) {
+            selected.add(transactionTableModel.getTransactionAt(row));
+        }
+        return selected;
+    }
+
+    private static List<Integer> idsOf(List<Transaction> transactions) {
+        List<Integer> ids = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            ids.add(t.getId());
+        }
+        return ids;
+    }
+
+    private void bulkEditTransactions() {
+        List<Transaction> selected = getSelectedTransactions();
+        if (selected.isEmpty()) {
+            JOptionPane.showMessageDialog(ownerFrame, "Please select the transactions to change.", "Selection Required", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        // a category only fits one transaction type, so recategorizing needs a selection of one type
+        String type = selected.get(0).getType();
+        for (Transaction t : selected) {
+            if (!t.getType().equalsIgnoreCase(type)) {
+                type = null;
+                break;
+            }
+        }
+
+        JComboBox<ChoiceItem> categoryComboBox = new JComboBox<>();
+        JComboBox<ChoiceItem> accountComboBox = new JComboBox<>();
+        try {
+            if (type != null) {
+                String categoryType = type.equalsIgnoreCase("INCOME") ? "INCOME_CATEGORY" : "EXPENSE_CATEGORY";
+                for (Category c : categoryController.getCategories()) {
+                    if (categoryType.equals(c.getType())) {
+                        categoryComboBox.addItem(new ChoiceItem(c.getId(), c.getName()));
+                    }
+                }
+            }
+            for (Account a : accountController.getAccounts()) {
+                accountComboBox.addItem(new ChoiceItem(a.getId(), a.getName()));
+            }
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(ownerFrame, "Error loading accounts/categories: " + e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        JCheckBox categoryCheckBox = new JCheckBox(type != null ? "Set category:" : "Set category (select one type only)");
+        categoryCheckBox.setEnabled(type != null && categoryComboBox.getItemCount() > 0);
+        JCheckBox accountCheckBox = new JCheckBox("Move to account:");
+        JCheckBox dateCheckBox = new JCheckBox("Set date (YYYY-MM-DD):");
+        JTextField dateField = new JTextField(LocalDate.now().toString());
+        JPanel panel = new JPanel(new GridLayout(0, 2, 5, 5));
+        panel.add(categoryCheckBox);
+        panel.add(categoryComboBox);
+        panel.add(accountCheckBox);
+        panel.add(accountComboBox);
+        panel.add(dateCheckBox);
+        panel.add(dateField);
+
+        int result = JOptionPane.showConfirmDialog(ownerFrame, panel, "Bulk Edit " + selected.size() + " Transaction(s)",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) {
+            return;
+        }
+        Integer categoryId = categoryCheckBox.isSelected() ? ((ChoiceItem) categoryComboBox.getSelectedItem()).getId() : null;
+        Integer accountId = accountCheckBox.isSelected() && accountComboBox.getSelectedItem() != null
+                ? ((ChoiceItem) accountComboBox.getSelectedItem()).getId() : null;
+        LocalDate date = null;
+        if (dateCheckBox.isSelected()) {
+            try {
+                date = LocalDate.parse(dateField.getText().trim());
+            } catch (DateTimeParseException e) {
+                JOptionPane.showMessageDialog(ownerFrame, "Invalid date format. Please use YYYY-MM-DD.", "Validation Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        if (categoryId == null && accountId == null && date == null) {
+            return;
+        }
+        try {
+            int changed = transactionController.updateTransactions(idsOf(selected), categoryId, accountId, date);
+            JOptionPane.showMessageDialog(ownerFrame, changed + " transaction(s) updated.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            refreshUIData();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(ownerFrame, "Error updating transactions: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void deleteTransaction() {
+        if (transactionTable.getSelectedRowCount() > 1) {
+            deleteSelectedTransactions();
+            return;
+        }
         int selectedRow = transactionTable.getSelectedRow();
         if (selectedRow >= 0) {
             Transaction selectedTransaction = transactionTableModel.getTransactionAt(selectedRow);
@@ -238,8 +425,11 @@ public class DashboardPanel extends JPanel {
 
             if (confirmation == JOptionPane.YES_OPTION) {
                 try {
-                    transactionController.deleteTransaction(selectedTransaction.getId());
-                    JOptionPane.showMessageDialog(ownerFrame, "Transaction deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    if (transactionController.deleteTransaction(selectedTransaction.getId())) {
+                        JOptionPane.showMessageDialog(ownerFrame, "Transaction deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(ownerFrame, "The database is unreachable. The deletion was saved locally and will be applied automatically when the connection is back.", "Saved Offline", JOptionPane.WARNING_MESSAGE);
+                    }
                     refreshUIData(); 
                 } catch (SQLException ex) {
                     JOptionPane.showMessageDialog(ownerFrame, "Error deleting transaction: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
@@ -249,4 +439,21 @@ public class DashboardPanel extends JPanel {
             JOptionPane.showMessageDialog(ownerFrame, "Please select a transaction to delete.", "Selection Required", JOptionPane.WARNING_MESSAGE);
         }
     }
-}
\ No newline at end of file
+
+    private void deleteSelectedTransactions() {
+        List<Transaction> selected = getSelectedTransactions();
+        int confirmation = JOptionPane.showConfirmDialog(ownerFrame,
+                "Are you sure you want to delete " + selected.size() + " transactions?",
+                "Confirm Deletion", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+        if (confirmation != JOptionPane.YES_OPTION) {
+            return;
+        }
+        try {
+            int deleted = transactionController.deleteTransactions(idsOf(selected));
+            JOptionPane.showMessageDialog(ownerFrame, deleted + " transaction(s) deleted.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            refreshUIData();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(ownerFrame, "Error deleting transactions: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
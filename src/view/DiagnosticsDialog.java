@@ -0,0 +1,174 @@
+package src.view;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import src.metrics.Metrics;
+import src.metrics.OperationSnapshot;
+
+public class DiagnosticsDialog extends JDialog {
+    private static final int REFRESH_MILLIS = 1000;
+
+    private final Metrics metrics = Metrics.getInstance();
+    private StatsTableModel statsTableModel;
+    private JLabel uptimeLabel;
+    private Timer refreshTimer;
+
+    public DiagnosticsDialog(Frame owner) {
+        super(owner, "Diagnostics", false);
+        initComponents();
+        refresh();
+        setSize(900, 400);
+        setLocationRelativeTo(owner);
+    }
+
+    private void initComponents() {
+        setLayout(new BorderLayout(10, 10));
+
+        statsTableModel = new StatsTableModel();
+        JTable statsTable = new JTable(statsTableModel);
+        statsTable.setAutoCreateRowSorter(true);
+        statsTable.getColumnModel().getColumn(0).setPreferredWidth(300);
+        add(new JScrollPane(statsTable), BorderLayout.CENTER);
+
+        JPanel bottomPanel = new JPanel(new BorderLayout());
+        uptimeLabel = new JLabel();
+        bottomPanel.add(uptimeLabel, BorderLayout.WEST);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton resetButton = new JButton("Reset");
+        JButton dumpButton = new JButton("Dump to File...");
+        JButton closeButton = new JButton("Close");
+        buttonPanel.add(resetButton);
+        buttonPanel.add(dumpButton);
+        buttonPanel.add(closeButton);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
+        add(bottomPanel, BorderLayout.SOUTH);
+
+        resetButton.addActionListener(e -> {
+            metrics.reset();
+            refresh();
+        });
+        dumpButton.addActionListener(e -> dumpToFile());
+        closeButton.addActionListener(e -> setVisible(false));
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        if (visible) {
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+        super.setVisible(visible);
+    }
+
+    private void refresh() {
+        statsTableModel.update(metrics.getOperations());
+        uptimeLabel.setText("  Collecting for " + metrics.getUptimeSeconds() + "s");
+    }
+
+    private void dumpToFile() {
+        JFileChooser chooser = new JFileChooser();
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            Files.writeString(chooser.getSelectedFile().toPath(), metrics.dump() + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "Error writing stats: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private static class StatsTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                "Operation", "Calls", "Ops/s", "Rows", "Mean ms", "p50 ms", "p95 ms", "p99 ms", "Max ms"
+        };
+        private List<OperationSnapshot> snapshots = new ArrayList<>();
+        private final Map<String, Long> previousCounts = new HashMap<>();
+        private final Map<String, Double> throughput = new HashMap<>();
+        private long previousNanos = System.nanoTime();
+
+        void update(List<OperationSnapshot> latest) {
+            long now = System.nanoTime();
+            double seconds = Math.max((now - previousNanos) / 1_000_000_000.0, 0.001);
+            for (OperationSnapshot s : latest) {
+                long previous = previousCounts.getOrDefault(s.getName(), 0L);
+                throughput.put(s.getName(), Math.max(s.getCount() - previous, 0) / seconds);
+                previousCounts.put(s.getName(), s.getCount());
+            }
+            previousNanos = now;
+            snapshots = latest;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return snapshots.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public String getColumnName(int columnIndex) {
+            return columnNames[columnIndex];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columnIndex) {
+            switch (columnIndex) {
+                case 0: return String.class;
+                case 1:
+                case 3: return Long.class;
+                default: return Double.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            OperationSnapshot s = snapshots.get(rowIndex);
+            switch (columnIndex) {
+                case 0: return s.getName();
+                case 1: return s.getCount();
+                case 2: return round(throughput.getOrDefault(s.getName(), 0.0));
+                case 3: return s.getRows();
+                case 4: return round(s.getMeanMillis());
+                case 5: return round(s.getP50Millis());
+                case 6: return round(s.getP95Millis());
+                case 7: return round(s.getP99Millis());
+                case 8: return round(s.getMaxMillis());
+                default: return null;
+            }
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -1,26 +1,50 @@
 package src.view;
 
 import java.awt.BorderLayout;
+import java.awt.Toolkit;
+import java.awt.event.KeyEvent;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JFrame;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
+import javax.swing.KeyStroke;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 
 import src.controller.AccountController;
+import src.controller.BudgetController;
 import src.controller.CategoryController;
+import src.controller.CategoryRuleController;
+import src.controller.ChangelogController;
 import src.controller.TransactionController;
 
 public class MainFrame extends JFrame {
     private DashboardPanel dashboardPanel;
     private AccountController accountController;
     private CategoryController categoryController;
+    private CategoryRuleController categoryRuleController;
     private TransactionController transactionController;
+    private BudgetController budgetController;
+    private ChangelogController changelogController;
+    private DiagnosticsDialog diagnosticsDialog;
+    private boolean replayRunning;
+
+    private static final int JOURNAL_REPLAY_INTERVAL_MILLIS = 30_000;
 
     public MainFrame() {
         this.accountController = new AccountController();
         this.categoryController = new CategoryController();
+        this.categoryRuleController = new CategoryRuleController();
         this.transactionController = new TransactionController();
+        this.budgetController = new BudgetController(transactionController);
+        this.changelogController = new ChangelogController(transactionController);
 
         setTitle("KYS Financial Tracker");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -29,10 +53,40 @@ public class MainFrame extends JFrame {
         setLocationRelativeTo(null);
 
         initComponents();
+
+        Timer replayTimer = new Timer(JOURNAL_REPLAY_INTERVAL_MILLIS, e -> replayOfflineChanges());
+        replayTimer.setInitialDelay(0);
+        replayTimer.start();
+    }
+
+    private void replayOfflineChanges() {
+        if (replayRunning || !transactionController.hasPendingOfflineChanges()) {
+            return;
+        }
+        replayRunning = true;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                return transactionController.replayJournal();
+            }
+
+            @Override
+            protected void done() {
+                replayRunning = false;
+                try {
+                    if (get() > 0) {
+                        dashboardPanel.refreshUIData();
+                    }
+                } catch (InterruptedException | ExecutionException ex) {
+                    // still offline; try again on the next tick
+                }
+            }
+        }.execute();
     }
 
     private void initComponents() {
-        dashboardPanel = new DashboardPanel(transactionController, accountController, categoryController, this);
+        dashboardPanel = new DashboardPanel(transactionController, accountController, categoryController, categoryRuleController,
+                budgetController, this);
         add(dashboardPanel, BorderLayout.CENTER);
 
         JMenuBar menuBar = new JMenuBar();
@@ -42,6 +96,36 @@ public class MainFrame extends JFrame {
         fileMenu.add(exitItem);
         menuBar.add(fileMenu);
 
+        JMenu editMenu = new JMenu("Edit");
+        int shortcut = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        JMenuItem undoItem = new JMenuItem("Undo");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Z, shortcut));
+        undoItem.addActionListener(e -> undoOrRedo(true));
+        editMenu.add(undoItem);
+        JMenuItem redoItem = new JMenuItem("Redo");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Y, shortcut));
+        redoItem.addActionListener(e -> undoOrRedo(false));
+        editMenu.add(redoItem);
+        // labels are refreshed when the menu opens; the items stay enabled so their shortcuts always work
+        editMenu.addMenuListener(new MenuListener() {
+            @Override
+            public void menuSelected(MenuEvent e) {
+                String undoLabel = changelogController.getUndoLabel();
+                String redoLabel = changelogController.getRedoLabel();
+                undoItem.setText(undoLabel == null ? "Undo" : "Undo: " + undoLabel);
+                redoItem.setText(redoLabel == null ? "Redo" : "Redo: " + redoLabel);
+            }
+
+            @Override
+            public void menuDeselected(MenuEvent e) {
+            }
+
+            @Override
+            public void menuCanceled(MenuEvent e) {
+            }
+        });
+        menuBar.add(editMenu);
+
         JMenu manageMenu = new JMenu("Manage");
         JMenuItem manageCategoriesItem = new JMenuItem("Categories...");
         manageCategoriesItem.addActionListener(e -> openCategoryManagement());
@@ -51,10 +135,45 @@ public class MainFrame extends JFrame {
         manageAccountsItem.addActionListener(e -> openAccountManagement());
         manageMenu.add(manageAccountsItem);
 
+        JMenuItem manageRulesItem = new JMenuItem("Categorization Rules...");
+        manageRulesItem.addActionListener(e -> openRuleManagement());
+        manageMenu.add(manageRulesItem);
+
+        JMenuItem manageBudgetsItem = new JMenuItem("Budgets...");
+        manageBudgetsItem.addActionListener(e -> openBudgetManagement());
+        manageMenu.add(manageBudgetsItem);
+
+        manageMenu.addSeparator();
+        JMenuItem archiveItem = new JMenuItem("Archive Closed Years...");
+        archiveItem.addActionListener(e -> archiveClosedYears());
+        manageMenu.add(archiveItem);
+
         menuBar.add(manageMenu);
+
+        JMenu viewMenu = new JMenu("View");
+        JMenuItem diagnosticsItem = new JMenuItem("Diagnostics...");
+        diagnosticsItem.addActionListener(e -> openDiagnostics());
+        viewMenu.add(diagnosticsItem);
+        menuBar.add(viewMenu);
+
         setJMenuBar(menuBar);
     }
 
+    private void undoOrRedo(boolean undo) {
+        try {
+            boolean done = undo ? changelogController.undo() : changelogController.redo();
+            if (!done) {
+                JOptionPane.showMessageDialog(this, undo ? "Nothing to undo." : "Nothing to redo.",
+                        undo ? "Undo" : "Redo", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            dashboardPanel.refreshUIData();
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, (undo ? "Could not undo: " : "Could not redo: ") + ex.getMessage(),
+                    "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void openCategoryManagement() {
         CategoryManagementDialog categoryDialog = new CategoryManagementDialog(this, categoryController,
                 transactionController);
@@ -62,6 +181,49 @@ public class MainFrame extends JFrame {
         dashboardPanel.refreshUIData();
     }
 
+    private void openRuleManagement() {
+        CategoryRuleDialog ruleDialog = new CategoryRuleDialog(this, categoryRuleController, categoryController);
+        ruleDialog.setVisible(true);
+    }
+
+    private void openBudgetManagement() {
+        BudgetDialog budgetDialog = new BudgetDialog(this, budgetController, categoryController);
+        budgetDialog.setVisible(true);
+        dashboardPanel.refreshUIData();
+    }
+
+    private void archiveClosedYears() {
+        String lastYear = String.valueOf(LocalDate.now().getYear() - 1);
+        String input = (String) JOptionPane.showInputDialog(this,
+                "Archive all transactions up to and including year:\n" +
+                "Archived years become read-only and are left out of the main transaction list.",
+                "Archive Closed Years", JOptionPane.PLAIN_MESSAGE, null, null, lastYear);
+        if (input == null || input.trim().isEmpty()) {
+            return;
+        }
+        try {
+            int throughYear = Integer.parseInt(input.trim());
+            int moved = transactionController.archiveClosedYears(throughYear);
+            JOptionPane.showMessageDialog(this, moved + " transaction(s) archived through " + throughYear + ".",
+                    "Archive Complete", JOptionPane.INFORMATION_MESSAGE);
+            dashboardPanel.refreshUIData();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Please enter a year, e.g. " + lastYear + ".", "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (SQLException ex) {
+            JOptionPane.showMessageDialog(this, "Error archiving transactions: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void openDiagnostics() {
+        if (diagnosticsDialog == null) {
+            diagnosticsDialog = new DiagnosticsDialog(this);
+        }
+        diagnosticsDialog.setVisible(true);
+        diagnosticsDialog.toFront();
+    }
+
     private void openAccountManagement() {
         AccountManagementDialog accountDialog = new AccountManagementDialog(this, accountController,
                 transactionController);
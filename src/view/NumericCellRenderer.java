@@ -0,0 +1,19 @@
+package src.view;
+
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Right-aligns already formatted numbers. Values are expected to be the model's cached strings,
+ * so painting a cell sets a reference instead of building text.
+ */
+public class NumericCellRenderer extends DefaultTableCellRenderer {
+    public NumericCellRenderer() {
+        setHorizontalAlignment(SwingConstants.RIGHT);
+    }
+
+    @Override
+    protected void setValue(Object value) {
+        setText(value instanceof String ? (String) value : value == null ? "" : value.toString());
+    }
+}
@@ -27,10 +27,13 @@ import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.text.NumberFormatter;
 
 import src.controller.AccountController;
 import src.controller.CategoryController;
+import src.controller.CategoryRuleController;
 import src.controller.TransactionController;
 import src.model.Account;
 import src.model.Category;
@@ -40,6 +43,7 @@ public class TransactionDialog extends JDialog {
     private transient TransactionController transactionController;
     private transient AccountController accountController;
     private transient CategoryController categoryController;
+    private transient CategoryRuleController categoryRuleController;
     private transient Transaction currentTransaction;
     private transient Runnable refreshCallback;
 
@@ -51,6 +55,9 @@ public class TransactionDialog extends JDialog {
     private JComboBox<AccountItem> accountComboBox;
     private JButton saveButton;
     private JButton cancelButton;
+    // once the user picks a category themselves, rule suggestions stop overriding it
+    private boolean categoryChosenByUser;
+    private boolean updatingCategoryComboBox;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
@@ -71,11 +78,12 @@ public class TransactionDialog extends JDialog {
     }
 
     public TransactionDialog(Frame owner, TransactionController tCtrl, AccountController aCtrl, CategoryController cCtrl,
-                             Transaction transactionToEdit, Runnable onSaveCallback) {
+                             CategoryRuleController rCtrl, Transaction transactionToEdit, Runnable onSaveCallback) {
         super(owner, transactionToEdit == null ? "Add Transaction" : "Edit Transaction", true);
         this.transactionController = tCtrl;
         this.accountController = aCtrl;
         this.categoryController = cCtrl;
+        this.categoryRuleController = rCtrl;
         this.currentTransaction = transactionToEdit;
         this.refreshCallback = onSaveCallback;
 
@@ -160,6 +168,41 @@ public class TransactionDialog extends JDialog {
         saveButton.addActionListener(e -> saveTransaction());
         cancelButton.addActionListener(e -> setVisible(false));
         addCategoryButton.addActionListener(e -> addNewCategory());
+
+        categoryComboBox.addActionListener(e -> {
+            if (!updatingCategoryComboBox) {
+                categoryChosenByUser = true;
+            }
+        });
+        descriptionField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applySuggestedCategory(); }
+            @Override public void removeUpdate(DocumentEvent e) { applySuggestedCategory(); }
+            @Override public void changedUpdate(DocumentEvent e) { applySuggestedCategory(); }
+        });
+        amountField.addPropertyChangeListener("value", e -> applySuggestedCategory());
+    }
+
+    /** Selects the category the categorization rules pick for a new transaction, until the user picks one. */
+    private void applySuggestedCategory() {
+        if (currentTransaction != null || categoryChosenByUser || categoryRuleController == null || categoryComboBox == null) {
+            return;
+        }
+        Integer categoryId = categoryRuleController.suggestCategory(descriptionField.getText(),
+                (BigDecimal) amountField.getValue(), (String) typeComboBox.getSelectedItem());
+        if (categoryId == null) {
+            return;
+        }
+        for (int i = 0; i < categoryComboBox.getItemCount(); i++) {
+            if (categoryComboBox.getItemAt(i).getId() == categoryId) {
+                updatingCategoryComboBox = true;
+                try {
+                    categoryComboBox.setSelectedIndex(i);
+                } finally {
+                    updatingCategoryComboBox = false;
+                }
+                break;
+            }
+        }
     }
 
     private void populateComboBoxes() {
@@ -175,7 +218,11 @@ public class TransactionDialog extends JDialog {
             JOptionPane.showMessageDialog(this, "Error loading accounts: " + e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         }
 
-        typeComboBox.addActionListener(e -> refreshCategoryComboBox(null));
+        typeComboBox.addActionListener(e -> {
+            refreshCategoryComboBox(null);
+            categoryChosenByUser = false;
+            applySuggestedCategory();
+        });
     }
 
     private void populateFields() {
@@ -244,8 +291,19 @@ public class TransactionDialog extends JDialog {
         try {
             if (currentTransaction == null) {
                 Transaction newTransaction = new Transaction(description, amount, date, type, selectedCategoryItem.getId(), selectedAccountItem.getId());
-                transactionController.addTransaction(newTransaction);
-                JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                if (looksLikeDuplicate(newTransaction)) {
+                    int choice = JOptionPane.showConfirmDialog(this,
+                            "A transaction with the same account, date, amount and description already exists.\nSave anyway?",
+                            "Possible Duplicate", JOptionPane.YES_NO_OPTION, JOptionPane.WARNING_MESSAGE);
+                    if (choice != JOptionPane.YES_OPTION) {
+                        return;
+                    }
+                }
+                if (transactionController.addTransaction(newTransaction)) {
+                    JOptionPane.showMessageDialog(this, "Transaction added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    showQueuedOfflineMessage();
+                }
             } else {
                 currentTransaction.setDescription(description);
                 currentTransaction.setAmount(amount);
@@ -253,8 +311,11 @@ public class TransactionDialog extends JDialog {
                 currentTransaction.setType(type);
                 currentTransaction.setCategoryId(selectedCategoryItem.getId());
                 currentTransaction.setAccountId(selectedAccountItem.getId());
-                transactionController.updateTransaction(currentTransaction);
-                JOptionPane.showMessageDialog(this, "Transaction updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                if (transactionController.updateTransaction(currentTransaction)) {
+                    JOptionPane.showMessageDialog(this, "Transaction updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    showQueuedOfflineMessage();
+                }
             }
             if (refreshCallback != null) {
                 refreshCallback.run();
@@ -265,6 +326,21 @@ public class TransactionDialog extends JDialog {
         }
     }
 
+    private boolean looksLikeDuplicate(Transaction t) {
+        try {
+            return transactionController.isPossibleDuplicate(t);
+        } catch (SQLException ex) {
+            // the check is advisory; if the database is unreachable the save goes to the offline journal anyway
+            return false;
+        }
+    }
+
+    private void showQueuedOfflineMessage() {
+        JOptionPane.showMessageDialog(this,
+                "The database is unreachable. The change was saved locally and will be applied automatically when the connection is back.",
+                "Saved Offline", JOptionPane.WARNING_MESSAGE);
+    }
+
     private void addNewCategory() {
         String categoryName = JOptionPane.showInputDialog(this, "Enter new category name:", "Add Category", JOptionPane.PLAIN_MESSAGE);
         if (categoryName == null || categoryName.trim().isEmpty()) {
@@ -276,12 +352,14 @@ public class TransactionDialog extends JDialog {
         try {
             categoryController.addCategory(newCategory);
             refreshCategoryComboBox(newCategory.getName());
+            categoryChosenByUser = true;
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error adding category: " + ex.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
     private void refreshCategoryComboBox(String categoryNameToSelect) {
+        updatingCategoryComboBox = true;
         try {
             List<Category> categories = categoryController.getCategories();
             categoryComboBox.removeAllItems();
@@ -306,6 +384,8 @@ public class TransactionDialog extends JDialog {
             }
         } catch (SQLException ex) {
             JOptionPane.showMessageDialog(this, "Error reloading categories: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        } finally {
+            updatingCategoryComboBox = false;
         }
     }
 }
\ No newline at end of file
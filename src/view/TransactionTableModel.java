@@ -11,23 +11,43 @@ import src.model.Transaction;
 
 import java.text.DecimalFormat;
 
+/**
+ * Formatted cell text is computed the first time a row is painted and kept until the rows are
+ * replaced, so scrolling back and forth neither re-runs DecimalFormat nor allocates new strings.
+ */
 public class TransactionTableModel extends AbstractTableModel {
+    // columns whose text is formatted from a non-string value and therefore worth caching
+    public static final int ID_COLUMN = 0;
+    private static final int DATE_COLUMN = 1;
+    public static final int AMOUNT_COLUMN = 3;
+
     private final DecimalFormat currencyFormatter = new DecimalFormat("###,##0.00");
     private final String[] columnNames = {
             "ID", "Date", "Description", "Amount", "Type", "Category", "Account"
     };
     private List<Transaction> transactions;
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private String[] dateText;
+    private String[] amountText;
+    private String[] idText;
 
     public TransactionTableModel() {
         this.transactions = new ArrayList<>();
+        clearDisplayCache();
     }
 
     public void setTransactions(List<Transaction> transactions) {
         this.transactions = new ArrayList<>(transactions);
+        clearDisplayCache();
         fireTableDataChanged(); 
     }
 
+    private void clearDisplayCache() {
+        dateText = new String[transactions.size()];
+        amountText = new String[transactions.size()];
+        idText = new String[transactions.size()];
+    }
+
     public Transaction getTransactionAt(int rowIndex) {
         if (rowIndex >= 0 && rowIndex < transactions.size()) {
             return transactions.get(rowIndex);
@@ -57,7 +77,7 @@ public class TransactionTableModel extends AbstractTableModel {
     @Override
     public Class<?> getColumnClass(int columnIndex) {
         switch (columnIndex) {
-            case 0: return Integer.class; // ID
+            case 0: return String.class;  // ID (cached text, right-aligned by NumericCellRenderer)
             case 1: return String.class;  // Date (formatted)
             case 2: return String.class;  // Description
             case 3: return String.class; // Amount
@@ -72,14 +92,23 @@ public class TransactionTableModel extends AbstractTableModel {
     public Object getValueAt(int rowIndex, int columnIndex) {
         Transaction transaction = transactions.get(rowIndex);
         switch (columnIndex) {
-            case 0:
-                return transaction.getId();
-            case 1:
-                return transaction.getDate() != null ? transaction.getDate().format(dateFormatter) : null;
+            case ID_COLUMN:
+                if (idText[rowIndex] == null) {
+                    idText[rowIndex] = Integer.toString(transaction.getId());
+                }
+                return idText[rowIndex];
+            case DATE_COLUMN:
+                if (dateText[rowIndex] == null && transaction.getDate() != null) {
+                    dateText[rowIndex] = transaction.getDate().format(dateFormatter);
+                }
+                return dateText[rowIndex];
             case 2:
                 return transaction.getDescription();
-            case 3:
-                return currencyFormatter.format(transaction.getAmount());
+            case AMOUNT_COLUMN:
+                if (amountText[rowIndex] == null) {
+                    amountText[rowIndex] = currencyFormatter.format(transaction.getAmount());
+                }
+                return amountText[rowIndex];
             case 4:
                 return transaction.getType();
             case 5: